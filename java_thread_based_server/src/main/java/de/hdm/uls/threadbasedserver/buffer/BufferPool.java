@@ -0,0 +1,454 @@
+package de.hdm.uls.threadbasedserver.buffer;
+
+import de.hdm.uls.threadbasedserver.config.ServerConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class defines a pool of byte buffers for the read paths of the servers. The pool rounds a requested capacity up
+ * to the next power of two (size class). The buffers of a size class are cut out of larger slabs, which are allocated
+ * in direct memory or on the heap. <br/>
+ * Released buffers are kept in a small cache of the releasing thread first, so an event loop which acquires and
+ * releases a buffer for every read takes the same buffer again without any synchronization. Buffers which do not fit
+ * into the thread cache go back to the shared free list of their size class. Requests larger than the largest size
+ * class are served by unpooled buffers. <br/>
+ * If leak detection is enabled, every acquired buffer is tracked with the stack trace of its acquisition. A buffer
+ * which becomes unreachable without being released is reported and returned to the pool.
+ */
+public class BufferPool
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private static final Logger                       log               = LoggerFactory.getLogger(BufferPool.class);
+
+    private static final int                          MIN_SIZE_CLASS    = 1 << 10;
+    private static final int                          MAX_SIZE_CLASS    = 1 << 20;
+    private static final int                          SLAB_SIZE         = 1 << 20;
+    private static final int                          THREAD_CACHE_SIZE = 8;
+
+    private static       BufferPool                   shared            = null;
+
+    private final        boolean                      direct;
+    private final        boolean                      leakDetection;
+    private final        SizeClass[]                  sizeClasses;
+    private final        ThreadLocal<ThreadCache>     threadCaches;
+    private final        ReferenceQueue<PooledBuffer> leakQueue         = new ReferenceQueue<>();
+    private final        Set<LeakTracker>             trackers          = ConcurrentHashMap.newKeySet();
+
+    private final        AtomicLong                   acquisitions      = new AtomicLong();
+    private final        AtomicLong                   hits              = new AtomicLong();
+    private final        AtomicLong                   threadCacheHits   = new AtomicLong();
+    private final        AtomicLong                   allocations       = new AtomicLong();
+    private final        AtomicLong                   allocatedBytes    = new AtomicLong();
+    private final        AtomicLong                   outstanding       = new AtomicLong();
+    private final        AtomicLong                   highWaterMark     = new AtomicLong();
+    private final        AtomicLong                   leaks             = new AtomicLong();
+
+    // ---------------------------------------
+    // CONSTRUCTOR
+    // ---------------------------------------
+
+    /**
+     * @param minSize The capacity of the smallest size class, rounded up to a power of two.
+     * @param maxSize The capacity of the largest size class. Larger requests are served by unpooled buffers.
+     * @param direct TRUE to allocate the slabs in direct memory, FALSE to allocate them on the heap.
+     * @param leakDetection TRUE to track every acquired buffer and report buffers which are never released.
+     */
+    public BufferPool(int minSize, int maxSize, boolean direct, boolean leakDetection)
+    {
+        this.direct = direct;
+        this.leakDetection = leakDetection;
+
+        int smallest = 1;
+        while (smallest < minSize)
+        {
+            smallest <<= 1;
+        }
+
+        int classes = 1;
+        while ((smallest << (classes - 1)) < maxSize)
+        {
+            classes++;
+        }
+
+        this.sizeClasses = new SizeClass[classes];
+        for (int i = 0; i < classes; i++)
+        {
+            this.sizeClasses[i] = new SizeClass(smallest << i, i);
+        }
+
+        this.threadCaches = ThreadLocal.withInitial(() -> new ThreadCache(this.sizeClasses.length));
+    }
+
+    // ---------------------------------------
+    // METHODS
+    // ---------------------------------------
+
+    /**
+     * @return the pool shared by all servers of the process.
+     */
+    public static synchronized BufferPool getShared()
+    {
+        if (BufferPool.shared == null)
+        {
+            BufferPool.shared = BufferPool.create();
+        }
+
+        return BufferPool.shared;
+    }
+
+    /**
+     * @return a new pool with the size classes and settings of the shared pool, e.g. for a single event loop.
+     */
+    public static BufferPool create()
+    {
+        return new BufferPool(MIN_SIZE_CLASS, MAX_SIZE_CLASS, ServerConfig.BUFFER_POOL_DIRECT,
+                ServerConfig.BUFFER_LEAK_DETECTION);
+    }
+
+    /**
+     * This method hands out a cleared buffer with at least the requested capacity. The buffer must be released after
+     * use.
+     *
+     * @param capacity The minimum capacity of the buffer.
+     * @return A pooled buffer.
+     */
+    public PooledBuffer acquire(int capacity)
+    {
+        if (this.leakDetection)
+        {
+            this.detectLeaks();
+        }
+
+        this.acquisitions.incrementAndGet();
+        SizeClass sizeClass = this.sizeClassOf(capacity);
+        PooledBuffer pooled;
+
+        if (sizeClass == null)
+        {
+            pooled = new PooledBuffer(this, null, this.allocate(capacity));
+            this.allocations.incrementAndGet();
+        }
+        else if ((pooled = this.threadCaches.get().pop(sizeClass.index)) != null)
+        {
+            this.threadCacheHits.incrementAndGet();
+            this.hits.incrementAndGet();
+        }
+        else if ((pooled = sizeClass.poll()) != null)
+        {
+            this.hits.incrementAndGet();
+        }
+        else
+        {
+            pooled = sizeClass.allocateSlab();
+        }
+
+        pooled.getBuffer().clear();
+        pooled.setReleased(false);
+
+        long current = this.outstanding.incrementAndGet();
+        long mark;
+        while (current > (mark = this.highWaterMark.get()) && !this.highWaterMark.compareAndSet(mark, current))
+        {
+            // retry until the high-water mark is at least the current number of outstanding buffers
+        }
+
+        if (this.leakDetection)
+        {
+            LeakTracker tracker = new LeakTracker(pooled, this.leakQueue);
+            this.trackers.add(tracker);
+            pooled.setTracker(tracker);
+        }
+
+        return pooled;
+    }
+
+    /**
+     * This method reports all buffers which became unreachable without being released and returns their memory to the
+     * pool. The pool calls this method on every acquisition if leak detection is enabled.
+     *
+     * @return the number of leaks detected by this call.
+     */
+    public int detectLeaks()
+    {
+        int detected = 0;
+        Reference<? extends PooledBuffer> reference;
+
+        while ((reference = this.leakQueue.poll()) != null)
+        {
+            LeakTracker tracker = (LeakTracker) reference;
+            if (this.trackers.remove(tracker))
+            {
+                detected++;
+                this.leaks.incrementAndGet();
+                this.outstanding.decrementAndGet();
+                log.error("A buffer of " + tracker.buffer.capacity() + " bytes was never released! Acquired at:",
+                        tracker.acquisition);
+
+                if (tracker.sizeClass != null)
+                {
+                    tracker.sizeClass.offer(new PooledBuffer(this, tracker.sizeClass, tracker.buffer));
+                }
+            }
+        }
+
+        return detected;
+    }
+
+    /**
+     * @return the number of acquired buffers.
+     */
+    public long getAcquisitions()
+    {
+        return this.acquisitions.get();
+    }
+
+    /**
+     * @return the number of acquisitions served by a recycled buffer.
+     */
+    public long getHits()
+    {
+        return this.hits.get();
+    }
+
+    /**
+     * @return the number of acquisitions served by the cache of the acquiring thread.
+     */
+    public long getThreadCacheHits()
+    {
+        return this.threadCacheHits.get();
+    }
+
+    /**
+     * @return the number of buffers created by the pool, including unpooled buffers.
+     */
+    public long getAllocations()
+    {
+        return this.allocations.get();
+    }
+
+    /**
+     * @return the number of bytes allocated by the pool, including unpooled buffers.
+     */
+    public long getAllocatedBytes()
+    {
+        return this.allocatedBytes.get();
+    }
+
+    /**
+     * @return the number of buffers which are acquired and not released yet.
+     */
+    public long getOutstanding()
+    {
+        return this.outstanding.get();
+    }
+
+    /**
+     * @return the maximum number of buffers which were acquired at the same time.
+     */
+    public long getHighWaterMark()
+    {
+        return this.highWaterMark.get();
+    }
+
+    /**
+     * @return the number of buffers which were never released.
+     */
+    public long getLeaks()
+    {
+        return this.leaks.get();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "buffer pool - acquisitions: " + this.getAcquisitions() + " - hits: " + this.getHits()
+                + " (thread cache: " + this.getThreadCacheHits() + ") - allocations: " + this.getAllocations()
+                + " (" + this.getAllocatedBytes() + " bytes) - outstanding: " + this.getOutstanding()
+                + " - high-water mark: " + this.getHighWaterMark() + " - leaks: " + this.getLeaks();
+    }
+
+    /**
+     * This method takes a released buffer back into the pool.
+     *
+     * @param pooled The released buffer.
+     */
+    void release(PooledBuffer pooled)
+    {
+        pooled.setReleased(true);
+        this.outstanding.decrementAndGet();
+
+        LeakTracker tracker = pooled.getTracker();
+        if (tracker != null)
+        {
+            this.trackers.remove(tracker);
+            tracker.clear();
+            pooled.setTracker(null);
+        }
+
+        SizeClass sizeClass = pooled.getSizeClass();
+        if (sizeClass != null && !this.threadCaches.get().push(sizeClass.index, pooled))
+        {
+            sizeClass.offer(pooled);
+        }
+    }
+
+    /**
+     * @param capacity The requested capacity.
+     * @return the smallest size class which holds the requested capacity, or NULL if the capacity is too large.
+     */
+    private SizeClass sizeClassOf(int capacity)
+    {
+        for (SizeClass sizeClass : this.sizeClasses)
+        {
+            if (capacity <= sizeClass.size)
+            {
+                return sizeClass;
+            }
+        }
+
+        return null;
+    }
+
+    private ByteBuffer allocate(int capacity)
+    {
+        this.allocatedBytes.addAndGet(capacity);
+
+        return this.direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+
+    // ---------------------------------------
+    // INNER CLASSES
+    // ---------------------------------------
+
+    /**
+     * This class holds the free buffers of one size class, shared by all threads.
+     */
+    final class SizeClass
+    {
+        private final int                      size;
+        private final int                      index;
+        private final ArrayDeque<PooledBuffer> free = new ArrayDeque<>();
+
+        private SizeClass(int size, int index)
+        {
+            this.size = size;
+            this.index = index;
+        }
+
+        private synchronized PooledBuffer poll()
+        {
+            return this.free.pollFirst();
+        }
+
+        private synchronized void offer(PooledBuffer pooled)
+        {
+            this.free.addFirst(pooled);
+        }
+
+        /**
+         * This method allocates a new slab, cuts it into buffers of this size class and keeps all buffers except the
+         * returned one in the free list.
+         *
+         * @return a new buffer of this size class.
+         */
+        private PooledBuffer allocateSlab()
+        {
+            int count = Math.max(1, SLAB_SIZE / this.size);
+            ByteBuffer slab = BufferPool.this.allocate(count * this.size);
+            BufferPool.this.allocations.addAndGet(count);
+
+            PooledBuffer first = null;
+            for (int i = 0; i < count; i++)
+            {
+                slab.clear();
+                slab.position(i * this.size);
+                slab.limit(i * this.size + this.size);
+
+                PooledBuffer pooled = new PooledBuffer(BufferPool.this, this, slab.slice());
+                if (first == null)
+                {
+                    first = pooled;
+                }
+                else
+                {
+                    this.offer(pooled);
+                }
+            }
+
+            return first;
+        }
+    }
+
+    /**
+     * This class holds the buffers a thread released recently, so the thread can take them again without any
+     * synchronization.
+     */
+    private static final class ThreadCache
+    {
+        private final PooledBuffer[][] stacks;
+        private final int[]            counts;
+
+        private ThreadCache(int sizeClasses)
+        {
+            this.stacks = new PooledBuffer[sizeClasses][THREAD_CACHE_SIZE];
+            this.counts = new int[sizeClasses];
+        }
+
+        private PooledBuffer pop(int sizeClass)
+        {
+            if (this.counts[sizeClass] == 0)
+            {
+                return null;
+            }
+
+            int top = --this.counts[sizeClass];
+            PooledBuffer pooled = this.stacks[sizeClass][top];
+            this.stacks[sizeClass][top] = null;
+
+            return pooled;
+        }
+
+        private boolean push(int sizeClass, PooledBuffer pooled)
+        {
+            if (this.counts[sizeClass] == THREAD_CACHE_SIZE)
+            {
+                return false;
+            }
+
+            this.stacks[sizeClass][this.counts[sizeClass]++] = pooled;
+
+            return true;
+        }
+    }
+
+    /**
+     * This class tracks an acquired buffer. The reference is enqueued by the garbage collector if the buffer becomes
+     * unreachable. It keeps the memory of the buffer, so a leaked buffer can be returned to the pool.
+     */
+    static final class LeakTracker extends PhantomReference<PooledBuffer>
+    {
+        private final SizeClass  sizeClass;
+        private final ByteBuffer buffer;
+        private final Throwable  acquisition;
+
+        private LeakTracker(PooledBuffer pooled, ReferenceQueue<PooledBuffer> queue)
+        {
+            super(pooled, queue);
+            this.sizeClass = pooled.getSizeClass();
+            this.buffer = pooled.getBuffer();
+            this.acquisition = new Throwable("buffer acquisition");
+        }
+    }
+}
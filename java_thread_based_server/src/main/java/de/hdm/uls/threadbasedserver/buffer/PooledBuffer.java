@@ -0,0 +1,103 @@
+package de.hdm.uls.threadbasedserver.buffer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This class defines a buffer handed out by a {@link BufferPool}. The handle belongs to its buffer for the whole life
+ * of the pool, so recycling a buffer creates no garbage. A buffer must be released exactly once after use; the buffer
+ * must not be used anymore after it was released.
+ */
+public class PooledBuffer
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private final BufferPool             pool;
+    private final BufferPool.SizeClass   sizeClass;
+    private final ByteBuffer             buffer;
+
+    private       boolean                released  = true;
+    private       BufferPool.LeakTracker tracker   = null;
+
+    // ---------------------------------------
+    // CONSTRUCTOR
+    // ---------------------------------------
+
+    PooledBuffer(BufferPool pool, BufferPool.SizeClass sizeClass, ByteBuffer buffer)
+    {
+        this.pool = pool;
+        this.sizeClass = sizeClass;
+        this.buffer = buffer;
+    }
+
+    // ---------------------------------------
+    // METHODS
+    // ---------------------------------------
+
+    /**
+     * @return the buffer, cleared when it was acquired.
+     */
+    public ByteBuffer buffer()
+    {
+        if (this.released)
+        {
+            throw new IllegalStateException("The buffer was already released to the pool!");
+        }
+
+        return this.buffer;
+    }
+
+    /**
+     * This method returns the buffer to its pool.
+     *
+     * @throws IllegalStateException if the buffer was already released.
+     */
+    public void release()
+    {
+        if (this.released)
+        {
+            throw new IllegalStateException("The buffer was already released to the pool!");
+        }
+
+        this.pool.release(this);
+    }
+
+    /**
+     * @return the capacity of the buffer.
+     */
+    public int capacity()
+    {
+        return this.buffer.capacity();
+    }
+
+    BufferPool.SizeClass getSizeClass()
+    {
+        return this.sizeClass;
+    }
+
+    ByteBuffer getBuffer()
+    {
+        return this.buffer;
+    }
+
+    boolean isReleased()
+    {
+        return this.released;
+    }
+
+    void setReleased(boolean released)
+    {
+        this.released = released;
+    }
+
+    BufferPool.LeakTracker getTracker()
+    {
+        return this.tracker;
+    }
+
+    void setTracker(BufferPool.LeakTracker tracker)
+    {
+        this.tracker = tracker;
+    }
+}
@@ -1,21 +1,38 @@
 package de.hdm.uls.threadbasedserver.client;
 
 import de.hdm.uls.threadbasedserver.config.ServerConfig;
+import de.hdm.uls.threadbasedserver.metrics.ServerMetrics;
+import de.hdm.uls.threadbasedserver.payload.AssetStore;
+import de.hdm.uls.threadbasedserver.payload.ComputeRequest;
+import de.hdm.uls.threadbasedserver.payload.FileTransfer;
+import de.hdm.uls.threadbasedserver.protocol.AssetKeyReader;
+import de.hdm.uls.threadbasedserver.protocol.DelimiterScanner;
+import de.hdm.uls.threadbasedserver.protocol.Frame;
+import de.hdm.uls.threadbasedserver.protocol.FrameDecoder;
+import de.hdm.uls.threadbasedserver.protocol.ResponseHeader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
+import java.net.ProtocolException;
 import java.net.Socket;
-import java.net.URISyntaxException;
 import java.nio.ByteBuffer;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.nio.channels.Channels;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * This class defines a simple socket client. Each socket clients runs in a own thread to simulate a threaded server
  * architecture where all incoming connections are dispatched into a single thread. Also the client uses the old
- * blocking java socket library.
+ * blocking java socket library. <br/>
+ * In full duplex mode, see ServerConfig.ProcessingMode.PARALLEL, the first bytes of the request start a writer task
+ * which sends the response, while the thread of the client keeps reading the request until the delimiter signs. The
+ * connection is closed when both are done.
  *
  * Created by Dennis Grewe [dg060@hdm-stuttgart.de] 01/29/2014
  */
@@ -25,17 +42,30 @@ public class SocketClient extends Thread implements Client
     // PROPERTIES
     // ---------------------------------------
 
-    private static final Logger log                 = LoggerFactory.getLogger(SocketClient.class);
+    private static final Logger           log                 = LoggerFactory.getLogger(SocketClient.class);
 
-    private long                id;
-    private Socket              socket              = null;
-    private ClientState         clientState         = null;
+    private static final int              RECEIVE_BUFFER_SIZE = 8 * 1024;
+    private static final DelimiterScanner SCANNER             = new DelimiterScanner(ServerConfig.DELIMITER);
 
-    private DataInputStream     inputStream         = null;
-    private DataOutputStream    outputStream        = null;
+    private long                          id;
+    private Socket                        socket              = null;
+    private ClientState                   clientState         = null;
 
-    private boolean             delimiterDetected   = false;
-    private final String        delimiter           = ServerConfig.DELIMITER;
+    private DataInputStream               inputStream         = null;
+    private DataOutputStream              outputStream        = null;
+
+    private boolean                       requestReceived     = false;
+    private final DelimiterScanner        scanner             = SCANNER.copy();
+    private final AssetKeyReader          keyReader           = new AssetKeyReader();
+    private FrameDecoder                  decoder             = null;
+    private long                          requestId           = 0;
+    private final byte[]                  receiveBuffer       = new byte[RECEIVE_BUFFER_SIZE];
+    private final ByteBuffer              receiveView         = ByteBuffer.wrap(this.receiveBuffer);
+    private long                          receivedBytes       = 0;
+    private String                        assetKey            = null;
+    private Runnable                      closeListener       = null;
+    private Executor                      writerExecutor      = null;
+    private FutureTask<Boolean>           writer              = null;
 
     // ---------------------------------------
     // ENUM CLIENTSTATE
@@ -81,12 +111,38 @@ public class SocketClient extends Thread implements Client
         {
             int readBytes = this.receive();
 
-            if (this.delimiterDetected)
+            if (this.writer == null && readBytes > 0 && ServerConfig.isFullDuplex())
+            {
+                // the first bytes of the request start the response, this thread keeps reading the request
+                this.writer = this.startWriter();
+            }
+
+            if (this.requestReceived && this.writer != null)
             {
-                // end of input stream reached or delimiter detected -> start to send data back to the client
-                this.send();
+                // delimiter received while the writer task sends the response -> close after the response
                 this.clientState = ClientState.IN_ACTIVE;
             }
+            else if (this.requestReceived)
+            {
+                // delimiter or GET frame received -> start to send data back to the client
+                long startNanos = System.nanoTime();
+                boolean successfulSend = this.send();
+                if (successfulSend)
+                {
+                    ServerMetrics.responseCompleted(startNanos);
+                }
+
+                if (successfulSend && ServerConfig.isKeepAlive())
+                {
+                    // keep the connection and wait for the next request of the client
+                    this.requestReceived = false;
+                    this.assetKey = null;
+                }
+                else
+                {
+                    this.clientState = ClientState.IN_ACTIVE;
+                }
+            }
             else if (readBytes == -1)
             {
                 // connection was closed by the client and the read method returns -1 from the input stream
@@ -94,6 +150,7 @@ public class SocketClient extends Thread implements Client
             }
         }
 
+        this.awaitWriter();
         this.cleanUp();
     }
 
@@ -103,15 +160,53 @@ public class SocketClient extends Thread implements Client
 
     @Override
     public boolean send()
+    {
+        return this.send(this.assetKey);
+    }
+
+    /**
+     * @param assetKey The key of the asset to send, or NULL for the default file.
+     * @return TRUE if the whole response was sent, otherwise FALSE.
+     */
+    private boolean send(String assetKey)
     {
         boolean successfulSend = false;
 
-        if (this.socket != null && this.socket.isConnected())
+        if (this.socket != null && this.socket.isConnected() && ServerConfig.isZeroCopy() && this.socket.getChannel() != null
+                && !ComputeRequest.isCompute(assetKey))
+        {
+            successfulSend = this.transfer(this.socket.getChannel(), assetKey);
+        }
+        else if (this.socket != null && this.socket.isConnected())
         {
-            ByteBuffer bufferToWrite = this.collectSendingBytes();
             try
             {
-                this.outputStream.write(bufferToWrite.array());
+                // the asset is a direct or mapped buffer, so write it to the channel of the socket if available
+                // a compute request is run by the thread of the connection
+                ByteBuffer bufferToWrite = ComputeRequest.isCompute(assetKey)
+                        ? ComputeRequest.run(AssetStore.getShared().openPayload(null))
+                        : AssetStore.getShared().openPayload(assetKey);
+                ByteBuffer header = this.responseHeader(bufferToWrite.remaining());
+                long size = header.remaining() + bufferToWrite.remaining();
+
+                if (this.socket.getChannel() != null)
+                {
+                    // header and body leave with a single gathering write
+                    GatheringByteChannel target = this.socket.getChannel();
+                    ByteBuffer[] buffers = { header, bufferToWrite };
+                    while (header.hasRemaining() || bufferToWrite.hasRemaining())
+                    {
+                        target.write(buffers);
+                    }
+                }
+                else
+                {
+                    // the stream of a plain socket writes the buffers one after another
+                    WritableByteChannel target = Channels.newChannel(this.outputStream);
+                    this.write(target, header);
+                    this.write(target, bufferToWrite);
+                }
+                ServerMetrics.bytesSent(size);
                 successfulSend = true;
             }
             catch (IOException ex)
@@ -123,6 +218,14 @@ public class SocketClient extends Thread implements Client
         return successfulSend;
     }
 
+    /**
+     * This method reads the next chunk of the request into the receive buffer of the connection and scans the read
+     * bytes for the delimiter signs. The bytes are neither decoded nor copied, the scanner keeps the matched delimiter
+     * bytes if the delimiter is split over two reads and the key reader keeps the bytes of a split asset key. If the
+     * framed protocol is used, the read bytes are passed to the frame decoder of the connection instead.
+     *
+     * @return the number of read bytes, or -1 if the client closed the connection.
+     */
     @Override
     public int receive()
     {
@@ -132,8 +235,35 @@ public class SocketClient extends Thread implements Client
         {
             try
             {
-                readBytes = this.inputStream.read();
-                this.delimiterDetected = this.parseInput(new BufferedReader(new InputStreamReader(this.inputStream)));
+                readBytes = this.inputStream.read(this.receiveBuffer, 0, this.receiveBuffer.length);
+
+                if (readBytes > 0)
+                {
+                    this.receivedBytes += readBytes;
+                    ServerMetrics.bytesReceived(readBytes);
+
+                    if (ServerConfig.Protocol.FRAMED.equals(ServerConfig.getProtocol()))
+                    {
+                        this.decodeFrames(readBytes);
+                    }
+                    else
+                    {
+                        int keyOffset = this.keyReader.isReading()
+                                ? 0
+                                : this.scanner.scan(this.receiveView, 0, readBytes);
+                        if (keyOffset >= 0 && this.keyReader.read(this.receiveView, keyOffset, readBytes))
+                        {
+                            this.assetKey = this.keyReader.getKey();
+                            this.keyReader.reset();
+                            this.requestReceived = true;
+                        }
+                    }
+                }
+            }
+            catch (ProtocolException ex)
+            {
+                log.error("The client sent an invalid frame! SocketId: " + this.id, ex);
+                readBytes = -1;
             }
             catch (IOException ex)
             {
@@ -144,6 +274,14 @@ public class SocketClient extends Thread implements Client
         return readBytes;
     }
 
+    /**
+     * @return the number of request bytes received from the client.
+     */
+    public long getReceivedBytes()
+    {
+        return this.receivedBytes;
+    }
+
     @Override
     public void cleanUp()
     {
@@ -160,62 +298,175 @@ public class SocketClient extends Thread implements Client
                 log.error("Error while closing the socket connection of client: id -" + this.id, ex);
             }
         }
+
+        Runnable listener = this.closeListener;
+        this.closeListener = null;
+        if (listener != null)
+        {
+            listener.run();
+        }
+    }
+
+    /**
+     * @param closeListener The listener called once after the connection of the client was closed, e.g. to return the
+     *                      permit of the admission control of the server.
+     */
+    public void setCloseListener(Runnable closeListener)
+    {
+        this.closeListener = closeListener;
+    }
+
+    /**
+     * @param writerExecutor The executor which runs the writer task of a full duplex connection, or NULL to send the
+     *                       response in the thread of the client before it reads the rest of the request. A server
+     *                       whose pool serves the connections must not pass this pool, because the client thread waits
+     *                       for its writer task.
+     */
+    public void setWriterExecutor(Executor writerExecutor)
+    {
+        this.writerExecutor = writerExecutor;
     }
 
     /**
-     * This method parses the input of an input stream and checks the input for a certain kind of delimiter signs.
-     * If the delimiter signs are detected the method returns TRUE, otherwise FALSE,
+     * This method starts the writer task of a full duplex connection, which sends the default file, because the asset
+     * key follows the delimiter signs. The task records the service time of the response on its own.
      *
-     * @param reader The buffered reader object containing the input characters of the socket input stream.
-     * @return TRUE if the delimiter signs were detected, otherwise FALSE.
+     * @return the writer task, its result is TRUE if the whole response was sent.
      */
-    private boolean parseInput(BufferedReader reader)
+    private FutureTask<Boolean> startWriter()
     {
-        boolean delimiterDetected = false;
-        String line;
+        FutureTask<Boolean> task = new FutureTask<>(() -> {
+            long startNanos = System.nanoTime();
+            boolean successfulSend = this.send(null);
+            if (successfulSend)
+            {
+                ServerMetrics.responseCompleted(startNanos);
+            }
+            return successfulSend;
+        });
+
+        if (this.writerExecutor == null)
+        {
+            task.run();
+            return task;
+        }
 
         try
         {
-            while ((line = reader.readLine()) != null)
-            {
-                if (line.contains(this.delimiter))
-                {
-                    delimiterDetected = true;
-                    break;
-                }
-            }
+            this.writerExecutor.execute(task);
         }
-        catch (IOException e)
+        catch (RejectedExecutionException ex)
         {
-            e.printStackTrace();
+            log.warn("The writer task of the client was rejected! Send the response inline. SocketId: " + this.id);
+            task.run();
         }
 
-        return delimiterDetected;
+        return task;
     }
 
     /**
-     * This method reads the sending data from disk and returns that as a byteBuffer object.
-     *
-     * @return A ByteBuffer object which contains the binary data to send to the server.
+     * This method waits until the writer task of a full duplex connection sent the response, so the connection is not
+     * closed in the middle of the response.
      */
-    private ByteBuffer collectSendingBytes()
+    private void awaitWriter()
     {
-        ByteBuffer buffer = null;
+        if (this.writer == null)
+        {
+            return;
+        }
+
         try
         {
-            Path file = Paths.get(SocketClient.class.getResource(ServerConfig.FILE_PATH).toURI());
-            byte[] fileBytes = Files.readAllBytes(file);
-            buffer = ByteBuffer.wrap(fileBytes);
+            this.writer.get();
         }
-        catch (IOException e)
+        catch (InterruptedException ex)
         {
-            log.error("Error to read all bytes of the file to send!", e);
+            Thread.currentThread().interrupt();
         }
-        catch (URISyntaxException e)
+        catch (ExecutionException ex)
+        {
+            log.error("The writer task of the client failed! SocketId: " + this.id, ex.getCause());
+        }
+    }
+
+    /**
+     * This method decodes the frames of the last read. DATA frames are skipped, a GET frame completes the request.
+     *
+     * @param readBytes The number of bytes of the last read.
+     * @throws ProtocolException if the client sent an invalid frame.
+     */
+    private void decodeFrames(int readBytes) throws ProtocolException
+    {
+        if (this.decoder == null)
+        {
+            this.decoder = new FrameDecoder();
+        }
+
+        this.receiveView.clear();
+        this.receiveView.limit(readBytes);
+        while (!this.requestReceived && this.receiveView.hasRemaining() && this.decoder.decode(this.receiveView))
+        {
+            if (this.decoder.getType() == Frame.TYPE_GET)
+            {
+                this.assetKey = this.decoder.getKey();
+                this.requestId = this.decoder.getRequestId();
+                this.requestReceived = true;
+            }
+            this.decoder.reset();
+        }
+    }
+
+    /**
+     * @param size The size of the response body in bytes.
+     * @return the header of the response in the configured protocol, see {@link ResponseHeader}.
+     */
+    private ByteBuffer responseHeader(long size)
+    {
+        return ResponseHeader.of(ServerConfig.Protocol.FRAMED.equals(ServerConfig.getProtocol()), size, this.requestId);
+    }
+
+    /**
+     * This method writes all remaining bytes of a buffer to a blocking channel.
+     *
+     * @param target The channel to write to.
+     * @param buffer The buffer to write.
+     * @throws IOException if writing to the channel failed.
+     */
+    private void write(WritableByteChannel target, ByteBuffer buffer) throws IOException
+    {
+        while (buffer.hasRemaining())
+        {
+            target.write(buffer);
+        }
+    }
+
+    /**
+     * This method transfers the requested asset to the blocking socket channel without copying the bytes into the heap.
+     *
+     * @param channel The blocking channel of the client socket.
+     * @param assetKey The key of the asset to transfer, or NULL for the default file.
+     * @return TRUE if the whole file was transferred, otherwise FALSE.
+     */
+    private boolean transfer(SocketChannel channel, String assetKey)
+    {
+        boolean completed = false;
+
+        try (FileTransfer transfer = AssetStore.getShared().openTransfer(assetKey))
+        {
+            ByteBuffer header = this.responseHeader(transfer.getSize());
+            int headerBytes = header.remaining();
+            this.write(channel, header);
+            completed = transfer.transferTo(channel);
+            if (completed)
+            {
+                ServerMetrics.bytesSent(headerBytes + transfer.getSize());
+            }
+        }
+        catch (IOException ex)
         {
-            log.error("Error to access the file to send!", e);
+            log.error("An error occurred while transferring the file to the client! SocketId: " + this.id, ex);
         }
 
-        return buffer;
+        return completed;
     }
-}
\ No newline at end of file
+}
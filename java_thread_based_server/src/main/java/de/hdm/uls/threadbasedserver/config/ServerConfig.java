@@ -1,5 +1,14 @@
 package de.hdm.uls.threadbasedserver.config;
 
+import de.hdm.uls.threadbasedserver.ring.WaitStrategy;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.function.Consumer;
+
 /**
  * This class defines static parameters to permit a quick access and changes for
  * the load testing lifecycle.
@@ -22,15 +31,647 @@ public final class ServerConfig
      */
     public static final String    FILE_PATH     = "/assets/galileocomputing_node.js.pdf";
 
+    /**
+     * The directory of the assets the clients can request by their file name, and the maximum number of bytes of all
+     * assets mapped into memory at the same time.
+     */
+    public static final String              ASSET_DIRECTORY             = "./assets";
+    public static final long                ASSET_CACHE_MAX_BYTES       = 1L << 30;
+
+    /**
+     * Defines how the servers detect the end of a request: by the delimiter signs or by the header of a binary frame.
+     */
+    public static final Protocol            PROTOCOL                    = Protocol.DELIMITER;
+
+    /**
+     * Defines if the servers keep a connection open after a response and read the next request of the client. Every
+     * response announces its length, the Content-Length header of the delimiter protocol or the frame header, so the
+     * client knows where a response ends without waiting for the end of the stream. Not used in full duplex mode,
+     * see {@link #isFullDuplex()}.
+     */
+    public static final boolean             KEEP_ALIVE                  = false;
+
+    /**
+     * Defines if the servers read a request and write its response one after another or at the same time, see
+     * {@link ProcessingMode}. Only used with Protocol.DELIMITER, a framed request is always answered after its GET frame.
+     */
+    public static final ProcessingMode      PROCESSING_MODE             = ProcessingMode.SEQUENTIAL;
+
+    /**
+     * The number of writer threads of the classic and the pooled server in PARALLEL mode. The writer task of a full
+     * duplex connection sends its response while the thread of the connection keeps reading the request; if all writer
+     * threads are busy, the writer tasks wait in the queue of the writer pool.
+     */
+    public static final int                 WRITER_THREADS              = 64;
+
+    /**
+     * Defines if the servers send the file using FileChannel.transferTo (zero copy) instead of reading the file into
+     * the heap and writing the bytes to the socket. The initial value of {@link #isZeroCopy()}.
+     */
+    public static final boolean             ZERO_COPY                   = true;
+
+    /**
+     * Buffer pool settings of the read paths. The capacity of the buffer a server reads a request into (the initial
+     * value of {@link #getReadBufferSize()}), if the pool allocates its slabs in direct memory, and if buffers which
+     * are never released are reported.
+     */
+    public static final int                 READ_BUFFER_SIZE            = 64 * 1024;
+    public static final boolean             BUFFER_POOL_DIRECT          = true;
+    public static final boolean             BUFFER_LEAK_DETECTION       = false;
+
+    /**
+     * The maximum number of concurrent connections of a server. If the limit is reached the server stops accepting
+     * until a connection is closed; meanwhile the new connections queue in the accept backlog of the kernel, whose
+     * length is requested when the server socket is bound. A maximum of 0 disables the limit.
+     */
+    public static final int                 MAX_CONNECTIONS             = 10000;
+    public static final int                 ACCEPT_BACKLOG              = 1024;
+
+    /**
+     * Socket options of the servers. TCP_NO_DELAY disables the Nagle algorithm on the accepted connections. A buffer
+     * size of 0 keeps the default of the operating system; the receive buffer is set on the server socket before it
+     * is bound, so the accepted connections inherit it with a matching TCP window.
+     */
+    public static final boolean             TCP_NO_DELAY                = false;
+    public static final int                 SOCKET_RECEIVE_BUFFER       = 0;
+    public static final int                 SOCKET_SEND_BUFFER          = 0;
+
+    /**
+     * Timeouts of the NIO servers in milliseconds. A connection is closed if it sends no request within the idle
+     * timeout after it was accepted or after its last response, if a started request is not complete within the read
+     * timeout, or if a response is not written within the write timeout. A value of 0 disables a timeout. The
+     * timeouts are tracked in a hashed timing wheel per selector with the given tick duration and number of buckets.
+     */
+    public static final long                IDLE_TIMEOUT_MILLIS         = 60000;
+    public static final long                READ_TIMEOUT_MILLIS         = 30000;
+    public static final long                WRITE_TIMEOUT_MILLIS        = 60000;
+    public static final long                TIMEOUT_TICK_MILLIS         = 100;
+    public static final int                 TIMEOUT_WHEEL_SIZE          = 512;
+
     /**
      * The maximum acceptable time to wait for a server response
      */
     //public static final int maxAcceptableResponseTimeInMs = 100;
 
+    /**
+     * Worker pool settings of the pooled server. The pool is fixed if the number of core threads equals the number of
+     * maximum threads, otherwise it grows up to the maximum when the hand-off queue is full. A queue capacity of 0
+     * hands connections directly to idle workers.
+     */
+    public static final int                 POOL_CORE_THREADS           = 64;
+    public static final int                 POOL_MAX_THREADS            = 256;
+    public static final int                 POOL_QUEUE_CAPACITY         = 1024;
+    public static final int                 POOL_KEEP_ALIVE_SECONDS     = 60;
+    public static final RejectionPolicy     POOL_REJECTION_POLICY       = RejectionPolicy.BLOCK_ACCEPT;
+
+    /**
+     * The number of worker event loops of the multi reactor server, each running its own selector in its own thread.
+     */
+    public static final int                 WORKER_SELECTORS            = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * The number of handler threads of the half-sync/half-async server, which build the responses to the requests
+     * its worker event loops have read.
+     */
+    public static final int                 HANDLER_THREADS             = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * The kind of the executor of the pooled server and of the half-sync/half-async server, see {@link HandlerExecutor}.
+     */
+    public static final HandlerExecutor     HANDLER_EXECUTOR            = HandlerExecutor.THREAD_POOL;
+
+    /**
+     * The work of a compute request, see the class payload.ComputeRequest: the number of slices of the default file
+     * the server hashes per request and the size of a slice in bytes.
+     */
+    public static final int                 COMPUTE_ROUNDS              = 16;
+    public static final int                 COMPUTE_SLICE_BYTES         = 256 * 1024;
+
+    /**
+     * The ring buffers of the ring buffer server: the number of slots of the ring of every worker event loop, a power
+     * of 2, and the strategy of the handler threads waiting for the next request. A connection has at most one request
+     * in a ring, so a ring larger than the connections of its loop never runs full.
+     */
+    public static final int                 RING_BUFFER_SIZE            = 16384;
+    public static final WaitStrategy        RING_WAIT_STRATEGY          = WaitStrategy.PARK;
+
+    /**
+     * The number of event loops of the reuse port server. Every event loop binds its own server socket channel to the
+     * server port with SO_REUSEPORT and serves its connections with its own selector, buffer pool and payload views.
+     */
+    public static final int                 REUSE_PORT_EVENT_LOOPS      = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * The number of threads of the asynchronous channel group of the proactor server. The threads complete the I/O
+     * operations and run the completion handlers.
+     */
+    public static final int                 ASYNC_GROUP_THREADS         = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * The interval to log the runtime statistics of a server. A value of 0 disables the statistics log.
+     */
+    public static final int                 STATS_LOG_INTERVAL_SECONDS  = 5;
+
+    /**
+     * The local port of the plain text metrics endpoint of the servers, see /metrics. The endpoint listens on the
+     * loopback interface only. A port of 0 disables the endpoint.
+     */
+    public static final int                 METRICS_PORT                = 5556;
+
+    // ---------------------------------------
+    // RUNTIME SETTINGS
+    // ---------------------------------------
+
+    /**
+     * The settings the servers read when they start. They start with the values of the constants above and are
+     * overridden by {@link #configure(Properties)}, e.g. by the server launcher, before a server is created. The zero
+     * copy and read buffer settings can also be changed while a server is running, e.g. by its management bean.
+     */
+    private static volatile String          serverHost                  = SERVER_HOST;
+    private static volatile int             serverPort                  = SERVER_PORT;
+    private static volatile Protocol        protocol                    = PROTOCOL;
+    private static volatile boolean         keepAlive                   = KEEP_ALIVE;
+    private static volatile ProcessingMode  processingMode              = PROCESSING_MODE;
+    private static volatile int             writerThreads               = WRITER_THREADS;
+    private static volatile boolean         zeroCopy                    = ZERO_COPY;
+    private static volatile int             readBufferSize              = READ_BUFFER_SIZE;
+    private static volatile String          assetDirectory              = ASSET_DIRECTORY;
+    private static volatile int             maxConnections              = MAX_CONNECTIONS;
+    private static volatile int             acceptBacklog               = ACCEPT_BACKLOG;
+    private static volatile boolean         tcpNoDelay                  = TCP_NO_DELAY;
+    private static volatile int             socketReceiveBuffer         = SOCKET_RECEIVE_BUFFER;
+    private static volatile int             socketSendBuffer            = SOCKET_SEND_BUFFER;
+    private static volatile int             poolCoreThreads             = POOL_CORE_THREADS;
+    private static volatile int             poolMaxThreads              = POOL_MAX_THREADS;
+    private static volatile int             poolQueueCapacity           = POOL_QUEUE_CAPACITY;
+    private static volatile RejectionPolicy poolRejectionPolicy         = POOL_REJECTION_POLICY;
+    private static volatile int             workerSelectors             = WORKER_SELECTORS;
+    private static volatile int             handlerThreads              = HANDLER_THREADS;
+    private static volatile HandlerExecutor handlerExecutor             = HANDLER_EXECUTOR;
+    private static volatile int             computeRounds               = COMPUTE_ROUNDS;
+    private static volatile int             computeSliceBytes           = COMPUTE_SLICE_BYTES;
+    private static volatile int             ringBufferSize              = RING_BUFFER_SIZE;
+    private static volatile WaitStrategy    ringWaitStrategy            = RING_WAIT_STRATEGY;
+    private static volatile int             reusePortEventLoops         = REUSE_PORT_EVENT_LOOPS;
+    private static volatile int             asyncGroupThreads           = ASYNC_GROUP_THREADS;
+    private static volatile int             metricsPort                 = METRICS_PORT;
+
+    /**
+     * The names of the settings of a properties file or of the command line flags of the launcher, mapped to the
+     * parsers which apply a value.
+     */
+    private static final Map<String, Consumer<String>> SETTINGS = new LinkedHashMap<>();
+
+    static
+    {
+        SETTINGS.put("server.host", value -> serverHost = value);
+        SETTINGS.put("server.port", value -> serverPort = parseInt("server.port", value, 0));
+        SETTINGS.put("protocol", value -> protocol = parseEnum("protocol", value, Protocol.class));
+        SETTINGS.put("keep.alive", value -> keepAlive = parseBoolean("keep.alive", value));
+        SETTINGS.put("processing.mode",
+                value -> processingMode = parseEnum("processing.mode", value, ProcessingMode.class));
+        SETTINGS.put("writer.threads", value -> writerThreads = parseInt("writer.threads", value, 1));
+        SETTINGS.put("zero.copy", value -> zeroCopy = parseBoolean("zero.copy", value));
+        SETTINGS.put("read.buffer.size", value -> setReadBufferSize(parseInt("read.buffer.size", value, 1)));
+        SETTINGS.put("asset.directory", value -> assetDirectory = value);
+        SETTINGS.put("max.connections", value -> maxConnections = parseInt("max.connections", value, 0));
+        SETTINGS.put("accept.backlog", value -> acceptBacklog = parseInt("accept.backlog", value, 0));
+        SETTINGS.put("tcp.no.delay", value -> tcpNoDelay = parseBoolean("tcp.no.delay", value));
+        SETTINGS.put("socket.receive.buffer", value -> socketReceiveBuffer = parseInt("socket.receive.buffer", value, 0));
+        SETTINGS.put("socket.send.buffer", value -> socketSendBuffer = parseInt("socket.send.buffer", value, 0));
+        SETTINGS.put("pool.core.threads", value -> poolCoreThreads = parseInt("pool.core.threads", value, 1));
+        SETTINGS.put("pool.max.threads", value -> poolMaxThreads = parseInt("pool.max.threads", value, 1));
+        SETTINGS.put("pool.queue.capacity", value -> poolQueueCapacity = parseInt("pool.queue.capacity", value, 0));
+        SETTINGS.put("pool.rejection.policy",
+                value -> poolRejectionPolicy = parseEnum("pool.rejection.policy", value, RejectionPolicy.class));
+        SETTINGS.put("worker.selectors", value -> workerSelectors = parseInt("worker.selectors", value, 1));
+        SETTINGS.put("handler.threads", value -> handlerThreads = parseInt("handler.threads", value, 1));
+        SETTINGS.put("handler.executor",
+                value -> handlerExecutor = parseEnum("handler.executor", value, HandlerExecutor.class));
+        SETTINGS.put("compute.rounds", value -> computeRounds = parseInt("compute.rounds", value, 1));
+        SETTINGS.put("compute.slice.bytes", value -> computeSliceBytes = parseInt("compute.slice.bytes", value, 1));
+        SETTINGS.put("ring.buffer.size", value -> ringBufferSize = parsePowerOfTwo("ring.buffer.size", value));
+        SETTINGS.put("ring.wait.strategy",
+                value -> ringWaitStrategy = parseEnum("ring.wait.strategy", value, WaitStrategy.class));
+        SETTINGS.put("reuse.port.event.loops", value -> reusePortEventLoops = parseInt("reuse.port.event.loops", value, 1));
+        SETTINGS.put("async.group.threads", value -> asyncGroupThreads = parseInt("async.group.threads", value, 1));
+        SETTINGS.put("metrics.port", value -> metricsPort = parseInt("metrics.port", value, 0));
+    }
+
+    // ---------------------------------------
+    // PROTOCOLS
+    // ---------------------------------------
+
+    /**
+     * This enumeration defines the request protocols of the servers.
+     */
+    public static enum Protocol
+    {
+        /**
+         * A request ends with the delimiter signs, optionally followed by the asset key and a line break. The response
+         * starts with a Content-Length header, the server closes the connection after the response unless KEEP_ALIVE
+         * is enabled.
+         */
+        DELIMITER,
+        /**
+         * Requests and responses are length-prefixed binary frames, see the class protocol.Frame
+         */
+        FRAMED
+    }
+
+    // ---------------------------------------
+    // PROCESSING MODES
+    // ---------------------------------------
+
+    /**
+     * This enumeration defines the processing modes of the delimiter protocol, named after the modes of the node.js
+     * server.
+     */
+    public static enum ProcessingMode
+    {
+        /**
+         * The server reads the request until the delimiter signs and writes the requested asset afterwards
+         */
+        SEQUENTIAL,
+        /**
+         * Full duplex: the first bytes of a request start the response with the default asset, while the server keeps
+         * reading the request until the delimiter signs. The connection is closed when both directions are done
+         */
+        PARALLEL
+    }
+
+    // ---------------------------------------
+    // REJECTION POLICIES
+    // ---------------------------------------
+
+    /**
+     * This enumeration defines how a pooled server handles a new connection if all workers are busy and the hand-off
+     * queue is full.
+     */
+    public static enum RejectionPolicy
+    {
+        /**
+         * Close the connection immediately
+         */
+        REJECT_AND_CLOSE,
+        /**
+         * Serve the connection on the accepting thread, which stops accepting until the client is served
+         */
+        CALLER_RUNS,
+        /**
+         * Block the accepting thread until the hand-off queue has free capacity
+         */
+        BLOCK_ACCEPT
+    }
+
+    // ---------------------------------------
+    // HANDLER EXECUTORS
+    // ---------------------------------------
+
+    /**
+     * This enumeration defines the executor which runs the connections of the pooled server and the requests of the
+     * half-sync/half-async server.
+     */
+    public static enum HandlerExecutor
+    {
+        /**
+         * A thread pool executor, all threads take their tasks from a single shared FIFO queue
+         */
+        THREAD_POOL,
+        /**
+         * A work-stealing fork/join pool in async mode. Every thread has its own queue and idle threads steal the
+         * subtasks a busy thread forked, e.g. the parts of a large checksum
+         */
+        FORK_JOIN
+    }
+
     // ---------------------------------------
     // CONSTRUCTOR
     // ---------------------------------------
 
     private ServerConfig()
     {}
+
+    // ---------------------------------------
+    // METHODS
+    // ---------------------------------------
+
+    /**
+     * @return TRUE if the servers serve more than one request per connection, otherwise FALSE. A full duplex
+     * connection starts its response before the request is complete, so it is always closed after a single response.
+     */
+    public static boolean isKeepAlive()
+    {
+        return ServerConfig.keepAlive && !ServerConfig.isFullDuplex();
+    }
+
+    /**
+     * @return TRUE if the servers read a request and write its response at the same time, i.e. ProcessingMode.PARALLEL
+     * with Protocol.DELIMITER.
+     */
+    public static boolean isFullDuplex()
+    {
+        return ProcessingMode.PARALLEL.equals(ServerConfig.processingMode)
+                && Protocol.DELIMITER.equals(ServerConfig.protocol);
+    }
+
+    /**
+     * @return TRUE if the servers send the next responses with zero copy, see ZERO_COPY.
+     */
+    public static boolean isZeroCopy()
+    {
+        return ServerConfig.zeroCopy;
+    }
+
+    public static void setZeroCopy(boolean zeroCopy)
+    {
+        ServerConfig.zeroCopy = zeroCopy;
+    }
+
+    /**
+     * @return the capacity of the buffers the servers read the next requests into, see READ_BUFFER_SIZE.
+     */
+    public static int getReadBufferSize()
+    {
+        return ServerConfig.readBufferSize;
+    }
+
+    /**
+     * @param readBufferSize The capacity of the read buffers in bytes.
+     * @throws IllegalArgumentException if the size is not positive.
+     */
+    public static void setReadBufferSize(int readBufferSize)
+    {
+        if (readBufferSize <= 0)
+        {
+            throw new IllegalArgumentException("The read buffer size must be positive: " + readBufferSize);
+        }
+
+        ServerConfig.readBufferSize = readBufferSize;
+    }
+
+    /**
+     * This method overrides the settings of the servers, e.g. with the values of a properties file or of the command
+     * line flags of the launcher. It must be called before a server is created; the settings of the properties
+     * are applied in any order, so a property can not depend on another one.
+     *
+     * @param properties The settings to apply, see {@link #getSettingNames()}.
+     * @throws IllegalArgumentException if a setting is unknown or its value is invalid. The settings applied before
+     * the invalid one are kept.
+     */
+    public static void configure(Properties properties)
+    {
+        for (String name : properties.stringPropertyNames())
+        {
+            Consumer<String> setting = SETTINGS.get(name);
+            if (setting == null)
+            {
+                throw new IllegalArgumentException("Unknown server setting: " + name);
+            }
+
+            setting.accept(properties.getProperty(name).trim());
+        }
+
+        if (ServerConfig.poolMaxThreads < ServerConfig.poolCoreThreads)
+        {
+            ServerConfig.poolMaxThreads = ServerConfig.poolCoreThreads;
+        }
+    }
+
+    /**
+     * This method restores the defaults of all settings, the values of the constants above.
+     */
+    public static void reset()
+    {
+        serverHost = SERVER_HOST;
+        serverPort = SERVER_PORT;
+        protocol = PROTOCOL;
+        keepAlive = KEEP_ALIVE;
+        processingMode = PROCESSING_MODE;
+        writerThreads = WRITER_THREADS;
+        zeroCopy = ZERO_COPY;
+        readBufferSize = READ_BUFFER_SIZE;
+        assetDirectory = ASSET_DIRECTORY;
+        maxConnections = MAX_CONNECTIONS;
+        acceptBacklog = ACCEPT_BACKLOG;
+        tcpNoDelay = TCP_NO_DELAY;
+        socketReceiveBuffer = SOCKET_RECEIVE_BUFFER;
+        socketSendBuffer = SOCKET_SEND_BUFFER;
+        poolCoreThreads = POOL_CORE_THREADS;
+        poolMaxThreads = POOL_MAX_THREADS;
+        poolQueueCapacity = POOL_QUEUE_CAPACITY;
+        poolRejectionPolicy = POOL_REJECTION_POLICY;
+        workerSelectors = WORKER_SELECTORS;
+        handlerThreads = HANDLER_THREADS;
+        handlerExecutor = HANDLER_EXECUTOR;
+        computeRounds = COMPUTE_ROUNDS;
+        computeSliceBytes = COMPUTE_SLICE_BYTES;
+        ringBufferSize = RING_BUFFER_SIZE;
+        ringWaitStrategy = RING_WAIT_STRATEGY;
+        reusePortEventLoops = REUSE_PORT_EVENT_LOOPS;
+        asyncGroupThreads = ASYNC_GROUP_THREADS;
+        metricsPort = METRICS_PORT;
+    }
+
+    /**
+     * @return the names of the settings accepted by {@link #configure(Properties)}.
+     */
+    public static Set<String> getSettingNames()
+    {
+        return Collections.unmodifiableSet(SETTINGS.keySet());
+    }
+
+    public static String getServerHost()
+    {
+        return ServerConfig.serverHost;
+    }
+
+    public static int getServerPort()
+    {
+        return ServerConfig.serverPort;
+    }
+
+    public static Protocol getProtocol()
+    {
+        return ServerConfig.protocol;
+    }
+
+    public static ProcessingMode getProcessingMode()
+    {
+        return ServerConfig.processingMode;
+    }
+
+    public static int getWriterThreads()
+    {
+        return ServerConfig.writerThreads;
+    }
+
+    /**
+     * @return the directory of the assets the clients can request by their file name.
+     */
+    public static String getAssetDirectory()
+    {
+        return ServerConfig.assetDirectory;
+    }
+
+    /**
+     * @return the maximum number of concurrent connections of a server, 0 for no limit.
+     */
+    public static int getMaxConnections()
+    {
+        return ServerConfig.maxConnections;
+    }
+
+    public static int getAcceptBacklog()
+    {
+        return ServerConfig.acceptBacklog;
+    }
+
+    public static boolean isTcpNoDelay()
+    {
+        return ServerConfig.tcpNoDelay;
+    }
+
+    /**
+     * @return the receive buffer size of the server sockets in bytes, 0 for the default of the operating system.
+     */
+    public static int getSocketReceiveBuffer()
+    {
+        return ServerConfig.socketReceiveBuffer;
+    }
+
+    /**
+     * @return the send buffer size of the accepted sockets in bytes, 0 for the default of the operating system.
+     */
+    public static int getSocketSendBuffer()
+    {
+        return ServerConfig.socketSendBuffer;
+    }
+
+    public static int getPoolCoreThreads()
+    {
+        return ServerConfig.poolCoreThreads;
+    }
+
+    public static int getPoolMaxThreads()
+    {
+        return ServerConfig.poolMaxThreads;
+    }
+
+    public static int getPoolQueueCapacity()
+    {
+        return ServerConfig.poolQueueCapacity;
+    }
+
+    public static RejectionPolicy getPoolRejectionPolicy()
+    {
+        return ServerConfig.poolRejectionPolicy;
+    }
+
+    public static int getWorkerSelectors()
+    {
+        return ServerConfig.workerSelectors;
+    }
+
+    public static int getHandlerThreads()
+    {
+        return ServerConfig.handlerThreads;
+    }
+
+    public static HandlerExecutor getHandlerExecutor()
+    {
+        return ServerConfig.handlerExecutor;
+    }
+
+    public static int getComputeRounds()
+    {
+        return ServerConfig.computeRounds;
+    }
+
+    public static int getComputeSliceBytes()
+    {
+        return ServerConfig.computeSliceBytes;
+    }
+
+    public static int getRingBufferSize()
+    {
+        return ServerConfig.ringBufferSize;
+    }
+
+    public static WaitStrategy getRingWaitStrategy()
+    {
+        return ServerConfig.ringWaitStrategy;
+    }
+
+    public static int getReusePortEventLoops()
+    {
+        return ServerConfig.reusePortEventLoops;
+    }
+
+    public static int getAsyncGroupThreads()
+    {
+        return ServerConfig.asyncGroupThreads;
+    }
+
+    /**
+     * @return the local port of the metrics endpoint, 0 if the endpoint is disabled.
+     */
+    public static int getMetricsPort()
+    {
+        return ServerConfig.metricsPort;
+    }
+
+    private static int parseInt(String name, String value, int min)
+    {
+        int result;
+        try
+        {
+            result = Integer.parseInt(value);
+        }
+        catch (NumberFormatException ex)
+        {
+            throw new IllegalArgumentException("The server setting " + name + " is not a number: " + value, ex);
+        }
+
+        if (result < min)
+        {
+            throw new IllegalArgumentException("The server setting " + name + " must be at least " + min + ": " + value);
+        }
+
+        return result;
+    }
+
+    private static int parsePowerOfTwo(String name, String value)
+    {
+        int result = parseInt(name, value, 1);
+
+        if (Integer.bitCount(result) != 1)
+        {
+            throw new IllegalArgumentException("The server setting " + name + " must be a power of 2: " + value);
+        }
+
+        return result;
+    }
+
+    private static boolean parseBoolean(String name, String value)
+    {
+        if (!"true".equalsIgnoreCase(value) && !"false".equalsIgnoreCase(value))
+        {
+            throw new IllegalArgumentException("The server setting " + name + " is not a boolean: " + value);
+        }
+
+        return Boolean.parseBoolean(value);
+    }
+
+    private static <E extends Enum<E>> E parseEnum(String name, String value, Class<E> type)
+    {
+        try
+        {
+            return Enum.valueOf(type, value.toUpperCase().replace('-', '_'));
+        }
+        catch (IllegalArgumentException ex)
+        {
+            throw new IllegalArgumentException("The server setting " + name + " is not a valid value: " + value, ex);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,165 @@
+package de.hdm.uls.threadbasedserver.launcher;
+
+import de.hdm.uls.threadbasedserver.server.AsyncJavaSocketServer;
+import de.hdm.uls.threadbasedserver.server.HalfSyncHalfAsyncJavaSocketServer;
+import de.hdm.uls.threadbasedserver.server.JavaSocketServer;
+import de.hdm.uls.threadbasedserver.server.MultiReactorNIOJavaSocketServer;
+import de.hdm.uls.threadbasedserver.server.NIOJavaSocketServer;
+import de.hdm.uls.threadbasedserver.server.PooledJavaSocketServer;
+import de.hdm.uls.threadbasedserver.server.ReusePortNIOJavaSocketServer;
+import de.hdm.uls.threadbasedserver.server.RingBufferJavaSocketServer;
+import de.hdm.uls.threadbasedserver.server.Server;
+import de.hdm.uls.threadbasedserver.server.VirtualThreadSocketServer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * This class maps the names of the server engines to the engines. It contains the engines of this project and the
+ * engines found by the ServiceLoader on the class path.
+ */
+public class EngineRegistry
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private final Map<String, ServerEngine> engines = new LinkedHashMap<>();
+
+    // ---------------------------------------
+    // CONSTRUCTOR
+    // ---------------------------------------
+
+    /**
+     * Creates a registry containing the engines of this project only.
+     */
+    public EngineRegistry()
+    {
+        this.register(new BuiltinEngine("classic", "a platform thread per connection", JavaSocketServer::new));
+        this.register(new BuiltinEngine("virtual", "a virtual thread per connection (Java 21+)",
+                VirtualThreadSocketServer::new));
+        this.register(new BuiltinEngine("pooled", "a bounded pool of worker threads", PooledJavaSocketServer::new));
+        this.register(new BuiltinEngine("nio", "a single selector thread", NIOJavaSocketServer::new));
+        this.register(new BuiltinEngine("multi-reactor", "an acceptor and a selector per worker thread",
+                MultiReactorNIOJavaSocketServer::new));
+        this.register(new BuiltinEngine("half-sync", "selector threads for the I/O, a handler pool for the requests",
+                HalfSyncHalfAsyncJavaSocketServer::new));
+        this.register(new BuiltinEngine("ring", "selector threads for the I/O, ring buffers to the handler threads",
+                RingBufferJavaSocketServer::new));
+        this.register(new BuiltinEngine("reuse-port", "an event loop per core, each bound with SO_REUSEPORT",
+                ReusePortNIOJavaSocketServer::new));
+        // the completion handlers send heap buffers, track no connection limit or timeouts and answer sequentially
+        this.register(new BuiltinEngine("async", "asynchronous channels and completion handlers",
+                AsyncJavaSocketServer::new, "zero.copy", "max.connections", "processing.mode", "writer.threads"));
+    }
+
+    // ---------------------------------------
+    // METHODS
+    // ---------------------------------------
+
+    /**
+     * @return a registry containing the engines of this project and the engines found by the ServiceLoader.
+     */
+    public static EngineRegistry discover()
+    {
+        EngineRegistry registry = new EngineRegistry();
+        for (ServerEngine engine : ServiceLoader.load(ServerEngine.class))
+        {
+            registry.register(engine);
+        }
+
+        return registry;
+    }
+
+    /**
+     * @param engine The engine to add.
+     * @throws IllegalArgumentException if an engine with the same name is registered already.
+     */
+    public void register(ServerEngine engine)
+    {
+        if (this.engines.containsKey(engine.getName()))
+        {
+            throw new IllegalArgumentException("A server engine named " + engine.getName() + " is registered already!");
+        }
+
+        this.engines.put(engine.getName(), engine);
+    }
+
+    /**
+     * @param name The name of the engine.
+     * @return The engine, or NULL if no engine has the given name.
+     */
+    public ServerEngine get(String name)
+    {
+        return this.engines.get(name);
+    }
+
+    /**
+     * @return the names of the registered engines in the order of their registration.
+     */
+    public List<String> getNames()
+    {
+        return new ArrayList<>(this.engines.keySet());
+    }
+
+    public Collection<ServerEngine> getEngines()
+    {
+        return Collections.unmodifiableCollection(this.engines.values());
+    }
+
+    // ---------------------------------------
+    // INNER CLASS
+    // ---------------------------------------
+
+    /**
+     * This class describes an engine of this project, created by the constructor of its server class.
+     */
+    private static class BuiltinEngine implements ServerEngine
+    {
+        private final String           name;
+        private final String           description;
+        private final Supplier<Server> factory;
+        private final Set<String>      ignoredSettings;
+
+        private BuiltinEngine(String name, String description, Supplier<Server> factory, String... ignoredSettings)
+        {
+            this.name = name;
+            this.description = description;
+            this.factory = factory;
+            this.ignoredSettings = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(ignoredSettings)));
+        }
+
+        @Override
+        public String getName()
+        {
+            return this.name;
+        }
+
+        @Override
+        public String getDescription()
+        {
+            return this.description;
+        }
+
+        @Override
+        public Server create()
+        {
+            return this.factory.get();
+        }
+
+        @Override
+        public Set<String> getIgnoredSettings()
+        {
+            return this.ignoredSettings;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package de.hdm.uls.threadbasedserver.launcher;
+
+import de.hdm.uls.threadbasedserver.server.Server;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * This interface describes a server implementation the launcher is able to run. The engines of this project are
+ * registered by the {@link EngineRegistry}; further engines are discovered with the ServiceLoader, so they only need
+ * to be listed in META-INF/services/de.hdm.uls.threadbasedserver.launcher.ServerEngine on the class path.
+ */
+public interface ServerEngine
+{
+    /**
+     * @return the unique name to select the engine, e.g. "nio".
+     */
+    String getName();
+
+    /**
+     * @return a short description of the engine for the usage of the launcher.
+     */
+    String getDescription();
+
+    /**
+     * This method creates a new server instance. It is called after the settings of ServerConfig are applied, so the
+     * server picks up the configured threads, selectors and buffer sizes.
+     *
+     * @return The server, not started yet.
+     */
+    Server create();
+
+    /**
+     * @return the names of the settings of ServerConfig the engine ignores, e.g. because it has no admission control.
+     * The launcher warns if one of these settings is configured.
+     */
+    default Set<String> getIgnoredSettings()
+    {
+        return Collections.emptySet();
+    }
+}
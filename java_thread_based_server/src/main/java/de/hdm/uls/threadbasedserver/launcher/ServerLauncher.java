@@ -0,0 +1,232 @@
+package de.hdm.uls.threadbasedserver.launcher;
+
+import de.hdm.uls.threadbasedserver.config.ServerConfig;
+import de.hdm.uls.threadbasedserver.server.Server;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+/**
+ * This class runs any server engine of the {@link EngineRegistry} with any settings of ServerConfig, so a benchmark
+ * matrix only needs one build of the servers. The settings are read from a properties file and from command line
+ * flags, a flag overrides the same setting of the file:
+ *
+ * <pre>
+ * java ...ServerLauncher --engine pooled --config bench.properties --pool.core.threads=128 --tcp.no.delay true
+ * </pre>
+ *
+ * The properties file may select the engine with the property "engine" as well. Run the launcher with --list to show
+ * the engines and with --help to show the names of the settings. Like the main methods of the servers the launcher
+ * blocks while the server is running.
+ */
+public class ServerLauncher
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private static final Logger         log      = LoggerFactory.getLogger(ServerLauncher.class);
+
+    static final         String         ENGINE   = "engine";
+    static final         String         CONFIG   = "config";
+    static final         String         LIST     = "list";
+    static final         String         HELP     = "help";
+
+    private final        EngineRegistry registry;
+
+    // ---------------------------------------
+    // CONSTRUCTOR
+    // ---------------------------------------
+
+    /**
+     * @param registry The registry of the engines the launcher is able to run.
+     */
+    public ServerLauncher(EngineRegistry registry)
+    {
+        this.registry = registry;
+    }
+
+    // ---------------------------------------
+    // METHODS
+    // ---------------------------------------
+
+    /**
+     * This method applies the settings of the arguments to ServerConfig and creates a server of the selected engine.
+     *
+     * @param args The command line arguments, see the class description.
+     * @return The server, not started yet, or NULL if the arguments only ask for the usage or the engines.
+     * @throws IllegalArgumentException if an argument, a setting or the engine is invalid.
+     * @throws IOException if the properties file can not be read.
+     */
+    public Server createServer(String[] args) throws IOException
+    {
+        Properties arguments = ServerLauncher.parseArguments(args);
+        if (arguments.containsKey(HELP))
+        {
+            this.logUsage();
+            return null;
+        }
+        if (arguments.containsKey(LIST))
+        {
+            this.logEngines();
+            return null;
+        }
+
+        Properties settings = ServerLauncher.loadSettings(arguments);
+        String name = (String) settings.remove(ENGINE);
+        if (name == null)
+        {
+            throw new IllegalArgumentException("No server engine selected, use --" + ENGINE + " <name>!");
+        }
+
+        ServerEngine engine = this.registry.get(name);
+        if (engine == null)
+        {
+            throw new IllegalArgumentException("Unknown server engine: " + name + ", available engines: "
+                    + this.registry.getNames());
+        }
+
+        ServerConfig.configure(settings);
+        log.info("launch the " + name + " engine with the settings " + settings);
+        for (String setting : engine.getIgnoredSettings())
+        {
+            if (settings.containsKey(setting))
+            {
+                log.warn("The " + name + " engine ignores the setting " + setting + "=" + settings.getProperty(setting)
+                        + "!");
+            }
+        }
+
+        return engine.create();
+    }
+
+    /**
+     * This method parses the command line arguments. Every argument is a flag "--name=value" or "--name value", except
+     * --help and --list which have no value.
+     *
+     * @param args The command line arguments.
+     * @return The values of the arguments by their names.
+     * @throws IllegalArgumentException if an argument is not a flag or a value is missing.
+     */
+    static Properties parseArguments(String[] args)
+    {
+        Properties arguments = new Properties();
+
+        for (int i = 0; i < args.length; i++)
+        {
+            String arg = args[i];
+            if (!arg.startsWith("--") || arg.length() == 2)
+            {
+                throw new IllegalArgumentException("Invalid argument: " + arg);
+            }
+
+            String name = arg.substring(2);
+            String value;
+            int separator = name.indexOf('=');
+            if (separator >= 0)
+            {
+                value = name.substring(separator + 1);
+                name = name.substring(0, separator);
+            }
+            else if (HELP.equals(name) || LIST.equals(name))
+            {
+                value = Boolean.TRUE.toString();
+            }
+            else if (i + 1 < args.length)
+            {
+                value = args[++i];
+            }
+            else
+            {
+                throw new IllegalArgumentException("Missing value of the argument: " + arg);
+            }
+
+            arguments.setProperty(name, value);
+        }
+
+        return arguments;
+    }
+
+    /**
+     * This method merges the settings of the properties file given by the argument --config with the other arguments.
+     *
+     * @param arguments The parsed command line arguments.
+     * @return The settings, an argument overrides the same setting of the file.
+     * @throws IOException if the properties file can not be read.
+     */
+    static Properties loadSettings(Properties arguments) throws IOException
+    {
+        Properties settings = new Properties();
+
+        String config = arguments.getProperty(CONFIG);
+        if (config != null)
+        {
+            try (InputStream in = Files.newInputStream(Paths.get(config)))
+            {
+                settings.load(in);
+            }
+        }
+
+        for (String name : arguments.stringPropertyNames())
+        {
+            if (!CONFIG.equals(name))
+            {
+                settings.setProperty(name, arguments.getProperty(name));
+            }
+        }
+
+        return settings;
+    }
+
+    private void logUsage()
+    {
+        log.info("usage: ServerLauncher --" + ENGINE + " <name> [--" + CONFIG + " <properties file>]"
+                + " [--<setting> <value> ...]");
+        log.info("       ServerLauncher --" + LIST + " | --" + HELP);
+        log.info("settings: " + ServerConfig.getSettingNames());
+        this.logEngines();
+    }
+
+    private void logEngines()
+    {
+        for (ServerEngine engine : this.registry.getEngines())
+        {
+            log.info(String.format("%-16s %s", engine.getName(), engine.getDescription()));
+        }
+    }
+
+    // ---------------------------------------
+    // MAIN
+    // ---------------------------------------
+
+    /**
+     * main method of the launcher.
+     *
+     * @param args runtime arguments, see the class description.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        ServerLauncher launcher = new ServerLauncher(EngineRegistry.discover());
+        Server server = null;
+        try
+        {
+            server = launcher.createServer(args);
+        }
+        catch (IllegalArgumentException ex)
+        {
+            log.error(ex.getMessage());
+            launcher.logUsage();
+            System.exit(-1);
+        }
+
+        if (server != null)
+        {
+            server.start();
+        }
+    }
+}
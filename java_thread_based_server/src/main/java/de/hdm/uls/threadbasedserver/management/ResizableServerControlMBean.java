@@ -0,0 +1,23 @@
+package de.hdm.uls.threadbasedserver.management;
+
+/**
+ * This interface extends the management interface of a server with a resizable worker pool, i.e. a thread pool
+ * executor. The work-stealing pools and the fixed threads of the other servers can not be resized in place, so their
+ * controls are registered with the {@link ServerControlMBean} interface only and JMX clients do not offer the
+ * operation.
+ */
+public interface ResizableServerControlMBean extends ServerControlMBean
+{
+    // ---------------------------------------
+    // OPERATIONS
+    // ---------------------------------------
+
+    /**
+     * This operation resizes the worker pool of the server.
+     *
+     * @param coreThreads The new number of core threads.
+     * @param maxThreads The new maximum number of threads, at least the number of core threads.
+     * @throws UnsupportedOperationException if the server has no resizable worker pool.
+     */
+    void resizeWorkerPool(int coreThreads, int maxThreads);
+}
@@ -0,0 +1,365 @@
+package de.hdm.uls.threadbasedserver.management;
+
+import de.hdm.uls.threadbasedserver.config.ServerConfig;
+import de.hdm.uls.threadbasedserver.metrics.ServerMetrics;
+import de.hdm.uls.threadbasedserver.payload.AssetStore;
+import de.hdm.uls.threadbasedserver.payload.PayloadCache;
+import de.hdm.uls.threadbasedserver.server.nio.LoopTiming;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.IntSupplier;
+
+/**
+ * This class is the platform MBean of a running server, registered as
+ * de.hdm.uls.threadbasedserver:type=Server,name=&lt;server class&gt;. A server creates its control, hands over the
+ * parts it has, e.g. its worker pool or the timings of its selector loops, and registers the control when it starts.
+ * The attributes of the parts a server does not have are 0. <br/>
+ * The operations change the runtime settings of {@link ServerConfig} and the worker pool of the server, so a server
+ * can be tuned with a JMX client like jconsole while a test is running. A control with a worker pool is registered
+ * as {@link ResizableServerControlMBean}, every other control as {@link ServerControlMBean} without the resize
+ * operation.
+ */
+public class ServerControl implements ResizableServerControlMBean
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private static final Logger             log                  = LoggerFactory.getLogger(ServerControl.class);
+
+    private static final String             DOMAIN               = "de.hdm.uls.threadbasedserver";
+    private static final long               RATE_INTERVAL_NANOS  = 1000000000L;
+
+    private final        String             serverType;
+
+    private volatile     IntSupplier        activeConnections    = () -> (int) (ServerMetrics.CONNECTIONS_ACCEPTED.get()
+                                                                         - ServerMetrics.CONNECTIONS_CLOSED.get());
+    private volatile     ThreadPoolExecutor workerPool           = null;
+    private volatile     int                workerThreads        = 0;
+    private volatile     LoopTiming[]       loopTimings          = new LoopTiming[0];
+
+    private              ObjectName         objectName           = null;
+    private              long               rateNanos            = System.nanoTime();
+    private              long               rateAccepted         = ServerMetrics.CONNECTIONS_ACCEPTED.get();
+    private              double             acceptRate           = 0.0;
+
+    // ---------------------------------------
+    // CONSTRUCTOR
+    // ---------------------------------------
+
+    /**
+     * @param serverType The name of the server implementation.
+     */
+    public ServerControl(String serverType)
+    {
+        this.serverType = serverType;
+    }
+
+    // ---------------------------------------
+    // METHODS
+    // ---------------------------------------
+
+    /**
+     * This method registers the control in the platform MBean server. A failure is logged, because the server works
+     * without its control. A server hands over its worker pool before the registration, so the management interface
+     * of the control contains the resize operation only if the server has a resizable pool.
+     */
+    public synchronized void register()
+    {
+        if (this.objectName == null)
+        {
+            try
+            {
+                ObjectName name = new ObjectName(DOMAIN + ":type=Server,name=" + this.serverType);
+                StandardMBean bean = (this.workerPool != null)
+                        ? new StandardMBean(this, ResizableServerControlMBean.class)
+                        : new StandardMBean(this, ServerControlMBean.class);
+                ManagementFactory.getPlatformMBeanServer().registerMBean(bean, name);
+                this.objectName = name;
+                log.info("management bean registered: " + name);
+            }
+            catch (JMException ex)
+            {
+                log.warn("Unable to register the management bean of the " + this.serverType + "!", ex);
+            }
+        }
+    }
+
+    /**
+     * This method removes the control from the platform MBean server.
+     */
+    public synchronized void unregister()
+    {
+        if (this.objectName != null)
+        {
+            try
+            {
+                MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                if (server.isRegistered(this.objectName))
+                {
+                    server.unregisterMBean(this.objectName);
+                }
+            }
+            catch (JMException ex)
+            {
+                log.warn("Unable to unregister the management bean of the " + this.serverType + "!", ex);
+            }
+            this.objectName = null;
+        }
+    }
+
+    /**
+     * @param activeConnections The supplier of the open connections of the server, by default the open connections
+     *                          of the process.
+     */
+    public void setActiveConnections(IntSupplier activeConnections)
+    {
+        this.activeConnections = activeConnections;
+    }
+
+    /**
+     * @param workerPool The resizable pool of the threads serving the connections.
+     */
+    public void setWorkerPool(ThreadPoolExecutor workerPool)
+    {
+        this.workerPool = workerPool;
+    }
+
+    /**
+     * @param workerThreads The fixed number of threads serving the connections of a server without a worker pool.
+     */
+    public void setWorkerThreads(int workerThreads)
+    {
+        this.workerThreads = workerThreads;
+    }
+
+    /**
+     * @param loopTimings The timings of the selector loops of the server.
+     */
+    public void setLoopTimings(LoopTiming... loopTimings)
+    {
+        this.loopTimings = loopTimings.clone();
+    }
+
+    @Override
+    public String getServerType()
+    {
+        return this.serverType;
+    }
+
+    @Override
+    public int getActiveConnections()
+    {
+        return this.activeConnections.getAsInt();
+    }
+
+    @Override
+    public long getAcceptedConnections()
+    {
+        return ServerMetrics.CONNECTIONS_ACCEPTED.get();
+    }
+
+    @Override
+    public synchronized double getAcceptRate()
+    {
+        long now = System.nanoTime();
+        long elapsed = now - this.rateNanos;
+
+        if (elapsed >= RATE_INTERVAL_NANOS)
+        {
+            long accepted = ServerMetrics.CONNECTIONS_ACCEPTED.get();
+            this.acceptRate = (accepted - this.rateAccepted) * 1e9 / elapsed;
+            this.rateAccepted = accepted;
+            this.rateNanos = now;
+        }
+
+        return this.acceptRate;
+    }
+
+    @Override
+    public long getPayloadCacheBytes()
+    {
+        return PayloadCache.getShared().getResidentBytes();
+    }
+
+    @Override
+    public int getPayloadCacheEntries()
+    {
+        return PayloadCache.getShared().size();
+    }
+
+    @Override
+    public long getMappedAssetBytes()
+    {
+        return AssetStore.getShared().getMappedBytes();
+    }
+
+    @Override
+    public int getMappedAssets()
+    {
+        return AssetStore.getShared().getMappedAssets();
+    }
+
+    @Override
+    public int getWorkerThreads()
+    {
+        ThreadPoolExecutor pool = this.workerPool;
+
+        return (pool != null) ? pool.getPoolSize() : this.workerThreads;
+    }
+
+    @Override
+    public int getActiveWorkers()
+    {
+        ThreadPoolExecutor pool = this.workerPool;
+
+        return (pool != null) ? pool.getActiveCount() : 0;
+    }
+
+    @Override
+    public int getWorkerQueueDepth()
+    {
+        ThreadPoolExecutor pool = this.workerPool;
+
+        return (pool != null) ? pool.getQueue().size() : 0;
+    }
+
+    @Override
+    public int getWorkerPoolCoreSize()
+    {
+        ThreadPoolExecutor pool = this.workerPool;
+
+        return (pool != null) ? pool.getCorePoolSize() : 0;
+    }
+
+    @Override
+    public int getWorkerPoolMaxSize()
+    {
+        ThreadPoolExecutor pool = this.workerPool;
+
+        return (pool != null) ? pool.getMaximumPoolSize() : 0;
+    }
+
+    @Override
+    public int getSelectorLoops()
+    {
+        return this.loopTimings.length;
+    }
+
+    @Override
+    public long getSelectorLoopIterations()
+    {
+        long iterations = 0;
+        for (LoopTiming timing : this.loopTimings)
+        {
+            iterations += timing.getIterations();
+        }
+
+        return iterations;
+    }
+
+    @Override
+    public double getSelectorLoopAverageMicros()
+    {
+        long iterations = 0;
+        long processNanos = 0;
+        for (LoopTiming timing : this.loopTimings)
+        {
+            iterations += timing.getIterations();
+            processNanos += timing.getProcessNanos();
+        }
+
+        return (iterations == 0) ? 0.0 : processNanos / 1000.0 / iterations;
+    }
+
+    @Override
+    public long getSelectorLoopMaxMicros()
+    {
+        long maxNanos = 0;
+        for (LoopTiming timing : this.loopTimings)
+        {
+            maxNanos = Math.max(maxNanos, timing.getMaxProcessNanos());
+        }
+
+        return maxNanos / 1000;
+    }
+
+    @Override
+    public double getSelectorWaitRatio()
+    {
+        long selectNanos = 0;
+        long processNanos = 0;
+        for (LoopTiming timing : this.loopTimings)
+        {
+            selectNanos += timing.getSelectNanos();
+            processNanos += timing.getProcessNanos();
+        }
+
+        return (selectNanos + processNanos == 0) ? 0.0 : (double) selectNanos / (selectNanos + processNanos);
+    }
+
+    @Override
+    public int getReadBufferSize()
+    {
+        return ServerConfig.getReadBufferSize();
+    }
+
+    @Override
+    public boolean isZeroCopy()
+    {
+        return ServerConfig.isZeroCopy();
+    }
+
+    @Override
+    public void resizeWorkerPool(int coreThreads, int maxThreads)
+    {
+        ThreadPoolExecutor pool = this.workerPool;
+
+        if (pool == null)
+        {
+            throw new UnsupportedOperationException("The " + this.serverType + " has no resizable worker pool!");
+        }
+        if (coreThreads < 0 || maxThreads < 1 || maxThreads < coreThreads)
+        {
+            throw new IllegalArgumentException("Invalid worker pool size: core " + coreThreads + ", max " + maxThreads);
+        }
+
+        // the core size must never exceed the maximum size, so the order depends on the direction of the change
+        if (maxThreads >= pool.getCorePoolSize())
+        {
+            pool.setMaximumPoolSize(maxThreads);
+            pool.setCorePoolSize(coreThreads);
+        }
+        else
+        {
+            pool.setCorePoolSize(coreThreads);
+            pool.setMaximumPoolSize(maxThreads);
+        }
+
+        log.info("worker pool of the " + this.serverType + " resized: core " + coreThreads + ", max " + maxThreads);
+    }
+
+    @Override
+    public void changeReadBufferSize(int bytes)
+    {
+        ServerConfig.setReadBufferSize(bytes);
+        log.info("read buffer size changed: " + bytes + " bytes");
+    }
+
+    @Override
+    public boolean toggleZeroCopy()
+    {
+        boolean zeroCopy = !ServerConfig.isZeroCopy();
+        ServerConfig.setZeroCopy(zeroCopy);
+        log.info("zero copy switched " + (zeroCopy ? "on" : "off"));
+
+        return zeroCopy;
+    }
+}
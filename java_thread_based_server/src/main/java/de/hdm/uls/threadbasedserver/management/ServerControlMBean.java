@@ -0,0 +1,119 @@
+package de.hdm.uls.threadbasedserver.management;
+
+/**
+ * This interface defines the management interface of a running server. The attributes show the live statistics of the
+ * server, the operations tune the server in place, so a long running test does not need to restart the server.
+ */
+public interface ServerControlMBean
+{
+    // ---------------------------------------
+    // CONNECTIONS
+    // ---------------------------------------
+
+    /**
+     * @return the simple class name of the server implementation.
+     */
+    String getServerType();
+
+    /**
+     * @return the number of open connections of the server.
+     */
+    int getActiveConnections();
+
+    /**
+     * @return the number of connections accepted by the servers of the process.
+     */
+    long getAcceptedConnections();
+
+    /**
+     * @return the accepted connections per second since the previous query, updated at most once per second.
+     */
+    double getAcceptRate();
+
+    // ---------------------------------------
+    // PAYLOADS
+    // ---------------------------------------
+
+    long getPayloadCacheBytes();
+
+    int getPayloadCacheEntries();
+
+    long getMappedAssetBytes();
+
+    int getMappedAssets();
+
+    // ---------------------------------------
+    // WORKERS
+    // ---------------------------------------
+
+    /**
+     * @return the number of threads serving the connections, the current size of a worker pool.
+     */
+    int getWorkerThreads();
+
+    /**
+     * @return the number of workers serving a connection, 0 if the server has no worker pool.
+     */
+    int getActiveWorkers();
+
+    /**
+     * @return the number of connections waiting for a free worker, 0 if the server has no worker pool.
+     */
+    int getWorkerQueueDepth();
+
+    int getWorkerPoolCoreSize();
+
+    int getWorkerPoolMaxSize();
+
+    // ---------------------------------------
+    // SELECTOR LOOPS
+    // ---------------------------------------
+
+    /**
+     * @return the number of selector loops of the server, 0 if the server does not use selectors.
+     */
+    int getSelectorLoops();
+
+    long getSelectorLoopIterations();
+
+    /**
+     * @return the mean time of an iteration of the selector loops to process the selected keys in microseconds.
+     */
+    double getSelectorLoopAverageMicros();
+
+    /**
+     * @return the longest time of an iteration of a selector loop to process the selected keys in microseconds.
+     */
+    long getSelectorLoopMaxMicros();
+
+    /**
+     * @return the share of the time the selector loops waited in the select call, between 0 (saturated) and 1 (idle).
+     */
+    double getSelectorWaitRatio();
+
+    // ---------------------------------------
+    // SETTINGS
+    // ---------------------------------------
+
+    int getReadBufferSize();
+
+    boolean isZeroCopy();
+
+    // ---------------------------------------
+    // OPERATIONS
+    // ---------------------------------------
+
+    /**
+     * This operation changes the capacity of the buffers the servers read the next requests into.
+     *
+     * @param bytes The new capacity in bytes.
+     */
+    void changeReadBufferSize(int bytes);
+
+    /**
+     * This operation switches the zero copy transfer of the next responses on or off.
+     *
+     * @return TRUE if zero copy is switched on now, otherwise FALSE.
+     */
+    boolean toggleZeroCopy();
+}
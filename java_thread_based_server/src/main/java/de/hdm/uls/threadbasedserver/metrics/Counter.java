@@ -0,0 +1,72 @@
+package de.hdm.uls.threadbasedserver.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class defines a monotonic counter. The counter is striped: a {@link LongAdder} spreads concurrent increments
+ * over several cells, so the threads of a server do not contend on a single cache line. Reading the counter sums the
+ * cells, which is cheap compared to the increments of the hot paths.
+ */
+public class Counter implements Metric
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private final String    name;
+    private final String    help;
+    private final LongAdder value = new LongAdder();
+
+    // ---------------------------------------
+    // CONSTRUCTOR
+    // ---------------------------------------
+
+    /**
+     * @param name The name of the counter.
+     * @param help The description of the counter.
+     */
+    public Counter(String name, String help)
+    {
+        this.name = name;
+        this.help = help;
+    }
+
+    // ---------------------------------------
+    // METHODS
+    // ---------------------------------------
+
+    public void increment()
+    {
+        this.value.increment();
+    }
+
+    /**
+     * @param amount The amount to add, must not be negative.
+     */
+    public void add(long amount)
+    {
+        if (amount > 0)
+        {
+            this.value.add(amount);
+        }
+    }
+
+    public long get()
+    {
+        return this.value.sum();
+    }
+
+    @Override
+    public String getName()
+    {
+        return this.name;
+    }
+
+    @Override
+    public void writeTo(StringBuilder out)
+    {
+        out.append("# HELP ").append(this.name).append(' ').append(this.help).append('\n');
+        out.append("# TYPE ").append(this.name).append(" counter\n");
+        out.append(this.name).append(' ').append(this.get()).append('\n');
+    }
+}
@@ -0,0 +1,58 @@
+package de.hdm.uls.threadbasedserver.metrics;
+
+import java.util.function.LongSupplier;
+
+/**
+ * This class defines a gauge, a value which can go up and down, e.g. the number of open connections or live threads.
+ * The gauge does not store a value; it reads the value from its supplier when the registry is scraped, so the hot
+ * paths of a server pay nothing for it.
+ */
+public class Gauge implements Metric
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private final String       name;
+    private final String       help;
+    private final LongSupplier supplier;
+
+    // ---------------------------------------
+    // CONSTRUCTOR
+    // ---------------------------------------
+
+    /**
+     * @param name The name of the gauge.
+     * @param help The description of the gauge.
+     * @param supplier The supplier of the current value, called by the scraping thread.
+     */
+    public Gauge(String name, String help, LongSupplier supplier)
+    {
+        this.name = name;
+        this.help = help;
+        this.supplier = supplier;
+    }
+
+    // ---------------------------------------
+    // METHODS
+    // ---------------------------------------
+
+    public long get()
+    {
+        return this.supplier.getAsLong();
+    }
+
+    @Override
+    public String getName()
+    {
+        return this.name;
+    }
+
+    @Override
+    public void writeTo(StringBuilder out)
+    {
+        out.append("# HELP ").append(this.name).append(' ').append(this.help).append('\n');
+        out.append("# TYPE ").append(this.name).append(" gauge\n");
+        out.append(this.name).append(' ').append(this.get()).append('\n');
+    }
+}
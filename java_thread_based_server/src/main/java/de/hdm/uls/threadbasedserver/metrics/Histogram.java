@@ -0,0 +1,239 @@
+package de.hdm.uls.threadbasedserver.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class defines a histogram of non-negative values, e.g. the service times of the responses in microseconds. The
+ * histogram uses log-linear buckets: the values 0 to 7 have their own bucket, every larger power of two range is split
+ * into 8 buckets. So a recorded value is counted without allocation and a percentile is at most 12.5% above the exact
+ * value, regardless of the magnitude of the values. <br/>
+ * The buckets are striped by thread: every recording thread increments the buckets of its stripe, so the event loops
+ * of a server do not contend on the same counters. A scrape sums the stripes into a {@link Snapshot}.
+ */
+public class Histogram implements Metric
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private static final int               SUB_BUCKET_BITS  = 3;
+    private static final int               SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int               BUCKET_COUNT     = Histogram.indexOf(Long.MAX_VALUE) + 1;
+    private static final double[]          QUANTILES        = { 0.5, 0.9, 0.99, 0.999 };
+
+    private final        String            name;
+    private final        String            help;
+    private final        AtomicLongArray[] stripes;
+    private final        int               stripeMask;
+    private final        LongAdder         sum              = new LongAdder();
+    private final        LongAccumulator   max              = new LongAccumulator(Math::max, 0L);
+
+    // ---------------------------------------
+    // CONSTRUCTOR
+    // ---------------------------------------
+
+    /**
+     * @param name The name of the histogram.
+     * @param help The description of the histogram.
+     */
+    public Histogram(String name, String help)
+    {
+        this(name, help, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param name The name of the histogram.
+     * @param help The description of the histogram.
+     * @param stripes The number of stripes, rounded up to the next power of two.
+     */
+    public Histogram(String name, String help, int stripes)
+    {
+        int stripeCount = (stripes <= 1) ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+
+        this.name = name;
+        this.help = help;
+        this.stripes = new AtomicLongArray[stripeCount];
+        this.stripeMask = stripeCount - 1;
+
+        for (int i = 0; i < stripeCount; i++)
+        {
+            this.stripes[i] = new AtomicLongArray(BUCKET_COUNT);
+        }
+    }
+
+    // ---------------------------------------
+    // METHODS
+    // ---------------------------------------
+
+    /**
+     * This method counts a value in the stripe of the calling thread. Negative values are counted as 0.
+     *
+     * @param value The value to record.
+     */
+    public void record(long value)
+    {
+        long recorded = Math.max(0L, value);
+        int stripe = (int) Thread.currentThread().getId() & this.stripeMask;
+
+        this.stripes[stripe].incrementAndGet(Histogram.indexOf(recorded));
+        this.sum.add(recorded);
+        this.max.accumulate(recorded);
+    }
+
+    /**
+     * This method sums the stripes of the histogram. The values recorded during the snapshot may be missing in the
+     * counts of the snapshot, but the snapshot is never blocking the recording threads.
+     *
+     * @return the current distribution of the recorded values.
+     */
+    public Snapshot snapshot()
+    {
+        long[] counts = new long[BUCKET_COUNT];
+        for (AtomicLongArray stripe : this.stripes)
+        {
+            for (int i = 0; i < BUCKET_COUNT; i++)
+            {
+                counts[i] += stripe.get(i);
+            }
+        }
+
+        return new Snapshot(counts, this.sum.sum(), this.max.get());
+    }
+
+    @Override
+    public String getName()
+    {
+        return this.name;
+    }
+
+    @Override
+    public void writeTo(StringBuilder out)
+    {
+        Snapshot snapshot = this.snapshot();
+
+        out.append("# HELP ").append(this.name).append(' ').append(this.help).append('\n');
+        out.append("# TYPE ").append(this.name).append(" summary\n");
+        for (double quantile : QUANTILES)
+        {
+            out.append(this.name).append("{quantile=\"").append(quantile).append("\"} ")
+                    .append(snapshot.getValueAtQuantile(quantile)).append('\n');
+        }
+        out.append(this.name).append("_sum ").append(snapshot.getSum()).append('\n');
+        out.append(this.name).append("_count ").append(snapshot.getCount()).append('\n');
+        out.append(this.name).append("_max ").append(snapshot.getMax()).append('\n');
+    }
+
+    /**
+     * @param value A non-negative value.
+     * @return the index of the bucket which counts the value.
+     */
+    static int indexOf(long value)
+    {
+        if (value < SUB_BUCKET_COUNT)
+        {
+            return (int) value;
+        }
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+
+        return ((exponent - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS) + subBucket;
+    }
+
+    /**
+     * @param index The index of a bucket.
+     * @return the largest value counted by the bucket.
+     */
+    static long upperBoundOf(int index)
+    {
+        if (index < SUB_BUCKET_COUNT)
+        {
+            return index;
+        }
+
+        int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        long subBucket = index & (SUB_BUCKET_COUNT - 1);
+
+        return ((SUB_BUCKET_COUNT + subBucket) << shift) + (1L << shift) - 1;
+    }
+
+    // ---------------------------------------
+    // INNER CLASS
+    // ---------------------------------------
+
+    /**
+     * This class holds the merged buckets of a histogram at the time of a scrape.
+     */
+    public static class Snapshot
+    {
+        private final long[] counts;
+        private final long   count;
+        private final long   sum;
+        private final long   max;
+
+        private Snapshot(long[] counts, long sum, long max)
+        {
+            long count = 0;
+            for (long bucket : counts)
+            {
+                count += bucket;
+            }
+
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        /**
+         * @param quantile The quantile between 0 and 1, e.g. 0.99 for the 99th percentile.
+         * @return the upper bound of the bucket which contains the quantile, at most the maximum value, or 0 if no value
+         * was recorded.
+         */
+        public long getValueAtQuantile(double quantile)
+        {
+            if (this.count == 0)
+            {
+                return 0L;
+            }
+
+            long rank = Math.max(1L, (long) Math.ceil(quantile * this.count));
+            long seen = 0;
+            for (int i = 0; i < this.counts.length; i++)
+            {
+                seen += this.counts[i];
+                if (seen >= rank)
+                {
+                    return Math.min(Histogram.upperBoundOf(i), this.max);
+                }
+            }
+
+            return this.max;
+        }
+
+        public long getCount()
+        {
+            return this.count;
+        }
+
+        public long getSum()
+        {
+            return this.sum;
+        }
+
+        public long getMax()
+        {
+            return this.max;
+        }
+
+        /**
+         * @return the mean of the recorded values, or 0 if no value was recorded.
+         */
+        public double getMean()
+        {
+            return (this.count == 0) ? 0.0 : (double) this.sum / this.count;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package de.hdm.uls.threadbasedserver.metrics;
+
+/**
+ * This interface defines a metric of the {@link MetricsRegistry}. A metric writes its current value in the plain text
+ * exposition format: a HELP and a TYPE comment followed by one line per sample.
+ */
+public interface Metric
+{
+    /**
+     * @return the name of the metric, which is unique in its registry.
+     */
+    String getName();
+
+    /**
+     * This method appends the current value of the metric to a scrape.
+     *
+     * @param out The text of the scrape.
+     */
+    void writeTo(StringBuilder out);
+}
@@ -0,0 +1,219 @@
+package de.hdm.uls.threadbasedserver.metrics;
+
+import de.hdm.uls.threadbasedserver.config.ServerConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class defines a tiny HTTP endpoint which serves a scrape of a {@link MetricsRegistry} as plain text. The
+ * endpoint listens on the loopback interface on its own port, so it neither competes with the measured server port
+ * nor is reachable from other hosts. A single daemon thread answers one request per connection: GET /metrics (or /)
+ * returns the scrape, every other path returns 404. <br/>
+ * The load tester scrapes the endpoint during a test to put the numbers of the server next to its own timeline.
+ */
+public class MetricsEndpoint implements Runnable
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private static final Logger          log            = LoggerFactory.getLogger(MetricsEndpoint.class);
+
+    private static final int             SO_TIMEOUT     = 2000;
+    private static final String          CONTENT_TYPE   = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static       MetricsEndpoint shared         = null;
+
+    private final        MetricsRegistry registry;
+    private final        int             port;
+
+    private volatile     ServerSocket    serverSocket   = null;
+
+    // ---------------------------------------
+    // CONSTRUCTOR
+    // ---------------------------------------
+
+    /**
+     * @param registry The registry to scrape.
+     * @param port The local port of the endpoint, 0 for an ephemeral port.
+     */
+    public MetricsEndpoint(MetricsRegistry registry, int port)
+    {
+        this.registry = registry;
+        this.port = port;
+    }
+
+    // ---------------------------------------
+    // METHODS
+    // ---------------------------------------
+
+    /**
+     * This method starts the endpoint of the shared registry on ServerConfig.getMetricsPort(), unless the port is 0 or
+     * the endpoint is already running. A failure is logged, because the server works without its endpoint.
+     */
+    public static synchronized void startShared()
+    {
+        if (ServerConfig.getMetricsPort() > 0 && MetricsEndpoint.shared == null)
+        {
+            MetricsEndpoint endpoint = new MetricsEndpoint(MetricsRegistry.getShared(), ServerConfig.getMetricsPort());
+            try
+            {
+                endpoint.start();
+                MetricsEndpoint.shared = endpoint;
+            }
+            catch (IOException ex)
+            {
+                log.warn("Unable to start the metrics endpoint on port " + ServerConfig.getMetricsPort() + "!", ex);
+            }
+        }
+    }
+
+    /**
+     * This method stops the endpoint of the shared registry.
+     */
+    public static synchronized void stopShared()
+    {
+        if (MetricsEndpoint.shared != null)
+        {
+            MetricsEndpoint.shared.stop();
+            MetricsEndpoint.shared = null;
+        }
+    }
+
+    /**
+     * This method binds the endpoint to the loopback interface and starts its thread.
+     *
+     * @throws IOException if the port can not be bound.
+     */
+    public void start() throws IOException
+    {
+        ServerSocket serverSocket = new ServerSocket();
+        serverSocket.setReuseAddress(true);
+        serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), this.port));
+        this.serverSocket = serverSocket;
+
+        Thread thread = new Thread(this, "metrics-endpoint");
+        thread.setDaemon(true);
+        thread.start();
+
+        log.info("metrics endpoint running on: http://" + InetAddress.getLoopbackAddress().getHostAddress() + ":"
+                + serverSocket.getLocalPort() + "/metrics");
+    }
+
+    /**
+     * This method closes the server socket of the endpoint, which ends its thread.
+     */
+    public void stop()
+    {
+        ServerSocket serverSocket = this.serverSocket;
+        this.serverSocket = null;
+
+        if (serverSocket != null)
+        {
+            try
+            {
+                serverSocket.close();
+            }
+            catch (IOException ex)
+            {
+                log.error("Error while closing the metrics endpoint!", ex);
+            }
+        }
+    }
+
+    /**
+     * @return the bound port of the endpoint, or -1 if the endpoint is not running.
+     */
+    public int getLocalPort()
+    {
+        ServerSocket serverSocket = this.serverSocket;
+
+        return (serverSocket != null) ? serverSocket.getLocalPort() : -1;
+    }
+
+    @Override
+    public void run()
+    {
+        ServerSocket serverSocket;
+        while ((serverSocket = this.serverSocket) != null)
+        {
+            try (Socket socket = serverSocket.accept())
+            {
+                socket.setSoTimeout(SO_TIMEOUT);
+                this.serve(socket);
+            }
+            catch (IOException ex)
+            {
+                if (this.serverSocket != null)
+                {
+                    log.debug("Error while serving a metrics request!", ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * This method reads the request line and the headers of a request and writes the response.
+     *
+     * @param socket The socket of the request.
+     * @throws IOException if reading or writing the socket failed.
+     */
+    private void serve(Socket socket) throws IOException
+    {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+        String requestLine = reader.readLine();
+
+        // skip the headers, the endpoint does not need them
+        String header = reader.readLine();
+        while (header != null && !header.isEmpty())
+        {
+            header = reader.readLine();
+        }
+
+        String[] parts = (requestLine != null) ? requestLine.split(" ") : new String[0];
+        String path = (parts.length > 1) ? parts[1] : "";
+        int query = path.indexOf('?');
+        if (query >= 0)
+        {
+            path = path.substring(0, query);
+        }
+
+        if (parts.length > 1 && "GET".equals(parts[0]) && ("/metrics".equals(path) || "/".equals(path)))
+        {
+            this.respond(socket.getOutputStream(), "200 OK", this.registry.scrape());
+        }
+        else
+        {
+            this.respond(socket.getOutputStream(), "404 Not Found", "not found\n");
+        }
+    }
+
+    /**
+     * @param out The stream of the socket.
+     * @param status The status code and reason phrase.
+     * @param body The plain text body.
+     * @throws IOException if writing the response failed.
+     */
+    private void respond(OutputStream out, String status, String body) throws IOException
+    {
+        byte[] content = body.getBytes(StandardCharsets.UTF_8);
+        String head = "HTTP/1.1 " + status + "\r\n"
+                + "Content-Type: " + CONTENT_TYPE + "\r\n"
+                + "Content-Length: " + content.length + "\r\n"
+                + "Connection: close\r\n\r\n";
+
+        out.write(head.getBytes(StandardCharsets.US_ASCII));
+        out.write(content);
+        out.flush();
+    }
+}
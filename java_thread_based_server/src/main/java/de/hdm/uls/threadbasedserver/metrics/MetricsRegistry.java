@@ -0,0 +1,122 @@
+package de.hdm.uls.threadbasedserver.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.LongSupplier;
+
+/**
+ * This class holds the metrics of a process by their names. The servers register their metrics once and update them
+ * on their hot paths without touching the registry again; the registry is only read when it is scraped, e.g. by the
+ * {@link MetricsEndpoint}. A scrape writes the metrics sorted by name in the plain text exposition format.
+ */
+public class MetricsRegistry
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private static final MetricsRegistry     shared  = new MetricsRegistry();
+
+    private final        Map<String, Metric> metrics = new ConcurrentSkipListMap<>();
+
+    // ---------------------------------------
+    // METHODS
+    // ---------------------------------------
+
+    /**
+     * @return the registry shared by all servers of the process.
+     */
+    public static MetricsRegistry getShared()
+    {
+        return MetricsRegistry.shared;
+    }
+
+    /**
+     * @param name The name of the counter.
+     * @param help The description of the counter.
+     * @return the registered counter of the name, or a new counter if the name is not registered yet.
+     * @throws IllegalArgumentException if the name is registered by a metric of another type.
+     */
+    public Counter counter(String name, String help)
+    {
+        return this.register(name, new Counter(name, help), Counter.class);
+    }
+
+    /**
+     * @param name The name of the histogram.
+     * @param help The description of the histogram.
+     * @return the registered histogram of the name, or a new histogram if the name is not registered yet.
+     * @throws IllegalArgumentException if the name is registered by a metric of another type.
+     */
+    public Histogram histogram(String name, String help)
+    {
+        return this.register(name, new Histogram(name, help), Histogram.class);
+    }
+
+    /**
+     * This method registers a gauge. A gauge reads the state of a running server, so a gauge replaces a gauge of the
+     * same name registered by a server which was started before.
+     *
+     * @param name The name of the gauge.
+     * @param help The description of the gauge.
+     * @param supplier The supplier of the current value.
+     * @return the registered gauge.
+     */
+    public Gauge gauge(String name, String help, LongSupplier supplier)
+    {
+        Gauge gauge = new Gauge(name, help, supplier);
+        this.metrics.put(name, gauge);
+
+        return gauge;
+    }
+
+    /**
+     * @param name The name of the metric to remove.
+     */
+    public void remove(String name)
+    {
+        this.metrics.remove(name);
+    }
+
+    /**
+     * @return the current values of all metrics in the plain text exposition format.
+     */
+    public String scrape()
+    {
+        StringBuilder out = new StringBuilder(4096);
+        List<Metric> metrics = new ArrayList<>(this.metrics.values());
+
+        for (Metric metric : metrics)
+        {
+            metric.writeTo(out);
+        }
+
+        return out.toString();
+    }
+
+    /**
+     * This method registers a metric if its name is not registered yet.
+     *
+     * @param name The name of the metric.
+     * @param metric The metric to register.
+     * @param type The expected type of a registered metric.
+     * @return the metric registered with the name.
+     */
+    private <T extends Metric> T register(String name, T metric, Class<T> type)
+    {
+        Metric registered = this.metrics.putIfAbsent(name, metric);
+        if (registered == null)
+        {
+            return metric;
+        }
+        if (!type.isInstance(registered))
+        {
+            throw new IllegalArgumentException("The metric " + name + " is already registered as "
+                    + registered.getClass().getSimpleName() + "!");
+        }
+
+        return type.cast(registered);
+    }
+}
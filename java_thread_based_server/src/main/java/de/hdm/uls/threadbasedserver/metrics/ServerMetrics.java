@@ -0,0 +1,143 @@
+package de.hdm.uls.threadbasedserver.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class defines the metrics every server implementation updates in the shared {@link MetricsRegistry}: the
+ * accepted, active and closed connections, the received and sent bytes, the service time of the responses and the
+ * number of threads and selectors. The service time is measured from the complete request to the last written byte of
+ * the response in microseconds. <br/>
+ * The methods are called on the hot paths of the servers, so they only increment striped counters.
+ */
+public final class ServerMetrics
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private static final String        PREFIX               = "uls_";
+
+    private static final ThreadMXBean  THREADS              = ManagementFactory.getThreadMXBean();
+    private static final AtomicInteger SELECTORS            = new AtomicInteger();
+
+    public static final  Counter       CONNECTIONS_ACCEPTED = MetricsRegistry.getShared().counter(
+            PREFIX + "connections_accepted_total", "Connections accepted by the server.");
+    public static final  Counter       CONNECTIONS_CLOSED   = MetricsRegistry.getShared().counter(
+            PREFIX + "connections_closed_total", "Connections closed by the server or the client.");
+    public static final  Counter       BYTES_RECEIVED       = MetricsRegistry.getShared().counter(
+            PREFIX + "bytes_received_total", "Request bytes read from the clients.");
+    public static final  Counter       BYTES_SENT           = MetricsRegistry.getShared().counter(
+            PREFIX + "bytes_sent_total", "Response bytes written to the clients.");
+    public static final  Counter       RESPONSES            = MetricsRegistry.getShared().counter(
+            PREFIX + "responses_total", "Responses written completely.");
+    public static final  Histogram     SERVICE_TIME         = MetricsRegistry.getShared().histogram(
+            PREFIX + "response_service_time_micros", "Time from the complete request to the last byte of the response.");
+    public static final  Histogram     HANDOFF_TIME         = MetricsRegistry.getShared().histogram(
+            PREFIX + "handoff_time_micros", "Time a request and its response waited between selector and handler threads.");
+    public static final  Counter       RING_FULL            = MetricsRegistry.getShared().counter(
+            PREFIX + "ring_full_total", "Requests built by a selector thread because its ring buffer was full.");
+    public static final  Histogram     COMPUTE_TIME         = MetricsRegistry.getShared().histogram(
+            PREFIX + "compute_time_micros", "Time a thread spent computing the checksum of a compute request.");
+
+    static
+    {
+        MetricsRegistry registry = MetricsRegistry.getShared();
+
+        registry.gauge(PREFIX + "connections_active", "Connections accepted and not closed yet.",
+                () -> CONNECTIONS_ACCEPTED.get() - CONNECTIONS_CLOSED.get());
+        registry.gauge(PREFIX + "selectors_open", "Selectors opened by the server and not closed yet.", SELECTORS::get);
+        registry.gauge(PREFIX + "jvm_threads_live", "Live threads of the server process.", THREADS::getThreadCount);
+        registry.gauge(PREFIX + "jvm_threads_peak", "Peak number of live threads of the server process.", THREADS::getPeakThreadCount);
+        registry.gauge(PREFIX + "scrape_timestamp_millis", "Wall clock time of the scrape, to align it with the load tester.",
+                System::currentTimeMillis);
+    }
+
+    // ---------------------------------------
+    // CONSTRUCTOR
+    // ---------------------------------------
+
+    private ServerMetrics()
+    {}
+
+    // ---------------------------------------
+    // METHODS
+    // ---------------------------------------
+
+    public static void connectionAccepted()
+    {
+        CONNECTIONS_ACCEPTED.increment();
+    }
+
+    public static void connectionClosed()
+    {
+        CONNECTIONS_CLOSED.increment();
+    }
+
+    /**
+     * @param bytes The number of bytes of a read, non-positive values are ignored.
+     */
+    public static void bytesReceived(long bytes)
+    {
+        BYTES_RECEIVED.add(bytes);
+    }
+
+    /**
+     * @param bytes The number of bytes of a write, non-positive values are ignored.
+     */
+    public static void bytesSent(long bytes)
+    {
+        BYTES_SENT.add(bytes);
+    }
+
+    /**
+     * This method counts a response whose last byte was written.
+     *
+     * @param startNanos The System.nanoTime() when the request was complete.
+     */
+    public static void responseCompleted(long startNanos)
+    {
+        RESPONSES.increment();
+        SERVICE_TIME.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos));
+    }
+
+    /**
+     * This method records the hand-off of a request to a handler thread and of its response back to the selector.
+     *
+     * @param handoffNanos The time the request and the response waited in the queues between the threads.
+     */
+    public static void handoffCompleted(long handoffNanos)
+    {
+        HANDOFF_TIME.record(TimeUnit.NANOSECONDS.toMicros(handoffNanos));
+    }
+
+    /**
+     * This method counts a request which could not be published into a full ring buffer.
+     */
+    public static void ringFull()
+    {
+        RING_FULL.increment();
+    }
+
+    /**
+     * This method records the work of a compute request, see the class payload.ComputeRequest.
+     *
+     * @param computeNanos The time spent computing the response.
+     */
+    public static void computeCompleted(long computeNanos)
+    {
+        COMPUTE_TIME.record(TimeUnit.NANOSECONDS.toMicros(computeNanos));
+    }
+
+    public static void selectorOpened()
+    {
+        SELECTORS.incrementAndGet();
+    }
+
+    public static void selectorClosed()
+    {
+        SELECTORS.decrementAndGet();
+    }
+}
@@ -0,0 +1,265 @@
+package de.hdm.uls.threadbasedserver.payload;
+
+import de.hdm.uls.threadbasedserver.config.ServerConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class defines a store of assets the clients can request by a key. The store registers every file of the asset
+ * directory under its file name. Requested assets are mapped into memory ({@link MappedByteBuffer}), so the operating
+ * system pages the files in and out of the page cache and the java heap holds no copies of the files. <br/>
+ * The total size of the mapped assets is bounded. If a new mapping exceeds the bound, the least recently used mappings
+ * are released. A released mapping is unmapped by the garbage collector as soon as no connection uses it anymore. <br/>
+ * A request without a key or with an unknown key gets the default file of the servers (ServerConfig.FILE_PATH).
+ */
+public class AssetStore
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private static final Logger                            log            = LoggerFactory.getLogger(AssetStore.class);
+
+    private static       AssetStore                        shared         = null;
+
+    private final        ConcurrentMap<String, Path>       registry       = new ConcurrentHashMap<>();
+    private final        LinkedHashMap<String, ByteBuffer> mappings       = new LinkedHashMap<>(16, 0.75f, true);
+    private final        long                              maxMappedBytes;
+
+    private              long                              mappedBytes    = 0;
+    private final        AtomicLong                        hits           = new AtomicLong();
+    private final        AtomicLong                        misses         = new AtomicLong();
+    private final        AtomicLong                        evictions      = new AtomicLong();
+
+    // ---------------------------------------
+    // CONSTRUCTOR
+    // ---------------------------------------
+
+    /**
+     * @param maxMappedBytes The maximum number of bytes of all mapped assets.
+     */
+    public AssetStore(long maxMappedBytes)
+    {
+        this.maxMappedBytes = maxMappedBytes;
+    }
+
+    // ---------------------------------------
+    // METHODS
+    // ---------------------------------------
+
+    /**
+     * @return the store shared by all servers of the process, containing the assets of the asset directory, see
+     * ServerConfig.getAssetDirectory().
+     */
+    public static synchronized AssetStore getShared()
+    {
+        if (AssetStore.shared == null)
+        {
+            AssetStore.shared = new AssetStore(ServerConfig.ASSET_CACHE_MAX_BYTES);
+            AssetStore.shared.scan(Paths.get(ServerConfig.getAssetDirectory()));
+        }
+
+        return AssetStore.shared;
+    }
+
+    /**
+     * This method registers all regular files of a directory. The file name is the key of an asset.
+     *
+     * @param directory The directory containing the assets.
+     */
+    public void scan(Path directory)
+    {
+        if (!Files.isDirectory(directory))
+        {
+            log.info("No asset directory " + directory.toAbsolutePath() + " found. Serve the default file only.");
+            return;
+        }
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory))
+        {
+            for (Path file : files)
+            {
+                if (Files.isRegularFile(file))
+                {
+                    this.register(file.getFileName().toString(), file);
+                }
+            }
+            log.info("Registered " + this.registry.size() + " assets of " + directory.toAbsolutePath());
+        }
+        catch (IOException ex)
+        {
+            log.error("Error while scanning the asset directory " + directory + "!", ex);
+        }
+    }
+
+    /**
+     * This method registers an asset.
+     *
+     * @param key The key the clients use to request the asset.
+     * @param file The file of the asset.
+     */
+    public void register(String key, Path file)
+    {
+        this.registry.put(key, file);
+    }
+
+    /**
+     * @return the keys of all registered assets.
+     */
+    public Set<String> getKeys()
+    {
+        return this.registry.keySet();
+    }
+
+    /**
+     * This method returns a read-only view of an asset. The asset is mapped into memory on the first request.
+     *
+     * @param key The key of the asset, can be NULL.
+     * @return A read-only view of the asset, or a view of the default file if the key is unknown.
+     * @throws IOException if the asset can not be mapped.
+     */
+    public ByteBuffer openPayload(String key) throws IOException
+    {
+        Path file = (key != null) ? this.registry.get(key) : null;
+
+        if (file == null)
+        {
+            return PayloadCache.getShared().get(ServerConfig.FILE_PATH);
+        }
+
+        return this.map(key, file).asReadOnlyBuffer();
+    }
+
+    /**
+     * This method opens a zero copy transfer of an asset.
+     *
+     * @param key The key of the asset, can be NULL.
+     * @return A transfer of the asset, or a transfer of the default file if the key is unknown.
+     * @throws IOException if the file can not be opened.
+     */
+    public FileTransfer openTransfer(String key) throws IOException
+    {
+        Path file = (key != null) ? this.registry.get(key) : null;
+
+        return (file != null) ? new FileTransfer(file) : FileTransfer.open(ServerConfig.FILE_PATH);
+    }
+
+    /**
+     * @return the number of bytes of all mapped assets.
+     */
+    public synchronized long getMappedBytes()
+    {
+        return this.mappedBytes;
+    }
+
+    /**
+     * @return the number of mapped assets.
+     */
+    public synchronized int getMappedAssets()
+    {
+        return this.mappings.size();
+    }
+
+    /**
+     * @return the number of requests served by an existing mapping.
+     */
+    public long getHits()
+    {
+        return this.hits.get();
+    }
+
+    /**
+     * @return the number of requests which had to map an asset.
+     */
+    public long getMisses()
+    {
+        return this.misses.get();
+    }
+
+    /**
+     * @return the number of mappings released to keep the mapped bytes within the bound.
+     */
+    public long getEvictions()
+    {
+        return this.evictions.get();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "asset store - assets: " + this.registry.size() + " - mapped: " + this.getMappedAssets() + " ("
+                + this.getMappedBytes() + " bytes) - hits: " + this.getHits() + " - misses: " + this.getMisses()
+                + " - evictions: " + this.getEvictions();
+    }
+
+    /**
+     * This method returns the mapping of an asset and maps the asset if necessary. Mapping a file under the lock is
+     * cheap, because the operating system loads the pages lazily on the first access.
+     *
+     * @param key The key of the asset.
+     * @param file The file of the asset.
+     * @return The mapping of the asset.
+     * @throws IOException if the file can not be mapped.
+     */
+    private synchronized ByteBuffer map(String key, Path file) throws IOException
+    {
+        ByteBuffer mapping = this.mappings.get(key);
+
+        if (mapping != null)
+        {
+            this.hits.incrementAndGet();
+            return mapping;
+        }
+
+        this.misses.incrementAndGet();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        this.mappings.put(key, mapping);
+        this.mappedBytes += mapping.capacity();
+        this.evict(key);
+
+        return mapping;
+    }
+
+    /**
+     * This method releases the least recently used mappings until the mapped bytes are within the bound. The mapping of
+     * the current request is never released.
+     *
+     * @param currentKey The key of the asset of the current request.
+     */
+    private void evict(String currentKey)
+    {
+        Iterator<Map.Entry<String, ByteBuffer>> eldest = this.mappings.entrySet().iterator();
+
+        while (this.mappedBytes > this.maxMappedBytes && eldest.hasNext())
+        {
+            Map.Entry<String, ByteBuffer> entry = eldest.next();
+            if (!entry.getKey().equals(currentKey))
+            {
+                this.mappedBytes -= entry.getValue().capacity();
+                this.evictions.incrementAndGet();
+                eldest.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package de.hdm.uls.threadbasedserver.payload;
+
+import de.hdm.uls.threadbasedserver.config.ServerConfig;
+import de.hdm.uls.threadbasedserver.metrics.ServerMetrics;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This class implements the CPU-bound request type of the servers. A client requests the key {@link #KEY} instead of
+ * an asset, and the server hashes ServerConfig.getComputeRounds() slices of the default file, each of
+ * ServerConfig.getComputeSliceBytes() bytes, see {@link PayloadChecksum}. The response body is the 8 byte checksum, so
+ * the request costs CPU time instead of I/O. <br/>
+ * Every server computes the checksum on the thread that builds its responses: the selector thread of an event loop,
+ * a handler thread of a worker pool or the thread of a connection. A thread of a fork/join pool splits the slices
+ * into parts which the other threads of its pool steal.
+ */
+public final class ComputeRequest
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    /**
+     * The key of a compute request. An asset registered under this key can not be requested.
+     */
+    public static final String KEY = "compute";
+
+    // ---------------------------------------
+    // CONSTRUCTOR
+    // ---------------------------------------
+
+    private ComputeRequest()
+    {}
+
+    // ---------------------------------------
+    // METHODS
+    // ---------------------------------------
+
+    /**
+     * @param key The key of a request, can be NULL.
+     * @return TRUE if the key requests a computation instead of an asset.
+     */
+    public static boolean isCompute(String key)
+    {
+        return KEY.equals(key);
+    }
+
+    /**
+     * This method runs a compute request with the current settings of the server.
+     *
+     * @param payload The default file, its position and limit are not changed.
+     * @return A new buffer containing the checksum of the slices, ready to write.
+     */
+    public static ByteBuffer run(ByteBuffer payload)
+    {
+        long startNanos = System.nanoTime();
+        long checksum = ComputeRequest.checksum(payload, ServerConfig.getComputeRounds(),
+                ServerConfig.getComputeSliceBytes());
+        ServerMetrics.computeCompleted(System.nanoTime() - startNanos);
+
+        ByteBuffer result = ByteBuffer.allocate(Long.BYTES);
+        result.putLong(0, checksum);
+
+        return result;
+    }
+
+    /**
+     * This method hashes the slices of a payload. The slices follow each other and wrap around at the end of the
+     * payload, so every round reads other bytes.
+     *
+     * @param payload The payload, its position and limit are not changed.
+     * @param rounds The number of slices to hash.
+     * @param sliceBytes The size of a slice in bytes, at most the size of the payload.
+     * @return the checksums of the slices, combined in the order of the rounds.
+     */
+    static long checksum(ByteBuffer payload, int rounds, int sliceBytes)
+    {
+        int size = Math.min(sliceBytes, payload.remaining());
+        int offsets = payload.remaining() - size + 1;
+        ByteBuffer slice = payload.duplicate();
+        long checksum = 0;
+
+        for (int round = 0; round < rounds; round++)
+        {
+            int from = payload.position() + (int) ((long) round * size % offsets);
+            slice.limit(from + size);
+            slice.position(from);
+            checksum = checksum * 31 + PayloadChecksum.of(slice);
+        }
+
+        return checksum;
+    }
+}
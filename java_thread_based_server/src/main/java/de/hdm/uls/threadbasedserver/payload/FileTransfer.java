@@ -0,0 +1,176 @@
+package de.hdm.uls.threadbasedserver.payload;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class describes the transfer of a file to a channel using {@link FileChannel#transferTo}. If the target is a
+ * socket channel, the operating system copies the file directly from the page cache into the socket (sendfile), so the
+ * bytes never pass the java heap. <br/>
+ * A transfer remembers its position, so a transfer to a non-blocking channel can be resumed if the socket buffer was
+ * full. The transfers created by {@link #share()} read the same open file with their own positions, the file is closed
+ * with the last of these transfers.
+ */
+public class FileTransfer implements Closeable
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private final FileChannel   file;
+    private final long          size;
+    private final AtomicInteger references;
+    private       long          position = 0;
+    private       boolean       closed   = false;
+
+    // ---------------------------------------
+    // CONSTRUCTOR
+    // ---------------------------------------
+
+    public FileTransfer(Path path) throws IOException
+    {
+        this.file = FileChannel.open(path, StandardOpenOption.READ);
+        this.size = this.file.size();
+        this.references = new AtomicInteger(1);
+    }
+
+    private FileTransfer(FileChannel file, long size, AtomicInteger references)
+    {
+        this.file = file;
+        this.size = size;
+        this.references = references;
+    }
+
+    // ---------------------------------------
+    // METHODS
+    // ---------------------------------------
+
+    /**
+     * This method opens a transfer of a file located in the class path.
+     *
+     * @param resource The class path location of the file, e.g. ServerConfig.FILE_PATH.
+     * @return A new transfer starting at the beginning of the file.
+     * @throws IOException if the file does not exist or can not be opened.
+     */
+    public static FileTransfer open(String resource) throws IOException
+    {
+        return new FileTransfer(FileTransfer.resolve(resource));
+    }
+
+    /**
+     * This method resolves the path of a file located in the class path.
+     *
+     * @param resource The class path location of the file.
+     * @return The path of the file in the file system.
+     * @throws IOException if the file does not exist.
+     */
+    public static Path resolve(String resource) throws IOException
+    {
+        URL url = FileTransfer.class.getResource(resource);
+        if (url == null)
+        {
+            throw new IOException("The file " + resource + " does not exist in the class path!");
+        }
+
+        try
+        {
+            return Paths.get(url.toURI());
+        }
+        catch (URISyntaxException ex)
+        {
+            throw new IOException("Error to access the file " + resource + "!", ex);
+        }
+    }
+
+    /**
+     * This method creates a transfer of the same open file, so a file which is sent again and again is opened only
+     * once. FileChannel.transferTo does not move the position of the file, so the transfers do not interfere.
+     *
+     * @return A new transfer starting at the beginning of the file.
+     * @throws IOException if this transfer is closed.
+     */
+    public FileTransfer share() throws IOException
+    {
+        if (this.closed)
+        {
+            throw new IOException("The transfer is closed!");
+        }
+
+        this.references.incrementAndGet();
+        return new FileTransfer(this.file, this.size, this.references);
+    }
+
+    /**
+     * This method transfers the remaining bytes of the file to the target channel. A blocking channel receives the
+     * whole file. A non-blocking channel receives as many bytes as the socket buffer can take, the transfer continues
+     * from this position on the next call.
+     *
+     * @param target The channel to transfer the file to.
+     * @return TRUE if the whole file was transferred, otherwise FALSE.
+     * @throws IOException if an error occurred while transferring the file.
+     */
+    public boolean transferTo(WritableByteChannel target) throws IOException
+    {
+        while (this.position < this.size)
+        {
+            long transferred = this.file.transferTo(this.position, this.size - this.position, target);
+            if (transferred <= 0)
+            {
+                // the socket buffer is full, continue if the channel is writable again
+                break;
+            }
+
+            this.position += transferred;
+        }
+
+        return this.isCompleted();
+    }
+
+    /**
+     * @return TRUE if the whole file was transferred, otherwise FALSE.
+     */
+    public boolean isCompleted()
+    {
+        return this.position >= this.size;
+    }
+
+    /**
+     * @return the number of bytes already transferred.
+     */
+    public long getPosition()
+    {
+        return this.position;
+    }
+
+    /**
+     * @return the size of the file in bytes.
+     */
+    public long getSize()
+    {
+        return this.size;
+    }
+
+    /**
+     * This method closes the transfer. The file is closed as soon as no other transfer shares it.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        if (!this.closed)
+        {
+            this.closed = true;
+            if (this.references.decrementAndGet() == 0)
+            {
+                this.file.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package de.hdm.uls.threadbasedserver.payload;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class defines a read-only cache of the files the servers send to the clients. Every file is read once into a
+ * direct ByteBuffer outside of the java heap. A connection gets a read-only view of the cached buffer with its own
+ * position and limit, so all connections share the same bytes and sending a file creates no garbage. <br/>
+ * All servers of a process share one cache instance.
+ */
+public class PayloadCache
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private static final Logger                            log           = LoggerFactory.getLogger(PayloadCache.class);
+
+    private static final PayloadCache                      shared        = new PayloadCache();
+
+    private final        ConcurrentMap<String, ByteBuffer> payloads      = new ConcurrentHashMap<>();
+    private final        AtomicLong                        hits          = new AtomicLong();
+    private final        AtomicLong                        misses        = new AtomicLong();
+    private final        AtomicLong                        residentBytes = new AtomicLong();
+
+    // ---------------------------------------
+    // METHODS
+    // ---------------------------------------
+
+    /**
+     * @return the cache instance shared by all servers of the process.
+     */
+    public static PayloadCache getShared()
+    {
+        return PayloadCache.shared;
+    }
+
+    /**
+     * This method loads a file into the cache. Servers call this method at startup, so the first client does not pay
+     * for reading the file from disk.
+     *
+     * @param resource The class path location of the file, e.g. ServerConfig.FILE_PATH.
+     * @throws IOException if the file can not be read.
+     */
+    public void preload(String resource) throws IOException
+    {
+        try
+        {
+            this.payloads.computeIfAbsent(resource, this::load);
+        }
+        catch (UncheckedIOException ex)
+        {
+            throw ex.getCause();
+        }
+    }
+
+    /**
+     * This method returns a read-only view of a cached file. The file is loaded into the cache on the first access.
+     * The view has its own position and limit, so every connection can consume its view independently.
+     *
+     * @param resource The class path location of the file, e.g. ServerConfig.FILE_PATH.
+     * @return A read-only view of the file content, positioned at the beginning of the file.
+     * @throws IOException if the file is not cached and can not be read.
+     */
+    public ByteBuffer get(String resource) throws IOException
+    {
+        ByteBuffer payload = this.payloads.get(resource);
+
+        if (payload != null)
+        {
+            this.hits.incrementAndGet();
+        }
+        else
+        {
+            this.misses.incrementAndGet();
+            try
+            {
+                payload = this.payloads.computeIfAbsent(resource, this::load);
+            }
+            catch (UncheckedIOException ex)
+            {
+                throw ex.getCause();
+            }
+        }
+
+        return payload.asReadOnlyBuffer();
+    }
+
+    /**
+     * @return the number of requests served from the cache.
+     */
+    public long getHits()
+    {
+        return this.hits.get();
+    }
+
+    /**
+     * @return the number of requests which had to load a file into the cache.
+     */
+    public long getMisses()
+    {
+        return this.misses.get();
+    }
+
+    /**
+     * @return the number of bytes the cached files occupy in direct memory.
+     */
+    public long getResidentBytes()
+    {
+        return this.residentBytes.get();
+    }
+
+    /**
+     * @return the number of cached files.
+     */
+    public int size()
+    {
+        return this.payloads.size();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "payload cache - files: " + this.size() + " - resident bytes: " + this.getResidentBytes()
+                + " - hits: " + this.getHits() + " - misses: " + this.getMisses();
+    }
+
+    /**
+     * This method reads a file into a new direct buffer.
+     *
+     * @param resource The class path location of the file.
+     * @return A direct buffer containing the whole file, ready to read.
+     * @throws UncheckedIOException if the file can not be read.
+     */
+    private ByteBuffer load(String resource)
+    {
+        try (FileChannel file = FileChannel.open(FileTransfer.resolve(resource), StandardOpenOption.READ))
+        {
+            long size = file.size();
+            if (size > Integer.MAX_VALUE)
+            {
+                throw new IOException("The file " + resource + " is too large to be cached (" + size + " bytes)!");
+            }
+
+            ByteBuffer payload = ByteBuffer.allocateDirect((int) size);
+            while (payload.hasRemaining() && file.read(payload) >= 0)
+            {
+                // read until the buffer is full
+            }
+            payload.flip();
+
+            this.residentBytes.addAndGet(payload.capacity());
+            log.info("Cached " + resource + " (" + payload.capacity() + " bytes)");
+
+            return payload;
+        }
+        catch (IOException ex)
+        {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package de.hdm.uls.threadbasedserver.payload;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * This class computes a 64 bit polynomial checksum of a payload: h = b[0] * P^(n-1) + ... + b[n-1] modulo 2^64. The
+ * checksum of two concatenated parts is h(A) * P^|B| + h(B), so a large payload can be split into parts which are
+ * summed up in parallel. <br/>
+ * A thread of a fork/join pool splits a large payload into subtasks, which the idle threads of its pool steal. Any
+ * other thread, e.g. an event loop, computes the checksum sequentially, so the work never leaks into a pool the
+ * calling server does not own.
+ */
+public final class PayloadChecksum
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    /**
+     * Parts up to this size in bytes are not split any further.
+     */
+    public static final  int  SPLIT_THRESHOLD = 64 * 1024;
+
+    private static final long PRIME           = 1099511628211L;
+
+    // ---------------------------------------
+    // CONSTRUCTOR
+    // ---------------------------------------
+
+    private PayloadChecksum()
+    {}
+
+    // ---------------------------------------
+    // METHODS
+    // ---------------------------------------
+
+    /**
+     * @param payload The payload, its position and limit are not changed.
+     * @return the checksum of the remaining bytes of the payload.
+     */
+    public static long of(ByteBuffer payload)
+    {
+        if (ForkJoinTask.inForkJoinPool() && payload.remaining() > SPLIT_THRESHOLD)
+        {
+            return new ChecksumTask(payload, payload.position(), payload.limit()).invoke();
+        }
+
+        return PayloadChecksum.sequential(payload, payload.position(), payload.limit());
+    }
+
+    /**
+     * @param payload The payload.
+     * @param from The index of the first byte.
+     * @param to The index behind the last byte.
+     * @return the checksum of the bytes in the range.
+     */
+    private static long sequential(ByteBuffer payload, int from, int to)
+    {
+        long checksum = 0;
+        for (int i = from; i < to; i++)
+        {
+            checksum = checksum * PRIME + (payload.get(i) & 0xFF);
+        }
+
+        return checksum;
+    }
+
+    /**
+     * @param exponent The exponent, not negative.
+     * @return PRIME^exponent modulo 2^64.
+     */
+    private static long power(int exponent)
+    {
+        long result = 1;
+        long base = PRIME;
+
+        for (int e = exponent; e > 0; e >>= 1)
+        {
+            if ((e & 1) == 1)
+            {
+                result *= base;
+            }
+            base *= base;
+        }
+
+        return result;
+    }
+
+    // ---------------------------------------
+    // INNER CLASS
+    // ---------------------------------------
+
+    /**
+     * This task splits its range into halves until the parts are small enough. The left half is forked and may be
+     * stolen by another thread, the right half is computed by the current thread.
+     */
+    private static class ChecksumTask extends RecursiveTask<Long>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final ByteBuffer payload;
+        private final int        from;
+        private final int        to;
+
+        private ChecksumTask(ByteBuffer payload, int from, int to)
+        {
+            this.payload = payload;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Long compute()
+        {
+            if (this.to - this.from <= SPLIT_THRESHOLD)
+            {
+                return PayloadChecksum.sequential(this.payload, this.from, this.to);
+            }
+
+            int middle = (this.from + this.to) >>> 1;
+            ChecksumTask left = new ChecksumTask(this.payload, this.from, middle);
+            left.fork();
+            long right = new ChecksumTask(this.payload, middle, this.to).compute();
+
+            return left.join() * PayloadChecksum.power(this.to - middle) + right;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package de.hdm.uls.threadbasedserver.payload;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class keeps the read-only views of the most recently requested assets for a single thread. A request gets a
+ * duplicate of the cached view, so the thread touches neither the lock of the {@link AssetStore} nor the shared
+ * counters of the caches after the first request of an asset. In the same way a zero copy response gets a transfer
+ * of the cached open file of the asset, see {@link FileTransfer#share()}, instead of opening the file again. <br/>
+ * The class is not thread-safe: every event loop owns its own instance. A cached view keeps its mapping alive after
+ * the store released it and a cached transfer keeps its file open, so the number of views and transfers is bounded.
+ */
+public class PayloadViews
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private static final Logger                    log          = LoggerFactory.getLogger(PayloadViews.class);
+
+    private static final int                       MAX_VIEWS    = 16;
+    private static final String                    DEFAULT_FILE = "";
+
+    private final        AssetStore                store;
+    private final        Map<String, ByteBuffer>   views        = new LinkedHashMap<String, ByteBuffer>(16, 0.75f, true)
+    {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ByteBuffer> eldest)
+        {
+            return this.size() > MAX_VIEWS;
+        }
+    };
+    private final        Map<String, FileTransfer> transfers    = new LinkedHashMap<String, FileTransfer>(16, 0.75f, true)
+    {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, FileTransfer> eldest)
+        {
+            if (this.size() > MAX_VIEWS)
+            {
+                // the file stays open until the responses still sending it are done
+                PayloadViews.close(eldest.getValue());
+                return true;
+            }
+            return false;
+        }
+    };
+
+    private              long                      hits         = 0;
+    private              long                      misses       = 0;
+
+    // ---------------------------------------
+    // CONSTRUCTOR
+    // ---------------------------------------
+
+    /**
+     * @param store The store which maps the assets.
+     */
+    public PayloadViews(AssetStore store)
+    {
+        this.store = store;
+    }
+
+    // ---------------------------------------
+    // METHODS
+    // ---------------------------------------
+
+    /**
+     * This method returns a read-only view of an asset, see {@link AssetStore#openPayload(String)}.
+     *
+     * @param key The key of the asset, can be NULL.
+     * @return A read-only view of the asset with its own position and limit.
+     * @throws IOException if the asset can not be mapped.
+     */
+    public ByteBuffer openPayload(String key) throws IOException
+    {
+        String viewKey = (key != null) ? key : DEFAULT_FILE;
+        ByteBuffer view = this.views.get(viewKey);
+
+        if (view != null)
+        {
+            this.hits++;
+        }
+        else
+        {
+            this.misses++;
+            view = this.store.openPayload(key);
+            this.views.put(viewKey, view);
+        }
+
+        return view.duplicate();
+    }
+
+    /**
+     * This method returns a zero copy transfer of an asset, see {@link AssetStore#openTransfer(String)}. The file of
+     * the asset is opened by the first request and shared by the transfers of the following requests.
+     *
+     * @param key The key of the asset, can be NULL.
+     * @return A new transfer starting at the beginning of the asset, which has to be closed after the response.
+     * @throws IOException if the asset can not be opened.
+     */
+    public FileTransfer openTransfer(String key) throws IOException
+    {
+        String transferKey = (key != null) ? key : DEFAULT_FILE;
+        FileTransfer source = this.transfers.get(transferKey);
+
+        if (source != null)
+        {
+            this.hits++;
+        }
+        else
+        {
+            this.misses++;
+            source = this.store.openTransfer(key);
+            this.transfers.put(transferKey, source);
+        }
+
+        return source.share();
+    }
+
+    /**
+     * This method closes the cached transfers, the files are closed as soon as the last response sending them is done.
+     */
+    public void release()
+    {
+        for (FileTransfer source : this.transfers.values())
+        {
+            PayloadViews.close(source);
+        }
+        this.transfers.clear();
+    }
+
+    private static void close(FileTransfer transfer)
+    {
+        try
+        {
+            transfer.close();
+        }
+        catch (IOException ex)
+        {
+            log.error("Error while closing the file of a transfer!", ex);
+        }
+    }
+
+    public long getHits()
+    {
+        return this.hits;
+    }
+
+    public long getMisses()
+    {
+        return this.misses;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "payload views - views: " + this.views.size() + " - transfers: " + this.transfers.size() + " - hits: "
+                + this.hits + " - misses: " + this.misses;
+    }
+}
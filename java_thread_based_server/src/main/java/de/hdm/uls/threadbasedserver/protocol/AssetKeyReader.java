@@ -0,0 +1,94 @@
+package de.hdm.uls.threadbasedserver.protocol;
+
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class reads the asset key which follows the delimiter signs of a request and ends with the end of the line,
+ * e.g. "$::_$1m.bin\n". The reader keeps the bytes of a key split over several reads until the line is complete. <br/>
+ * A read ending directly behind the delimiter signs completes a request without a key, which gets the default file.
+ * So a client sends the delimiter signs and the start of the key with a single write.
+ */
+public class AssetKeyReader
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    public static final int     MAX_KEY_LENGTH = 255;
+
+    private final       byte[]  key            = new byte[MAX_KEY_LENGTH];
+    private             int     length         = 0;
+    private             boolean reading        = false;
+
+    // ---------------------------------------
+    // METHODS
+    // ---------------------------------------
+
+    /**
+     * This method reads the key bytes between two absolute indices of a buffer. The position and limit of the buffer
+     * are not changed. Bytes behind the end of the line are ignored.
+     *
+     * @param buffer The buffer containing the read bytes.
+     * @param from The absolute index of the first key byte, the index behind the delimiter signs or the first index of
+     *             a read following the delimiter signs.
+     * @param to The absolute index after the last read byte.
+     * @return TRUE if the key is complete, FALSE if the line continues in the next read.
+     * @throws ProtocolException if the key is longer than MAX_KEY_LENGTH bytes.
+     */
+    public boolean read(ByteBuffer buffer, int from, int to) throws ProtocolException
+    {
+        if (!this.reading && from == to)
+        {
+            // the request ends with the delimiter signs
+            return true;
+        }
+
+        this.reading = true;
+        for (int i = from; i < to; i++)
+        {
+            byte value = buffer.get(i);
+            if (value == '\n' || value == '\r' || value == 0)
+            {
+                this.reading = false;
+                return true;
+            }
+
+            if (this.length == MAX_KEY_LENGTH)
+            {
+                throw new ProtocolException("The asset key of the request exceeds " + MAX_KEY_LENGTH + " bytes!");
+            }
+            this.key[this.length++] = value;
+        }
+
+        return false;
+    }
+
+    /**
+     * @return TRUE if the delimiter signs were read and the line of the key is not complete yet.
+     */
+    public boolean isReading()
+    {
+        return this.reading;
+    }
+
+    /**
+     * @return the key read so far, or NULL if the request contains no key.
+     */
+    public String getKey()
+    {
+        String key = new String(this.key, 0, this.length, StandardCharsets.US_ASCII).trim();
+
+        return key.isEmpty() ? null : key;
+    }
+
+    /**
+     * This method prepares the reader for the key of the next request.
+     */
+    public void reset()
+    {
+        this.length = 0;
+        this.reading = false;
+    }
+}
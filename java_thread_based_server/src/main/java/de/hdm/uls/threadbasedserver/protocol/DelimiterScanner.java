@@ -0,0 +1,121 @@
+package de.hdm.uls.threadbasedserver.protocol;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class defines a streaming matcher for the delimiter signs of the request protocol. The scanner compares the
+ * bytes of a buffer in place (Knuth-Morris-Pratt), so it touches every read byte exactly once and creates no garbage.
+ * The number of matched delimiter bytes is kept between two scans, so a delimiter split over two reads is detected
+ * too. <br/>
+ * A scanner holds the match state of a single connection. Scanners created by {@link #copy()} share the immutable
+ * fallback table of the delimiter.
+ */
+public class DelimiterScanner
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private final byte[] delimiter;
+    private final int[]  fallback;
+
+    private       int    matched = 0;
+
+    // ---------------------------------------
+    // CONSTRUCTOR
+    // ---------------------------------------
+
+    /**
+     * @param delimiter The delimiter signs, e.g. ServerConfig.DELIMITER.
+     */
+    public DelimiterScanner(String delimiter)
+    {
+        this.delimiter = delimiter.getBytes(StandardCharsets.US_ASCII);
+        this.fallback = new int[this.delimiter.length];
+
+        // fallback[i] is the length of the longest proper prefix of the delimiter which is also a suffix of the
+        // first i + 1 delimiter bytes
+        int length = 0;
+        for (int i = 1; i < this.delimiter.length; i++)
+        {
+            while (length > 0 && this.delimiter[i] != this.delimiter[length])
+            {
+                length = this.fallback[length - 1];
+            }
+
+            if (this.delimiter[i] == this.delimiter[length])
+            {
+                length++;
+            }
+            this.fallback[i] = length;
+        }
+    }
+
+    private DelimiterScanner(DelimiterScanner prototype)
+    {
+        this.delimiter = prototype.delimiter;
+        this.fallback = prototype.fallback;
+    }
+
+    // ---------------------------------------
+    // METHODS
+    // ---------------------------------------
+
+    /**
+     * @return a new scanner with an empty match state for the same delimiter.
+     */
+    public DelimiterScanner copy()
+    {
+        return new DelimiterScanner(this);
+    }
+
+    /**
+     * This method scans the bytes between two absolute indices of a buffer for the delimiter signs. The position and
+     * limit of the buffer are not changed. If the delimiter is detected, the match state is reset, so the next scan
+     * searches the next delimiter.
+     *
+     * @param buffer The buffer containing the read bytes.
+     * @param from The absolute index of the first byte to scan.
+     * @param to The absolute index after the last byte to scan.
+     * @return The absolute index of the first byte after the delimiter signs, or -1 if the scanned bytes complete no
+     * delimiter.
+     */
+    public int scan(ByteBuffer buffer, int from, int to)
+    {
+        for (int i = from; i < to; i++)
+        {
+            byte value = buffer.get(i);
+
+            while (this.matched > 0 && value != this.delimiter[this.matched])
+            {
+                // fall back to the longest delimiter prefix which is also a suffix of the matched bytes
+                this.matched = this.fallback[this.matched - 1];
+            }
+
+            if (value == this.delimiter[this.matched] && ++this.matched == this.delimiter.length)
+            {
+                this.matched = 0;
+                return i + 1;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * @return the number of delimiter bytes matched by the end of the last scan.
+     */
+    public int getMatched()
+    {
+        return this.matched;
+    }
+
+    /**
+     * This method discards the match state of the scanner.
+     */
+    public void reset()
+    {
+        this.matched = 0;
+    }
+}
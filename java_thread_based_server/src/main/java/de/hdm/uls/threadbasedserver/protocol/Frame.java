@@ -0,0 +1,80 @@
+package de.hdm.uls.threadbasedserver.protocol;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This class defines the binary frames of the framed protocol. Every frame starts with a fixed header in network byte
+ * order, followed by a body of the announced length:
+ * <pre>
+ *     +------------+---------------+-------------------+------------------+
+ *     | type (1 B) | length (4 B)  | request id (8 B)  | body (length B)  |
+ *     +------------+---------------+-------------------+------------------+
+ * </pre>
+ * A client uploads data with DATA frames, which the server consumes without a response. A GET frame carries the key of
+ * the requested asset as US-ASCII body (empty for the default file); the server answers with a RESPONSE frame which
+ * repeats the request id and carries the asset. Both sides know the exact size of a message from its header, so no
+ * delimiter has to be scanned and no side has to wait for the end of the stream.
+ */
+public final class Frame
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    public static final int  HEADER_SIZE    = 1 + 4 + 8;
+
+    public static final byte TYPE_DATA      = 1;
+    public static final byte TYPE_GET       = 2;
+    public static final byte TYPE_RESPONSE  = 3;
+
+    /**
+     * The maximum length of the body of a GET frame, which is the asset key.
+     */
+    public static final int  MAX_KEY_LENGTH = 255;
+
+    // ---------------------------------------
+    // CONSTRUCTOR
+    // ---------------------------------------
+
+    private Frame()
+    {}
+
+    // ---------------------------------------
+    // METHODS
+    // ---------------------------------------
+
+    /**
+     * This method creates the header of a frame.
+     *
+     * @param type The type of the frame.
+     * @param length The length of the body.
+     * @param requestId The id of the request.
+     * @return A new buffer containing the header, ready to write.
+     */
+    public static ByteBuffer header(byte type, int length, long requestId)
+    {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.put(type).putInt(length).putLong(requestId);
+        header.flip();
+
+        return header;
+    }
+
+    /**
+     * This method creates the header of a response frame for a body of the given size.
+     *
+     * @param size The size of the response body in bytes.
+     * @param requestId The id of the request the response belongs to.
+     * @return A new buffer containing the header, ready to write.
+     * @throws IllegalArgumentException if the body is too large for a frame.
+     */
+    public static ByteBuffer responseHeader(long size, long requestId)
+    {
+        if (size > Integer.MAX_VALUE)
+        {
+            throw new IllegalArgumentException("The response of " + size + " bytes is too large for a frame!");
+        }
+
+        return Frame.header(TYPE_RESPONSE, (int) size, requestId);
+    }
+}
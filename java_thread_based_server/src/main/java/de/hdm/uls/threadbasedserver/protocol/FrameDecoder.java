@@ -0,0 +1,139 @@
+package de.hdm.uls.threadbasedserver.protocol;
+
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class decodes the frames a client sends to a server. The decoder consumes the bytes of every read as they
+ * arrive and keeps the state of a partially received frame between the reads. <br/>
+ * The header is collected in a small buffer of the decoder. The body of a GET frame is copied into an array of the
+ * exact body size, the body of a DATA frame is only counted and skipped.
+ */
+public class FrameDecoder
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private final ByteBuffer header        = ByteBuffer.allocate(Frame.HEADER_SIZE);
+
+    private       boolean    headerDecoded = false;
+    private       byte       type          = 0;
+    private       int        length        = 0;
+    private       long       requestId     = 0;
+    private       byte[]     body          = null;
+    private       int        bodyBytes     = 0;
+
+    // ---------------------------------------
+    // METHODS
+    // ---------------------------------------
+
+    /**
+     * This method consumes bytes of a buffer until a frame is complete or the buffer is drained. Bytes following a
+     * complete frame stay in the buffer for the next call.
+     *
+     * @param source The buffer containing the received bytes between its position and limit.
+     * @return TRUE if a frame is complete, otherwise FALSE.
+     * @throws ProtocolException if the header announces an unknown type or an invalid length.
+     */
+    public boolean decode(ByteBuffer source) throws ProtocolException
+    {
+        if (!this.headerDecoded)
+        {
+            while (this.header.hasRemaining() && source.hasRemaining())
+            {
+                this.header.put(source.get());
+            }
+
+            if (this.header.hasRemaining())
+            {
+                return false;
+            }
+
+            this.header.flip();
+            this.decodeHeader();
+        }
+
+        int bytes = Math.min(this.length - this.bodyBytes, source.remaining());
+        if (this.body != null)
+        {
+            source.get(this.body, this.bodyBytes, bytes);
+        }
+        else
+        {
+            source.position(source.position() + bytes);
+        }
+        this.bodyBytes += bytes;
+
+        return this.bodyBytes == this.length;
+    }
+
+    /**
+     * This method prepares the decoder for the next frame.
+     */
+    public void reset()
+    {
+        this.header.clear();
+        this.headerDecoded = false;
+        this.type = 0;
+        this.length = 0;
+        this.requestId = 0;
+        this.body = null;
+        this.bodyBytes = 0;
+    }
+
+    public byte getType()
+    {
+        return this.type;
+    }
+
+    public int getLength()
+    {
+        return this.length;
+    }
+
+    public long getRequestId()
+    {
+        return this.requestId;
+    }
+
+    /**
+     * @return the asset key of a complete GET frame, or NULL if the frame has an empty body.
+     */
+    public String getKey()
+    {
+        if (this.body == null || this.body.length == 0)
+        {
+            return null;
+        }
+
+        return new String(this.body, StandardCharsets.US_ASCII).trim();
+    }
+
+    private void decodeHeader() throws ProtocolException
+    {
+        this.type = this.header.get();
+        this.length = this.header.getInt();
+        this.requestId = this.header.getLong();
+        this.headerDecoded = true;
+
+        if (this.length < 0)
+        {
+            throw new ProtocolException("Invalid frame length " + this.length + "!");
+        }
+
+        if (this.type == Frame.TYPE_GET)
+        {
+            if (this.length > Frame.MAX_KEY_LENGTH)
+            {
+                throw new ProtocolException("The asset key of " + this.length + " bytes is too long!");
+            }
+            this.body = new byte[this.length];
+        }
+        else if (this.type != Frame.TYPE_DATA)
+        {
+            throw new ProtocolException("Unknown frame type " + this.type + "!");
+        }
+    }
+}
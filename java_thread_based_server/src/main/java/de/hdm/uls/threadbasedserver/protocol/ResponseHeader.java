@@ -0,0 +1,57 @@
+package de.hdm.uls.threadbasedserver.protocol;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class creates the header in front of every response, which announces the size of the response body. The
+ * framed protocol uses the header of a RESPONSE frame, see {@link Frame}. The delimiter protocol uses the header of the
+ * node.js server:
+ * <pre>
+ *     Content-Length: &lt;size&gt;\r\n
+ *     \r\n
+ *     &lt;body&gt;
+ * </pre>
+ * So a client reads exactly the announced number of bytes and the response time ends at the last byte of the body
+ * instead of at the close of the connection.
+ */
+public final class ResponseHeader
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    public static final String CONTENT_LENGTH = "Content-Length: ";
+    public static final String LINE_END       = "\r\n";
+
+    // ---------------------------------------
+    // CONSTRUCTOR
+    // ---------------------------------------
+
+    private ResponseHeader()
+    {}
+
+    // ---------------------------------------
+    // METHODS
+    // ---------------------------------------
+
+    /**
+     * @param framed TRUE for the framed protocol, FALSE for the delimiter protocol.
+     * @param size The size of the response body in bytes.
+     * @param requestId The id of the request of the framed protocol.
+     * @return A new buffer containing the header of the protocol, ready to write.
+     */
+    public static ByteBuffer of(boolean framed, long size, long requestId)
+    {
+        return framed ? Frame.responseHeader(size, requestId) : ResponseHeader.contentLength(size);
+    }
+
+    /**
+     * @param size The size of the response body in bytes.
+     * @return A new buffer containing the Content-Length header and the empty line, ready to write.
+     */
+    public static ByteBuffer contentLength(long size)
+    {
+        return ByteBuffer.wrap((CONTENT_LENGTH + size + LINE_END + LINE_END).getBytes(StandardCharsets.US_ASCII));
+    }
+}
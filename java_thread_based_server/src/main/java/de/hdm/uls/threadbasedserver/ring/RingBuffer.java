@@ -0,0 +1,201 @@
+package de.hdm.uls.threadbasedserver.ring;
+
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * This class defines a lock-free ring buffer in the style of the LMAX Disruptor with a single producer and a pool of
+ * consumers. The slots are created once by a factory and reused for the lifetime of the ring, so the producer copies
+ * the data of an event into the next free slot instead of allocating an event object. <br/>
+ * The producer claims the next slot with {@link #tryNext()}, fills it and makes it visible with {@link #publish(long)}.
+ * The consumers share a work sequence: every consumer claims the next slot with {@link #claim(Sequence)}, so each slot
+ * is processed by exactly one consumer, and waits with {@link #waitFor(long, WaitStrategy, BooleanSupplier)} until the
+ * slot is published. A slot is reused only if every consumer has moved past it. <br/>
+ * Only one thread may publish to a ring. The sequences are never reset, a long is sufficient for the lifetime of a
+ * server.
+ *
+ * @param <E> The type of the slots.
+ */
+public class RingBuffer<E>
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private final    Object[]   entries;
+    private final    int        mask;
+    private final    Sequence   cursor       = new Sequence(-1);
+    private final    Sequence   workSequence = new Sequence(-1);
+
+    private volatile Sequence[] consumers    = new Sequence[0];
+
+    // the state of the producer, only touched by the producer thread
+    private          long       nextSequence = -1;
+    private          long       cachedGating = -1;
+
+    // ---------------------------------------
+    // CONSTRUCTOR
+    // ---------------------------------------
+
+    /**
+     * @param size The number of slots, a power of 2.
+     * @param factory The factory creating the slots.
+     * @throws IllegalArgumentException if the size is not a power of 2.
+     */
+    public RingBuffer(int size, Supplier<E> factory)
+    {
+        if (size < 1 || Integer.bitCount(size) != 1)
+        {
+            throw new IllegalArgumentException("The size of a ring buffer must be a power of 2, but is " + size + "!");
+        }
+
+        this.entries = new Object[size];
+        this.mask = size - 1;
+
+        for (int i = 0; i < size; i++)
+        {
+            this.entries[i] = factory.get();
+        }
+    }
+
+    // ---------------------------------------
+    // METHODS
+    // ---------------------------------------
+
+    /**
+     * This method adds the sequence of a new consumer. The producer does not overwrite a slot the consumer has not
+     * moved past. Must be called before the consumer claims its first slot.
+     *
+     * @return the sequence of the consumer, which is passed to {@link #claim(Sequence)}.
+     */
+    public synchronized Sequence addConsumer()
+    {
+        Sequence consumer = new Sequence(this.workSequence.get());
+
+        Sequence[] extended = Arrays.copyOf(this.consumers, this.consumers.length + 1);
+        extended[extended.length - 1] = consumer;
+        this.consumers = extended;
+
+        return consumer;
+    }
+
+    /**
+     * This method claims the next slot for the producer. The producer never waits: if the slowest consumer has not
+     * moved past the slot yet, the ring is full and the producer has to handle the event another way.
+     *
+     * @return the sequence of the claimed slot, or -1 if the ring is full.
+     */
+    public long tryNext()
+    {
+        long next = this.nextSequence + 1;
+        long wrapPoint = next - this.entries.length;
+
+        if (wrapPoint > this.cachedGating)
+        {
+            // reading the consumer sequences is expensive, so the minimum is cached until the producer reaches it
+            this.cachedGating = this.minimumConsumerSequence(this.nextSequence);
+
+            if (wrapPoint > this.cachedGating)
+            {
+                return -1;
+            }
+        }
+
+        this.nextSequence = next;
+        return next;
+    }
+
+    /**
+     * This method makes a filled slot visible to the consumers. The writes into the slot happen before the publish.
+     *
+     * @param sequence The sequence returned by {@link #tryNext()}.
+     */
+    public void publish(long sequence)
+    {
+        this.cursor.setOrdered(sequence);
+    }
+
+    /**
+     * This method claims the next slot for a consumer. The slot may not be published yet, see
+     * {@link #waitFor(long, WaitStrategy, BooleanSupplier)}. Claiming the next slot releases the previous slot of the
+     * consumer for the producer.
+     *
+     * @param consumer The sequence of the consumer, see {@link #addConsumer()}.
+     * @return the sequence of the claimed slot.
+     */
+    public long claim(Sequence consumer)
+    {
+        long next = this.workSequence.incrementAndGet();
+        consumer.setOrdered(next - 1);
+
+        return next;
+    }
+
+    /**
+     * This method waits until a slot is published.
+     *
+     * @param sequence The sequence of the slot.
+     * @param strategy The strategy to wait with.
+     * @param running The condition to keep waiting, e.g. the running flag of the consumer.
+     * @return TRUE if the slot is published, FALSE if the consumer stopped waiting.
+     */
+    public boolean waitFor(long sequence, WaitStrategy strategy, BooleanSupplier running)
+    {
+        int counter = 0;
+
+        while (this.cursor.get() < sequence)
+        {
+            if (!running.getAsBoolean())
+            {
+                return false;
+            }
+
+            counter = strategy.idle(counter);
+        }
+
+        return true;
+    }
+
+    /**
+     * @param sequence The sequence of a slot.
+     * @return the slot.
+     */
+    @SuppressWarnings("unchecked")
+    public E get(long sequence)
+    {
+        return (E) this.entries[(int) (sequence & this.mask)];
+    }
+
+    /**
+     * @return the number of slots.
+     */
+    public int getSize()
+    {
+        return this.entries.length;
+    }
+
+    /**
+     * @return the number of published slots no consumer has claimed yet.
+     */
+    public long getBacklog()
+    {
+        return Math.max(0, this.cursor.get() - this.workSequence.get());
+    }
+
+    /**
+     * @param minimum The value if no consumer has been added.
+     * @return the smallest sequence of the consumers.
+     */
+    private long minimumConsumerSequence(long minimum)
+    {
+        long result = minimum;
+
+        for (Sequence consumer : this.consumers)
+        {
+            result = Math.min(result, consumer.get());
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,94 @@
+package de.hdm.uls.threadbasedserver.ring;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * This class defines a sequence number of a {@link RingBuffer}, e.g. the last published slot of the producer or the
+ * last processed slot of a consumer. Every sequence is written by one thread and read by the others, so the value is
+ * padded on both sides: two sequences never share a cache line and the writes of one thread do not invalidate the
+ * cached sequence of another thread (false sharing). The padding is inherited from the classes below, because the JVM
+ * may reorder the fields of a single class.
+ */
+public class Sequence extends RhsPadding
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private static final AtomicLongFieldUpdater<Value> VALUE = AtomicLongFieldUpdater.newUpdater(Value.class, "value");
+
+    // ---------------------------------------
+    // CONSTRUCTOR
+    // ---------------------------------------
+
+    /**
+     * @param initial The initial value of the sequence.
+     */
+    public Sequence(long initial)
+    {
+        this.value = initial;
+    }
+
+    // ---------------------------------------
+    // METHODS
+    // ---------------------------------------
+
+    public long get()
+    {
+        return this.value;
+    }
+
+    public void set(long value)
+    {
+        this.value = value;
+    }
+
+    /**
+     * This method sets the value with a store-store barrier only. The value becomes visible to the other threads a
+     * little later, but the writes before the call are visible before the value. Cheaper than {@link #set(long)}.
+     *
+     * @param value The new value.
+     */
+    public void setOrdered(long value)
+    {
+        VALUE.lazySet(this, value);
+    }
+
+    /**
+     * @return the incremented value.
+     */
+    public long incrementAndGet()
+    {
+        return VALUE.incrementAndGet(this);
+    }
+
+    @Override
+    public String toString()
+    {
+        return Long.toString(this.value);
+    }
+}
+
+/**
+ * The padding in front of the value of a sequence.
+ */
+abstract class LhsPadding
+{
+    protected long p1, p2, p3, p4, p5, p6, p7;
+}
+
+/**
+ * The value of a sequence.
+ */
+abstract class Value extends LhsPadding
+{
+    protected volatile long value;
+}
+
+/**
+ * The padding behind the value of a sequence.
+ */
+abstract class RhsPadding extends Value
+{
+    protected long p9, p10, p11, p12, p13, p14, p15;
+}
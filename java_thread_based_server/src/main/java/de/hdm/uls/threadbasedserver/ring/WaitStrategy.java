@@ -0,0 +1,79 @@
+package de.hdm.uls.threadbasedserver.ring;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This enum defines how a consumer of a {@link RingBuffer} waits for the next published slot. The strategies trade
+ * the latency of the hand-off against the CPU time burned while the ring is empty:
+ * <ul>
+ *     <li>BUSY_SPIN: the consumer spins without a break. Lowest latency, but every consumer occupies a core.</li>
+ *     <li>YIELD: the consumer spins a little, then yields its core to other threads after every check.</li>
+ *     <li>PARK: the consumer spins and yields a little, then parks for {@link #PARK_NANOS} after every check. The
+ *         producer never signals a parked consumer, so an idle consumer costs almost no CPU time but picks up a
+ *         new slot up to a park period later.</li>
+ * </ul>
+ */
+public enum WaitStrategy
+{
+    BUSY_SPIN
+    {
+        @Override
+        public int idle(int counter)
+        {
+            return counter;
+        }
+    },
+    YIELD
+    {
+        @Override
+        public int idle(int counter)
+        {
+            if (counter < SPIN_TRIES)
+            {
+                return counter + 1;
+            }
+
+            Thread.yield();
+            return counter;
+        }
+    },
+    PARK
+    {
+        @Override
+        public int idle(int counter)
+        {
+            if (counter < SPIN_TRIES)
+            {
+                return counter + 1;
+            }
+            if (counter < SPIN_TRIES + YIELD_TRIES)
+            {
+                Thread.yield();
+                return counter + 1;
+            }
+
+            LockSupport.parkNanos(PARK_NANOS);
+            return counter;
+        }
+    };
+
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    public static final int  SPIN_TRIES  = 100;
+    public static final int  YIELD_TRIES = 100;
+    public static final long PARK_NANOS  = 50_000L;
+
+    // ---------------------------------------
+    // METHODS
+    // ---------------------------------------
+
+    /**
+     * This method is called by a consumer every time it found no new slot.
+     *
+     * @param counter The number of the previous calls while waiting for the current slot, 0 on the first call.
+     * @return the counter of the next call.
+     */
+    public abstract int idle(int counter);
+}
@@ -0,0 +1,224 @@
+package de.hdm.uls.threadbasedserver.server;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class bounds the number of concurrent connections of a server. A server takes a permit before it accepts a
+ * connection and returns the permit when the connection is closed. If no permit is left the server stops accepting:
+ * a blocking server waits in {@link #acquire()}, a selector based server pauses its accept interest and resumes it
+ * when the resume listener is called. Meanwhile new connections queue in the backlog of the kernel, so an overload
+ * shows up as a controlled queueing delay instead of a collapse of the server. <br/>
+ * The class counts the pauses and the time the server spent in the paused state.
+ */
+public class AdmissionControl
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private final    int           maxConnections;
+    private final    AtomicInteger active         = new AtomicInteger();
+    private final    AtomicLong    pauses         = new AtomicLong();
+    private final    AtomicLong    pausedNanos    = new AtomicLong();
+    private final    AtomicLong    pausedSince    = new AtomicLong();
+    private final    Object        lock           = new Object();
+
+    private volatile Runnable      resumeListener = null;
+
+    // ---------------------------------------
+    // CONSTRUCTOR
+    // ---------------------------------------
+
+    /**
+     * @param maxConnections The maximum number of concurrent connections, 0 for no limit.
+     */
+    public AdmissionControl(int maxConnections)
+    {
+        this.maxConnections = Math.max(0, maxConnections);
+    }
+
+    // ---------------------------------------
+    // METHODS
+    // ---------------------------------------
+
+    /**
+     * This method takes a permit for a new connection if the limit is not reached.
+     *
+     * @return TRUE if the connection may be accepted, otherwise FALSE.
+     */
+    public boolean tryAcquire()
+    {
+        if (this.maxConnections == 0)
+        {
+            this.active.incrementAndGet();
+            return true;
+        }
+
+        int current;
+        do
+        {
+            current = this.active.get();
+            if (current >= this.maxConnections)
+            {
+                return false;
+            }
+        }
+        while (!this.active.compareAndSet(current, current + 1));
+
+        return true;
+    }
+
+    /**
+     * This method takes a permit for a new connection and blocks the calling thread in the paused state as long as the
+     * limit is reached.
+     *
+     * @throws InterruptedException if the thread was interrupted while waiting for a permit.
+     */
+    public void acquire() throws InterruptedException
+    {
+        if (this.tryAcquire())
+        {
+            return;
+        }
+
+        synchronized (this.lock)
+        {
+            this.pause();
+            try
+            {
+                while (!this.tryAcquire())
+                {
+                    this.lock.wait();
+                }
+            }
+            finally
+            {
+                this.resume();
+            }
+        }
+    }
+
+    /**
+     * This method returns the permit of a closed connection. If the server is paused the waiting thread and the resume
+     * listener are notified.
+     */
+    public void release()
+    {
+        this.active.decrementAndGet();
+
+        if (this.isPaused())
+        {
+            synchronized (this.lock)
+            {
+                this.lock.notifyAll();
+            }
+
+            Runnable listener = this.resumeListener;
+            if (listener != null)
+            {
+                listener.run();
+            }
+        }
+    }
+
+    /**
+     * This method marks the start of the paused state. A server which pauses its accept interest has to check
+     * {@link #hasCapacity()} after this call, because a connection may have been closed in the meantime.
+     *
+     * @return TRUE if the server was not paused before, otherwise FALSE.
+     */
+    public boolean pause()
+    {
+        if (this.pausedSince.compareAndSet(0L, Math.max(1L, System.nanoTime())))
+        {
+            this.pauses.incrementAndGet();
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * This method marks the end of the paused state and adds the paused time to the statistics.
+     *
+     * @return TRUE if the calling thread ended the pause, FALSE if the server was not paused.
+     */
+    public boolean resume()
+    {
+        long since = this.pausedSince.get();
+
+        if (since != 0L && this.pausedSince.compareAndSet(since, 0L))
+        {
+            this.pausedNanos.addAndGet(System.nanoTime() - since);
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * @param resumeListener The listener called by the thread which releases a permit while the server is paused.
+     */
+    public void setResumeListener(Runnable resumeListener)
+    {
+        this.resumeListener = resumeListener;
+    }
+
+    public boolean isPaused()
+    {
+        return this.pausedSince.get() != 0L;
+    }
+
+    /**
+     * @return TRUE if a new connection would get a permit, otherwise FALSE.
+     */
+    public boolean hasCapacity()
+    {
+        return this.maxConnections == 0 || this.active.get() < this.maxConnections;
+    }
+
+    public int getMaxConnections()
+    {
+        return this.maxConnections;
+    }
+
+    /**
+     * @return the number of connections holding a permit.
+     */
+    public int getActive()
+    {
+        return this.active.get();
+    }
+
+    /**
+     * @return the number of times the server stopped accepting.
+     */
+    public long getPauses()
+    {
+        return this.pauses.get();
+    }
+
+    /**
+     * @return the total time the server spent in the paused state in milliseconds, including a current pause.
+     */
+    public long getPausedMillis()
+    {
+        long nanos = this.pausedNanos.get();
+        long since = this.pausedSince.get();
+        if (since != 0L)
+        {
+            nanos += System.nanoTime() - since;
+        }
+
+        return nanos / 1000000L;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "admission control - max connections: " + (this.maxConnections == 0 ? "unlimited" : this.maxConnections)
+                + " - active: " + this.getActive() + " - pauses: " + this.getPauses() + " - paused: "
+                + this.getPausedMillis() + " ms";
+    }
+}
@@ -0,0 +1,505 @@
+package de.hdm.uls.threadbasedserver.server;
+
+import de.hdm.uls.threadbasedserver.buffer.BufferPool;
+import de.hdm.uls.threadbasedserver.buffer.PooledBuffer;
+import de.hdm.uls.threadbasedserver.config.ServerConfig;
+import de.hdm.uls.threadbasedserver.management.ServerControl;
+import de.hdm.uls.threadbasedserver.metrics.MetricsEndpoint;
+import de.hdm.uls.threadbasedserver.metrics.ServerMetrics;
+import de.hdm.uls.threadbasedserver.payload.AssetStore;
+import de.hdm.uls.threadbasedserver.payload.ComputeRequest;
+import de.hdm.uls.threadbasedserver.payload.PayloadCache;
+import de.hdm.uls.threadbasedserver.protocol.AssetKeyReader;
+import de.hdm.uls.threadbasedserver.protocol.DelimiterScanner;
+import de.hdm.uls.threadbasedserver.protocol.Frame;
+import de.hdm.uls.threadbasedserver.protocol.FrameDecoder;
+import de.hdm.uls.threadbasedserver.protocol.ResponseHeader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousChannelGroup;
+import java.nio.channels.AsynchronousServerSocketChannel;
+import java.nio.channels.AsynchronousSocketChannel;
+import java.nio.channels.CompletionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class is an implementation of a proactor socket server based on the asynchronous channels of the java.nio
+ * library (NIO.2). In contrast to the selector based servers the application does not wait for channels to become
+ * ready. It starts an operation and the channel group completes the operation in the background and calls a
+ * {@link CompletionHandler} with the result. <br/>
+ * Every connection runs through a chain of completion handlers: read until the delimiter signs are detected, write the
+ * cached file and close the connection. <br/>
+ * The server sends heap buffers only and answers every request after it is complete. It has neither an admission
+ * control nor connection timeouts, so the settings zero copy, max connections and the PARALLEL processing mode do not
+ * apply, see ServerEngine.getIgnoredSettings().
+ */
+public class AsyncJavaSocketServer implements Server
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private static final Logger                          log              = LoggerFactory.getLogger(AsyncJavaSocketServer.class);
+
+    private final        int                             groupThreads;
+    private final        DelimiterScanner                scanner          = new DelimiterScanner(ServerConfig.DELIMITER);
+    private final        ServerControl                   control          = new ServerControl(AsyncJavaSocketServer.class.getSimpleName());
+
+    private final        AcceptHandler                   acceptHandler    = new AcceptHandler();
+    private final        ReadHandler                     readHandler      = new ReadHandler();
+    private final        WriteHandler                    writeHandler     = new WriteHandler();
+
+    private              AsynchronousChannelGroup        channelGroup     = null;
+    private              AsynchronousServerSocketChannel serverChannel    = null;
+
+    // ---------------------------------------
+    // CONSTRUCTOR
+    // ---------------------------------------
+
+    public AsyncJavaSocketServer()
+    {
+        this(ServerConfig.getAsyncGroupThreads());
+    }
+
+    /**
+     * @param groupThreads The number of threads of the channel group which complete the I/O operations.
+     */
+    public AsyncJavaSocketServer(int groupThreads)
+    {
+        this.groupThreads = Math.max(1, groupThreads);
+    }
+
+    // ---------------------------------------
+    // METHODS
+    // ---------------------------------------
+
+    @Override
+    public void start()
+    {
+        if (this.serverChannel == null)
+        {
+            try
+            {
+                PayloadCache.getShared().preload(ServerConfig.FILE_PATH);
+                AssetStore.getShared();
+                MetricsEndpoint.startShared();
+                this.channelGroup = AsynchronousChannelGroup.withFixedThreadPool(this.groupThreads, new GroupThreadFactory());
+                this.serverChannel = AsynchronousServerSocketChannel.open(this.channelGroup);
+                SocketOptions.configureServer(this.serverChannel);
+                this.serverChannel.bind(new InetSocketAddress(ServerConfig.getServerHost(), ServerConfig.getServerPort()), ServerConfig.getAcceptBacklog());
+                log.info("server running on: " + ServerConfig.getServerHost() + ":" + ServerConfig.getServerPort() + " with "
+                        + this.groupThreads + " channel group threads");
+                log.warn("The connections of the " + AsyncJavaSocketServer.class.getSimpleName()
+                        + " have no idle, read or write timeouts!");
+                this.control.setWorkerThreads(this.groupThreads);
+                this.control.register();
+
+                this.serverChannel.accept(null, this.acceptHandler);
+
+                // the channel group runs the server, so block the calling thread like the other server implementations
+                this.channelGroup.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+            }
+            catch (IOException ex)
+            {
+                log.error("Error to create a new server instance!", ex);
+            }
+            catch (InterruptedException ex)
+            {
+                log.info("Server thread interrupted! Shut down the server.");
+                Thread.currentThread().interrupt();
+                this.stop();
+            }
+        }
+        else
+        {
+            log.info("Server already started!");
+        }
+    }
+
+    @Override
+    public void stop()
+    {
+        if (this.channelGroup != null)
+        {
+            try
+            {
+                this.serverChannel.close();
+                this.channelGroup.shutdownNow();
+
+                this.serverChannel = null;
+                this.channelGroup = null;
+                log.info(PayloadCache.getShared().toString());
+                log.info(AssetStore.getShared().toString());
+                log.info(BufferPool.getShared().toString());
+                MetricsEndpoint.stopShared();
+                this.control.unregister();
+            }
+            catch (IOException ex)
+            {
+                log.error("An error occurred while closing the server channel and the channel group!", ex);
+            }
+        }
+    }
+
+    /**
+     * This method closes the connection to a client.
+     *
+     * @param connection The connection to close.
+     */
+    private void close(Connection connection)
+    {
+        connection.releaseReadBuffer();
+        ServerMetrics.connectionClosed();
+
+        try
+        {
+            connection.channel.close();
+        }
+        catch (IOException ex)
+        {
+            log.error("Error while closing the connection to the client!", ex);
+        }
+    }
+
+    /**
+     * This method writes the pending response buffers of a connection with a single gathering write.
+     *
+     * @param connection The connection to write to.
+     */
+    private void write(Connection connection)
+    {
+        // a timeout of 0 disables the timeout of the write operation
+        connection.channel.write(connection.writeBuffers, 0, connection.writeBuffers.length, 0L, TimeUnit.MILLISECONDS,
+                connection, this.writeHandler);
+    }
+
+    /**
+     * This method checks every buffer of a response, because the body of an empty asset is drained from the start
+     * while a part of the header may still be pending.
+     *
+     * @param buffers The buffers of a response.
+     * @return TRUE if any buffer has bytes left to write, otherwise FALSE.
+     */
+    static boolean hasRemaining(ByteBuffer[] buffers)
+    {
+        for (ByteBuffer buffer : buffers)
+        {
+            if (buffer.hasRemaining())
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * This method returns a read-only view of the requested asset to send. A compute request is run by the thread of
+     * the channel group which completed the read.
+     *
+     * @param assetKey The key of the requested asset, can be NULL.
+     * @return A ByteBuffer object which contains the binary data to send to the client, or NULL on errors.
+     */
+    private ByteBuffer collectSendingBytes(String assetKey)
+    {
+        ByteBuffer buffer = null;
+        try
+        {
+            buffer = ComputeRequest.isCompute(assetKey)
+                    ? ComputeRequest.run(AssetStore.getShared().openPayload(null))
+                    : AssetStore.getShared().openPayload(assetKey);
+        }
+        catch (IOException e)
+        {
+            log.error("Error to read all bytes of the file to send!", e);
+        }
+
+        return buffer;
+    }
+
+    // ---------------------------------------
+    // INNER CLASSES
+    // ---------------------------------------
+
+    /**
+     * This class holds the state of a client connection between the completion handlers.
+     */
+    private class Connection
+    {
+        private final AsynchronousSocketChannel channel;
+        private final PooledBuffer              pooled       = BufferPool.getShared().acquire(ServerConfig.getReadBufferSize());
+        private final ByteBuffer                readBuffer   = this.pooled.buffer();
+        private       boolean                   reading      = true;
+        private final DelimiterScanner          scanner      = AsyncJavaSocketServer.this.scanner.copy();
+        private final AssetKeyReader            keyReader    = new AssetKeyReader();
+        private       FrameDecoder              decoder      = null;
+        private       String                    assetKey     = null;
+        private       long                      requestId    = 0;
+        private       ByteBuffer[]              writeBuffers = null;
+        private       long                      requestNanos = 0;
+
+        private Connection(AsynchronousSocketChannel channel)
+        {
+            this.channel = channel;
+        }
+
+        /**
+         * This method scans the bytes of the last read for the delimiter signs and reads the asset key behind them.
+         * The scanner keeps the matched delimiter bytes and the key reader keeps the key bytes between the reads, so
+         * the read buffer is reused for every read.
+         *
+         * @return TRUE if the request is complete, otherwise FALSE.
+         * @throws ProtocolException if the asset key is too long.
+         */
+        private boolean scanDelimiter() throws ProtocolException
+        {
+            int keyOffset = this.keyReader.isReading()
+                    ? 0
+                    : this.scanner.scan(this.readBuffer, 0, this.readBuffer.position());
+
+            if (keyOffset >= 0 && this.keyReader.read(this.readBuffer, keyOffset, this.readBuffer.position()))
+            {
+                this.assetKey = this.keyReader.getKey();
+                this.keyReader.reset();
+                return true;
+            }
+
+            return false;
+        }
+
+        /**
+         * This method decodes the frames of the last read. DATA frames are skipped, a GET frame completes the request.
+         *
+         * @return TRUE if the request is complete, otherwise FALSE.
+         * @throws ProtocolException if the client sent an invalid frame.
+         */
+        private boolean decodeFrames() throws ProtocolException
+        {
+            if (this.decoder == null)
+            {
+                this.decoder = new FrameDecoder();
+            }
+
+            this.readBuffer.flip();
+            while (this.readBuffer.hasRemaining() && this.decoder.decode(this.readBuffer))
+            {
+                boolean get = this.decoder.getType() == Frame.TYPE_GET;
+                if (get)
+                {
+                    this.assetKey = this.decoder.getKey();
+                    this.requestId = this.decoder.getRequestId();
+                }
+                this.decoder.reset();
+
+                if (get)
+                {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        /**
+         * This method prepares a keep-alive connection for the next request.
+         */
+        private void reset()
+        {
+            this.assetKey = null;
+            this.requestId = 0;
+            this.writeBuffers = null;
+        }
+
+        /**
+         * This method returns the read buffer to the pool as soon as the connection reads no more bytes.
+         */
+        private void releaseReadBuffer()
+        {
+            if (this.reading)
+            {
+                this.reading = false;
+                this.pooled.release();
+            }
+        }
+    }
+
+    /**
+     * This handler is called if a new connection was accepted. It starts accepting the next connection and starts
+     * reading from the accepted connection.
+     */
+    private class AcceptHandler implements CompletionHandler<AsynchronousSocketChannel, Void>
+    {
+        @Override
+        public void completed(AsynchronousSocketChannel channel, Void attachment)
+        {
+            AsynchronousServerSocketChannel serverChannel = AsyncJavaSocketServer.this.serverChannel;
+            if (serverChannel != null && serverChannel.isOpen())
+            {
+                serverChannel.accept(null, this);
+            }
+
+            try
+            {
+                SocketOptions.configure(channel);
+            }
+            catch (IOException ex)
+            {
+                log.warn("Unable to set the socket options of an accepted connection!", ex);
+            }
+
+            ServerMetrics.connectionAccepted();
+            Connection connection = new Connection(channel);
+            channel.read(connection.readBuffer, connection, AsyncJavaSocketServer.this.readHandler);
+        }
+
+        @Override
+        public void failed(Throwable exc, Void attachment)
+        {
+            AsynchronousServerSocketChannel serverChannel = AsyncJavaSocketServer.this.serverChannel;
+            if (serverChannel != null && serverChannel.isOpen())
+            {
+                log.error("An error occurred while accepting an incoming client connection request!", exc);
+                serverChannel.accept(null, this);
+            }
+        }
+    }
+
+    /**
+     * This handler is called if a read operation completed. It reads until the delimiter signs are detected and
+     * starts writing the response after that.
+     */
+    private class ReadHandler implements CompletionHandler<Integer, Connection>
+    {
+        @Override
+        public void completed(Integer readBytes, Connection connection)
+        {
+            if (readBytes == -1)
+            {
+                // connection was closed by the client before the delimiter was detected
+                AsyncJavaSocketServer.this.close(connection);
+                return;
+            }
+
+            ServerMetrics.bytesReceived(readBytes);
+            boolean framed = ServerConfig.Protocol.FRAMED.equals(ServerConfig.getProtocol());
+            boolean requestComplete;
+            try
+            {
+                requestComplete = framed ? connection.decodeFrames() : connection.scanDelimiter();
+            }
+            catch (ProtocolException ex)
+            {
+                log.error("The client sent an invalid frame! Close connection!", ex);
+                AsyncJavaSocketServer.this.close(connection);
+                return;
+            }
+            connection.readBuffer.clear();
+
+            if (requestComplete)
+            {
+                connection.requestNanos = System.nanoTime();
+                if (!ServerConfig.isKeepAlive())
+                {
+                    // the connection reads no more requests
+                    connection.releaseReadBuffer();
+                }
+                ByteBuffer payload = AsyncJavaSocketServer.this.collectSendingBytes(connection.assetKey);
+
+                if (payload != null)
+                {
+                    connection.writeBuffers = new ByteBuffer[] {
+                            ResponseHeader.of(framed, payload.remaining(), connection.requestId), payload };
+                    AsyncJavaSocketServer.this.write(connection);
+                }
+                else
+                {
+                    AsyncJavaSocketServer.this.close(connection);
+                }
+            }
+            else
+            {
+                connection.channel.read(connection.readBuffer, connection, this);
+            }
+        }
+
+        @Override
+        public void failed(Throwable exc, Connection connection)
+        {
+            log.error("An error occurred while reading data from the client! Close connection!", exc);
+            AsyncJavaSocketServer.this.close(connection);
+        }
+    }
+
+    /**
+     * This handler is called if a write operation completed. A write operation may complete before all bytes are
+     * written, so the handler continues writing until the buffers are drained. After that a keep-alive connection reads
+     * the next request, otherwise the connection is closed.
+     */
+    private class WriteHandler implements CompletionHandler<Long, Connection>
+    {
+        @Override
+        public void completed(Long writtenBytes, Connection connection)
+        {
+            ServerMetrics.bytesSent(writtenBytes);
+            if (AsyncJavaSocketServer.hasRemaining(connection.writeBuffers))
+            {
+                AsyncJavaSocketServer.this.write(connection);
+                return;
+            }
+
+            ServerMetrics.responseCompleted(connection.requestNanos);
+            if (ServerConfig.isKeepAlive())
+            {
+                // the response is complete, read the next request of the client
+                connection.reset();
+                connection.channel.read(connection.readBuffer, connection, AsyncJavaSocketServer.this.readHandler);
+            }
+            else
+            {
+                AsyncJavaSocketServer.this.close(connection);
+            }
+        }
+
+        @Override
+        public void failed(Throwable exc, Connection connection)
+        {
+            log.error("An error occurred while sending data to the client!", exc);
+            AsyncJavaSocketServer.this.close(connection);
+        }
+    }
+
+    /**
+     * This thread factory names the threads of the channel group.
+     */
+    private static class GroupThreadFactory implements ThreadFactory
+    {
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable)
+        {
+            return new Thread(runnable, "channel-group-" + this.threadNumber.incrementAndGet());
+        }
+    }
+
+    // ---------------------------------------
+    // MAIN
+    // ---------------------------------------
+
+    /**
+     * Main method of the server implementation.
+     * @param args
+     */
+    public static void main(String[] args)
+    {
+        Server server = new AsyncJavaSocketServer();
+        server.start();
+    }
+}
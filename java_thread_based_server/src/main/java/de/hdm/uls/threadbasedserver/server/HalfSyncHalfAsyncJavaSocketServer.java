@@ -0,0 +1,200 @@
+package de.hdm.uls.threadbasedserver.server;
+
+import de.hdm.uls.threadbasedserver.config.ServerConfig;
+import de.hdm.uls.threadbasedserver.config.ServerConfig.HandlerExecutor;
+import de.hdm.uls.threadbasedserver.metrics.MetricsRegistry;
+import de.hdm.uls.threadbasedserver.server.nio.RequestDispatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class defines a half-sync/half-async server, the hybrid between the {@link JavaSocketServer} and the
+ * {@link NIOJavaSocketServer}. Like the {@link MultiReactorNIOJavaSocketServer} an acceptor distributes the
+ * connections to N worker event loops, but the selector threads only read, frame and write. Every complete request is
+ * handed to a pool of handler threads which build the response; the response goes back to the event loop of the
+ * connection through its task queue and a wakeup of its selector. <br/>
+ * So a slow or CPU heavy handler blocks a handler thread instead of every connection of a selector. The price is the
+ * hand-off of every request between the threads, see the metric uls_handoff_time_micros. A connection has at most one
+ * request in the handlers, so the queue of the pool is bounded by the connection limit. <br/>
+ * With ServerConfig.HandlerExecutor.FORK_JOIN the requests run as tasks of a work-stealing pool. A handler which forks
+ * the work of an expensive request, e.g. the parts of a checksum, keeps the idle handlers busy instead of leaving them
+ * waiting at the shared queue of the thread pool.
+ */
+public class HalfSyncHalfAsyncJavaSocketServer extends MultiReactorNIOJavaSocketServer
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private static final Logger          log = LoggerFactory.getLogger(HalfSyncHalfAsyncJavaSocketServer.class);
+
+    private final        ExecutorService handlers;
+
+    // ---------------------------------------
+    // CONSTRUCTOR
+    // ---------------------------------------
+
+    public HalfSyncHalfAsyncJavaSocketServer()
+    {
+        this(ServerConfig.getWorkerSelectors(), ServerConfig.getHandlerThreads(), ServerConfig.getHandlerExecutor());
+    }
+
+    /**
+     * @param selectorCount The number of worker event loops doing the I/O.
+     * @param handlerThreads The number of handler threads building the responses.
+     */
+    public HalfSyncHalfAsyncJavaSocketServer(int selectorCount, int handlerThreads)
+    {
+        this(selectorCount, handlerThreads, HandlerExecutor.THREAD_POOL);
+    }
+
+    /**
+     * @param selectorCount The number of worker event loops doing the I/O.
+     * @param handlerThreads The number of handler threads building the responses.
+     * @param handlerExecutor The kind of the pool of the handler threads.
+     */
+    public HalfSyncHalfAsyncJavaSocketServer(int selectorCount, int handlerThreads, HandlerExecutor handlerExecutor)
+    {
+        this(selectorCount, HalfSyncHalfAsyncJavaSocketServer.createHandlers(handlerThreads, handlerExecutor));
+    }
+
+    private HalfSyncHalfAsyncJavaSocketServer(int selectorCount, ExecutorService handlers)
+    {
+        super(selectorCount, index -> RequestDispatcher.of(handlers));
+        this.handlers = handlers;
+    }
+
+    // ---------------------------------------
+    // METHODS
+    // ---------------------------------------
+
+    @Override
+    public void start()
+    {
+        if (this.handlers instanceof ThreadPoolExecutor)
+        {
+            ThreadPoolExecutor pool = (ThreadPoolExecutor) this.handlers;
+            log.info("Handler pool started: " + pool.prestartAllCoreThreads() + " handler threads");
+            this.getServerControl().setWorkerPool(pool);
+        }
+        else
+        {
+            ForkJoinPool pool = (ForkJoinPool) this.handlers;
+            log.info("Work-stealing handler pool started: parallelism " + pool.getParallelism());
+            this.getServerControl().setWorkerThreads(pool.getParallelism());
+        }
+
+        this.registerGauges();
+
+        super.start();
+    }
+
+    @Override
+    public void stop()
+    {
+        super.stop();
+
+        if (!this.handlers.isShutdown())
+        {
+            if (this.handlers instanceof ThreadPoolExecutor)
+            {
+                log.info("handler stats - completed requests: "
+                        + ((ThreadPoolExecutor) this.handlers).getCompletedTaskCount());
+            }
+            else
+            {
+                log.info("handler stats - steals: " + ((ForkJoinPool) this.handlers).getStealCount());
+            }
+            this.handlers.shutdownNow();
+        }
+    }
+
+    /**
+     * This method creates the pool of the handler threads. The queues are unbounded, because the admission control of
+     * the server bounds the number of connections and every connection has at most one request in the pool.
+     *
+     * @param threads The number of handler threads.
+     * @param handlerExecutor The kind of the pool.
+     * @return The pool of the handler threads.
+     */
+    private static ExecutorService createHandlers(int threads, HandlerExecutor handlerExecutor)
+    {
+        int size = Math.max(1, threads);
+
+        if (HandlerExecutor.FORK_JOIN.equals(handlerExecutor))
+        {
+            return WorkStealingPool.create(size, "request-handler-");
+        }
+
+        return new ThreadPoolExecutor(size, size, ServerConfig.POOL_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new HandlerThreadFactory());
+    }
+
+    /**
+     * This method registers the statistics of the handler pool in the shared metrics registry.
+     */
+    private void registerGauges()
+    {
+        MetricsRegistry registry = MetricsRegistry.getShared();
+
+        if (this.handlers instanceof ThreadPoolExecutor)
+        {
+            ThreadPoolExecutor pool = (ThreadPoolExecutor) this.handlers;
+            registry.gauge("uls_handlers_active", "Handler threads currently building a response.",
+                    pool::getActiveCount);
+            registry.gauge("uls_handler_queue_depth", "Requests waiting for a free handler thread.",
+                    () -> pool.getQueue().size());
+        }
+        else
+        {
+            ForkJoinPool pool = (ForkJoinPool) this.handlers;
+            registry.gauge("uls_handlers_active", "Handler threads currently building a response.",
+                    pool::getActiveThreadCount);
+            registry.gauge("uls_handler_queue_depth", "Requests and subtasks waiting for a handler thread.",
+                    () -> WorkStealingPool.getQueueDepth(pool));
+            registry.gauge("uls_handler_steals", "Tasks the handler threads stole from each other.",
+                    pool::getStealCount);
+        }
+    }
+
+    // ---------------------------------------
+    // INNER CLASSES
+    // ---------------------------------------
+
+    /**
+     * This thread factory names the handler threads of the pool.
+     */
+    private static class HandlerThreadFactory implements ThreadFactory
+    {
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable)
+        {
+            return new Thread(runnable, "request-handler-" + this.threadNumber.incrementAndGet());
+        }
+    }
+
+    // ---------------------------------------
+    // MAIN
+    // ---------------------------------------
+
+    /**
+     * main method of the server.
+     *
+     * @param args runtime arguments
+     */
+    public static void main(String[] args)
+    {
+        Server server = new HalfSyncHalfAsyncJavaSocketServer();
+        server.start();
+    }
+}
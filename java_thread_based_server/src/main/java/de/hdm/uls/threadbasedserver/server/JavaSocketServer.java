@@ -2,6 +2,11 @@ package de.hdm.uls.threadbasedserver.server;
 
 import de.hdm.uls.threadbasedserver.client.SocketClient;
 import de.hdm.uls.threadbasedserver.config.ServerConfig;
+import de.hdm.uls.threadbasedserver.management.ServerControl;
+import de.hdm.uls.threadbasedserver.metrics.MetricsEndpoint;
+import de.hdm.uls.threadbasedserver.metrics.ServerMetrics;
+import de.hdm.uls.threadbasedserver.payload.AssetStore;
+import de.hdm.uls.threadbasedserver.payload.PayloadCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -9,6 +14,10 @@ import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.nio.channels.ServerSocketChannel;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * This class defines a threading socket server implementation based on the java.net socket library.
@@ -25,8 +34,12 @@ public class JavaSocketServer implements Server
 
     private static final Logger log = LoggerFactory.getLogger(Server.class);
 
-    private ServerSocket server     = null;
-    private int          clientId  = 0;
+    private final AdmissionControl admission = new AdmissionControl(ServerConfig.getMaxConnections());
+    private final ServerControl    control   = new ServerControl(this.getClass().getSimpleName());
+
+    private ServerSocket           server    = null;
+    private ExecutorService        writers   = null;
+    private int                    clientId  = 0;
 
     // ---------------------------------------
     // METHODS
@@ -39,16 +52,49 @@ public class JavaSocketServer implements Server
         {
             try
             {
-                this.server = new ServerSocket();
-                this.server.bind(new InetSocketAddress(ServerConfig.SERVER_HOST, ServerConfig.SERVER_PORT));
-                log.info(this.getClass().getSimpleName() + " running on " + ServerConfig.SERVER_HOST + ":" + ServerConfig.SERVER_PORT);
+                PayloadCache.getShared().preload(ServerConfig.FILE_PATH);
+                AssetStore.getShared();
+                MetricsEndpoint.startShared();
+                if (ServerConfig.isFullDuplex())
+                {
+                    this.writers = this.createWriterPool();
+                }
+
+                /* a server socket of a blocking ServerSocketChannel accepts sockets which provide a channel, so the
+                 * clients are able to transfer the file to the socket without copying it (zero copy) */
+                this.server = ServerConfig.isZeroCopy() ? ServerSocketChannel.open().socket() : new ServerSocket();
+                SocketOptions.configureServer(this.server);
+                this.server.bind(new InetSocketAddress(ServerConfig.getServerHost(), ServerConfig.getServerPort()), ServerConfig.getAcceptBacklog());
+                log.info(this.getClass().getSimpleName() + " running on " + ServerConfig.getServerHost() + ":" + ServerConfig.getServerPort());
+                // the admission control holds the permit of the pending accept, so the metrics count the open connections
+                this.control.register();
 
                 while (true)
                 {
-                    Socket socket = this.server.accept();
+                    /* stop accepting while the connection limit is reached, the kernel backlog buffers new connections
+                     * until a client is served */
+                    this.admission.acquire();
 
+                    Socket socket;
+                    try
+                    {
+                        socket = this.server.accept();
+                        SocketOptions.configure(socket);
+                    }
+                    catch (IOException ex)
+                    {
+                        this.admission.release();
+                        throw ex;
+                    }
+
+                    ServerMetrics.connectionAccepted();
                     SocketClient client = new SocketClient(clientId, socket);
-                    client.start();
+                    client.setCloseListener(() -> {
+                        this.admission.release();
+                        ServerMetrics.connectionClosed();
+                    });
+                    client.setWriterExecutor(this.writers);
+                    this.dispatch(client);
                     this.clientId++;
                 }
             }
@@ -56,6 +102,12 @@ public class JavaSocketServer implements Server
             {
                 log.error("Error to create a new server instance!", ex);
             }
+            catch (InterruptedException ex)
+            {
+                log.info("Server thread interrupted while waiting for a free connection! Shut down the server.");
+                Thread.currentThread().interrupt();
+                this.stop();
+            }
         }
         else
         {
@@ -72,6 +124,17 @@ public class JavaSocketServer implements Server
             {
                 this.server.close();
                 this.server = null;
+                log.info(PayloadCache.getShared().toString());
+                log.info(AssetStore.getShared().toString());
+                log.info(this.admission.toString());
+                MetricsEndpoint.stopShared();
+                this.control.unregister();
+
+                if (this.writers != null)
+                {
+                    this.writers.shutdownNow();
+                    this.writers = null;
+                }
             }
             catch (IOException e)
             {
@@ -80,6 +143,42 @@ public class JavaSocketServer implements Server
         }
     }
 
+    /**
+     * @return the management bean of the server, which subclasses can hand their worker pool to before the server
+     * starts.
+     */
+    protected ServerControl getServerControl()
+    {
+        return this.control;
+    }
+
+    /**
+     * This method creates the executor of the writer tasks of the full duplex connections, see
+     * ServerConfig.isFullDuplex(). The classic and the pooled server send the responses with a fixed pool of
+     * ServerConfig.getWriterThreads() platform threads, so a full duplex connection does not start a second thread.
+     *
+     * @return The executor of the writer tasks, owned and shut down by this server.
+     */
+    protected ExecutorService createWriterPool()
+    {
+        AtomicInteger threadNumber = new AtomicInteger();
+
+        log.info("Writer pool started: " + ServerConfig.getWriterThreads() + " threads");
+        return Executors.newFixedThreadPool(ServerConfig.getWriterThreads(),
+                runnable -> new Thread(runnable, "writer-" + threadNumber.incrementAndGet()));
+    }
+
+    /**
+     * This method dispatches an accepted client connection to its service thread. The classic server starts a new
+     * platform thread for every client. Subclasses can override this method to use a different threading model.
+     *
+     * @param client The client connection to serve.
+     */
+    protected void dispatch(SocketClient client)
+    {
+        client.start();
+    }
+
 
     // ---------------------------------------
     // MAIN
@@ -0,0 +1,343 @@
+package de.hdm.uls.threadbasedserver.server;
+
+import de.hdm.uls.threadbasedserver.buffer.BufferPool;
+import de.hdm.uls.threadbasedserver.config.ServerConfig;
+import de.hdm.uls.threadbasedserver.management.ServerControl;
+import de.hdm.uls.threadbasedserver.metrics.MetricsEndpoint;
+import de.hdm.uls.threadbasedserver.metrics.ServerMetrics;
+import de.hdm.uls.threadbasedserver.payload.AssetStore;
+import de.hdm.uls.threadbasedserver.payload.PayloadCache;
+import de.hdm.uls.threadbasedserver.server.nio.EventLoop;
+import de.hdm.uls.threadbasedserver.server.nio.LoopTiming;
+import de.hdm.uls.threadbasedserver.server.nio.RequestDispatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.function.IntFunction;
+
+/**
+ * This class is an implementation of a multi reactor socket server based on the java.nio library. In contrast to the
+ * {@link NIOJavaSocketServer}, which accepts, reads and writes in a single selector thread, this server splits the
+ * work: one acceptor thread accepts the incoming connections and distributes them round-robin to N worker event loops.
+ * Each worker event loop runs its own selector in its own thread and processes the read and write operations of its
+ * connections. So the server is able to use more than one core.
+ */
+public class MultiReactorNIOJavaSocketServer implements Server
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private static final Logger                         log                 = LoggerFactory.getLogger(MultiReactorNIOJavaSocketServer.class);
+
+    private final        int                            workerCount;
+    private final        IntFunction<RequestDispatcher> dispatchers;
+    private final        AdmissionControl               admission           = new AdmissionControl(ServerConfig.getMaxConnections());
+    private final        ServerControl                  control             = new ServerControl(this.getClass().getSimpleName());
+
+    private              ServerSocketChannel            serverSocketChannel = null;
+    private              Selector                       selector            = null;
+    private              SelectionKey                   acceptKey           = null;
+    private              EventLoop[]                    workers             = null;
+    private              Thread[]                       workerThreads       = null;
+    private              int                            nextWorker          = 0;
+
+    // ---------------------------------------
+    // CONSTRUCTOR
+    // ---------------------------------------
+
+    public MultiReactorNIOJavaSocketServer()
+    {
+        this(ServerConfig.getWorkerSelectors());
+    }
+
+    public MultiReactorNIOJavaSocketServer(int workerCount)
+    {
+        this(workerCount, null);
+    }
+
+    /**
+     * @param workerCount The number of worker event loops.
+     * @param dispatchers The factory of the dispatcher of every worker event loop, called with the index of the loop.
+     *                    A dispatcher hands the requests the loop has read to the threads building the responses.
+     *                    NULL to build the responses in the worker event loops.
+     */
+    protected MultiReactorNIOJavaSocketServer(int workerCount, IntFunction<RequestDispatcher> dispatchers)
+    {
+        this.workerCount = Math.max(1, workerCount);
+        this.dispatchers = dispatchers;
+
+        try
+        {
+            this.setUp();
+        }
+        catch (IOException ex)
+        {
+            log.error("An error occurred while setting up the server environment!", ex);
+            System.exit(-1);
+        }
+    }
+
+    // ---------------------------------------
+    // METHODS
+    // ---------------------------------------
+
+    @Override
+    public void start()
+    {
+        this.startWorkers();
+        log.info("server running on: " + ServerConfig.getServerHost() + ":" + ServerConfig.getServerPort() + " with "
+                + this.workerCount + " worker event loops");
+        this.registerControl();
+
+        while (!Thread.currentThread().isInterrupted() && this.selector != null)
+        {
+            try
+            {
+                this.resumeAccept();
+
+                if (this.selector.select() == 0)
+                {
+                    continue;
+                }
+
+                Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+
+                while (keys.hasNext())
+                {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+
+                    if (key.isValid() && key.isAcceptable())
+                    {
+                        this.acceptOperation(key);
+                    }
+                }
+            }
+            catch (IOException ex)
+            {
+                log.error("An error occurred while selecting a connection!", ex);
+            }
+        }
+
+        this.stop();
+    }
+
+    @Override
+    public void stop()
+    {
+        if (this.serverSocketChannel != null && this.selector != null)
+        {
+            try
+            {
+                this.serverSocketChannel.close();
+                this.selector.close();
+                ServerMetrics.selectorClosed();
+
+                this.selector = null;
+                this.serverSocketChannel = null;
+                log.info(PayloadCache.getShared().toString());
+                log.info(AssetStore.getShared().toString());
+                log.info(BufferPool.getShared().toString());
+                log.info(this.admission.toString());
+                MetricsEndpoint.stopShared();
+                this.control.unregister();
+            }
+            catch (IOException ex)
+            {
+                log.error("An error occurred while closing the server socket channel and selector instance.", ex);
+            }
+        }
+
+        if (this.workers != null)
+        {
+            for (EventLoop worker : this.workers)
+            {
+                worker.shutdown();
+            }
+
+            this.workers = null;
+            this.workerThreads = null;
+        }
+    }
+
+    /**
+     * This method set up a new server instance and the worker event loops before the server can start to work.
+     * The method throws an exception if setting up the server environment failed.
+     */
+    private void setUp() throws IOException
+    {
+        log.info("initialize server");
+        PayloadCache.getShared().preload(ServerConfig.FILE_PATH);
+        AssetStore.getShared();
+        MetricsEndpoint.startShared();
+
+        this.serverSocketChannel = ServerSocketChannel.open();
+        SocketOptions.configureServer(this.serverSocketChannel);
+        this.serverSocketChannel.bind(new InetSocketAddress(ServerConfig.getServerHost(), ServerConfig.getServerPort()), ServerConfig.getAcceptBacklog());
+        this.serverSocketChannel.configureBlocking(false);
+
+        this.selector = Selector.open();
+        ServerMetrics.selectorOpened();
+        this.acceptKey = this.serverSocketChannel.register(this.selector, SelectionKey.OP_ACCEPT);
+
+        /* the worker threads close the connections, so a closed connection wakes up the acceptor which resumes
+         * accepting in its thread */
+        this.admission.setResumeListener(this.selector::wakeup);
+
+        this.workers = new EventLoop[this.workerCount];
+        for (int i = 0; i < this.workerCount; i++)
+        {
+            this.workers[i] = (this.dispatchers != null)
+                    ? new EventLoop(this.admission, this.dispatchers.apply(i))
+                    : new EventLoop(this.admission);
+        }
+    }
+
+    /**
+     * This method hands the admission control and the worker event loops to the management bean and registers it.
+     */
+    private void registerControl()
+    {
+        LoopTiming[] timings = new LoopTiming[this.workers.length];
+        for (int i = 0; i < this.workers.length; i++)
+        {
+            timings[i] = this.workers[i].getLoopTiming();
+        }
+
+        this.control.setActiveConnections(this.admission::getActive);
+        this.control.setWorkerThreads(this.workerCount);
+        this.control.setLoopTimings(timings);
+        this.control.register();
+    }
+
+    /**
+     * @return the management bean of the server.
+     */
+    protected ServerControl getServerControl()
+    {
+        return this.control;
+    }
+
+    /**
+     * This method starts a thread for every worker event loop.
+     */
+    private void startWorkers()
+    {
+        this.workerThreads = new Thread[this.workerCount];
+
+        for (int i = 0; i < this.workerCount; i++)
+        {
+            this.workerThreads[i] = new Thread(this.workers[i], "event-loop-" + i);
+            this.workerThreads[i].start();
+        }
+    }
+
+    /**
+     * This method accepts all pending connections and hands them round-robin to the worker event loops. The channels
+     * are registered by the worker threads, so the acceptor never blocks on the selector of a worker. If the connection
+     * limit is reached the acceptor pauses accepting until a worker closes a connection.
+     *
+     * @param key The SelectionKey of the server socket channel.
+     */
+    private void acceptOperation(SelectionKey key)
+    {
+        ServerSocketChannel serverSocketChannel = (ServerSocketChannel) key.channel();
+        SocketChannel socketChannel = null;
+
+        try
+        {
+            while (true)
+            {
+                if (!this.admission.tryAcquire())
+                {
+                    this.admission.pause();
+                    key.interestOps(0);
+                    break;
+                }
+
+                socketChannel = serverSocketChannel.accept();
+                if (socketChannel == null)
+                {
+                    this.admission.release();
+                    break;
+                }
+
+                socketChannel.configureBlocking(false);
+                SocketOptions.configure(socketChannel);
+                this.nextWorker().register(socketChannel);
+                socketChannel = null;
+            }
+        }
+        catch (IOException ex)
+        {
+            log.error("An error occurred while accepting an incoming client connection request!", ex);
+            this.admission.release();
+            this.closeQuietly(socketChannel);
+        }
+    }
+
+    /**
+     * This method closes a client channel which could not be handed to a worker.
+     *
+     * @param channel The channel to close, or NULL.
+     */
+    private void closeQuietly(SocketChannel channel)
+    {
+        if (channel != null)
+        {
+            try
+            {
+                channel.close();
+            }
+            catch (IOException ex)
+            {
+                log.error("Error while closing the connection to the client!", ex);
+            }
+        }
+    }
+
+    /**
+     * This method registers the server socket channel for accept operations again if the acceptor paused accepting and
+     * a connection was closed in the meantime.
+     */
+    private void resumeAccept()
+    {
+        if (this.admission.isPaused() && this.admission.hasCapacity() && this.admission.resume())
+        {
+            this.acceptKey.interestOps(SelectionKey.OP_ACCEPT);
+        }
+    }
+
+    /**
+     * @return the next worker event loop in round-robin order.
+     */
+    private EventLoop nextWorker()
+    {
+        EventLoop worker = this.workers[this.nextWorker];
+        this.nextWorker = (this.nextWorker + 1) % this.workers.length;
+
+        return worker;
+    }
+
+    // ---------------------------------------
+    // MAIN
+    // ---------------------------------------
+
+    /**
+     * Main method of the server implementation.
+     * @param args
+     */
+    public static void main(String[] args)
+    {
+        Server server = new MultiReactorNIOJavaSocketServer();
+        server.start();
+    }
+}
@@ -1,26 +1,23 @@
 package de.hdm.uls.threadbasedserver.server;
 
+import de.hdm.uls.threadbasedserver.buffer.BufferPool;
 import de.hdm.uls.threadbasedserver.config.ServerConfig;
+import de.hdm.uls.threadbasedserver.management.ServerControl;
+import de.hdm.uls.threadbasedserver.metrics.MetricsEndpoint;
+import de.hdm.uls.threadbasedserver.metrics.ServerMetrics;
+import de.hdm.uls.threadbasedserver.payload.AssetStore;
+import de.hdm.uls.threadbasedserver.payload.PayloadCache;
+import de.hdm.uls.threadbasedserver.server.nio.LoopTiming;
+import de.hdm.uls.threadbasedserver.server.nio.NIOChannelHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedReader;
-import java.io.DataInputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.net.InetSocketAddress;
-import java.net.SocketException;
-import java.net.URISyntaxException;
-import java.nio.ByteBuffer;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
-import java.nio.charset.Charset;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.Iterator;
 
 /**
@@ -38,10 +35,14 @@ public class NIOJavaSocketServer implements Server
 
     private static final Logger              log                 = LoggerFactory.getLogger(NIOJavaSocketServer.class);
 
-    private final        String              delimiter           = ServerConfig.DELIMITER;
+    private final        AdmissionControl    admission           = new AdmissionControl(ServerConfig.getMaxConnections());
+    private final        NIOChannelHandler   handler             = new NIOChannelHandler(this.admission);
+    private final        LoopTiming          loopTiming          = new LoopTiming();
+    private final        ServerControl       control             = new ServerControl(NIOJavaSocketServer.class.getSimpleName());
 
     private              ServerSocketChannel serverSocketChannel = null;
     private              Selector            selector            = null;
+    private              SelectionKey        acceptKey           = null;
 
     // ---------------------------------------
     // CONSTRUCTOR
@@ -67,7 +68,11 @@ public class NIOJavaSocketServer implements Server
     @Override
     public void start()
     {
-        log.info("server running on: " + ServerConfig.SERVER_HOST + ":" + ServerConfig.SERVER_PORT);
+        log.info("server running on: " + ServerConfig.getServerHost() + ":" + ServerConfig.getServerPort());
+        this.control.setActiveConnections(this.admission::getActive);
+        this.control.setWorkerThreads(1);
+        this.control.setLoopTimings(this.loopTiming);
+        this.control.register();
 
         /* the select method is a blocking method. the method returns a result if a client connects to
          * one of the registered channels. It is also possible to perform a non-blocking call
@@ -80,8 +85,18 @@ public class NIOJavaSocketServer implements Server
                  * one of the registered channels. It is also possible to perform a non-blocking call
                  * using the selectNow() function or specify a blocking timeout using select(long timeout). */
 
-                if (this.selector.select() == 0)
+                /* close the connections whose timeout expired. while connections are tracked, the select blocks at
+                 * most until the next tick of the timing wheel */
+                long timeout = this.handler.expireTimeouts();
+                this.resumeAccept();
+
+                long selectStart = System.nanoTime();
+                int selectedKeys = this.selector.select(timeout);
+                long processStart = System.nanoTime();
+
+                if (selectedKeys == 0)
                 {
+                    this.loopTiming.record(processStart - selectStart, 0L);
                     continue;
                 }
 
@@ -119,24 +134,26 @@ public class NIOJavaSocketServer implements Server
                     if (key.isConnectable())
                     {
                         // process connect operation
-                        this.connectOperation(key);
+                        this.handler.connectOperation(key);
                     }
 
                     /* if a connection is already processed and the OP_WRITE flag is set the server is ready to write
                      * data to the client using a write channel. */
-                    if (key.isWritable())
+                    if (key.isValid() && key.isWritable())
                     {
                         // process write operation
-                        this.writeOperation(key);
+                        this.handler.writeOperation(key);
                     }
                     /* if a connection is already processed and the OP_READ flag is set the server is ready to write
                      * data to the client using a write channel. */
-                    if (key.isReadable())
+                    if (key.isValid() && key.isReadable())
                     {
                         // process read operation
-                        this.readOperation(key);
+                        this.handler.readOperation(key);
                     }
                 }
+
+                this.loopTiming.record(processStart - selectStart, System.nanoTime() - processStart);
             }
             catch (IOException ex)
             {
@@ -156,9 +173,17 @@ public class NIOJavaSocketServer implements Server
             {
                 this.serverSocketChannel.close();
                 this.selector.close();
+                ServerMetrics.selectorClosed();
 
                 this.selector = null;
                 this.serverSocketChannel = null;
+                log.info(PayloadCache.getShared().toString());
+                log.info(AssetStore.getShared().toString());
+                log.info(BufferPool.getShared().toString());
+                log.info(this.handler.getTimeouts().toString());
+                log.info(this.admission.toString());
+                MetricsEndpoint.stopShared();
+                this.control.unregister();
             }
             catch (IOException ex)
             {
@@ -174,10 +199,15 @@ public class NIOJavaSocketServer implements Server
     private void setUp() throws IOException
     {
         log.info("initialize server");
+        PayloadCache.getShared().preload(ServerConfig.FILE_PATH);
+        AssetStore.getShared();
+        MetricsEndpoint.startShared();
+
         /* open a new server socket channel and bind a listener to a certain ip address and port configured in
          * ServerConfig. Define the behavior of the channel as non-blocking.*/
         this.serverSocketChannel = ServerSocketChannel.open();
-        this.serverSocketChannel.bind(new InetSocketAddress(ServerConfig.SERVER_HOST, ServerConfig.SERVER_PORT));
+        SocketOptions.configureServer(this.serverSocketChannel);
+        this.serverSocketChannel.bind(new InetSocketAddress(ServerConfig.getServerHost(), ServerConfig.getServerPort()), ServerConfig.getAcceptBacklog());
         this.serverSocketChannel.configureBlocking(false);
 
         /* open a new selector instance and register the serverSocketChannel. The selector will be used to multiplex
@@ -185,177 +215,84 @@ public class NIOJavaSocketServer implements Server
          * new connection. A selector must be understood as a buffer instance for incoming requests. The server instance
          * can iterate over all new client requests and can perform them. */
         this.selector = Selector.open();
-        this.serverSocketChannel.register(this.selector, SelectionKey.OP_ACCEPT);
+        ServerMetrics.selectorOpened();
+        this.acceptKey = this.serverSocketChannel.register(this.selector, SelectionKey.OP_ACCEPT);
+
+        // a closed connection wakes up the selector, so a paused server resumes accepting in the next iteration
+        this.admission.setResumeListener(this.selector::wakeup);
     }
 
     /**
-     * This method accepting an incoming connection and instantiate a server socket channel. After accepting a connection
-     * the method sets the selector flag to listen to read operations.
-     *
-     * @param key The SelectionKey of the selector. Like an ID to identify the client who wants to connect.
+     * This method registers the server socket channel for accept operations again if the server paused accepting and
+     * a connection was closed in the meantime.
      */
-    private void acceptOperation(SelectionKey key)
+    private void resumeAccept()
     {
-        try
+        if (this.admission.isPaused() && this.admission.hasCapacity() && this.admission.resume())
         {
-            ServerSocketChannel serverSocketChannel = (ServerSocketChannel) key.channel();
-            SocketChannel socketChannel = serverSocketChannel.accept();
-            socketChannel.configureBlocking(false);
-
-            socketChannel.register(this.selector, SelectionKey.OP_READ);
-        }
-        catch (IOException ex)
-        {
-            log.error("An error occurred while accepting an incoming client connection request!", ex);
+            this.acceptKey.interestOps(SelectionKey.OP_ACCEPT);
         }
     }
 
     /**
-     * This method finish an existing connection to the client if the connection is still pending.
+     * This method accepting an incoming connection and instantiate a server socket channel. After accepting a connection
+     * the method sets the selector flag to listen to read operations. If the connection limit is reached the server
+     * pauses accepting; the pending connections stay in the accept backlog of the kernel.
      *
      * @param key The SelectionKey of the selector. Like an ID to identify the client who wants to connect.
      */
-    private void connectOperation(SelectionKey key)
+    private void acceptOperation(SelectionKey key)
     {
-        SocketChannel channel = (SocketChannel) key.channel();
-
-        if (channel.isConnectionPending())
+        if (!this.admission.tryAcquire())
         {
-            try
-            {
-                channel.finishConnect();
-            }
-            catch (IOException ex)
-            {
-                log.error("An error occurred while finishing the connection to the client!", ex);
-            }
+            this.admission.pause();
+            key.interestOps(0);
+            return;
         }
-    }
 
-    /**
-     * This method writes data to a client if a connection already exists and the channel is registered in the selector.
-     *
-     * @param key The SelectionKey of the selector. Like an ID to identify the client to send data.
-     * @throws java.net.SocketException if no data is available to send
-     */
-    private void writeOperation(SelectionKey key) throws SocketException
-    {
-        // get the channel, collect all data from disk
-        SocketChannel channel = (SocketChannel) key.channel();
-        byte[] data = this.collectSendingBytes();
-
-        if (data != null)
-        {
-            try
-            {
-                // write the data to the client
-                channel.write(ByteBuffer.wrap(data));
-
-                /* In case of the testing scenario set the key to CONNECT to close the connection after writing data
-                 * to the client. You can also assume the next operation as a read or write operation, so you can set
-                 * key.interestOps(SelectionKey.OP_READ) */
-                key.interestOps(SelectionKey.OP_CONNECT);
-             }
-            catch (IOException ex)
-            {
-                log.error("An error occurred while sending data to the client!", ex);
-            }
-        }
-        else
-        {
-            throw new SocketException("No data to send! An error occurred while reading the data from disk!");
-        }
-    }
-
-    /**
-     * This method read data from a client if a connection already exists and the channel is registered in the selector.
-     *
-     * @param key he SelectionKey of the selector. Like an ID to identify the client to read data from.
-     * @throws java.io.IOException if closing the channel failed during an error
-     */
-    private void readOperation(SelectionKey key) throws IOException
-    {
-        SocketChannel channel = (SocketChannel) key.channel();
+        SocketChannel socketChannel = null;
 
         try
         {
-            // allocate byte buffer to read bytes from channel
-            int byteLength = (int) Math.pow(2,20);
-            ByteBuffer readBuffer = ByteBuffer.allocate(byteLength);
-            readBuffer.clear();
-
-            int readBytes = channel.read(readBuffer);
-
-            if (this.parseInput(readBuffer))
+            ServerSocketChannel serverSocketChannel = (ServerSocketChannel) key.channel();
+            socketChannel = serverSocketChannel.accept();
+            if (socketChannel == null)
             {
-                // next reasonable operation will be a write operation
-                key.interestOps(SelectionKey.OP_WRITE);
-            }
-            else if (readBytes == - 1)
-            {
-                log.info("Nothing to read from socket channel!");
-                // close connection and remove key
-                channel.close();
-                key.cancel();
+                this.admission.release();
+                return;
             }
+            socketChannel.configureBlocking(false);
+            SocketOptions.configure(socketChannel);
 
-            readBuffer.flip();
+            SelectionKey clientKey = socketChannel.register(this.selector, SelectionKey.OP_READ);
+            this.handler.registerConnection(clientKey);
         }
         catch (IOException ex)
         {
-            log.error("An error occurred while reading data from socket channel! Close connection!", ex);
-            key.cancel();
-            channel.close();
-        }
-    }
-
-    /**
-     * This method reads the sending data from disk and returns that as a byte[] object.
-     *
-     * @return A byte[] object which contains the binary data to send to the server.
-     */
-    private byte[] collectSendingBytes()
-    {
-        byte[] data = null;
-        try
-        {
-            Path file = Paths.get(NIOJavaSocketServer.class.getResource(ServerConfig.FILE_PATH).toURI());
-            data = Files.readAllBytes(file);
-        }
-        catch (IOException e)
-        {
-            log.error("Error to read all bytes of the file to send!", e);
-        }
-        catch (URISyntaxException e)
-        {
-            log.error("Error to access the file to send!", e);
+            log.error("An error occurred while accepting an incoming client connection request!", ex);
+            this.admission.release();
+            this.closeQuietly(socketChannel);
         }
-
-        return data;
     }
 
     /**
-     * This method parses the input of an input stream and checks the input for a certain kind of delimiter signs.
-     * If the delimiter signs are detected the method returns TRUE, otherwise FALSE,
+     * This method closes a client channel which could not be registered.
      *
-     * @param bufferedData The ByteBuffer object containing the binary data of the input channel.
-     * @return TRUE if the delimiter signs were detected, otherwise FALSE.
+     * @param channel The channel to close, or NULL.
      */
-    private boolean parseInput(ByteBuffer bufferedData)
+    private void closeQuietly(SocketChannel channel)
     {
-        boolean delimiterDetected = false;
-
-        if (bufferedData.hasArray())
+        if (channel != null)
         {
-            String dataToCompare = new String(bufferedData.array(), StandardCharsets.UTF_8);
-
-            if (dataToCompare.contains(this.delimiter))
+            try
             {
-                delimiterDetected = true;
+                channel.close();
+            }
+            catch (IOException ex)
+            {
+                log.error("Error while closing the connection to the client!", ex);
             }
         }
-
-        return delimiterDetected;
     }
 
     // ---------------------------------------
@@ -0,0 +1,374 @@
+package de.hdm.uls.threadbasedserver.server;
+
+import de.hdm.uls.threadbasedserver.client.SocketClient;
+import de.hdm.uls.threadbasedserver.config.ServerConfig;
+import de.hdm.uls.threadbasedserver.config.ServerConfig.HandlerExecutor;
+import de.hdm.uls.threadbasedserver.config.ServerConfig.RejectionPolicy;
+import de.hdm.uls.threadbasedserver.metrics.MetricsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class defines a thread based socket server which serves the incoming connections on a bounded pool of worker
+ * threads instead of creating a new thread for every connection. Accepted connections are handed to the workers
+ * through a bounded queue. If all workers are busy and the queue is full, the configured {@link RejectionPolicy}
+ * decides what happens with the connection. <br/>
+ * With ServerConfig.HandlerExecutor.FORK_JOIN the connections are served by a work-stealing pool of maxThreads workers
+ * instead. Its queues are unbounded, so the admission control alone bounds the waiting connections and the rejection
+ * policy does not apply. A connection blocks its worker like in the thread pool, but the subtasks a worker forks while
+ * serving a connection are stolen by idle workers. <br/>
+ * The server logs the queue depth, the number of active workers and the number of rejected connections periodically
+ * to show where a thread based server saturates.
+ */
+public class PooledJavaSocketServer extends JavaSocketServer
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private static final Logger                   log                 = LoggerFactory.getLogger(PooledJavaSocketServer.class);
+
+    private final        int                      coreThreads;
+    private final        int                      maxThreads;
+    private final        int                      queueCapacity;
+    private final        RejectionPolicy          rejectionPolicy;
+    private final        HandlerExecutor          handlerExecutor;
+
+    private final        AtomicLong               rejectedConnections = new AtomicLong();
+
+    private              ThreadPoolExecutor       executor            = null;
+    private              ForkJoinPool             forkJoinPool        = null;
+    private              ScheduledExecutorService statsLogger         = null;
+
+    // ---------------------------------------
+    // CONSTRUCTOR
+    // ---------------------------------------
+
+    public PooledJavaSocketServer()
+    {
+        this(ServerConfig.getPoolCoreThreads(), ServerConfig.getPoolMaxThreads(), ServerConfig.getPoolQueueCapacity(),
+                ServerConfig.getPoolRejectionPolicy(), ServerConfig.getHandlerExecutor());
+    }
+
+    public PooledJavaSocketServer(int coreThreads, int maxThreads, int queueCapacity, RejectionPolicy rejectionPolicy)
+    {
+        this(coreThreads, maxThreads, queueCapacity, rejectionPolicy, HandlerExecutor.THREAD_POOL);
+    }
+
+    /**
+     * @param coreThreads The number of core threads of the thread pool.
+     * @param maxThreads The maximum number of threads of the thread pool, the parallelism of the fork/join pool.
+     * @param queueCapacity The capacity of the hand-off queue of the thread pool.
+     * @param rejectionPolicy The policy if the thread pool can not take a connection.
+     * @param handlerExecutor The kind of the pool serving the connections.
+     */
+    public PooledJavaSocketServer(int coreThreads, int maxThreads, int queueCapacity, RejectionPolicy rejectionPolicy,
+            HandlerExecutor handlerExecutor)
+    {
+        this.coreThreads = coreThreads;
+        this.maxThreads = Math.max(coreThreads, maxThreads);
+        this.queueCapacity = queueCapacity;
+        this.rejectionPolicy = rejectionPolicy;
+        this.handlerExecutor = handlerExecutor;
+    }
+
+    // ---------------------------------------
+    // METHODS
+    // ---------------------------------------
+
+    @Override
+    public void start()
+    {
+        if (HandlerExecutor.FORK_JOIN.equals(this.handlerExecutor) && this.forkJoinPool == null)
+        {
+            this.forkJoinPool = WorkStealingPool.create(this.maxThreads, "pool-worker-");
+            log.info("Work-stealing pool started: parallelism " + this.forkJoinPool.getParallelism());
+
+            this.startStatsLogger();
+            this.registerGauges();
+            this.getServerControl().setWorkerThreads(this.forkJoinPool.getParallelism());
+        }
+        else if (HandlerExecutor.THREAD_POOL.equals(this.handlerExecutor) && this.executor == null)
+        {
+            this.executor = this.createExecutor();
+            int prestartedThreads = this.executor.prestartAllCoreThreads();
+            log.info("Worker pool started: " + prestartedThreads + " core threads, " + this.maxThreads
+                    + " max threads, queue capacity " + this.queueCapacity + ", rejection policy " + this.rejectionPolicy);
+
+            this.startStatsLogger();
+            this.registerGauges();
+            this.getServerControl().setWorkerPool(this.executor);
+        }
+
+        super.start();
+    }
+
+    @Override
+    public void stop()
+    {
+        super.stop();
+
+        if (this.statsLogger != null)
+        {
+            this.statsLogger.shutdownNow();
+            this.statsLogger = null;
+        }
+
+        if (this.executor != null)
+        {
+            this.logStats();
+            this.executor.shutdownNow();
+            this.executor = null;
+        }
+
+        if (this.forkJoinPool != null)
+        {
+            this.logStats();
+            this.forkJoinPool.shutdownNow();
+            this.forkJoinPool = null;
+        }
+    }
+
+    /**
+     * This method hands the client to the worker pool.
+     *
+     * @param client The client connection to serve.
+     */
+    @Override
+    protected void dispatch(SocketClient client)
+    {
+        ForkJoinPool forkJoinPool = this.forkJoinPool;
+
+        if (forkJoinPool != null)
+        {
+            forkJoinPool.execute(client);
+        }
+        else
+        {
+            this.executor.execute(client);
+        }
+    }
+
+    /**
+     * @return the number of connections waiting in the hand-off queue for a free worker.
+     */
+    public int getQueueDepth()
+    {
+        ForkJoinPool forkJoinPool = this.forkJoinPool;
+        if (forkJoinPool != null)
+        {
+            return (int) Math.min(Integer.MAX_VALUE, WorkStealingPool.getQueueDepth(forkJoinPool));
+        }
+
+        return (this.executor != null) ? this.executor.getQueue().size() : 0;
+    }
+
+    /**
+     * @return the approximate number of workers currently serving a connection.
+     */
+    public int getActiveWorkers()
+    {
+        ForkJoinPool forkJoinPool = this.forkJoinPool;
+        if (forkJoinPool != null)
+        {
+            return forkJoinPool.getActiveThreadCount();
+        }
+
+        return (this.executor != null) ? this.executor.getActiveCount() : 0;
+    }
+
+    /**
+     * @return the current number of threads in the worker pool.
+     */
+    public int getPoolSize()
+    {
+        ForkJoinPool forkJoinPool = this.forkJoinPool;
+        if (forkJoinPool != null)
+        {
+            return forkJoinPool.getPoolSize();
+        }
+
+        return (this.executor != null) ? this.executor.getPoolSize() : 0;
+    }
+
+    /**
+     * @return the number of tasks the workers of the fork/join pool stole from each other, 0 for the thread pool.
+     */
+    public long getSteals()
+    {
+        ForkJoinPool forkJoinPool = this.forkJoinPool;
+
+        return (forkJoinPool != null) ? forkJoinPool.getStealCount() : 0;
+    }
+
+    /**
+     * @return the number of connections which could not be handed to the pool because all workers were busy and the
+     * queue was full.
+     */
+    public long getRejectedConnections()
+    {
+        return this.rejectedConnections.get();
+    }
+
+    /**
+     * This method creates the worker pool. A queue capacity of 0 creates a direct hand-off without buffering.
+     *
+     * @return The thread pool executor to serve the client connections.
+     */
+    private ThreadPoolExecutor createExecutor()
+    {
+        BlockingQueue<Runnable> queue = (this.queueCapacity > 0)
+                ? new ArrayBlockingQueue<>(this.queueCapacity)
+                : new SynchronousQueue<>();
+
+        return new ThreadPoolExecutor(this.coreThreads, this.maxThreads, ServerConfig.POOL_KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS, queue, new WorkerThreadFactory(), new RejectionHandler());
+    }
+
+    /**
+     * This method starts a daemon thread which logs the pool statistics in the configured interval.
+     */
+    private void startStatsLogger()
+    {
+        if (ServerConfig.STATS_LOG_INTERVAL_SECONDS > 0)
+        {
+            this.statsLogger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "pool-stats");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.statsLogger.scheduleAtFixedRate(this::logStats, ServerConfig.STATS_LOG_INTERVAL_SECONDS,
+                    ServerConfig.STATS_LOG_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * This method registers the statistics of the worker pool in the shared metrics registry.
+     */
+    private void registerGauges()
+    {
+        MetricsRegistry registry = MetricsRegistry.getShared();
+
+        registry.gauge("uls_pool_workers_active", "Workers currently serving a connection.", this::getActiveWorkers);
+        registry.gauge("uls_pool_workers", "Threads in the worker pool.", this::getPoolSize);
+        registry.gauge("uls_pool_queue_depth", "Connections waiting for a free worker.", this::getQueueDepth);
+        registry.gauge("uls_pool_rejected_connections", "Connections which could not be handed to the pool.",
+                this::getRejectedConnections);
+        registry.gauge("uls_pool_steals", "Tasks the workers of the fork/join pool stole from each other.",
+                this::getSteals);
+    }
+
+    /**
+     * This method logs the current statistics of the worker pool.
+     */
+    private void logStats()
+    {
+        ThreadPoolExecutor executor = this.executor;
+
+        if (executor != null)
+        {
+            log.info("pool stats - active workers: " + executor.getActiveCount() + "/" + executor.getPoolSize()
+                    + " (largest: " + executor.getLargestPoolSize() + ") - queue depth: " + executor.getQueue().size()
+                    + " - completed: " + executor.getCompletedTaskCount()
+                    + " - rejected connections: " + this.rejectedConnections.get());
+        }
+
+        ForkJoinPool forkJoinPool = this.forkJoinPool;
+
+        if (forkJoinPool != null)
+        {
+            log.info("pool stats - active workers: " + forkJoinPool.getActiveThreadCount() + "/"
+                    + forkJoinPool.getPoolSize() + " - queue depth: " + WorkStealingPool.getQueueDepth(forkJoinPool)
+                    + " - steals: " + forkJoinPool.getStealCount());
+        }
+    }
+
+    // ---------------------------------------
+    // INNER CLASSES
+    // ---------------------------------------
+
+    /**
+     * This thread factory names the worker threads of the pool.
+     */
+    private static class WorkerThreadFactory implements ThreadFactory
+    {
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable)
+        {
+            return new Thread(runnable, "pool-worker-" + this.threadNumber.incrementAndGet());
+        }
+    }
+
+    /**
+     * This handler is called by the pool if a client can not be handed to a worker. It applies the configured
+     * rejection policy to the client connection.
+     */
+    private class RejectionHandler implements RejectedExecutionHandler
+    {
+        @Override
+        public void rejectedExecution(Runnable task, ThreadPoolExecutor executor)
+        {
+            PooledJavaSocketServer.this.rejectedConnections.incrementAndGet();
+            SocketClient client = (SocketClient) task;
+
+            if (executor.isShutdown())
+            {
+                client.cleanUp();
+                return;
+            }
+
+            switch (PooledJavaSocketServer.this.rejectionPolicy)
+            {
+                case CALLER_RUNS:
+                    // serve the client on the accepting thread, the kernel backlog buffers new connections meanwhile
+                    client.run();
+                    break;
+                case BLOCK_ACCEPT:
+                    try
+                    {
+                        executor.getQueue().put(client);
+                    }
+                    catch (InterruptedException ex)
+                    {
+                        log.error("Interrupted while waiting for a free worker! Close the client connection.", ex);
+                        Thread.currentThread().interrupt();
+                        client.cleanUp();
+                    }
+                    break;
+                default:
+                    client.cleanUp();
+                    break;
+            }
+        }
+    }
+
+    // ---------------------------------------
+    // MAIN
+    // ---------------------------------------
+
+    /**
+     * main method of the server.
+     *
+     * @param args runtime arguments
+     */
+    public static void main(String[] args) throws Exception
+    {
+        PooledJavaSocketServer server = new PooledJavaSocketServer();
+        server.start();
+    }
+}
@@ -0,0 +1,260 @@
+package de.hdm.uls.threadbasedserver.server;
+
+import de.hdm.uls.threadbasedserver.buffer.BufferPool;
+import de.hdm.uls.threadbasedserver.config.ServerConfig;
+import de.hdm.uls.threadbasedserver.management.ServerControl;
+import de.hdm.uls.threadbasedserver.metrics.MetricsEndpoint;
+import de.hdm.uls.threadbasedserver.payload.AssetStore;
+import de.hdm.uls.threadbasedserver.payload.PayloadCache;
+import de.hdm.uls.threadbasedserver.payload.PayloadViews;
+import de.hdm.uls.threadbasedserver.server.nio.EventLoop;
+import de.hdm.uls.threadbasedserver.server.nio.LoopTiming;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketOption;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ServerSocketChannel;
+
+/**
+ * This class is an implementation of a shared-nothing, thread per core socket server based on the java.nio library.
+ * The server runs N event loops. Every event loop binds its own server socket channel to the server port with the
+ * SO_REUSEPORT option, so the kernel distributes the incoming connections over the event loops. An event loop accepts,
+ * reads and writes its connections in its own thread with its own selector, buffer pool, payload views, admission
+ * control and timing wheel. In contrast to the {@link NIOJavaSocketServer} there is no single acceptor, and in
+ * contrast to the {@link MultiReactorNIOJavaSocketServer} no connection is handed from one thread to another. <br/>
+ * SO_REUSEPORT is available since Java 9 and not on every platform. The project compiles against Java 8, so the option
+ * is looked up at runtime. Without the option all event loops accept the connections of one shared server socket
+ * channel.
+ */
+public class ReusePortNIOJavaSocketServer implements Server
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private static final Logger                log            = LoggerFactory.getLogger(ReusePortNIOJavaSocketServer.class);
+
+    private final        int                   loopCount;
+    private final        ServerControl         control        = new ServerControl(ReusePortNIOJavaSocketServer.class.getSimpleName());
+
+    private              ServerSocketChannel[] channels       = null;
+    private              EventLoop[]           loops          = null;
+    private              AdmissionControl[]    admissions     = null;
+    private              BufferPool[]          bufferPools    = null;
+    private              PayloadViews[]        payloadViews   = null;
+    private              Thread[]              loopThreads    = null;
+
+    // ---------------------------------------
+    // CONSTRUCTOR
+    // ---------------------------------------
+
+    public ReusePortNIOJavaSocketServer()
+    {
+        this(ServerConfig.getReusePortEventLoops());
+    }
+
+    public ReusePortNIOJavaSocketServer(int loopCount)
+    {
+        this.loopCount = Math.max(1, loopCount);
+
+        try
+        {
+            this.setUp();
+        }
+        catch (IOException ex)
+        {
+            log.error("An error occurred while setting up the server environment!", ex);
+            System.exit(-1);
+        }
+    }
+
+    // ---------------------------------------
+    // METHODS
+    // ---------------------------------------
+
+    @Override
+    public void start()
+    {
+        this.loopThreads = new Thread[this.loopCount];
+
+        for (int i = 0; i < this.loopCount; i++)
+        {
+            this.loopThreads[i] = new Thread(this.loops[i], "reuse-port-loop-" + i);
+            this.loopThreads[i].start();
+        }
+
+        log.info("server running on: " + ServerConfig.getServerHost() + ":" + ServerConfig.getServerPort() + " with "
+                + this.loopCount + " event loops and " + this.channels.length + " server socket channels");
+        this.registerControl();
+
+        // the event loops run the server, so block the calling thread like the other server implementations
+        try
+        {
+            for (Thread thread : this.loopThreads)
+            {
+                thread.join();
+            }
+        }
+        catch (InterruptedException ex)
+        {
+            log.info("Server thread interrupted! Shut down the server.");
+            Thread.currentThread().interrupt();
+        }
+
+        this.stop();
+    }
+
+    @Override
+    public synchronized void stop()
+    {
+        if (this.loops != null)
+        {
+            for (EventLoop loop : this.loops)
+            {
+                loop.shutdown();
+            }
+
+            log.info(PayloadCache.getShared().toString());
+            log.info(AssetStore.getShared().toString());
+            for (int i = 0; i < this.loopCount; i++)
+            {
+                log.info("event loop " + i + ": " + this.admissions[i] + " | " + this.bufferPools[i] + " | "
+                        + this.payloadViews[i]);
+                this.payloadViews[i].release();
+            }
+            MetricsEndpoint.stopShared();
+            this.control.unregister();
+
+            this.loops = null;
+            this.loopThreads = null;
+        }
+    }
+
+    /**
+     * This method set up the server socket channels and the event loops before the server can start to work.
+     * The method throws an exception if setting up the server environment failed.
+     */
+    private void setUp() throws IOException
+    {
+        log.info("initialize server");
+        PayloadCache.getShared().preload(ServerConfig.FILE_PATH);
+        AssetStore.getShared();
+        MetricsEndpoint.startShared();
+
+        this.channels = this.openChannels();
+        this.loops = new EventLoop[this.loopCount];
+        this.admissions = new AdmissionControl[this.loopCount];
+        this.bufferPools = new BufferPool[this.loopCount];
+        this.payloadViews = new PayloadViews[this.loopCount];
+
+        // every event loop gets its share of the connection limit
+        int limit = ServerConfig.getMaxConnections();
+        int maxConnections = (limit > 0) ? Math.max(1, (limit + this.loopCount - 1) / this.loopCount) : 0;
+
+        for (int i = 0; i < this.loopCount; i++)
+        {
+            this.admissions[i] = new AdmissionControl(maxConnections);
+            this.bufferPools[i] = BufferPool.create();
+            this.payloadViews[i] = new PayloadViews(AssetStore.getShared());
+            this.loops[i] = new EventLoop(this.admissions[i], this.bufferPools[i], this.payloadViews[i]);
+            this.loops[i].listen(this.channels[i % this.channels.length]);
+        }
+    }
+
+    /**
+     * This method hands the admission controls and the event loops to the management bean and registers it.
+     */
+    private void registerControl()
+    {
+        AdmissionControl[] admissions = this.admissions;
+        LoopTiming[] timings = new LoopTiming[this.loopCount];
+        for (int i = 0; i < this.loopCount; i++)
+        {
+            timings[i] = this.loops[i].getLoopTiming();
+        }
+
+        this.control.setActiveConnections(() -> {
+            int active = 0;
+            for (AdmissionControl admission : admissions)
+            {
+                active += admission.getActive();
+            }
+            return active;
+        });
+        this.control.setWorkerThreads(this.loopCount);
+        this.control.setLoopTimings(timings);
+        this.control.register();
+    }
+
+    /**
+     * This method binds a server socket channel with SO_REUSEPORT for every event loop. If the option is not
+     * supported a single server socket channel is bound, which is shared by all event loops.
+     *
+     * @return The bound, non-blocking server socket channels.
+     * @throws IOException if a channel can not be bound.
+     */
+    private ServerSocketChannel[] openChannels() throws IOException
+    {
+        InetSocketAddress address = new InetSocketAddress(ServerConfig.getServerHost(), ServerConfig.getServerPort());
+        ServerSocketChannel first = ServerSocketChannel.open();
+        SocketOption<Boolean> reusePort = ReusePortNIOJavaSocketServer.reusePortOption(first);
+
+        ServerSocketChannel[] channels = new ServerSocketChannel[(reusePort != null) ? this.loopCount : 1];
+        if (reusePort == null)
+        {
+            log.warn("The runtime does not support SO_REUSEPORT (Java 9+ required)! All event loops share one server socket channel.");
+        }
+
+        for (int i = 0; i < channels.length; i++)
+        {
+            channels[i] = (i == 0) ? first : ServerSocketChannel.open();
+            SocketOptions.configureServer(channels[i]);
+            if (reusePort != null)
+            {
+                channels[i].setOption(reusePort, true);
+            }
+            channels[i].bind(address, ServerConfig.getAcceptBacklog());
+            channels[i].configureBlocking(false);
+        }
+
+        return channels;
+    }
+
+    /**
+     * This method looks up the SO_REUSEPORT option of the runtime.
+     *
+     * @param channel A channel to check if the option is supported.
+     * @return The option, or NULL if the runtime or the platform does not support it.
+     */
+    @SuppressWarnings("unchecked")
+    private static SocketOption<Boolean> reusePortOption(ServerSocketChannel channel)
+    {
+        try
+        {
+            SocketOption<Boolean> option = (SocketOption<Boolean>) StandardSocketOptions.class.getField("SO_REUSEPORT").get(null);
+
+            return channel.supportedOptions().contains(option) ? option : null;
+        }
+        catch (ReflectiveOperationException ex)
+        {
+            return null;
+        }
+    }
+
+    // ---------------------------------------
+    // MAIN
+    // ---------------------------------------
+
+    /**
+     * Main method of the server implementation.
+     * @param args
+     */
+    public static void main(String[] args)
+    {
+        Server server = new ReusePortNIOJavaSocketServer();
+        server.start();
+    }
+}
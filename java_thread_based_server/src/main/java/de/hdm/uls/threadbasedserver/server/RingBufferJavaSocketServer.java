@@ -0,0 +1,135 @@
+package de.hdm.uls.threadbasedserver.server;
+
+import de.hdm.uls.threadbasedserver.config.ServerConfig;
+import de.hdm.uls.threadbasedserver.metrics.MetricsRegistry;
+import de.hdm.uls.threadbasedserver.ring.WaitStrategy;
+import de.hdm.uls.threadbasedserver.server.nio.RingRequestDispatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class defines a variant of the {@link HalfSyncHalfAsyncJavaSocketServer} which hands the requests to the
+ * handler threads through lock-free ring buffers instead of the blocking queue of a thread pool. Every worker event
+ * loop is the single producer of its own ring and owns its own group of handler threads, so publishing a request
+ * needs neither a lock nor a CAS and allocates no event object. The handler threads wait for new requests with the
+ * strategy of ServerConfig.getRingWaitStrategy(): busy-spin and yield trade CPU time for a lower hand-off latency. <br/>
+ * The responses go back to the event loops through their task queues like in the half-sync/half-async server, so the
+ * metric uls_handoff_time_micros of both servers compares the ring with the queue of the pool.
+ */
+public class RingBufferJavaSocketServer extends MultiReactorNIOJavaSocketServer
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private static final Logger                      log = LoggerFactory.getLogger(RingBufferJavaSocketServer.class);
+
+    private final        List<RingRequestDispatcher> rings;
+
+    // ---------------------------------------
+    // CONSTRUCTOR
+    // ---------------------------------------
+
+    public RingBufferJavaSocketServer()
+    {
+        this(ServerConfig.getWorkerSelectors(), ServerConfig.getHandlerThreads());
+    }
+
+    /**
+     * @param selectorCount The number of worker event loops doing the I/O, each with its own ring.
+     * @param handlerThreads The number of handler threads building the responses, spread evenly over the rings.
+     */
+    public RingBufferJavaSocketServer(int selectorCount, int handlerThreads)
+    {
+        this(Math.max(1, selectorCount), handlerThreads, new ArrayList<>());
+    }
+
+    private RingBufferJavaSocketServer(int selectorCount, int handlerThreads, List<RingRequestDispatcher> rings)
+    {
+        super(selectorCount, index -> RingBufferJavaSocketServer.createRing(index,
+                (handlerThreads + selectorCount - 1) / selectorCount, rings));
+        this.rings = rings;
+    }
+
+    // ---------------------------------------
+    // METHODS
+    // ---------------------------------------
+
+    @Override
+    public void start()
+    {
+        for (RingRequestDispatcher ring : this.rings)
+        {
+            ring.start();
+        }
+        log.info("Ring buffers started: " + this.rings.size() + " rings of " + ServerConfig.getRingBufferSize()
+                + " slots, " + this.rings.get(0).getHandlerThreads() + " handler threads per ring, wait strategy "
+                + ServerConfig.getRingWaitStrategy());
+
+        MetricsRegistry.getShared().gauge("uls_ring_backlog", "Requests published into the rings and not claimed yet.",
+                this::getBacklog);
+
+        super.start();
+    }
+
+    @Override
+    public void stop()
+    {
+        super.stop();
+
+        for (RingRequestDispatcher ring : this.rings)
+        {
+            ring.shutdown();
+        }
+    }
+
+    /**
+     * This method creates the ring of a worker event loop.
+     *
+     * @param index The index of the worker event loop.
+     * @param handlerThreads The number of handler threads of the ring.
+     * @param rings The list collecting the rings of the server.
+     * @return The ring.
+     */
+    private static RingRequestDispatcher createRing(int index, int handlerThreads, List<RingRequestDispatcher> rings)
+    {
+        WaitStrategy waitStrategy = ServerConfig.getRingWaitStrategy();
+        RingRequestDispatcher ring = new RingRequestDispatcher("ring-handler-" + index,
+                ServerConfig.getRingBufferSize(), handlerThreads, waitStrategy);
+        rings.add(ring);
+
+        return ring;
+    }
+
+    /**
+     * @return the number of requests in all rings no handler thread has claimed yet.
+     */
+    private long getBacklog()
+    {
+        long backlog = 0;
+        for (RingRequestDispatcher ring : this.rings)
+        {
+            backlog += ring.getBacklog();
+        }
+
+        return backlog;
+    }
+
+    // ---------------------------------------
+    // MAIN
+    // ---------------------------------------
+
+    /**
+     * main method of the server.
+     *
+     * @param args runtime arguments
+     */
+    public static void main(String[] args)
+    {
+        Server server = new RingBufferJavaSocketServer();
+        server.start();
+    }
+}
@@ -0,0 +1,85 @@
+package de.hdm.uls.threadbasedserver.server;
+
+import de.hdm.uls.threadbasedserver.config.ServerConfig;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.StandardSocketOptions;
+import java.nio.channels.NetworkChannel;
+
+/**
+ * This class applies the socket options of ServerConfig to the sockets of the servers. The receive buffer is set on
+ * the server socket before it is bound, so the accepted connections inherit it and negotiate a matching TCP window;
+ * TCP_NODELAY and the send buffer are set on every accepted connection. A buffer size of 0 keeps the default of the
+ * operating system.
+ */
+public final class SocketOptions
+{
+    // ---------------------------------------
+    // CONSTRUCTOR
+    // ---------------------------------------
+
+    private SocketOptions()
+    {}
+
+    // ---------------------------------------
+    // METHODS
+    // ---------------------------------------
+
+    /**
+     * @param server The unbound server socket of a blocking server.
+     * @throws IOException if an option can not be set.
+     */
+    public static void configureServer(ServerSocket server) throws IOException
+    {
+        if (ServerConfig.getSocketReceiveBuffer() > 0)
+        {
+            server.setReceiveBufferSize(ServerConfig.getSocketReceiveBuffer());
+        }
+    }
+
+    /**
+     * @param channel The unbound server socket channel of a selector based or asynchronous server.
+     * @throws IOException if an option can not be set.
+     */
+    public static void configureServer(NetworkChannel channel) throws IOException
+    {
+        if (ServerConfig.getSocketReceiveBuffer() > 0)
+        {
+            channel.setOption(StandardSocketOptions.SO_RCVBUF, ServerConfig.getSocketReceiveBuffer());
+        }
+    }
+
+    /**
+     * @param socket The accepted socket of a blocking server.
+     * @throws IOException if an option can not be set.
+     */
+    public static void configure(Socket socket) throws IOException
+    {
+        if (ServerConfig.isTcpNoDelay())
+        {
+            socket.setTcpNoDelay(true);
+        }
+        if (ServerConfig.getSocketSendBuffer() > 0)
+        {
+            socket.setSendBufferSize(ServerConfig.getSocketSendBuffer());
+        }
+    }
+
+    /**
+     * @param channel The accepted socket channel of a selector based or asynchronous server.
+     * @throws IOException if an option can not be set.
+     */
+    public static void configure(NetworkChannel channel) throws IOException
+    {
+        if (ServerConfig.isTcpNoDelay())
+        {
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        }
+        if (ServerConfig.getSocketSendBuffer() > 0)
+        {
+            channel.setOption(StandardSocketOptions.SO_SNDBUF, ServerConfig.getSocketSendBuffer());
+        }
+    }
+}
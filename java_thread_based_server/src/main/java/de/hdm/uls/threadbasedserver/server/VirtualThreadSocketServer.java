@@ -0,0 +1,118 @@
+package de.hdm.uls.threadbasedserver.server;
+
+import de.hdm.uls.threadbasedserver.client.SocketClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * This class defines a socket server implementation which keeps the blocking and sequential client handling of the
+ * {@link JavaSocketServer} but serves every incoming connection on a virtual thread instead of a platform thread.
+ * Virtual threads are cheap to create and park their stack on the heap while blocking on socket I/O, so the server
+ * is not limited by the number of native threads the operating system is able to create. <br/>
+ * Virtual threads are available since Java 21. The project compiles against Java 8, so the executor is looked up at
+ * runtime. If the runtime does not support virtual threads the server falls back to a cached pool of platform threads.
+ */
+public class VirtualThreadSocketServer extends JavaSocketServer
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private static final Logger          log      = LoggerFactory.getLogger(VirtualThreadSocketServer.class);
+
+    private              ExecutorService executor = null;
+
+    // ---------------------------------------
+    // METHODS
+    // ---------------------------------------
+
+    @Override
+    public void start()
+    {
+        if (this.executor == null)
+        {
+            this.executor = VirtualThreadSocketServer.createVirtualThreadExecutor();
+        }
+
+        super.start();
+    }
+
+    @Override
+    public void stop()
+    {
+        super.stop();
+
+        if (this.executor != null)
+        {
+            this.executor.shutdownNow();
+            this.executor = null;
+        }
+    }
+
+    /**
+     * This method runs the client on a new virtual thread. The SocketClient is only used as the task of the
+     * virtual thread, the platform thread of the client instance is never started.
+     *
+     * @param client The client connection to serve.
+     */
+    @Override
+    protected void dispatch(SocketClient client)
+    {
+        this.executor.execute(client);
+    }
+
+    /**
+     * The writer task of a full duplex connection runs on a virtual thread as well, like the connection itself.
+     *
+     * @return A new virtual thread executor for the writer tasks.
+     */
+    @Override
+    protected ExecutorService createWriterPool()
+    {
+        return VirtualThreadSocketServer.createVirtualThreadExecutor();
+    }
+
+    /**
+     * This method creates an executor which starts a new virtual thread for each task.
+     *
+     * @return The virtual thread executor, or a cached platform thread pool if the runtime does not support
+     * virtual threads.
+     */
+    private static ExecutorService createVirtualThreadExecutor()
+    {
+        ExecutorService executor;
+
+        try
+        {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            executor = (ExecutorService) factory.invoke(null);
+            log.info("Serve client connections on virtual threads.");
+        }
+        catch (ReflectiveOperationException ex)
+        {
+            log.warn("The runtime does not support virtual threads (Java 21+ required)! Fall back to platform threads.");
+            executor = Executors.newCachedThreadPool();
+        }
+
+        return executor;
+    }
+
+    // ---------------------------------------
+    // MAIN
+    // ---------------------------------------
+
+    /**
+     * main method of the server.
+     *
+     * @param args runtime arguments
+     */
+    public static void main(String[] args) throws Exception
+    {
+        VirtualThreadSocketServer server = new VirtualThreadSocketServer();
+        server.start();
+    }
+}
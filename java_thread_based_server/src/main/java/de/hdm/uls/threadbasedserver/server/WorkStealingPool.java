@@ -0,0 +1,60 @@
+package de.hdm.uls.threadbasedserver.server;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class creates the work-stealing pools of the servers, see ServerConfig.HandlerExecutor.FORK_JOIN. A task
+ * submitted by a server thread lands in a submission queue of the pool; the subtasks a worker forks while running the
+ * task land in the own queue of the worker, where idle workers steal them. The pools run in async mode, so every
+ * worker takes the tasks of its own queue in FIFO order like a thread pool, which suits tasks that are never joined.
+ */
+final class WorkStealingPool
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private static final Logger log = LoggerFactory.getLogger(WorkStealingPool.class);
+
+    // ---------------------------------------
+    // CONSTRUCTOR
+    // ---------------------------------------
+
+    private WorkStealingPool()
+    {}
+
+    // ---------------------------------------
+    // METHODS
+    // ---------------------------------------
+
+    /**
+     * @param parallelism The number of worker threads.
+     * @param threadPrefix The prefix of the names of the worker threads.
+     * @return a new work-stealing pool in async mode.
+     */
+    static ForkJoinPool create(int parallelism, String threadPrefix)
+    {
+        AtomicInteger threadNumber = new AtomicInteger();
+
+        return new ForkJoinPool(Math.max(1, parallelism), pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName(threadPrefix + threadNumber.incrementAndGet());
+            return thread;
+        }, (thread, ex) -> log.error("An uncaught error occurred in the worker thread " + thread.getName() + "!", ex),
+                true);
+    }
+
+    /**
+     * @param pool The pool.
+     * @return the number of tasks waiting in the submission queues and the queues of the workers.
+     */
+    static long getQueueDepth(ForkJoinPool pool)
+    {
+        return pool.getQueuedSubmissionCount() + pool.getQueuedTaskCount();
+    }
+}
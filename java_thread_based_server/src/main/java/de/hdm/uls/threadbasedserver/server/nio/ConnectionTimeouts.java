@@ -0,0 +1,175 @@
+package de.hdm.uls.threadbasedserver.server.nio;
+
+import de.hdm.uls.threadbasedserver.config.ServerConfig;
+import de.hdm.uls.threadbasedserver.timer.HashedTimingWheel;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class tracks the timeouts of the connections of one selector in a {@link HashedTimingWheel}. Every connection
+ * owns a single timeout which is moved through the phases of a request: the idle timeout while the connection waits
+ * for a request, the read deadline from the first byte of a request until the request is complete, and the write
+ * deadline until the response is written. <br/>
+ * The wheel is driven by the selector loop: {@link #expire()} runs the tasks of the expired timeouts and returns the
+ * timeout of the next select call. All methods except the counters must be called by the selector thread.
+ */
+public class ConnectionTimeouts
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private final HashedTimingWheel wheel;
+    private final AtomicLong        idleExpired  = new AtomicLong();
+    private final AtomicLong        readExpired  = new AtomicLong();
+    private final AtomicLong        writeExpired = new AtomicLong();
+
+    // ---------------------------------------
+    // CONSTRUCTOR
+    // ---------------------------------------
+
+    public ConnectionTimeouts()
+    {
+        this.wheel = new HashedTimingWheel(ServerConfig.TIMEOUT_TICK_MILLIS, ServerConfig.TIMEOUT_WHEEL_SIZE,
+                ConnectionTimeouts.now());
+    }
+
+    // ---------------------------------------
+    // METHODS
+    // ---------------------------------------
+
+    /**
+     * This method moves the timeout of a connection to a new phase. The previous deadline of the connection is
+     * cancelled; if the timeout of the phase is disabled the connection has no deadline until the next phase.
+     *
+     * @param connection The state of the client connection.
+     * @param type The phase of the connection.
+     */
+    public void schedule(NIOConnection connection, Type type)
+    {
+        connection.setTimeoutType(type);
+
+        if (type.getMillis() > 0)
+        {
+            this.wheel.schedule(connection.getTimeout(), type.getMillis(), ConnectionTimeouts.now());
+        }
+        else
+        {
+            this.wheel.cancel(connection.getTimeout());
+        }
+    }
+
+    /**
+     * This method cancels the timeout of a connection which is closed.
+     *
+     * @param connection The state of the client connection.
+     */
+    public void cancel(NIOConnection connection)
+    {
+        this.wheel.cancel(connection.getTimeout());
+    }
+
+    /**
+     * This method runs the tasks of all expired timeouts.
+     *
+     * @return the timeout of the next select call in milliseconds, 0 if the select may block until the next event.
+     */
+    public long expire()
+    {
+        long now = ConnectionTimeouts.now();
+        this.wheel.advance(now);
+
+        return this.wheel.nextTimeoutMillis(now);
+    }
+
+    /**
+     * This method counts an expired timeout of a connection by the phase of the connection.
+     *
+     * @param connection The state of the expired client connection.
+     */
+    public void expired(NIOConnection connection)
+    {
+        switch (connection.getTimeoutType())
+        {
+            case IDLE:
+                this.idleExpired.incrementAndGet();
+                break;
+            case READ:
+                this.readExpired.incrementAndGet();
+                break;
+            case WRITE:
+                this.writeExpired.incrementAndGet();
+                break;
+        }
+    }
+
+    public long getIdleExpired()
+    {
+        return this.idleExpired.get();
+    }
+
+    public long getReadExpired()
+    {
+        return this.readExpired.get();
+    }
+
+    public long getWriteExpired()
+    {
+        return this.writeExpired.get();
+    }
+
+    /**
+     * @return the number of connections with a scheduled timeout.
+     */
+    public int getTracked()
+    {
+        return this.wheel.getPendingCount();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "connection timeouts - tracked: " + this.getTracked() + " - idle expired: " + this.getIdleExpired()
+                + " - read expired: " + this.getReadExpired() + " - write expired: " + this.getWriteExpired();
+    }
+
+    private static long now()
+    {
+        return System.nanoTime() / 1000000L;
+    }
+
+    // ---------------------------------------
+    // INNER CLASS
+    // ---------------------------------------
+
+    /**
+     * This enumeration defines the phases of a connection and their timeouts.
+     */
+    public static enum Type
+    {
+        /**
+         * The connection waits for the first byte of a request
+         */
+        IDLE(ServerConfig.IDLE_TIMEOUT_MILLIS),
+        /**
+         * The connection received the first byte of a request and waits for the rest of the request
+         */
+        READ(ServerConfig.READ_TIMEOUT_MILLIS),
+        /**
+         * The connection writes its response
+         */
+        WRITE(ServerConfig.WRITE_TIMEOUT_MILLIS);
+
+        private final long millis;
+
+        Type(long millis)
+        {
+            this.millis = millis;
+        }
+
+        public long getMillis()
+        {
+            return this.millis;
+        }
+    }
+}
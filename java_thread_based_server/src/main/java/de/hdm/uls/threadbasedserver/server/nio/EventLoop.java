@@ -0,0 +1,377 @@
+package de.hdm.uls.threadbasedserver.server.nio;
+
+import de.hdm.uls.threadbasedserver.buffer.BufferPool;
+import de.hdm.uls.threadbasedserver.metrics.ServerMetrics;
+import de.hdm.uls.threadbasedserver.payload.PayloadViews;
+import de.hdm.uls.threadbasedserver.server.AdmissionControl;
+import de.hdm.uls.threadbasedserver.server.SocketOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * This class defines an event loop which multiplexes a set of client connections with its own selector in its own
+ * thread. Other threads must not touch the selector directly, because a call of register() blocks as long as the
+ * selector thread is blocked in select(). Instead other threads pass tasks to the event loop using
+ * {@link #execute(Runnable)}. The tasks are queued and the selector is woken up, so the tasks are processed by the
+ * event loop thread itself. <br/>
+ * An event loop can also accept the connections of its own server socket channel, see {@link #listen(ServerSocketChannel)}.
+ * Such an event loop serves its connections from accept to close without any hand-off to another thread.
+ */
+public class EventLoop implements Runnable
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private static final Logger            log           = LoggerFactory.getLogger(EventLoop.class);
+
+    private final        Selector          selector;
+    private final        NIOChannelHandler handler;
+    private final        AdmissionControl  admission;
+    private final        Queue<Runnable>   tasks         = new ConcurrentLinkedQueue<>();
+    private final        AtomicBoolean     wakeupPending = new AtomicBoolean();
+    private final        LoopTiming        loopTiming    = new LoopTiming();
+
+    private              SelectionKey      acceptKey     = null;
+
+    private volatile     boolean           running       = true;
+
+    // ---------------------------------------
+    // CONSTRUCTOR
+    // ---------------------------------------
+
+    /**
+     * @param admission The admission control of the server, which gets back the permit of every closed connection.
+     * @throws IOException if the selector can not be opened.
+     */
+    public EventLoop(AdmissionControl admission) throws IOException
+    {
+        this.selector = Selector.open();
+        ServerMetrics.selectorOpened();
+        this.admission = admission;
+        this.handler = new NIOChannelHandler(admission);
+    }
+
+    /**
+     * @param admission The admission control of the connections of this event loop.
+     * @param bufferPool The pool of the read buffers of this event loop.
+     * @param payloadViews The views of the assets owned by this event loop.
+     * @throws IOException if the selector can not be opened.
+     */
+    public EventLoop(AdmissionControl admission, BufferPool bufferPool, PayloadViews payloadViews) throws IOException
+    {
+        this.selector = Selector.open();
+        ServerMetrics.selectorOpened();
+        this.admission = admission;
+        this.handler = new NIOChannelHandler(admission, bufferPool, payloadViews);
+    }
+
+    /**
+     * @param admission The admission control of the server, which gets back the permit of every closed connection.
+     * @param dispatcher The dispatcher which hands the requests of the connections of this event loop to the threads
+     *                   building the responses. The responses come back to this event loop as tasks, see
+     *                   {@link #execute(Runnable)}.
+     * @throws IOException if the selector can not be opened.
+     */
+    public EventLoop(AdmissionControl admission, RequestDispatcher dispatcher) throws IOException
+    {
+        this.selector = Selector.open();
+        ServerMetrics.selectorOpened();
+        this.admission = admission;
+        this.handler = new NIOChannelHandler(admission, BufferPool.getShared(), null, dispatcher, this::execute);
+    }
+
+    // ---------------------------------------
+    // RUN
+    // ---------------------------------------
+
+    @Override
+    public void run()
+    {
+        while (this.running && !Thread.currentThread().isInterrupted())
+        {
+            try
+            {
+                // the select blocks at most until the next tick of the timing wheel while connections are tracked
+                long timeout = this.handler.expireTimeouts();
+                this.resumeAccept();
+
+                long selectStart = System.nanoTime();
+                this.selector.select(timeout);
+                long processStart = System.nanoTime();
+
+                /* reset the wakeup flag before processing the tasks. a task queued after this point wakes up the next
+                 * select call, a task queued before this point will be processed by runTasks() */
+                this.wakeupPending.set(false);
+                this.runTasks();
+
+                Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+
+                while (keys.hasNext())
+                {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+
+                    if (!key.isValid())
+                    {
+                        continue;
+                    }
+
+                    this.processKey(key);
+                }
+
+                this.loopTiming.record(processStart - selectStart, System.nanoTime() - processStart);
+            }
+            catch (IOException ex)
+            {
+                log.error("An error occurred while selecting a connection!", ex);
+            }
+        }
+
+        this.close();
+    }
+
+    // ---------------------------------------
+    // METHODS
+    // ---------------------------------------
+
+    /**
+     * This method registers a new client connection for read operations in the selector of this event loop. The
+     * method can be called by any thread.
+     *
+     * @param channel The non-blocking channel of an accepted client connection.
+     */
+    public void register(SocketChannel channel)
+    {
+        this.execute(() -> {
+            try
+            {
+                SelectionKey key = channel.register(this.selector, SelectionKey.OP_READ);
+                this.handler.registerConnection(key);
+            }
+            catch (ClosedChannelException ex)
+            {
+                log.error("An error occurred while registering a client connection! The channel is already closed.", ex);
+                this.admission.release();
+            }
+        });
+    }
+
+    /**
+     * This method registers a non-blocking server socket channel for accept operations in the selector of this event
+     * loop. The accepted connections are served by this event loop. If the connection limit of the admission control
+     * is reached the event loop pauses accepting until one of its connections is closed. The method can be called by
+     * any thread.
+     *
+     * @param channel The bound, non-blocking server socket channel.
+     */
+    public void listen(ServerSocketChannel channel)
+    {
+        this.execute(() -> {
+            try
+            {
+                this.acceptKey = channel.register(this.selector, SelectionKey.OP_ACCEPT);
+                this.admission.setResumeListener(this.selector::wakeup);
+            }
+            catch (ClosedChannelException ex)
+            {
+                log.error("An error occurred while registering a server socket channel! The channel is already closed.", ex);
+            }
+        });
+    }
+
+    /**
+     * This method queues a task which will be executed by the event loop thread. The selector is woken up only if no
+     * wakeup is already pending, so a burst of tasks causes a single wakeup.
+     *
+     * @param task The task to execute in the event loop thread.
+     */
+    public void execute(Runnable task)
+    {
+        this.tasks.offer(task);
+
+        if (this.wakeupPending.compareAndSet(false, true))
+        {
+            this.selector.wakeup();
+        }
+    }
+
+    /**
+     * @return the timing of the iterations of this event loop.
+     */
+    public LoopTiming getLoopTiming()
+    {
+        return this.loopTiming;
+    }
+
+    /**
+     * This method stops the event loop. All registered connections and the selector will be closed by the event loop
+     * thread.
+     */
+    public void shutdown()
+    {
+        this.running = false;
+        this.selector.wakeup();
+    }
+
+    /**
+     * @return the number of connections registered in the selector of this event loop.
+     */
+    public int getConnectionCount()
+    {
+        return this.selector.isOpen() ? this.selector.keys().size() : 0;
+    }
+
+    /**
+     * This method executes all queued tasks.
+     */
+    private void runTasks()
+    {
+        Runnable task;
+
+        while ((task = this.tasks.poll()) != null)
+        {
+            try
+            {
+                task.run();
+            }
+            catch (RuntimeException ex)
+            {
+                log.error("An error occurred while executing a task in the event loop!", ex);
+            }
+        }
+    }
+
+    /**
+     * This method delegates a selected key to the operation of the channel handler.
+     *
+     * @param key The selected key of a client connection.
+     * @throws IOException if closing the channel failed during an error
+     */
+    private void processKey(SelectionKey key) throws IOException
+    {
+        if (key.isAcceptable())
+        {
+            this.acceptOperation(key);
+            return;
+        }
+
+        if (key.isConnectable())
+        {
+            this.handler.connectOperation(key);
+        }
+
+        if (key.isValid() && key.isWritable())
+        {
+            this.handler.writeOperation(key);
+        }
+
+        if (key.isValid() && key.isReadable())
+        {
+            this.handler.readOperation(key);
+        }
+    }
+
+    /**
+     * This method accepts the pending connections of the server socket channel of this event loop and registers them
+     * in the selector of this event loop.
+     *
+     * @param key The SelectionKey of the server socket channel.
+     */
+    private void acceptOperation(SelectionKey key)
+    {
+        ServerSocketChannel serverSocketChannel = (ServerSocketChannel) key.channel();
+        SocketChannel socketChannel = null;
+
+        try
+        {
+            while (true)
+            {
+                if (!this.admission.tryAcquire())
+                {
+                    this.admission.pause();
+                    key.interestOps(0);
+                    break;
+                }
+
+                socketChannel = serverSocketChannel.accept();
+                if (socketChannel == null)
+                {
+                    this.admission.release();
+                    break;
+                }
+
+                socketChannel.configureBlocking(false);
+                SocketOptions.configure(socketChannel);
+                this.handler.registerConnection(socketChannel.register(this.selector, SelectionKey.OP_READ));
+                socketChannel = null;
+            }
+        }
+        catch (IOException ex)
+        {
+            log.error("An error occurred while accepting an incoming client connection request!", ex);
+            this.admission.release();
+            if (socketChannel != null)
+            {
+                try
+                {
+                    socketChannel.close();
+                }
+                catch (IOException closeEx)
+                {
+                    log.error("Error while closing the connection to the client!", closeEx);
+                }
+            }
+        }
+    }
+
+    /**
+     * This method registers the server socket channel for accept operations again if the event loop paused accepting
+     * and a connection was closed in the meantime.
+     */
+    private void resumeAccept()
+    {
+        if (this.acceptKey != null && this.admission.isPaused() && this.admission.hasCapacity()
+                && this.admission.resume())
+        {
+            this.acceptKey.interestOps(SelectionKey.OP_ACCEPT);
+        }
+    }
+
+    /**
+     * This method closes all registered connections and the selector.
+     */
+    private void close()
+    {
+        try
+        {
+            for (SelectionKey key : this.selector.keys())
+            {
+                if (key.attachment() instanceof NIOConnection)
+                {
+                    ((NIOConnection) key.attachment()).release();
+                }
+                key.channel().close();
+            }
+
+            this.selector.close();
+            ServerMetrics.selectorClosed();
+            log.info(this.handler.getTimeouts().toString());
+        }
+        catch (IOException ex)
+        {
+            log.error("An error occurred while closing the event loop!", ex);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package de.hdm.uls.threadbasedserver.server.nio;
+
+/**
+ * This class measures the iterations of a selector loop: the time the loop waits in the select call and the time it
+ * processes the selected keys and queued tasks afterwards. A loop which spends most of its time processing is
+ * saturated, a long maximum processing time delays every connection of the selector. <br/>
+ * The values are written by the thread of the loop only and read by any thread, e.g. by the management bean of the
+ * server, so they are volatile but not atomic.
+ */
+public class LoopTiming
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private volatile long iterations      = 0;
+    private volatile long selectNanos     = 0;
+    private volatile long processNanos    = 0;
+    private volatile long maxProcessNanos = 0;
+
+    // ---------------------------------------
+    // METHODS
+    // ---------------------------------------
+
+    /**
+     * This method records an iteration of the loop. Must be called by the thread of the loop only.
+     *
+     * @param selectNanos The time the loop waited in the select call.
+     * @param processNanos The time the loop processed the selected keys and tasks.
+     */
+    public void record(long selectNanos, long processNanos)
+    {
+        this.iterations = this.iterations + 1;
+        this.selectNanos = this.selectNanos + selectNanos;
+        this.processNanos = this.processNanos + processNanos;
+        if (processNanos > this.maxProcessNanos)
+        {
+            this.maxProcessNanos = processNanos;
+        }
+    }
+
+    public long getIterations()
+    {
+        return this.iterations;
+    }
+
+    /**
+     * @return the total time the loop waited in the select call in nanoseconds.
+     */
+    public long getSelectNanos()
+    {
+        return this.selectNanos;
+    }
+
+    /**
+     * @return the total time the loop processed the selected keys and tasks in nanoseconds.
+     */
+    public long getProcessNanos()
+    {
+        return this.processNanos;
+    }
+
+    /**
+     * @return the longest time of a single iteration to process the selected keys and tasks in nanoseconds.
+     */
+    public long getMaxProcessNanos()
+    {
+        return this.maxProcessNanos;
+    }
+}
@@ -0,0 +1,535 @@
+package de.hdm.uls.threadbasedserver.server.nio;
+
+import de.hdm.uls.threadbasedserver.buffer.BufferPool;
+import de.hdm.uls.threadbasedserver.buffer.PooledBuffer;
+import de.hdm.uls.threadbasedserver.config.ServerConfig;
+import de.hdm.uls.threadbasedserver.metrics.ServerMetrics;
+import de.hdm.uls.threadbasedserver.payload.PayloadViews;
+import de.hdm.uls.threadbasedserver.protocol.AssetKeyReader;
+import de.hdm.uls.threadbasedserver.protocol.DelimiterScanner;
+import de.hdm.uls.threadbasedserver.protocol.Frame;
+import de.hdm.uls.threadbasedserver.protocol.FrameDecoder;
+import de.hdm.uls.threadbasedserver.server.AdmissionControl;
+import de.hdm.uls.threadbasedserver.timer.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.Executor;
+
+/**
+ * This class handles the operations of the client connections registered in a selector. The handler implements the
+ * delimiter protocol of the servers: the client sends data until the delimiter signs are detected, after that the
+ * server writes the requested asset to the client. In full duplex mode, see ServerConfig.ProcessingMode.PARALLEL, the
+ * response starts with the first bytes of the request and the connection reads and writes at the same time. <br/>
+ * The handler is shared by all NIO server implementations, so every selector loop processes the connections the
+ * same way regardless how the connections are distributed over the selectors. Every selector loop owns its own handler,
+ * because the handler tracks the timeouts of the connections of its selector.
+ */
+public class NIOChannelHandler
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private static final Logger             log      = LoggerFactory.getLogger(NIOChannelHandler.class);
+
+    private final        DelimiterScanner   scanner  = new DelimiterScanner(ServerConfig.DELIMITER);
+    private final        ConnectionTimeouts timeouts = new ConnectionTimeouts();
+    private final        AdmissionControl   admission;
+    private final        BufferPool         bufferPool;
+    private final        PayloadViews       payloadViews;
+    private final        RequestDispatcher  dispatcher;
+    private final        Executor           loopExecutor;
+
+    // ---------------------------------------
+    // CONSTRUCTOR
+    // ---------------------------------------
+
+    /**
+     * @param admission The admission control of the server, which gets back the permit of every closed connection.
+     */
+    public NIOChannelHandler(AdmissionControl admission)
+    {
+        this(admission, BufferPool.getShared(), null);
+    }
+
+    /**
+     * @param admission The admission control of the server, which gets back the permit of every closed connection.
+     * @param bufferPool The pool of the read buffers.
+     * @param payloadViews The views of the assets owned by the selector thread, or NULL to open every payload from the
+     *                     shared asset store.
+     */
+    public NIOChannelHandler(AdmissionControl admission, BufferPool bufferPool, PayloadViews payloadViews)
+    {
+        this(admission, bufferPool, payloadViews, null, null);
+    }
+
+    /**
+     * @param admission The admission control of the server, which gets back the permit of every closed connection.
+     * @param bufferPool The pool of the read buffers.
+     * @param payloadViews The views of the assets owned by the selector thread, or NULL to open every payload from the
+     *                     shared asset store.
+     * @param dispatcher The dispatcher which hands the requests to the threads building the responses, or NULL to
+     *                   build them in the selector thread.
+     * @param loopExecutor The executor which runs a task in the selector thread, e.g. {@link EventLoop#execute}. Only
+     *                     used with a dispatcher.
+     */
+    public NIOChannelHandler(AdmissionControl admission, BufferPool bufferPool, PayloadViews payloadViews,
+            RequestDispatcher dispatcher, Executor loopExecutor)
+    {
+        this.admission = admission;
+        this.bufferPool = bufferPool;
+        this.payloadViews = payloadViews;
+        this.dispatcher = dispatcher;
+        this.loopExecutor = loopExecutor;
+    }
+
+    // ---------------------------------------
+    // METHODS
+    // ---------------------------------------
+
+    /**
+     * This method attaches the state to a new client connection and starts its idle timeout. The method has to be
+     * called by the selector thread after the channel was registered.
+     *
+     * @param key The SelectionKey of the new client connection.
+     */
+    public void registerConnection(SelectionKey key)
+    {
+        ServerMetrics.connectionAccepted();
+        this.timeouts.schedule(this.connectionOf(key), ConnectionTimeouts.Type.IDLE);
+    }
+
+    /**
+     * This method closes the connections whose timeout expired. The selector loop calls the method before every select.
+     *
+     * @return the timeout of the next select call in milliseconds, 0 if the select may block until the next event.
+     */
+    public long expireTimeouts()
+    {
+        return this.timeouts.expire();
+    }
+
+    public ConnectionTimeouts getTimeouts()
+    {
+        return this.timeouts;
+    }
+
+    /**
+     * This method finish an existing connection to the client if the connection is still pending.
+     *
+     * @param key The SelectionKey of the selector. Like an ID to identify the client who wants to connect.
+     */
+    public void connectOperation(SelectionKey key)
+    {
+        SocketChannel channel = (SocketChannel) key.channel();
+
+        if (channel.isConnectionPending())
+        {
+            try
+            {
+                channel.finishConnect();
+            }
+            catch (IOException ex)
+            {
+                log.error("An error occurred while finishing the connection to the client!", ex);
+            }
+        }
+    }
+
+    /**
+     * This method writes the outbound queue of a client connection if the channel is registered for OP_WRITE. A
+     * non-blocking channel accepts only a part of a large response, so the rest stays in the queue and is written on
+     * the next OP_WRITE event. As soon as the queue is drained the write interest is cleared. A keep-alive connection
+     * returns to reading the next request, a full duplex connection keeps reading until the delimiter signs, otherwise
+     * the connection is closed after its single response.
+     *
+     * @param key The SelectionKey of the selector. Like an ID to identify the client to send data.
+     */
+    public void writeOperation(SelectionKey key)
+    {
+        NIOConnection connection = this.connectionOf(key);
+
+        try
+        {
+            if (connection.flush((SocketChannel) key.channel()))
+            {
+                key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+                ServerMetrics.bytesSent(connection.getResponseBytes());
+                ServerMetrics.responseCompleted(connection.getResponseStartNanos());
+
+                if (ServerConfig.isKeepAlive())
+                {
+                    // the response is complete, wait for the next request of the client
+                    connection.reset();
+                    this.timeouts.schedule(connection, ConnectionTimeouts.Type.IDLE);
+                    key.interestOps(SelectionKey.OP_READ);
+                }
+                else if (ServerConfig.isFullDuplex() && !connection.isRequestComplete())
+                {
+                    // the response is complete before the request, keep reading until the delimiter signs
+                    this.timeouts.schedule(connection, ConnectionTimeouts.Type.READ);
+                }
+                else
+                {
+                    this.closeConnection(key);
+                }
+            }
+        }
+        catch (IOException ex)
+        {
+            log.error("An error occurred while sending data to the client! Close connection!", ex);
+            this.closeConnection(key);
+        }
+    }
+
+    /**
+     * This method handles a complete request. Without a dispatcher the selector thread builds the response and puts
+     * it into the outbound queue of the connection. Otherwise the request is handed to the dispatcher and the
+     * connection stops reading until the response comes back, see
+     * {@link #respond(SelectionKey, NIOConnection, String, long, long)}. If the dispatcher can not take the request,
+     * e.g. because its ring is full, the selector thread builds the response itself.
+     *
+     * @param key The SelectionKey of the client connection.
+     * @param connection The state of the client connection.
+     * @throws IOException if the asset can not be opened.
+     */
+    private void handleRequest(SelectionKey key, NIOConnection connection) throws IOException
+    {
+        // the write timeout covers the time to build the response and the time to write it
+        this.timeouts.schedule(connection, ConnectionTimeouts.Type.WRITE);
+
+        long requestNanos = System.nanoTime();
+
+        if (this.dispatcher != null)
+        {
+            key.interestOps(0);
+
+            if (this.dispatcher.dispatch(this, key, connection, connection.getAssetKey(), connection.getRequestId(),
+                    requestNanos))
+            {
+                return;
+            }
+        }
+
+        NIOResponse.open(connection.getAssetKey(), connection.getRequestId(), this.payloadViews, requestNanos)
+                .writeTo(connection);
+
+        // next reasonable operation will be a write operation
+        key.interestOps(SelectionKey.OP_WRITE);
+    }
+
+    /**
+     * This method starts the response of a full duplex connection with the first bytes of its request. The asset key
+     * follows the delimiter signs, so the response always contains the default file, like the parallel mode of the
+     * node.js server. The selector thread builds the response itself even if the server has a dispatcher, because
+     * the connection keeps reading and its state must not leave the selector thread.
+     *
+     * @param key The SelectionKey of the client connection.
+     * @param connection The state of the client connection.
+     * @throws IOException if the asset can not be opened.
+     */
+    private void startFullDuplexResponse(SelectionKey key, NIOConnection connection) throws IOException
+    {
+        // the write timeout covers the response and the rest of the request read meanwhile
+        this.timeouts.schedule(connection, ConnectionTimeouts.Type.WRITE);
+
+        NIOResponse.open(null, 0, this.payloadViews, System.nanoTime()).writeTo(connection);
+        key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+    }
+
+    /**
+     * This method completes the request of a full duplex connection. The connection stops reading and is closed as soon
+     * as its response is written.
+     *
+     * @param key The SelectionKey of the client connection.
+     * @param connection The state of the client connection.
+     */
+    private void completeFullDuplexRequest(SelectionKey key, NIOConnection connection)
+    {
+        connection.setRequestComplete(true);
+
+        if (connection.hasPendingOutput())
+        {
+            key.interestOps(SelectionKey.OP_WRITE);
+        }
+        else
+        {
+            this.closeConnection(key);
+        }
+    }
+
+    /**
+     * This method builds the response to a request handed off by the dispatcher and queues a task in the loop
+     * executor, which puts the response into the outbound queue of the connection in the selector thread. Called by
+     * the thread the dispatcher handed the request to. The method never touches the state of the connection, so the
+     * connection needs no lock. The payload views belong to the selector thread, so the payload is opened from the
+     * shared asset store.
+     *
+     * @param key The SelectionKey of the client connection.
+     * @param connection The state of the client connection.
+     * @param assetKey The key of the requested asset, or NULL for the default file.
+     * @param requestId The id of the request of the framed protocol.
+     * @param requestNanos The System.nanoTime() when the request was complete.
+     */
+    public void respond(SelectionKey key, NIOConnection connection, String assetKey, long requestId, long requestNanos)
+    {
+        long queuedNanos = System.nanoTime() - requestNanos;
+        NIOResponse response = null;
+        try
+        {
+            response = NIOResponse.open(assetKey, requestId, null, requestNanos);
+        }
+        catch (IOException ex)
+        {
+            log.error("An error occurred while building the response to a request! Close connection!", ex);
+        }
+
+        NIOResponse built = response;
+        long builtNanos = System.nanoTime();
+        this.loopExecutor.execute(() -> {
+            ServerMetrics.handoffCompleted(queuedNanos + System.nanoTime() - builtNanos);
+            this.completeRequest(key, connection, built);
+        });
+    }
+
+    /**
+     * This method puts the response built by another thread into the outbound queue of the connection. Must be called
+     * by the selector thread. If the connection was closed in the meantime, e.g. by its write timeout, the response is
+     * dropped.
+     *
+     * @param key The SelectionKey of the client connection.
+     * @param connection The state of the client connection when the request was dispatched.
+     * @param response The response, or NULL if the response could not be built.
+     */
+    private void completeRequest(SelectionKey key, NIOConnection connection, NIOResponse response)
+    {
+        if (!key.isValid() || key.attachment() != connection)
+        {
+            if (response != null)
+            {
+                response.release();
+            }
+            return;
+        }
+
+        if (response == null)
+        {
+            this.closeConnection(key);
+            return;
+        }
+
+        response.writeTo(connection);
+        key.interestOps(SelectionKey.OP_WRITE);
+    }
+
+    /**
+     * This method read data from a client if a connection already exists and the channel is registered in the selector.
+     * Depending on ServerConfig.getProtocol() the request ends with the delimiter signs followed by the asset key, or
+     * with a GET frame carrying the asset key. In full duplex mode the first bytes of the request start its response.
+     *
+     * @param key he SelectionKey of the selector. Like an ID to identify the client to read data from.
+     * @throws java.io.IOException if closing the channel failed during an error
+     */
+    public void readOperation(SelectionKey key) throws IOException
+    {
+        SocketChannel channel = (SocketChannel) key.channel();
+
+        // take a buffer of the pool to read bytes from channel, the buffer goes back to the pool after the read
+        PooledBuffer pooled = this.bufferPool.acquire(ServerConfig.getReadBufferSize());
+
+        try
+        {
+            ByteBuffer readBuffer = pooled.buffer();
+
+            int readBytes = channel.read(readBuffer);
+            NIOConnection connection = this.connectionOf(key);
+
+            ServerMetrics.bytesReceived(readBytes);
+            if (readBytes > 0 && ConnectionTimeouts.Type.IDLE.equals(connection.getTimeoutType()))
+            {
+                // the first bytes of a request start the read deadline, further reads do not extend it
+                this.timeouts.schedule(connection, ConnectionTimeouts.Type.READ);
+            }
+
+            boolean fullDuplex = ServerConfig.isFullDuplex();
+            if (fullDuplex && readBytes > 0 && !connection.isResponseStarted())
+            {
+                this.startFullDuplexResponse(key, connection);
+            }
+
+            boolean requestComplete = ServerConfig.Protocol.FRAMED.equals(ServerConfig.getProtocol())
+                    ? this.decodeFrames(connection, readBuffer)
+                    : this.scanDelimiter(connection, readBuffer);
+
+            if (requestComplete && fullDuplex)
+            {
+                this.completeFullDuplexRequest(key, connection);
+            }
+            else if (requestComplete)
+            {
+                this.handleRequest(key, connection);
+            }
+            else if (readBytes == - 1)
+            {
+                log.info("Nothing to read from socket channel!");
+                // close connection and remove key
+                this.release(key);
+                channel.close();
+                key.cancel();
+            }
+        }
+        catch (IOException ex)
+        {
+            log.error("An error occurred while reading data from socket channel! Close connection!", ex);
+            this.release(key);
+            key.cancel();
+            channel.close();
+        }
+        finally
+        {
+            pooled.release();
+        }
+    }
+
+    /**
+     * This method scans the bytes of a read for the delimiter signs and reads the asset key behind them. Only the
+     * bytes of this read are scanned, the connection keeps the matched delimiter bytes and the key bytes of the last
+     * reads.
+     *
+     * @param connection The state of the client connection.
+     * @param readBuffer The buffer containing the read bytes between index 0 and its position.
+     * @return TRUE if the request is complete, otherwise FALSE.
+     * @throws IOException if the asset key is too long.
+     */
+    private boolean scanDelimiter(NIOConnection connection, ByteBuffer readBuffer) throws IOException
+    {
+        AssetKeyReader keyReader = connection.getKeyReader();
+        int keyOffset = keyReader.isReading() ? 0 : connection.getScanner().scan(readBuffer, 0, readBuffer.position());
+
+        if (keyOffset >= 0 && keyReader.read(readBuffer, keyOffset, readBuffer.position()))
+        {
+            connection.setAssetKey(keyReader.getKey());
+            keyReader.reset();
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * This method decodes the frames of a read. DATA frames are skipped, a GET frame completes the request.
+     *
+     * @param connection The state of the client connection.
+     * @param readBuffer The buffer containing the read bytes between index 0 and its position.
+     * @return TRUE if the request is complete, otherwise FALSE.
+     * @throws IOException if the client sent an invalid frame.
+     */
+    private boolean decodeFrames(NIOConnection connection, ByteBuffer readBuffer) throws IOException
+    {
+        FrameDecoder decoder = connection.getDecoder();
+        readBuffer.flip();
+
+        while (readBuffer.hasRemaining() && decoder.decode(readBuffer))
+        {
+            boolean get = decoder.getType() == Frame.TYPE_GET;
+            if (get)
+            {
+                connection.setAssetKey(decoder.getKey());
+                connection.setRequestId(decoder.getRequestId());
+            }
+            decoder.reset();
+
+            if (get)
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * This method returns the state of a client connection and attaches a new state to the key if necessary.
+     *
+     * @param key The SelectionKey of the client connection.
+     * @return The state of the connection.
+     */
+    private NIOConnection connectionOf(SelectionKey key)
+    {
+        NIOConnection connection = (NIOConnection) key.attachment();
+        if (connection == null)
+        {
+            connection = new NIOConnection(this.scanner.copy(), new Timeout(() -> this.timeoutExpired(key)));
+            key.attach(connection);
+        }
+
+        return connection;
+    }
+
+    /**
+     * This method releases the pending response of a client connection and returns its admission permit.
+     *
+     * @param key The SelectionKey of the client connection.
+     */
+    private void release(SelectionKey key)
+    {
+        NIOConnection connection = (NIOConnection) key.attach(null);
+        if (connection != null)
+        {
+            this.timeouts.cancel(connection);
+            connection.release();
+            this.admission.release();
+            ServerMetrics.connectionClosed();
+        }
+    }
+
+    /**
+     * This method closes a client connection whose timeout expired.
+     *
+     * @param key The SelectionKey of the client connection.
+     */
+    private void timeoutExpired(SelectionKey key)
+    {
+        NIOConnection connection = (NIOConnection) key.attachment();
+        if (connection != null)
+        {
+            this.timeouts.expired(connection);
+            log.debug("The " + connection.getTimeoutType() + " timeout of a client connection expired! Close connection!");
+            this.closeConnection(key);
+        }
+    }
+
+    /**
+     * This method releases the state of a client connection, cancels the key and closes the channel.
+     *
+     * @param key The SelectionKey of the client connection.
+     */
+    private void closeConnection(SelectionKey key)
+    {
+        this.release(key);
+        key.cancel();
+        this.closeChannel((SocketChannel) key.channel());
+    }
+
+    /**
+     * This method closes the channel of a client connection.
+     *
+     * @param channel The channel to close.
+     */
+    private void closeChannel(SocketChannel channel)
+    {
+        try
+        {
+            channel.close();
+        }
+        catch (IOException ex)
+        {
+            log.error("Error while closing the connection to the client!", ex);
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package de.hdm.uls.threadbasedserver.server.nio;
+
+import de.hdm.uls.threadbasedserver.payload.FileTransfer;
+import de.hdm.uls.threadbasedserver.protocol.AssetKeyReader;
+import de.hdm.uls.threadbasedserver.protocol.DelimiterScanner;
+import de.hdm.uls.threadbasedserver.protocol.FrameDecoder;
+import de.hdm.uls.threadbasedserver.timer.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+/**
+ * This class holds the state of a client connection of a NIO server between two selector events. An instance is
+ * attached to the SelectionKey of the connection. <br/>
+ * The response is kept in an outbound queue. A non-blocking channel accepts only as many bytes as fit into the socket
+ * send buffer, so the queue is flushed on every OP_WRITE event until all buffers and the pending file transfer are
+ * written. The buffers of the queue are written with a single gathering write, so the header and the body of a
+ * response leave in one system call.
+ */
+public class NIOConnection
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private static final Logger                  log                = LoggerFactory.getLogger(NIOConnection.class);
+
+    private final        Deque<ByteBuffer>       outbound           = new ArrayDeque<>();
+    private final        DelimiterScanner        scanner;
+    private final        Timeout                 timeout;
+    private              ConnectionTimeouts.Type timeoutType        = null;
+    private              FrameDecoder            decoder            = null;
+    private              AssetKeyReader          keyReader          = null;
+    private              String                  assetKey           = null;
+    private              long                    requestId          = 0;
+    private              FileTransfer            transfer           = null;
+    private              long                    responseBytes      = 0;
+    private              long                    responseStartNanos = 0;
+    private              boolean                 responseStarted    = false;
+    private              boolean                 requestComplete    = false;
+    private              ByteBuffer[]            gatherBuffers      = new ByteBuffer[2];
+
+    // ---------------------------------------
+    // CONSTRUCTOR
+    // ---------------------------------------
+
+    /**
+     * @param scanner The scanner which keeps the delimiter match state of this connection between the reads.
+     * @param timeout The timeout of this connection, see {@link ConnectionTimeouts}.
+     */
+    public NIOConnection(DelimiterScanner scanner, Timeout timeout)
+    {
+        this.scanner = scanner;
+        this.timeout = timeout;
+    }
+
+    // ---------------------------------------
+    // METHODS
+    // ---------------------------------------
+
+    public DelimiterScanner getScanner()
+    {
+        return this.scanner;
+    }
+
+    public Timeout getTimeout()
+    {
+        return this.timeout;
+    }
+
+    /**
+     * @return the phase of the connection the scheduled timeout belongs to.
+     */
+    public ConnectionTimeouts.Type getTimeoutType()
+    {
+        return this.timeoutType;
+    }
+
+    public void setTimeoutType(ConnectionTimeouts.Type timeoutType)
+    {
+        this.timeoutType = timeoutType;
+    }
+
+    /**
+     * @return the decoder which keeps the state of a partially received frame of this connection.
+     */
+    public FrameDecoder getDecoder()
+    {
+        if (this.decoder == null)
+        {
+            this.decoder = new FrameDecoder();
+        }
+
+        return this.decoder;
+    }
+
+    /**
+     * @return the reader which keeps the bytes of an asset key split over several reads of this connection.
+     */
+    public AssetKeyReader getKeyReader()
+    {
+        if (this.keyReader == null)
+        {
+            this.keyReader = new AssetKeyReader();
+        }
+
+        return this.keyReader;
+    }
+
+    /**
+     * @return the id of the current request if the framed protocol is used, otherwise 0.
+     */
+    public long getRequestId()
+    {
+        return this.requestId;
+    }
+
+    public void setRequestId(long requestId)
+    {
+        this.requestId = requestId;
+    }
+
+    /**
+     * @return the key of the asset requested by the client, or NULL if the client requested the default file.
+     */
+    public String getAssetKey()
+    {
+        return this.assetKey;
+    }
+
+    public void setAssetKey(String assetKey)
+    {
+        this.assetKey = assetKey;
+    }
+
+    /**
+     * This method marks the start of a response to measure its service time.
+     *
+     * @param responseBytes The size of the response including its header in bytes.
+     * @param requestNanos The System.nanoTime() when the request of the response was complete.
+     */
+    public void startResponse(long responseBytes, long requestNanos)
+    {
+        this.responseBytes = responseBytes;
+        this.responseStartNanos = requestNanos;
+        this.responseStarted = true;
+    }
+
+    /**
+     * @return TRUE if the current response was put into the outbound queue, even if it is written already.
+     */
+    public boolean isResponseStarted()
+    {
+        return this.responseStarted;
+    }
+
+    /**
+     * @return TRUE if the delimiter signs of a full duplex request were read, see ServerConfig.isFullDuplex().
+     */
+    public boolean isRequestComplete()
+    {
+        return this.requestComplete;
+    }
+
+    public void setRequestComplete(boolean requestComplete)
+    {
+        this.requestComplete = requestComplete;
+    }
+
+    /**
+     * @return the size of the current response including its header in bytes.
+     */
+    public long getResponseBytes()
+    {
+        return this.responseBytes;
+    }
+
+    /**
+     * @return the System.nanoTime() when the request of the current response was complete.
+     */
+    public long getResponseStartNanos()
+    {
+        return this.responseStartNanos;
+    }
+
+    /**
+     * This method appends a buffer to the outbound queue of the connection.
+     *
+     * @param buffer The buffer to send, positioned at the first byte to send.
+     */
+    public void enqueue(ByteBuffer buffer)
+    {
+        this.outbound.addLast(buffer);
+    }
+
+    /**
+     * This method sets the file transfer which is sent after all buffers of the outbound queue.
+     *
+     * @param transfer The zero copy transfer to send.
+     */
+    public void setTransfer(FileTransfer transfer)
+    {
+        this.transfer = transfer;
+    }
+
+    /**
+     * @return TRUE if the outbound queue or a file transfer contains bytes which are not written yet, otherwise FALSE.
+     */
+    public boolean hasPendingOutput()
+    {
+        return !this.outbound.isEmpty() || this.transfer != null;
+    }
+
+    /**
+     * This method writes the outbound queue and the pending file transfer to the channel until the channel accepts no
+     * more bytes. Written buffers and a completed transfer are removed from the connection.
+     *
+     * @param channel The non-blocking channel of the client connection.
+     * @return TRUE if the whole response was written, FALSE if the rest must be written on the next OP_WRITE event.
+     * @throws IOException if writing to the channel failed.
+     */
+    public boolean flush(WritableByteChannel channel) throws IOException
+    {
+        if (this.outbound.size() > 1 && channel instanceof GatheringByteChannel)
+        {
+            this.gather((GatheringByteChannel) channel);
+        }
+
+        ByteBuffer head;
+        while ((head = this.outbound.peekFirst()) != null)
+        {
+            channel.write(head);
+            if (head.hasRemaining())
+            {
+                return false;
+            }
+            this.outbound.pollFirst();
+        }
+
+        if (this.transfer != null)
+        {
+            if (!this.transfer.transferTo(channel))
+            {
+                return false;
+            }
+            this.release();
+        }
+
+        return true;
+    }
+
+    /**
+     * This method writes all buffers of the outbound queue with a single gathering write and removes the written
+     * buffers. The array of the buffers is reused, so the write allocates nothing.
+     *
+     * @param channel The non-blocking channel of the client connection.
+     * @throws IOException if writing to the channel failed.
+     */
+    private void gather(GatheringByteChannel channel) throws IOException
+    {
+        int count = this.outbound.size();
+        this.gatherBuffers = this.outbound.toArray(this.gatherBuffers);
+
+        channel.write(this.gatherBuffers, 0, count);
+        Arrays.fill(this.gatherBuffers, 0, count, null);
+
+        while (!this.outbound.isEmpty() && !this.outbound.peekFirst().hasRemaining())
+        {
+            this.outbound.pollFirst();
+        }
+    }
+
+    /**
+     * This method prepares a keep-alive connection for the next request.
+     */
+    public void reset()
+    {
+        this.release();
+        this.assetKey = null;
+        this.requestId = 0;
+        this.responseStarted = false;
+        this.requestComplete = false;
+    }
+
+    /**
+     * This method clears the outbound queue of the connection and closes an unfinished transfer.
+     */
+    public void release()
+    {
+        this.outbound.clear();
+
+        if (this.transfer != null)
+        {
+            try
+            {
+                this.transfer.close();
+            }
+            catch (IOException ex)
+            {
+                log.error("Error while closing the file of a transfer!", ex);
+            }
+            this.transfer = null;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package de.hdm.uls.threadbasedserver.server.nio;
+
+import de.hdm.uls.threadbasedserver.config.ServerConfig;
+import de.hdm.uls.threadbasedserver.payload.AssetStore;
+import de.hdm.uls.threadbasedserver.payload.ComputeRequest;
+import de.hdm.uls.threadbasedserver.payload.FileTransfer;
+import de.hdm.uls.threadbasedserver.payload.PayloadViews;
+import de.hdm.uls.threadbasedserver.protocol.ResponseHeader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * This class holds the response to a request before it is put into the outbound queue of the connection: the header
+ * announcing the size of the body, see {@link ResponseHeader}, and either a read-only view of the requested asset or a zero copy transfer of the
+ * asset if ServerConfig.isZeroCopy() is set. The body of a compute request, see {@link ComputeRequest}, is computed
+ * while the response is opened. <br/>
+ * A response can be built by any thread, because it does not touch the state of the connection. So a server is able
+ * to build the responses in a worker thread and hand them back to the selector thread of the connection.
+ */
+public class NIOResponse
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private static final Logger       log          = LoggerFactory.getLogger(NIOResponse.class);
+
+    private final        ByteBuffer   header;
+    private final        ByteBuffer   payload;
+    private final        FileTransfer transfer;
+    private final        long         size;
+    private final        long         requestNanos;
+
+    // ---------------------------------------
+    // CONSTRUCTOR
+    // ---------------------------------------
+
+    private NIOResponse(ByteBuffer header, ByteBuffer payload, FileTransfer transfer, long size, long requestNanos)
+    {
+        this.header = header;
+        this.payload = payload;
+        this.transfer = transfer;
+        this.size = size;
+        this.requestNanos = requestNanos;
+    }
+
+    // ---------------------------------------
+    // METHODS
+    // ---------------------------------------
+
+    /**
+     * This method opens the response to a request. A compute request is run by the calling thread.
+     *
+     * @param assetKey The key of the requested asset, or NULL for the default file.
+     * @param requestId The id of the request of the framed protocol.
+     * @param payloadViews The views and transfers of the assets owned by the calling thread, or NULL to open the
+     *                     payload or the transfer from the shared asset store.
+     * @param requestNanos The System.nanoTime() when the request was complete, the start of the service time.
+     * @return The response.
+     * @throws IOException if the asset can not be opened.
+     */
+    public static NIOResponse open(String assetKey, long requestId, PayloadViews payloadViews, long requestNanos)
+            throws IOException
+    {
+        boolean framed = ServerConfig.Protocol.FRAMED.equals(ServerConfig.getProtocol());
+
+        if (ComputeRequest.isCompute(assetKey))
+        {
+            ByteBuffer body = ComputeRequest.run((payloadViews != null)
+                    ? payloadViews.openPayload(null)
+                    : AssetStore.getShared().openPayload(null));
+            ByteBuffer header = ResponseHeader.of(framed, body.remaining(), requestId);
+
+            return new NIOResponse(header, body, null, header.remaining() + body.remaining(), requestNanos);
+        }
+
+        if (ServerConfig.isZeroCopy())
+        {
+            FileTransfer transfer = (payloadViews != null)
+                    ? payloadViews.openTransfer(assetKey)
+                    : AssetStore.getShared().openTransfer(assetKey);
+            ByteBuffer header = ResponseHeader.of(framed, transfer.getSize(), requestId);
+
+            return new NIOResponse(header, null, transfer, header.remaining() + transfer.getSize(), requestNanos);
+        }
+
+        ByteBuffer payload = (payloadViews != null)
+                ? payloadViews.openPayload(assetKey)
+                : AssetStore.getShared().openPayload(assetKey);
+        ByteBuffer header = ResponseHeader.of(framed, payload.remaining(), requestId);
+
+        return new NIOResponse(header, payload, null, header.remaining() + payload.remaining(), requestNanos);
+    }
+
+    /**
+     * This method puts the response into the outbound queue of a connection. Must be called by the selector thread
+     * of the connection.
+     *
+     * @param connection The state of the client connection.
+     */
+    public void writeTo(NIOConnection connection)
+    {
+        connection.enqueue(this.header);
+        if (this.payload != null)
+        {
+            connection.enqueue(this.payload);
+        }
+        if (this.transfer != null)
+        {
+            connection.setTransfer(this.transfer);
+        }
+
+        connection.startResponse(this.size, this.requestNanos);
+    }
+
+    /**
+     * This method closes the file of a response which is never written, e.g. because its connection was closed while
+     * the response was built.
+     */
+    public void release()
+    {
+        if (this.transfer != null)
+        {
+            try
+            {
+                this.transfer.close();
+            }
+            catch (IOException ex)
+            {
+                log.error("Error while closing the file of a transfer!", ex);
+            }
+        }
+    }
+
+    /**
+     * @return the size of the response including its header in bytes.
+     */
+    public long getSize()
+    {
+        return this.size;
+    }
+}
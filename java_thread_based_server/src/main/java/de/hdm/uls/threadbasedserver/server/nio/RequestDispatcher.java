@@ -0,0 +1,47 @@
+package de.hdm.uls.threadbasedserver.server.nio;
+
+import java.nio.channels.SelectionKey;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * This interface defines the hand-off of a complete request from a selector thread to the thread which builds the
+ * response. The receiving thread calls
+ * {@link NIOChannelHandler#respond(SelectionKey, NIOConnection, String, long, long)} of the handler passed along with
+ * the request. A dispatcher is called by the selector threads only.
+ */
+public interface RequestDispatcher
+{
+    /**
+     * This method hands a request to another thread.
+     *
+     * @param handler The handler of the selector thread of the connection.
+     * @param key The SelectionKey of the client connection.
+     * @param connection The state of the client connection.
+     * @param assetKey The key of the requested asset, or NULL for the default file.
+     * @param requestId The id of the request of the framed protocol.
+     * @param requestNanos The System.nanoTime() when the request was complete.
+     * @return TRUE if the request was handed off, FALSE if the dispatcher can not take the request now.
+     */
+    boolean dispatch(NIOChannelHandler handler, SelectionKey key, NIOConnection connection, String assetKey,
+            long requestId, long requestNanos);
+
+    /**
+     * @param executor The executor, e.g. a thread pool.
+     * @return a dispatcher which submits every request as a task to the executor.
+     */
+    static RequestDispatcher of(Executor executor)
+    {
+        return (handler, key, connection, assetKey, requestId, requestNanos) -> {
+            try
+            {
+                executor.execute(() -> handler.respond(key, connection, assetKey, requestId, requestNanos));
+                return true;
+            }
+            catch (RejectedExecutionException ex)
+            {
+                return false;
+            }
+        };
+    }
+}
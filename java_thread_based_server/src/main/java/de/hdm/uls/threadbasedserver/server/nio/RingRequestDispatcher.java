@@ -0,0 +1,197 @@
+package de.hdm.uls.threadbasedserver.server.nio;
+
+import de.hdm.uls.threadbasedserver.metrics.ServerMetrics;
+import de.hdm.uls.threadbasedserver.ring.RingBuffer;
+import de.hdm.uls.threadbasedserver.ring.Sequence;
+import de.hdm.uls.threadbasedserver.ring.WaitStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.channels.SelectionKey;
+import java.util.function.BooleanSupplier;
+
+/**
+ * This class hands the requests of one selector thread to a group of handler threads through a preallocated
+ * {@link RingBuffer}. The selector thread is the single producer of the ring: it copies a request into the next free
+ * slot and publishes it, without a lock and without allocating an event object. The handler threads claim the
+ * published slots and wait for new slots with the configured {@link WaitStrategy}. <br/>
+ * The selector thread never waits for the handlers. If the ring is full the dispatcher refuses the request and the
+ * selector thread builds the response itself, see the metric uls_ring_full_total.
+ */
+public class RingRequestDispatcher implements RequestDispatcher
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private static final Logger                  log     = LoggerFactory.getLogger(RingRequestDispatcher.class);
+
+    private final        RingBuffer<RequestSlot> ring;
+    private final        WaitStrategy            waitStrategy;
+    private final        Thread[]                handlers;
+    private final        BooleanSupplier         running = this::isRunning;
+
+    private volatile     boolean                 stopped = false;
+
+    // ---------------------------------------
+    // CONSTRUCTOR
+    // ---------------------------------------
+
+    /**
+     * @param name The name of the dispatcher, the prefix of the names of the handler threads.
+     * @param size The number of slots of the ring, a power of 2.
+     * @param handlerThreads The number of handler threads consuming the ring.
+     * @param waitStrategy The strategy of the handler threads waiting for the next request.
+     */
+    public RingRequestDispatcher(String name, int size, int handlerThreads, WaitStrategy waitStrategy)
+    {
+        this.ring = new RingBuffer<>(size, RequestSlot::new);
+        this.waitStrategy = waitStrategy;
+        this.handlers = new Thread[Math.max(1, handlerThreads)];
+
+        for (int i = 0; i < this.handlers.length; i++)
+        {
+            // the sequences are added before the handlers start, so the producer never overtakes a handler
+            Sequence sequence = this.ring.addConsumer();
+            String threadName = name + "-" + (i + 1);
+            this.handlers[i] = new Thread(() -> this.consume(sequence), threadName);
+        }
+    }
+
+    // ---------------------------------------
+    // METHODS
+    // ---------------------------------------
+
+    /**
+     * This method starts the handler threads.
+     */
+    public void start()
+    {
+        for (Thread handler : this.handlers)
+        {
+            handler.start();
+        }
+    }
+
+    /**
+     * This method stops the handler threads. A request in the ring which no handler has claimed yet is dropped, its
+     * connection is closed by the selector thread.
+     */
+    public void shutdown()
+    {
+        this.stopped = true;
+
+        for (Thread handler : this.handlers)
+        {
+            handler.interrupt();
+        }
+    }
+
+    @Override
+    public boolean dispatch(NIOChannelHandler handler, SelectionKey key, NIOConnection connection, String assetKey,
+            long requestId, long requestNanos)
+    {
+        long sequence = this.ring.tryNext();
+        if (sequence < 0)
+        {
+            ServerMetrics.ringFull();
+            return false;
+        }
+
+        RequestSlot slot = this.ring.get(sequence);
+        slot.handler = handler;
+        slot.key = key;
+        slot.connection = connection;
+        slot.assetKey = assetKey;
+        slot.requestId = requestId;
+        slot.requestNanos = requestNanos;
+
+        this.ring.publish(sequence);
+        return true;
+    }
+
+    /**
+     * @return the number of requests in the ring no handler thread has claimed yet.
+     */
+    public long getBacklog()
+    {
+        return this.ring.getBacklog();
+    }
+
+    /**
+     * @return the number of handler threads.
+     */
+    public int getHandlerThreads()
+    {
+        return this.handlers.length;
+    }
+
+    /**
+     * This method is the loop of a handler thread: claim the next slot, wait until it is published and build the
+     * response to its request. The references of the slot are cleared before the response is built, so a reused slot
+     * never keeps a closed connection alive.
+     *
+     * @param sequence The sequence of the handler thread.
+     */
+    private void consume(Sequence sequence)
+    {
+        while (this.isRunning())
+        {
+            long claimed = this.ring.claim(sequence);
+            if (!this.ring.waitFor(claimed, this.waitStrategy, this.running))
+            {
+                break;
+            }
+
+            RequestSlot slot = this.ring.get(claimed);
+            NIOChannelHandler handler = slot.handler;
+            SelectionKey key = slot.key;
+            NIOConnection connection = slot.connection;
+            String assetKey = slot.assetKey;
+            long requestId = slot.requestId;
+            long requestNanos = slot.requestNanos;
+            slot.clear();
+
+            try
+            {
+                handler.respond(key, connection, assetKey, requestId, requestNanos);
+            }
+            catch (RuntimeException ex)
+            {
+                log.error("An error occurred while handling a request of the ring buffer!", ex);
+            }
+        }
+    }
+
+    private boolean isRunning()
+    {
+        return !this.stopped;
+    }
+
+    // ---------------------------------------
+    // INNER CLASS
+    // ---------------------------------------
+
+    /**
+     * This class defines a slot of the ring, reused for every request published into it.
+     */
+    private static class RequestSlot
+    {
+        private NIOChannelHandler handler;
+        private SelectionKey      key;
+        private NIOConnection     connection;
+        private String            assetKey;
+        private long              requestId;
+        private long              requestNanos;
+
+        private void clear()
+        {
+            this.handler = null;
+            this.key = null;
+            this.connection = null;
+            this.assetKey = null;
+            this.requestId = 0;
+            this.requestNanos = 0;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package de.hdm.uls.threadbasedserver.timer;
+
+/**
+ * This class implements a hashed timing wheel. The time is divided into ticks of a fixed duration and the wheel holds
+ * a bucket for every tick of one rotation. A timeout is put into the bucket of its deadline tick modulo the number of
+ * buckets, so scheduling and cancelling a timeout costs O(1) regardless of the number of timeouts. Advancing the wheel
+ * visits only the buckets of the elapsed ticks and expires the timeouts whose deadline is reached; a timeout with a
+ * deadline more than one rotation ahead stays in its bucket until its rotation comes. <br/>
+ * The wheel is not thread-safe. It is driven by the thread which owns it, e.g. a selector loop which calls
+ * {@link #advance(long)} before every select and blocks at most {@link #nextTimeoutMillis(long)}. The deadlines are
+ * rounded up to the next tick, so a timeout never expires early but up to one tick late.
+ */
+public class HashedTimingWheel
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private final long      tickMillis;
+    private final long      startMillis;
+    private final Timeout[] buckets;
+    private final int       mask;
+
+    private       long      currentTick  = 0;
+    private       int       pending      = 0;
+    private       long      expired      = 0;
+
+    // ---------------------------------------
+    // CONSTRUCTOR
+    // ---------------------------------------
+
+    /**
+     * @param tickMillis The duration of a tick in milliseconds.
+     * @param ticksPerWheel The number of buckets of one rotation, rounded up to the next power of two.
+     * @param nowMillis The current time of a monotonic clock in milliseconds, the start of the first tick.
+     */
+    public HashedTimingWheel(long tickMillis, int ticksPerWheel, long nowMillis)
+    {
+        if (tickMillis <= 0 || ticksPerWheel <= 0 || ticksPerWheel > (1 << 30))
+        {
+            throw new IllegalArgumentException("Invalid tick duration " + tickMillis + " or wheel size " + ticksPerWheel + "!");
+        }
+
+        int size = Integer.highestOneBit(ticksPerWheel);
+        if (size < ticksPerWheel)
+        {
+            size <<= 1;
+        }
+
+        this.tickMillis = tickMillis;
+        this.startMillis = nowMillis;
+        this.buckets = new Timeout[size];
+        this.mask = size - 1;
+    }
+
+    // ---------------------------------------
+    // METHODS
+    // ---------------------------------------
+
+    /**
+     * This method schedules a timeout. A timeout which is already scheduled is moved to its new deadline.
+     *
+     * @param timeout The timeout to schedule.
+     * @param delayMillis The delay until the timeout expires in milliseconds.
+     * @param nowMillis The current time of the clock the wheel was created with.
+     */
+    public void schedule(Timeout timeout, long delayMillis, long nowMillis)
+    {
+        if (timeout.isScheduled())
+        {
+            this.unlink(timeout);
+        }
+
+        long elapsed = Math.max(0L, nowMillis - this.startMillis + Math.max(0L, delayMillis));
+        long deadlineTick = Math.max(this.currentTick + 1, (elapsed + this.tickMillis - 1) / this.tickMillis);
+        int bucket = (int) (deadlineTick & this.mask);
+
+        timeout.deadlineTick = deadlineTick;
+        timeout.bucket = bucket;
+        timeout.previous = null;
+        timeout.next = this.buckets[bucket];
+        if (timeout.next != null)
+        {
+            timeout.next.previous = timeout;
+        }
+        this.buckets[bucket] = timeout;
+        this.pending++;
+    }
+
+    /**
+     * This method cancels a timeout. Nothing happens if the timeout is not scheduled.
+     *
+     * @param timeout The timeout to cancel.
+     */
+    public void cancel(Timeout timeout)
+    {
+        if (timeout.isScheduled())
+        {
+            this.unlink(timeout);
+        }
+    }
+
+    /**
+     * This method advances the wheel to the current time and runs the tasks of all expired timeouts. If more ticks
+     * than one rotation elapsed every bucket is visited only once. The tasks may schedule or cancel timeouts.
+     *
+     * @param nowMillis The current time of the clock the wheel was created with.
+     * @return the number of expired timeouts.
+     */
+    public int advance(long nowMillis)
+    {
+        long targetTick = (nowMillis - this.startMillis) / this.tickMillis;
+        if (targetTick <= this.currentTick)
+        {
+            return 0;
+        }
+
+        long ticks = Math.min(targetTick - this.currentTick, this.buckets.length);
+        long firstTick = this.currentTick + 1;
+        this.currentTick = targetTick;
+
+        if (this.pending == 0)
+        {
+            return 0;
+        }
+
+        // unlink the expired timeouts first, so a task can not modify a bucket while it is visited
+        Timeout expiredHead = null;
+        int count = 0;
+        for (long tick = firstTick; tick < firstTick + ticks; tick++)
+        {
+            Timeout timeout = this.buckets[(int) (tick & this.mask)];
+            while (timeout != null)
+            {
+                Timeout next = timeout.next;
+                if (timeout.deadlineTick <= targetTick)
+                {
+                    this.unlink(timeout);
+                    timeout.next = expiredHead;
+                    expiredHead = timeout;
+                    count++;
+                }
+                timeout = next;
+            }
+        }
+
+        while (expiredHead != null)
+        {
+            Timeout timeout = expiredHead;
+            expiredHead = timeout.next;
+            timeout.next = null;
+            this.expired++;
+            timeout.expire();
+        }
+
+        return count;
+    }
+
+    /**
+     * This method returns the time a thread driving the wheel may block until the next tick has to be processed.
+     *
+     * @param nowMillis The current time of the clock the wheel was created with.
+     * @return the time until the end of the current tick in milliseconds (at least 1), or 0 if no timeout is scheduled.
+     */
+    public long nextTimeoutMillis(long nowMillis)
+    {
+        if (this.pending == 0)
+        {
+            return 0L;
+        }
+
+        long nextTickMillis = this.startMillis + (this.currentTick + 1) * this.tickMillis;
+
+        return Math.max(1L, nextTickMillis - nowMillis);
+    }
+
+    /**
+     * @return the number of scheduled timeouts.
+     */
+    public int getPendingCount()
+    {
+        return this.pending;
+    }
+
+    /**
+     * @return the number of timeouts expired since the wheel was created.
+     */
+    public long getExpiredCount()
+    {
+        return this.expired;
+    }
+
+    /**
+     * @return the number of buckets of one rotation.
+     */
+    public int getWheelSize()
+    {
+        return this.buckets.length;
+    }
+
+    private void unlink(Timeout timeout)
+    {
+        if (timeout.previous != null)
+        {
+            timeout.previous.next = timeout.next;
+        }
+        else
+        {
+            this.buckets[timeout.bucket] = timeout.next;
+        }
+
+        if (timeout.next != null)
+        {
+            timeout.next.previous = timeout.previous;
+        }
+
+        timeout.previous = null;
+        timeout.next = null;
+        timeout.bucket = -1;
+        this.pending--;
+    }
+}
@@ -0,0 +1,49 @@
+package de.hdm.uls.threadbasedserver.timer;
+
+/**
+ * This class defines a timeout which can be scheduled in a {@link HashedTimingWheel}. The timeout is a node of the
+ * linked list of its bucket, so scheduling and cancelling a timeout allocates nothing. A timeout belongs to a single
+ * wheel and can be scheduled again after it expired or was cancelled.
+ */
+public final class Timeout
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private final Runnable task;
+
+    long                   deadlineTick = 0;
+    int                    bucket       = -1;
+    Timeout                previous     = null;
+    Timeout                next         = null;
+
+    // ---------------------------------------
+    // CONSTRUCTOR
+    // ---------------------------------------
+
+    /**
+     * @param task The task to run by the thread of the wheel if the timeout expires.
+     */
+    public Timeout(Runnable task)
+    {
+        this.task = task;
+    }
+
+    // ---------------------------------------
+    // METHODS
+    // ---------------------------------------
+
+    /**
+     * @return TRUE if the timeout is scheduled in a wheel, otherwise FALSE.
+     */
+    public boolean isScheduled()
+    {
+        return this.bucket >= 0;
+    }
+
+    void expire()
+    {
+        this.task.run();
+    }
+}
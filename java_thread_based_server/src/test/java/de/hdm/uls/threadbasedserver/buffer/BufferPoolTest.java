@@ -0,0 +1,118 @@
+package de.hdm.uls.threadbasedserver.buffer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+import org.junit.Test;
+
+/**
+ * This class defines test cases for a {@link de.hdm.uls.threadbasedserver.buffer.BufferPool} class.
+ */
+public class BufferPoolTest
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private static final int MIN_SIZE = 1024;
+    private static final int MAX_SIZE = 64 * 1024;
+
+    // ---------------------------------------
+    // TESTS
+    // ---------------------------------------
+
+    @Test
+    public void testCapacityIsRoundedUpToSizeClass()
+    {
+        BufferPool pool = new BufferPool(MIN_SIZE, MAX_SIZE, true, false);
+
+        PooledBuffer small = pool.acquire(10);
+        PooledBuffer medium = pool.acquire(3000);
+
+        assertThat(small.capacity(), equalTo(MIN_SIZE));
+        assertThat(medium.capacity(), equalTo(4096));
+        assertThat(small.buffer().isDirect(), is(true));
+        assertThat(small.buffer().remaining(), equalTo(MIN_SIZE));
+    }
+
+    @Test
+    public void testSteadyStateAllocatesNothing()
+    {
+        BufferPool pool = new BufferPool(MIN_SIZE, MAX_SIZE, false, false);
+
+        PooledBuffer first = pool.acquire(MAX_SIZE);
+        first.release();
+        long allocations = pool.getAllocations();
+
+        for (int i = 0; i < 1000; i++)
+        {
+            PooledBuffer pooled = pool.acquire(MAX_SIZE);
+            pooled.buffer().put((byte) i);
+            pooled.release();
+        }
+
+        assertThat(pool.getAllocations(), equalTo(allocations));
+        assertThat(pool.getThreadCacheHits(), equalTo(1000L));
+        assertThat(pool.getOutstanding(), equalTo(0L));
+        assertThat(pool.getHighWaterMark(), equalTo(1L));
+    }
+
+    @Test
+    public void testReleasedBufferIsReusedAndCleared()
+    {
+        BufferPool pool = new BufferPool(MIN_SIZE, MAX_SIZE, false, false);
+
+        PooledBuffer first = pool.acquire(MIN_SIZE);
+        first.buffer().put((byte) 1);
+        first.release();
+        PooledBuffer second = pool.acquire(MIN_SIZE);
+
+        assertThat(second, sameInstance(first));
+        assertThat(second.buffer().position(), equalTo(0));
+    }
+
+    @Test
+    public void testLargeRequestIsUnpooled()
+    {
+        BufferPool pool = new BufferPool(MIN_SIZE, MAX_SIZE, false, false);
+
+        PooledBuffer large = pool.acquire(MAX_SIZE + 1);
+        large.release();
+        pool.acquire(MAX_SIZE + 1).release();
+
+        assertThat(large.capacity(), equalTo(MAX_SIZE + 1));
+        assertThat(pool.getAllocations(), equalTo(2L));
+        assertThat(pool.getHits(), equalTo(0L));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testDoubleRelease()
+    {
+        BufferPool pool = new BufferPool(MIN_SIZE, MAX_SIZE, false, false);
+
+        PooledBuffer pooled = pool.acquire(MIN_SIZE);
+        pooled.release();
+        pooled.release();
+    }
+
+    @Test
+    public void testUnreleasedBufferIsReported() throws InterruptedException
+    {
+        BufferPool pool = new BufferPool(MIN_SIZE, MAX_SIZE, false, true);
+
+        pool.acquire(MIN_SIZE);
+        pool.acquire(MIN_SIZE).release();
+
+        for (int i = 0; i < 50 && pool.getLeaks() == 0; i++)
+        {
+            System.gc();
+            Thread.sleep(20);
+            pool.detectLeaks();
+        }
+
+        assertThat(pool.getLeaks(), equalTo(1L));
+        assertThat(pool.getOutstanding(), equalTo(0L));
+    }
+}
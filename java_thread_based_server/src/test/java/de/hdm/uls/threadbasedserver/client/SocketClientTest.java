@@ -0,0 +1,233 @@
+package de.hdm.uls.threadbasedserver.client;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import de.hdm.uls.threadbasedserver.config.ServerConfig;
+import de.hdm.uls.threadbasedserver.payload.AssetStore;
+import de.hdm.uls.threadbasedserver.payload.FileTransfer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * This class defines test cases for a {@link de.hdm.uls.threadbasedserver.client.SocketClient} class. Every test
+ * serves a single loopback connection with a client thread.
+ */
+public class SocketClientTest
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private static final String ASSET_KEY   = "socket-client-test.bin";
+    private static final int    ASSET_SIZE  = 1000;
+    private static final int    UPLOAD_SIZE = 4096;
+
+    private ServerSocket        serverSocket = null;
+    private Path                asset        = null;
+    private byte[]              assetBytes   = null;
+
+    // ---------------------------------------
+    // BEFORE
+    // ---------------------------------------
+
+    @Before
+    public void setUp() throws IOException
+    {
+        this.serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+
+        this.assetBytes = new byte[ASSET_SIZE];
+        Arrays.fill(this.assetBytes, (byte) 'a');
+        this.asset = Files.createTempFile("socket-client", ".bin");
+        Files.write(this.asset, this.assetBytes);
+        AssetStore.getShared().register(ASSET_KEY, this.asset);
+    }
+
+    // ---------------------------------------
+    // AFTER
+    // ---------------------------------------
+
+    @After
+    public void tearDown() throws IOException
+    {
+        this.serverSocket.close();
+        Files.deleteIfExists(this.asset);
+        ServerConfig.reset();
+    }
+
+    // ---------------------------------------
+    // TESTS
+    // ---------------------------------------
+
+    @Test
+    public void testAssetKeySplitOverTwoWrites() throws Exception
+    {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), this.serverSocket.getLocalPort()))
+        {
+            SocketClient client = this.accept();
+            OutputStream out = socket.getOutputStream();
+
+            byte[] first = ("data" + ServerConfig.DELIMITER + ASSET_KEY.substring(0, 6)).getBytes(StandardCharsets.US_ASCII);
+            out.write(first);
+            out.flush();
+            this.awaitReceived(client, first.length);
+            out.write((ASSET_KEY.substring(6) + "\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+
+            byte[] response = this.readAll(socket.getInputStream());
+            assertThat(new String(response, StandardCharsets.US_ASCII), equalTo(this.expectedResponse()));
+        }
+    }
+
+    @Test
+    public void testKeepAliveDelimiterRequests() throws Exception
+    {
+        Properties properties = new Properties();
+        properties.setProperty("keep.alive", "true");
+        ServerConfig.configure(properties);
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), this.serverSocket.getLocalPort()))
+        {
+            socket.setSoTimeout(10000);
+            this.accept();
+            OutputStream out = socket.getOutputStream();
+            InputStream in = socket.getInputStream();
+
+            // the Content-Length header marks the end of each response on the persistent connection
+            for (int i = 0; i < 2; i++)
+            {
+                out.write(("data" + ServerConfig.DELIMITER + ASSET_KEY + "\n").getBytes(StandardCharsets.US_ASCII));
+                out.flush();
+                assertThat(this.readContent(in), equalTo((long) ASSET_SIZE));
+            }
+
+            socket.shutdownOutput();
+            assertThat(in.read(), equalTo(-1));
+        }
+    }
+
+    @Test
+    public void testFullDuplexResponseBeforeDelimiter() throws Exception
+    {
+        Properties properties = new Properties();
+        properties.setProperty("processing.mode", "parallel");
+        ServerConfig.configure(properties);
+
+        ExecutorService writers = Executors.newSingleThreadExecutor();
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), this.serverSocket.getLocalPort()))
+        {
+            socket.setSoTimeout(10000);
+            SocketClient client = new SocketClient(1, this.serverSocket.accept());
+            client.setWriterExecutor(writers);
+            client.start();
+            OutputStream out = socket.getOutputStream();
+            InputStream in = socket.getInputStream();
+
+            // the upload is still in flight, the delimiter follows after the whole response was read
+            out.write(new byte[UPLOAD_SIZE]);
+            out.flush();
+            assertThat(this.readContent(in), equalTo(Files.size(FileTransfer.resolve(ServerConfig.FILE_PATH))));
+
+            byte[] rest = ("more" + ServerConfig.DELIMITER + "\n").getBytes(StandardCharsets.US_ASCII);
+            out.write(rest);
+            out.flush();
+            assertThat(in.read(), equalTo(-1));
+
+            client.join(5000);
+            assertThat(client.getReceivedBytes(), equalTo((long) UPLOAD_SIZE + rest.length));
+        }
+        finally
+        {
+            writers.shutdownNow();
+        }
+    }
+
+    /**
+     * @return a client thread serving the next connection of the server socket.
+     */
+    private SocketClient accept() throws IOException
+    {
+        SocketClient client = new SocketClient(1, this.serverSocket.accept());
+        client.start();
+
+        return client;
+    }
+
+    /**
+     * This method waits until the client read a number of request bytes, so the next write arrives in another read.
+     */
+    private void awaitReceived(SocketClient client, long bytes) throws InterruptedException
+    {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (client.getReceivedBytes() < bytes && System.currentTimeMillis() < deadline)
+        {
+            Thread.sleep(10);
+        }
+
+        assertThat(client.getReceivedBytes(), equalTo(bytes));
+    }
+
+    /**
+     * @return all bytes of the stream up to the close of the connection.
+     */
+    private byte[] readAll(InputStream in) throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8192];
+        int read;
+        while ((read = in.read(chunk)) != -1)
+        {
+            bytes.write(chunk, 0, read);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * This method reads a response of the delimiter protocol: the Content-Length header, the empty line and exactly
+     * the announced number of bytes.
+     *
+     * @return the number of bytes of the response body.
+     */
+    private long readContent(InputStream in) throws IOException
+    {
+        StringBuilder header = new StringBuilder();
+        while (!header.toString().endsWith("\r\n\r\n"))
+        {
+            int value = in.read();
+            if (value == -1)
+            {
+                throw new EOFException("The connection was closed in the header!");
+            }
+            header.append((char) value);
+        }
+
+        long length = Long.parseLong(header.substring("Content-Length: ".length(), header.indexOf("\r\n")));
+        new DataInputStream(in).readFully(new byte[(int) length]);
+
+        return length;
+    }
+
+    private String expectedResponse()
+    {
+        return "Content-Length: " + ASSET_SIZE + "\r\n\r\n" + new String(this.assetBytes, StandardCharsets.US_ASCII);
+    }
+}
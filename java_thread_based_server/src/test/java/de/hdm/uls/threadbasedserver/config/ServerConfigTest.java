@@ -2,9 +2,14 @@ package de.hdm.uls.threadbasedserver.config;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
 
+import de.hdm.uls.threadbasedserver.ring.WaitStrategy;
+import org.junit.After;
 import org.junit.Test;
 
+import java.util.Properties;
+
 /**
  * This class defines test cases for a {@link de.hdm.uls.threadbasedserver.config.ServerConfig} class.
  *
@@ -20,6 +25,16 @@ public class ServerConfigTest
     private final int       port        = 5555;
     private final String    delimiter   = "$::_$";
 
+    // ---------------------------------------
+    // AFTER
+    // ---------------------------------------
+
+    @After
+    public void tearDown()
+    {
+        ServerConfig.reset();
+    }
+
     // ---------------------------------------
     // TESTS
     // ---------------------------------------
@@ -41,4 +56,94 @@ public class ServerConfigTest
     {
         assertThat(ServerConfig.DELIMITER, equalTo(this.delimiter));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testConfigure()
+    {
+        Properties properties = new Properties();
+        properties.setProperty("server.port", "6000");
+        properties.setProperty("protocol", "framed");
+        properties.setProperty("keep.alive", "true");
+        properties.setProperty("pool.core.threads", "16");
+        properties.setProperty("pool.max.threads", "8");
+        properties.setProperty("pool.rejection.policy", "caller-runs");
+        properties.setProperty("tcp.no.delay", " true ");
+        properties.setProperty("ring.wait.strategy", "busy-spin");
+        properties.setProperty("handler.executor", "fork-join");
+
+        ServerConfig.configure(properties);
+        assertThat(ServerConfig.getServerPort(), equalTo(6000));
+        assertThat(ServerConfig.getProtocol(), equalTo(ServerConfig.Protocol.FRAMED));
+        assertThat(ServerConfig.isKeepAlive(), is(true));
+        assertThat(ServerConfig.getPoolCoreThreads(), equalTo(16));
+        assertThat(ServerConfig.getPoolMaxThreads(), equalTo(16));
+        assertThat(ServerConfig.getPoolRejectionPolicy(), equalTo(ServerConfig.RejectionPolicy.CALLER_RUNS));
+        assertThat(ServerConfig.isTcpNoDelay(), is(true));
+        assertThat(ServerConfig.getRingWaitStrategy(), equalTo(WaitStrategy.BUSY_SPIN));
+        assertThat(ServerConfig.getHandlerExecutor(), equalTo(ServerConfig.HandlerExecutor.FORK_JOIN));
+
+        ServerConfig.reset();
+        assertThat(ServerConfig.getServerPort(), equalTo(this.port));
+        assertThat(ServerConfig.getServerHost(), equalTo(this.host));
+        assertThat(ServerConfig.isKeepAlive(), is(false));
+    }
+
+    @Test
+    public void testConfigureProcessingMode()
+    {
+        Properties properties = new Properties();
+        properties.setProperty("processing.mode", "parallel");
+
+        ServerConfig.configure(properties);
+        assertThat(ServerConfig.getProcessingMode(), equalTo(ServerConfig.ProcessingMode.PARALLEL));
+        assertThat(ServerConfig.isFullDuplex(), is(true));
+
+        // a framed request is always answered after its GET frame
+        properties.setProperty("protocol", "framed");
+        ServerConfig.configure(properties);
+        assertThat(ServerConfig.isFullDuplex(), is(false));
+    }
+
+    @Test
+    public void testConfigureKeepAlive()
+    {
+        Properties properties = new Properties();
+        properties.setProperty("keep.alive", "true");
+
+        ServerConfig.configure(properties);
+        assertThat(ServerConfig.getProtocol(), equalTo(ServerConfig.Protocol.DELIMITER));
+        assertThat(ServerConfig.isKeepAlive(), is(true));
+
+        // a full duplex connection is closed after its single response
+        properties.setProperty("processing.mode", "parallel");
+        ServerConfig.configure(properties);
+        assertThat(ServerConfig.isKeepAlive(), is(false));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConfigureUnknownSetting()
+    {
+        Properties properties = new Properties();
+        properties.setProperty("server.prot", "6000");
+
+        ServerConfig.configure(properties);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConfigureInvalidValue()
+    {
+        Properties properties = new Properties();
+        properties.setProperty("worker.selectors", "0");
+
+        ServerConfig.configure(properties);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConfigureRingBufferSizeNotPowerOfTwo()
+    {
+        Properties properties = new Properties();
+        properties.setProperty("ring.buffer.size", "1000");
+
+        ServerConfig.configure(properties);
+    }
+}
@@ -0,0 +1,92 @@
+package de.hdm.uls.threadbasedserver.launcher;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.isIn;
+import static org.hamcrest.Matchers.nullValue;
+
+import de.hdm.uls.threadbasedserver.config.ServerConfig;
+import de.hdm.uls.threadbasedserver.server.PooledJavaSocketServer;
+import de.hdm.uls.threadbasedserver.server.Server;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This class defines test cases for a {@link de.hdm.uls.threadbasedserver.launcher.EngineRegistry} class.
+ */
+public class EngineRegistryTest
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private EngineRegistry registry = null;
+
+    // ---------------------------------------
+    // BEFORE
+    // ---------------------------------------
+
+    @Before
+    public void setUp()
+    {
+        this.registry = new EngineRegistry();
+    }
+
+    // ---------------------------------------
+    // TESTS
+    // ---------------------------------------
+
+    @Test
+    public void testBuiltinEngines()
+    {
+        assertThat(this.registry.getNames(),
+                contains("classic", "virtual", "pooled", "nio", "multi-reactor", "half-sync", "ring",
+                        "reuse-port", "async"));
+        assertThat(this.registry.get("pooled").create(), instanceOf(PooledJavaSocketServer.class));
+        assertThat(this.registry.get("netty"), nullValue());
+    }
+
+    @Test
+    public void testIgnoredSettings()
+    {
+        assertThat(this.registry.get("async").getIgnoredSettings(),
+                hasItems("zero.copy", "max.connections", "processing.mode"));
+        assertThat(this.registry.get("nio").getIgnoredSettings(), empty());
+
+        for (ServerEngine engine : this.registry.getEngines())
+        {
+            for (String setting : engine.getIgnoredSettings())
+            {
+                assertThat(setting, isIn(ServerConfig.getSettingNames()));
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicateEngine()
+    {
+        this.registry.register(new ServerEngine()
+        {
+            @Override
+            public String getName()
+            {
+                return "nio";
+            }
+
+            @Override
+            public String getDescription()
+            {
+                return "another selector server";
+            }
+
+            @Override
+            public Server create()
+            {
+                return null;
+            }
+        });
+    }
+}
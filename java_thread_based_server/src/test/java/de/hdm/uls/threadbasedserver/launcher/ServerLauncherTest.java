@@ -0,0 +1,108 @@
+package de.hdm.uls.threadbasedserver.launcher;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import de.hdm.uls.threadbasedserver.config.ServerConfig;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * This class defines test cases for a {@link de.hdm.uls.threadbasedserver.launcher.ServerLauncher} class.
+ */
+public class ServerLauncherTest
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private ServerLauncher launcher = null;
+    private Path           config   = null;
+
+    // ---------------------------------------
+    // BEFORE
+    // ---------------------------------------
+
+    @Before
+    public void setUp() throws IOException
+    {
+        this.launcher = new ServerLauncher(new EngineRegistry());
+        this.config = Files.createTempFile("server", ".properties");
+        String settings = "engine=nio\nserver.port=6000\nworker.selectors=2\n";
+        Files.write(this.config, settings.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    // ---------------------------------------
+    // AFTER
+    // ---------------------------------------
+
+    @After
+    public void tearDown() throws IOException
+    {
+        Files.deleteIfExists(this.config);
+        ServerConfig.reset();
+    }
+
+    // ---------------------------------------
+    // TESTS
+    // ---------------------------------------
+
+    @Test
+    public void testParseArguments()
+    {
+        Properties arguments = ServerLauncher.parseArguments(
+                new String[] { "--engine", "pooled", "--pool.core.threads=8", "--list" });
+
+        assertThat(arguments.getProperty("engine"), equalTo("pooled"));
+        assertThat(arguments.getProperty("pool.core.threads"), equalTo("8"));
+        assertThat(arguments.getProperty("list"), equalTo("true"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseMissingValue()
+    {
+        ServerLauncher.parseArguments(new String[] { "--engine" });
+    }
+
+    @Test
+    public void testArgumentsOverrideConfigFile() throws IOException
+    {
+        Properties settings = ServerLauncher.loadSettings(ServerLauncher.parseArguments(
+                new String[] { "--config", this.config.toString(), "--server.port", "7000" }));
+
+        assertThat(settings.getProperty("engine"), equalTo("nio"));
+        assertThat(settings.getProperty("server.port"), equalTo("7000"));
+        assertThat(settings.getProperty("worker.selectors"), equalTo("2"));
+        assertThat(settings.containsKey("config"), is(false));
+    }
+
+    @Test
+    public void testCreateServerAppliesSettings() throws IOException
+    {
+        this.launcher.createServer(new String[] { "--config", this.config.toString(), "--engine", "pooled" });
+
+        assertThat(ServerConfig.getServerPort(), equalTo(6000));
+        assertThat(ServerConfig.getWorkerSelectors(), equalTo(2));
+    }
+
+    @Test
+    public void testListEngines() throws IOException
+    {
+        assertThat(this.launcher.createServer(new String[] { "--list" }), nullValue());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownEngine() throws IOException
+    {
+        this.launcher.createServer(new String[] { "--engine", "netty" });
+    }
+}
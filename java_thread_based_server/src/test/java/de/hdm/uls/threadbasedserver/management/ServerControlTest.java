@@ -0,0 +1,155 @@
+package de.hdm.uls.threadbasedserver.management;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+import de.hdm.uls.threadbasedserver.config.ServerConfig;
+import de.hdm.uls.threadbasedserver.server.nio.LoopTiming;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class defines test cases for a {@link de.hdm.uls.threadbasedserver.management.ServerControl} class.
+ */
+public class ServerControlTest
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private ServerControl      control = null;
+    private ThreadPoolExecutor pool    = null;
+
+    // ---------------------------------------
+    // BEFORE
+    // ---------------------------------------
+
+    @Before
+    public void setUp()
+    {
+        this.control = new ServerControl("TestServer");
+        this.pool = new ThreadPoolExecutor(4, 8, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+    }
+
+    // ---------------------------------------
+    // AFTER
+    // ---------------------------------------
+
+    @After
+    public void tearDown()
+    {
+        this.control.unregister();
+        this.pool.shutdownNow();
+        ServerConfig.setZeroCopy(ServerConfig.ZERO_COPY);
+        ServerConfig.setReadBufferSize(ServerConfig.READ_BUFFER_SIZE);
+    }
+
+    // ---------------------------------------
+    // TESTS
+    // ---------------------------------------
+
+    @Test
+    public void testResizeWorkerPool()
+    {
+        this.control.setWorkerPool(this.pool);
+
+        this.control.resizeWorkerPool(16, 32);
+        assertThat(this.control.getWorkerPoolCoreSize(), equalTo(16));
+        assertThat(this.control.getWorkerPoolMaxSize(), equalTo(32));
+
+        this.control.resizeWorkerPool(1, 2);
+        assertThat(this.control.getWorkerPoolCoreSize(), equalTo(1));
+        assertThat(this.control.getWorkerPoolMaxSize(), equalTo(2));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testResizeWithoutWorkerPool()
+    {
+        this.control.resizeWorkerPool(1, 2);
+    }
+
+    @Test
+    public void testRuntimeSettings()
+    {
+        boolean zeroCopy = ServerConfig.isZeroCopy();
+
+        assertThat(this.control.toggleZeroCopy(), is(!zeroCopy));
+        assertThat(ServerConfig.isZeroCopy(), is(!zeroCopy));
+
+        this.control.changeReadBufferSize(4096);
+        assertThat(ServerConfig.getReadBufferSize(), equalTo(4096));
+    }
+
+    @Test
+    public void testSelectorLoopTiming()
+    {
+        LoopTiming first = new LoopTiming();
+        LoopTiming second = new LoopTiming();
+        first.record(3000, 1000);
+        second.record(1000, 3000);
+        this.control.setLoopTimings(first, second);
+
+        assertThat(this.control.getSelectorLoops(), equalTo(2));
+        assertThat(this.control.getSelectorLoopIterations(), equalTo(2L));
+        assertThat(this.control.getSelectorLoopAverageMicros(), closeTo(2.0, 0.001));
+        assertThat(this.control.getSelectorLoopMaxMicros(), equalTo(3L));
+        assertThat(this.control.getSelectorWaitRatio(), closeTo(0.5, 0.001));
+    }
+
+    @Test
+    public void testRegister() throws Exception
+    {
+        ObjectName name = new ObjectName("de.hdm.uls.threadbasedserver:type=Server,name=TestServer");
+
+        this.control.register();
+        assertThat(ManagementFactory.getPlatformMBeanServer().getAttribute(name, "ServerType"), equalTo("TestServer"));
+
+        this.control.unregister();
+        assertThat(ManagementFactory.getPlatformMBeanServer().isRegistered(name), is(false));
+    }
+
+    @Test
+    public void testRegisterWithoutWorkerPool() throws Exception
+    {
+        ObjectName name = new ObjectName("de.hdm.uls.threadbasedserver:type=Server,name=TestServer");
+
+        this.control.setWorkerThreads(4);
+        this.control.register();
+        assertThat(this.hasOperation(name, "resizeWorkerPool"), is(false));
+        assertThat(this.hasOperation(name, "toggleZeroCopy"), is(true));
+    }
+
+    @Test
+    public void testRegisterWithWorkerPool() throws Exception
+    {
+        ObjectName name = new ObjectName("de.hdm.uls.threadbasedserver:type=Server,name=TestServer");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        this.control.setWorkerPool(this.pool);
+        this.control.register();
+        assertThat(this.hasOperation(name, "resizeWorkerPool"), is(true));
+
+        server.invoke(name, "resizeWorkerPool", new Object[] {2, 6}, new String[] {"int", "int"});
+        assertThat(this.pool.getCorePoolSize(), equalTo(2));
+        assertThat(this.pool.getMaximumPoolSize(), equalTo(6));
+    }
+
+    private boolean hasOperation(ObjectName name, String operation) throws Exception
+    {
+        MBeanOperationInfo[] operations = ManagementFactory.getPlatformMBeanServer().getMBeanInfo(name).getOperations();
+
+        return Arrays.stream(operations).anyMatch(info -> info.getName().equals(operation));
+    }
+}
@@ -0,0 +1,105 @@
+package de.hdm.uls.threadbasedserver.metrics;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This class defines test cases for a {@link de.hdm.uls.threadbasedserver.metrics.Histogram} class.
+ */
+public class HistogramTest
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private Histogram histogram = null;
+
+    // ---------------------------------------
+    // BEFORE
+    // ---------------------------------------
+
+    @Before
+    public void setUp()
+    {
+        this.histogram = new Histogram("test_micros", "A test histogram.", 4);
+    }
+
+    // ---------------------------------------
+    // TESTS
+    // ---------------------------------------
+
+    @Test
+    public void testBucketsCoverEveryValue()
+    {
+        long[] values = { 0, 1, 7, 8, 9, 15, 16, 17, 100, 1000, 123456789L, Long.MAX_VALUE };
+
+        for (long value : values)
+        {
+            int index = Histogram.indexOf(value);
+            assertThat(Histogram.upperBoundOf(index), greaterThanOrEqualTo(value));
+            if (index > 0)
+            {
+                assertThat(Histogram.upperBoundOf(index - 1), lessThanOrEqualTo(value - 1));
+            }
+        }
+    }
+
+    @Test
+    public void testQuantilesAreWithinTheBucketError()
+    {
+        for (long value = 1; value <= 1000; value++)
+        {
+            this.histogram.record(value);
+        }
+
+        Histogram.Snapshot snapshot = this.histogram.snapshot();
+
+        assertThat(snapshot.getCount(), equalTo(1000L));
+        assertThat(snapshot.getSum(), equalTo(500500L));
+        assertThat(snapshot.getMax(), equalTo(1000L));
+        assertThat(snapshot.getValueAtQuantile(0.5), greaterThanOrEqualTo(500L));
+        assertThat(snapshot.getValueAtQuantile(0.5), lessThanOrEqualTo(563L));
+        assertThat(snapshot.getValueAtQuantile(0.99), greaterThanOrEqualTo(990L));
+        assertThat(snapshot.getValueAtQuantile(1.0), equalTo(1000L));
+    }
+
+    @Test
+    public void testRecordingThreadsAreMerged() throws InterruptedException
+    {
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++)
+        {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 10000; j++)
+                {
+                    this.histogram.record(j);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        assertThat(this.histogram.snapshot().getCount(), equalTo(80000L));
+    }
+
+    @Test
+    public void testEmptyHistogram()
+    {
+        StringBuilder out = new StringBuilder();
+        this.histogram.writeTo(out);
+
+        assertThat(this.histogram.snapshot().getValueAtQuantile(0.99), is(0L));
+        assertThat(out.toString(), containsString("test_micros_count 0\n"));
+        assertThat(out.toString(), containsString("test_micros{quantile=\"0.99\"} 0\n"));
+    }
+}
@@ -0,0 +1,78 @@
+package de.hdm.uls.threadbasedserver.metrics;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.sameInstance;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class defines test cases for a {@link de.hdm.uls.threadbasedserver.metrics.MetricsRegistry} class.
+ */
+public class MetricsRegistryTest
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private MetricsRegistry registry = null;
+
+    // ---------------------------------------
+    // BEFORE
+    // ---------------------------------------
+
+    @Before
+    public void setUp()
+    {
+        this.registry = new MetricsRegistry();
+    }
+
+    // ---------------------------------------
+    // TESTS
+    // ---------------------------------------
+
+    @Test
+    public void testCounterIsRegisteredOnce()
+    {
+        Counter counter = this.registry.counter("requests_total", "Requests.");
+        counter.increment();
+        counter.add(41);
+        counter.add(-5);
+
+        assertThat(this.registry.counter("requests_total", "Requests."), sameInstance(counter));
+        assertThat(counter.get(), equalTo(42L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNameOfAnotherType()
+    {
+        this.registry.counter("service_time", "Service time.");
+        this.registry.histogram("service_time", "Service time.");
+    }
+
+    @Test
+    public void testGaugeIsReplaced()
+    {
+        AtomicLong value = new AtomicLong(7);
+        this.registry.gauge("connections", "Connections.", () -> 1L);
+        this.registry.gauge("connections", "Connections.", value::get);
+
+        assertThat(this.registry.scrape(), containsString("connections 7\n"));
+    }
+
+    @Test
+    public void testScrapeIsSortedByName()
+    {
+        this.registry.counter("b_total", "B.").increment();
+        this.registry.counter("a_total", "A.");
+        String scrape = this.registry.scrape();
+
+        assertThat(scrape, containsString("# HELP a_total A.\n# TYPE a_total counter\na_total 0\n"));
+        assertThat(scrape.indexOf("a_total"), lessThan(scrape.indexOf("b_total")));
+    }
+}
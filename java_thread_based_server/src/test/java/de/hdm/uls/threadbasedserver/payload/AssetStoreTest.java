@@ -0,0 +1,111 @@
+package de.hdm.uls.threadbasedserver.payload;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+import de.hdm.uls.threadbasedserver.config.ServerConfig;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * This class defines test cases for a {@link de.hdm.uls.threadbasedserver.payload.AssetStore} class.
+ */
+public class AssetStoreTest
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private static final int ASSET_SIZE = 1024;
+
+    private Path             directory  = null;
+    private AssetStore       store      = null;
+
+    // ---------------------------------------
+    // BEFORE
+    // ---------------------------------------
+
+    @Before
+    public void setUp() throws IOException
+    {
+        this.directory = Files.createTempDirectory("assets");
+        for (String name : new String[] { "a.bin", "b.bin", "c.bin" })
+        {
+            Files.write(this.directory.resolve(name), new byte[ASSET_SIZE]);
+        }
+
+        // the store can map two assets at the same time
+        this.store = new AssetStore(2 * ASSET_SIZE);
+        this.store.scan(this.directory);
+    }
+
+    // ---------------------------------------
+    // AFTER
+    // ---------------------------------------
+
+    @After
+    public void tearDown() throws IOException
+    {
+        for (String key : this.store.getKeys())
+        {
+            Files.deleteIfExists(this.directory.resolve(key));
+        }
+        Files.deleteIfExists(this.directory);
+    }
+
+    // ---------------------------------------
+    // TESTS
+    // ---------------------------------------
+
+    @Test
+    public void testScanRegistersFileNames()
+    {
+        assertThat(this.store.getKeys().size(), equalTo(3));
+        assertThat(this.store.getKeys().contains("b.bin"), is(true));
+    }
+
+    @Test
+    public void testOpenPayloadMapsAssetOnce() throws IOException
+    {
+        ByteBuffer first = this.store.openPayload("a.bin");
+        this.store.openPayload("a.bin");
+
+        assertThat(first.isReadOnly(), is(true));
+        assertThat(first.remaining(), equalTo(ASSET_SIZE));
+        assertThat(this.store.getMisses(), equalTo(1L));
+        assertThat(this.store.getHits(), equalTo(1L));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedAssetIsEvicted() throws IOException
+    {
+        this.store.openPayload("a.bin");
+        this.store.openPayload("b.bin");
+        this.store.openPayload("a.bin");
+        this.store.openPayload("c.bin");
+
+        assertThat(this.store.getEvictions(), equalTo(1L));
+        assertThat(this.store.getMappedAssets(), equalTo(2));
+        assertThat(this.store.getMappedBytes(), equalTo(2L * ASSET_SIZE));
+
+        // a.bin was used more recently than b.bin, so it is still mapped
+        this.store.openPayload("a.bin");
+        assertThat(this.store.getHits(), equalTo(2L));
+    }
+
+    @Test
+    public void testUnknownKeyServesDefaultFile() throws IOException
+    {
+        ByteBuffer payload = this.store.openPayload("missing.bin");
+
+        assertThat((long) payload.remaining(), equalTo(Files.size(FileTransfer.resolve(ServerConfig.FILE_PATH))));
+        assertThat(this.store.getMappedAssets(), equalTo(0));
+    }
+}
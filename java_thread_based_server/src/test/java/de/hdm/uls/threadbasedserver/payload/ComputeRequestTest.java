@@ -0,0 +1,73 @@
+package de.hdm.uls.threadbasedserver.payload;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+import de.hdm.uls.threadbasedserver.config.ServerConfig;
+import org.junit.After;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Properties;
+
+/**
+ * This class defines test cases for a {@link de.hdm.uls.threadbasedserver.payload.ComputeRequest} class.
+ */
+public class ComputeRequestTest
+{
+    // ---------------------------------------
+    // AFTER
+    // ---------------------------------------
+
+    @After
+    public void tearDown()
+    {
+        ServerConfig.reset();
+    }
+
+    // ---------------------------------------
+    // TESTS
+    // ---------------------------------------
+
+    @Test
+    public void testIsCompute()
+    {
+        assertThat(ComputeRequest.isCompute("compute"), is(true));
+        assertThat(ComputeRequest.isCompute("galileocomputing_node.js.pdf"), is(false));
+        assertThat(ComputeRequest.isCompute(null), is(false));
+    }
+
+    @Test
+    public void testSlicesWrapAroundThePayload()
+    {
+        ByteBuffer payload = ByteBuffer.wrap(new byte[] { 9, 1, 2, 3, 4, 5 });
+        payload.position(1);
+
+        // slices of 2 bytes at the offsets 0, 2 and 0 of the remaining 5 bytes
+        long first = PayloadChecksum.of(ByteBuffer.wrap(new byte[] { 1, 2 }));
+        long second = PayloadChecksum.of(ByteBuffer.wrap(new byte[] { 3, 4 }));
+        long expected = (first * 31 + second) * 31 + first;
+
+        assertThat(ComputeRequest.checksum(payload, 3, 2), equalTo(expected));
+        assertThat(payload.position(), equalTo(1));
+        assertThat(payload.limit(), equalTo(6));
+    }
+
+    @Test
+    public void testRunReturnsChecksum()
+    {
+        Properties properties = new Properties();
+        properties.setProperty("compute.rounds", "4");
+        properties.setProperty("compute.slice.bytes", "1024");
+        ServerConfig.configure(properties);
+
+        ByteBuffer payload = ByteBuffer.wrap(new byte[4000]);
+        payload.put(17, (byte) 42);
+
+        ByteBuffer result = ComputeRequest.run(payload);
+
+        assertThat(result.remaining(), equalTo(Long.BYTES));
+        assertThat(result.getLong(), equalTo(ComputeRequest.checksum(payload, 4, 1024)));
+    }
+}
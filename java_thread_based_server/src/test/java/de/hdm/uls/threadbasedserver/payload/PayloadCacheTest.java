@@ -0,0 +1,81 @@
+package de.hdm.uls.threadbasedserver.payload;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+import de.hdm.uls.threadbasedserver.config.ServerConfig;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+
+/**
+ * This class defines test cases for a {@link de.hdm.uls.threadbasedserver.payload.PayloadCache} class.
+ */
+public class PayloadCacheTest
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private PayloadCache cache    = null;
+    private long         fileSize = 0;
+
+    // ---------------------------------------
+    // BEFORE
+    // ---------------------------------------
+
+    @Before
+    public void setUp() throws IOException
+    {
+        this.cache = new PayloadCache();
+        this.fileSize = Files.size(FileTransfer.resolve(ServerConfig.FILE_PATH));
+    }
+
+    // ---------------------------------------
+    // TESTS
+    // ---------------------------------------
+
+    @Test
+    public void testPreloadCountsResidentBytes() throws IOException
+    {
+        this.cache.preload(ServerConfig.FILE_PATH);
+
+        assertThat(this.cache.size(), equalTo(1));
+        assertThat(this.cache.getResidentBytes(), equalTo(this.fileSize));
+    }
+
+    @Test
+    public void testGetCountsHitsAndMisses() throws IOException
+    {
+        this.cache.get(ServerConfig.FILE_PATH);
+        this.cache.get(ServerConfig.FILE_PATH);
+        this.cache.get(ServerConfig.FILE_PATH);
+
+        assertThat(this.cache.getMisses(), equalTo(1L));
+        assertThat(this.cache.getHits(), equalTo(2L));
+        assertThat(this.cache.getResidentBytes(), equalTo(this.fileSize));
+    }
+
+    @Test
+    public void testViewsAreIndependentAndReadOnly() throws IOException
+    {
+        ByteBuffer first = this.cache.get(ServerConfig.FILE_PATH);
+        ByteBuffer second = this.cache.get(ServerConfig.FILE_PATH);
+
+        first.position(first.limit());
+
+        assertThat(first.isReadOnly(), is(true));
+        assertThat(second.position(), equalTo(0));
+        assertThat((long) second.remaining(), equalTo(this.fileSize));
+    }
+
+    @Test(expected = IOException.class)
+    public void testGetMissingFile() throws IOException
+    {
+        this.cache.get("/assets/missing.pdf");
+    }
+}
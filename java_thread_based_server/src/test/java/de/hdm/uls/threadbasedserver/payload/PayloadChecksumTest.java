@@ -0,0 +1,67 @@
+package de.hdm.uls.threadbasedserver.payload;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * This class defines test cases for a {@link de.hdm.uls.threadbasedserver.payload.PayloadChecksum} class.
+ */
+public class PayloadChecksumTest
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private static final int PAYLOAD_SIZE = 10 * PayloadChecksum.SPLIT_THRESHOLD + 123;
+
+    // ---------------------------------------
+    // TESTS
+    // ---------------------------------------
+
+    @Test
+    public void testChecksumOfBytes()
+    {
+        ByteBuffer payload = ByteBuffer.wrap(new byte[] { 1, 2 });
+
+        assertThat(PayloadChecksum.of(payload), equalTo(1099511628211L + 2));
+        assertThat(payload.position(), equalTo(0));
+    }
+
+    @Test
+    public void testChecksumDependsOnOrder()
+    {
+        assertThat(PayloadChecksum.of(ByteBuffer.wrap(new byte[] { 1, 2 })),
+                not(equalTo(PayloadChecksum.of(ByteBuffer.wrap(new byte[] { 2, 1 })))));
+    }
+
+    @Test
+    public void testSplitChecksumEqualsSequentialChecksum() throws Exception
+    {
+        byte[] bytes = new byte[PAYLOAD_SIZE];
+        new Random(42).nextBytes(bytes);
+        ByteBuffer payload = ByteBuffer.wrap(bytes);
+        payload.position(7);
+
+        long sequential = PayloadChecksum.of(payload);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try
+        {
+            long split = pool.submit(() -> PayloadChecksum.of(payload)).get();
+
+            assertThat(split, equalTo(sequential));
+            assertThat(payload.position(), equalTo(7));
+        }
+        finally
+        {
+            pool.shutdownNow();
+        }
+    }
+}
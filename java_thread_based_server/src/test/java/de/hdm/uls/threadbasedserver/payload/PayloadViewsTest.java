@@ -0,0 +1,103 @@
+package de.hdm.uls.threadbasedserver.payload;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * This class defines test cases for a {@link de.hdm.uls.threadbasedserver.payload.PayloadViews} class.
+ */
+public class PayloadViewsTest
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private static final int ASSET_SIZE = 1024;
+
+    private Path             directory  = null;
+    private AssetStore       store      = null;
+    private PayloadViews     views      = null;
+
+    // ---------------------------------------
+    // BEFORE
+    // ---------------------------------------
+
+    @Before
+    public void setUp() throws IOException
+    {
+        this.directory = Files.createTempDirectory("assets");
+        Files.write(this.directory.resolve("a.bin"), new byte[ASSET_SIZE]);
+
+        this.store = new AssetStore(ASSET_SIZE);
+        this.store.scan(this.directory);
+        this.views = new PayloadViews(this.store);
+    }
+
+    // ---------------------------------------
+    // AFTER
+    // ---------------------------------------
+
+    @After
+    public void tearDown() throws IOException
+    {
+        Files.deleteIfExists(this.directory.resolve("a.bin"));
+        Files.deleteIfExists(this.directory);
+    }
+
+    // ---------------------------------------
+    // TESTS
+    // ---------------------------------------
+
+    @Test
+    public void testViewIsOpenedOnce() throws IOException
+    {
+        this.views.openPayload("a.bin");
+        this.views.openPayload("a.bin");
+
+        assertThat(this.views.getMisses(), equalTo(1L));
+        assertThat(this.views.getHits(), equalTo(1L));
+        assertThat(this.store.getMisses() + this.store.getHits(), equalTo(1L));
+    }
+
+    @Test
+    public void testEveryRequestGetsItsOwnPosition() throws IOException
+    {
+        ByteBuffer first = this.views.openPayload("a.bin");
+        first.position(first.limit());
+
+        ByteBuffer second = this.views.openPayload("a.bin");
+
+        assertThat(second.remaining(), equalTo(ASSET_SIZE));
+        assertThat(second.isReadOnly(), is(true));
+    }
+
+    @Test
+    public void testTransfersShareTheOpenFile() throws IOException
+    {
+        FileTransfer first = this.views.openTransfer("a.bin");
+        FileTransfer second = this.views.openTransfer("a.bin");
+        assertThat(this.views.getMisses(), equalTo(1L));
+        assertThat(this.views.getHits(), equalTo(1L));
+
+        // the released file stays open until the last transfer is closed
+        this.views.release();
+        first.close();
+
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        assertThat(second.transferTo(Channels.newChannel(target)), is(true));
+        assertThat(target.size(), equalTo(ASSET_SIZE));
+        second.close();
+    }
+}
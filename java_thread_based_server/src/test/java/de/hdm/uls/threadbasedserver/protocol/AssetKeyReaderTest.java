@@ -0,0 +1,87 @@
+package de.hdm.uls.threadbasedserver.protocol;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import org.junit.Test;
+
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * This class defines test cases for a {@link de.hdm.uls.threadbasedserver.protocol.AssetKeyReader} class.
+ */
+public class AssetKeyReaderTest
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private final AssetKeyReader reader = new AssetKeyReader();
+
+    // ---------------------------------------
+    // TESTS
+    // ---------------------------------------
+
+    @Test
+    public void testKeyInSingleRead() throws ProtocolException
+    {
+        ByteBuffer read = this.wrap("$::_$a.bin\r\n");
+
+        assertThat(this.reader.read(read, 5, read.limit()), is(true));
+        assertThat(this.reader.getKey(), equalTo("a.bin"));
+        assertThat(this.reader.isReading(), is(false));
+    }
+
+    @Test
+    public void testEmptyLineHasNoKey() throws ProtocolException
+    {
+        ByteBuffer read = this.wrap("$::_$\n");
+
+        assertThat(this.reader.read(read, 5, read.limit()), is(true));
+        assertThat(this.reader.getKey(), is(nullValue()));
+    }
+
+    @Test
+    public void testReadEndingWithDelimiterHasNoKey() throws ProtocolException
+    {
+        ByteBuffer read = this.wrap("data$::_$");
+
+        assertThat(this.reader.read(read, read.limit(), read.limit()), is(true));
+        assertThat(this.reader.getKey(), is(nullValue()));
+    }
+
+    @Test
+    public void testKeySplitOverTwoReads() throws ProtocolException
+    {
+        ByteBuffer first = this.wrap("data$::_$gali");
+        ByteBuffer second = this.wrap("leo.pdf\nrest");
+
+        assertThat(this.reader.read(first, 9, first.limit()), is(false));
+        assertThat(this.reader.isReading(), is(true));
+        assertThat(this.reader.read(second, 0, second.limit()), is(true));
+        assertThat(this.reader.getKey(), equalTo("galileo.pdf"));
+
+        this.reader.reset();
+        assertThat(this.reader.getKey(), is(nullValue()));
+    }
+
+    @Test(expected = ProtocolException.class)
+    public void testKeyTooLong() throws ProtocolException
+    {
+        char[] key = new char[AssetKeyReader.MAX_KEY_LENGTH + 1];
+        Arrays.fill(key, 'k');
+        ByteBuffer read = this.wrap(new String(key));
+
+        this.reader.read(read, 0, read.limit());
+    }
+
+    private ByteBuffer wrap(String value)
+    {
+        return ByteBuffer.wrap(value.getBytes(StandardCharsets.US_ASCII));
+    }
+}
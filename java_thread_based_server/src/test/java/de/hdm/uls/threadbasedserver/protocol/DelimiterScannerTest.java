@@ -0,0 +1,92 @@
+package de.hdm.uls.threadbasedserver.protocol;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import de.hdm.uls.threadbasedserver.config.ServerConfig;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class defines test cases for a {@link de.hdm.uls.threadbasedserver.protocol.DelimiterScanner} class.
+ */
+public class DelimiterScannerTest
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private DelimiterScanner scanner = null;
+
+    // ---------------------------------------
+    // BEFORE
+    // ---------------------------------------
+
+    @Before
+    public void setUp()
+    {
+        this.scanner = new DelimiterScanner(ServerConfig.DELIMITER).copy();
+    }
+
+    // ---------------------------------------
+    // TESTS
+    // ---------------------------------------
+
+    @Test
+    public void testDelimiterInSingleRead()
+    {
+        ByteBuffer read = this.wrap("hello$::_$key\n");
+
+        assertThat(this.scanner.scan(read, 0, read.limit()), equalTo(10));
+        assertThat(this.scanner.getMatched(), equalTo(0));
+    }
+
+    @Test
+    public void testDelimiterSplitOverTwoReads()
+    {
+        ByteBuffer first = this.wrap("hello$::");
+        ByteBuffer second = this.wrap("_$\n");
+
+        assertThat(this.scanner.scan(first, 0, first.limit()), equalTo(-1));
+        assertThat(this.scanner.getMatched(), equalTo(3));
+        assertThat(this.scanner.scan(second, 0, second.limit()), equalTo(2));
+    }
+
+    @Test
+    public void testPartialMatchFallsBack()
+    {
+        // "$::_" is followed by "$::_$", the second "$" has to restart the match
+        ByteBuffer read = this.wrap("$::_$$::_$");
+        DelimiterScanner overlapping = new DelimiterScanner("$::_$$::_$x");
+
+        assertThat(this.scanner.scan(read, 0, read.limit()), equalTo(5));
+        assertThat(overlapping.scan(this.wrap("$::_$$::_$$::_$x"), 0, 16), equalTo(16));
+    }
+
+    @Test
+    public void testScanOnlyTouchesGivenRange()
+    {
+        ByteBuffer read = this.wrap("$::_$ignored");
+
+        assertThat(this.scanner.scan(read, 1, read.limit()), equalTo(-1));
+        assertThat(read.position(), equalTo(0));
+    }
+
+    @Test
+    public void testNoDelimiter()
+    {
+        ByteBuffer read = this.wrap("$:: _$");
+
+        assertThat(this.scanner.scan(read, 0, read.limit()), equalTo(-1));
+        this.scanner.reset();
+        assertThat(this.scanner.getMatched(), equalTo(0));
+    }
+
+    private ByteBuffer wrap(String data)
+    {
+        return ByteBuffer.wrap(data.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,110 @@
+package de.hdm.uls.threadbasedserver.protocol;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class defines test cases for a {@link de.hdm.uls.threadbasedserver.protocol.FrameDecoder} class.
+ */
+public class FrameDecoderTest
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private FrameDecoder decoder = null;
+
+    // ---------------------------------------
+    // BEFORE
+    // ---------------------------------------
+
+    @Before
+    public void setUp()
+    {
+        this.decoder = new FrameDecoder();
+    }
+
+    // ---------------------------------------
+    // TESTS
+    // ---------------------------------------
+
+    @Test
+    public void testDecodeGetFrame() throws ProtocolException
+    {
+        ByteBuffer frame = this.frame(Frame.TYPE_GET, "1m.bin", 42L);
+
+        assertThat(this.decoder.decode(frame), is(true));
+        assertThat(this.decoder.getType(), equalTo(Frame.TYPE_GET));
+        assertThat(this.decoder.getRequestId(), equalTo(42L));
+        assertThat(this.decoder.getKey(), equalTo("1m.bin"));
+        assertThat(frame.hasRemaining(), is(false));
+    }
+
+    @Test
+    public void testDecodeFrameSplitOverReads() throws ProtocolException
+    {
+        ByteBuffer frame = this.frame(Frame.TYPE_GET, "key", 7L);
+        ByteBuffer first = (ByteBuffer) frame.duplicate().limit(5);
+        ByteBuffer second = (ByteBuffer) frame.duplicate().position(5).limit(Frame.HEADER_SIZE + 1);
+        ByteBuffer third = (ByteBuffer) frame.duplicate().position(Frame.HEADER_SIZE + 1);
+
+        assertThat(this.decoder.decode(first), is(false));
+        assertThat(this.decoder.decode(second), is(false));
+        assertThat(this.decoder.decode(third), is(true));
+        assertThat(this.decoder.getKey(), equalTo("key"));
+        assertThat(this.decoder.getRequestId(), equalTo(7L));
+    }
+
+    @Test
+    public void testDataFrameIsSkippedAndNextFrameStaysInBuffer() throws ProtocolException
+    {
+        ByteBuffer data = this.frame(Frame.TYPE_DATA, "uploaded data", 1L);
+        ByteBuffer get = this.frame(Frame.TYPE_GET, "", 2L);
+        ByteBuffer read = ByteBuffer.allocate(data.remaining() + get.remaining());
+        read.put(data).put(get);
+        read.flip();
+
+        assertThat(this.decoder.decode(read), is(true));
+        assertThat(this.decoder.getType(), equalTo(Frame.TYPE_DATA));
+        assertThat(this.decoder.getLength(), equalTo(13));
+        assertThat(read.remaining(), equalTo(Frame.HEADER_SIZE));
+
+        this.decoder.reset();
+        assertThat(this.decoder.decode(read), is(true));
+        assertThat(this.decoder.getType(), equalTo(Frame.TYPE_GET));
+        assertThat(this.decoder.getKey(), is(nullValue()));
+    }
+
+    @Test(expected = ProtocolException.class)
+    public void testUnknownType() throws ProtocolException
+    {
+        this.decoder.decode(this.frame(Frame.TYPE_RESPONSE, "", 1L));
+    }
+
+    @Test(expected = ProtocolException.class)
+    public void testKeyTooLong() throws ProtocolException
+    {
+        ByteBuffer header = Frame.header(Frame.TYPE_GET, Frame.MAX_KEY_LENGTH + 1, 1L);
+
+        this.decoder.decode(header);
+    }
+
+    private ByteBuffer frame(byte type, String body, long requestId)
+    {
+        byte[] bytes = body.getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer frame = ByteBuffer.allocate(Frame.HEADER_SIZE + bytes.length);
+        frame.put(Frame.header(type, bytes.length, requestId)).put(bytes);
+        frame.flip();
+
+        return frame;
+    }
+}
@@ -0,0 +1,38 @@
+package de.hdm.uls.threadbasedserver.protocol;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class defines test cases for a {@link de.hdm.uls.threadbasedserver.protocol.ResponseHeader} class.
+ */
+public class ResponseHeaderTest
+{
+    // ---------------------------------------
+    // TESTS
+    // ---------------------------------------
+
+    @Test
+    public void testContentLengthHeader()
+    {
+        ByteBuffer header = ResponseHeader.of(false, 45827, 7);
+
+        assertThat(StandardCharsets.US_ASCII.decode(header).toString(), equalTo("Content-Length: 45827\r\n\r\n"));
+    }
+
+    @Test
+    public void testFrameHeader()
+    {
+        ByteBuffer header = ResponseHeader.of(true, 45827, 7);
+
+        assertThat(header.remaining(), equalTo(Frame.HEADER_SIZE));
+        assertThat(header.get(), equalTo(Frame.TYPE_RESPONSE));
+        assertThat(header.getInt(), equalTo(45827));
+        assertThat(header.getLong(), equalTo(7L));
+    }
+}
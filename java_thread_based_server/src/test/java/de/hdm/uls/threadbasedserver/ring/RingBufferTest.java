@@ -0,0 +1,145 @@
+package de.hdm.uls.threadbasedserver.ring;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class defines test cases for a {@link de.hdm.uls.threadbasedserver.ring.RingBuffer} class.
+ */
+public class RingBufferTest
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private static final int SIZE   = 8;
+    private static final int EVENTS = 100_000;
+
+    // ---------------------------------------
+    // TESTS
+    // ---------------------------------------
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSizeMustBePowerOfTwo()
+    {
+        new RingBuffer<>(6, Slot::new);
+    }
+
+    @Test
+    public void testSlotsAreReused()
+    {
+        RingBuffer<Slot> ring = new RingBuffer<>(SIZE, Slot::new);
+
+        assertThat(ring.get(SIZE + 3), sameInstance(ring.get(3)));
+    }
+
+    @Test
+    public void testPublishedSlotIsClaimedByConsumer()
+    {
+        RingBuffer<Slot> ring = new RingBuffer<>(SIZE, Slot::new);
+        Sequence consumer = ring.addConsumer();
+
+        long sequence = ring.tryNext();
+        ring.get(sequence).value = 42;
+        ring.publish(sequence);
+        assertThat(ring.getBacklog(), equalTo(1L));
+
+        long claimed = ring.claim(consumer);
+
+        assertThat(claimed, equalTo(sequence));
+        assertThat(ring.waitFor(claimed, WaitStrategy.BUSY_SPIN, () -> true), is(true));
+        assertThat(ring.get(claimed).value, equalTo(42L));
+        assertThat(ring.getBacklog(), equalTo(0L));
+    }
+
+    @Test
+    public void testProducerDoesNotOverwriteUnprocessedSlots()
+    {
+        RingBuffer<Slot> ring = new RingBuffer<>(SIZE, Slot::new);
+        Sequence consumer = ring.addConsumer();
+
+        for (int i = 0; i < SIZE; i++)
+        {
+            ring.publish(ring.tryNext());
+        }
+        assertThat(ring.tryNext(), equalTo(-1L));
+
+        // claiming the second slot releases the first one
+        ring.claim(consumer);
+        assertThat(ring.tryNext(), equalTo(-1L));
+        ring.claim(consumer);
+        assertThat(ring.tryNext(), equalTo((long) SIZE));
+    }
+
+    @Test
+    public void testWaitForStopsIfNotRunning()
+    {
+        RingBuffer<Slot> ring = new RingBuffer<>(SIZE, Slot::new);
+        Sequence consumer = ring.addConsumer();
+
+        assertThat(ring.waitFor(ring.claim(consumer), WaitStrategy.PARK, () -> false), is(false));
+    }
+
+    @Test
+    public void testEveryEventIsProcessedOnce() throws InterruptedException
+    {
+        RingBuffer<Slot> ring = new RingBuffer<>(SIZE, Slot::new);
+        AtomicLong sum = new AtomicLong();
+        AtomicLong processed = new AtomicLong();
+        Thread[] consumers = new Thread[3];
+
+        for (int i = 0; i < consumers.length; i++)
+        {
+            Sequence sequence = ring.addConsumer();
+            consumers[i] = new Thread(() -> {
+                while (true)
+                {
+                    long claimed = ring.claim(sequence);
+                    if (!ring.waitFor(claimed, WaitStrategy.YIELD, () -> processed.get() < EVENTS))
+                    {
+                        return;
+                    }
+
+                    sum.addAndGet(ring.get(claimed).value);
+                    processed.incrementAndGet();
+                }
+            });
+            consumers[i].start();
+        }
+
+        for (long value = 1; value <= EVENTS; value++)
+        {
+            long sequence;
+            while ((sequence = ring.tryNext()) < 0)
+            {
+                Thread.yield();
+            }
+
+            ring.get(sequence).value = value;
+            ring.publish(sequence);
+        }
+
+        for (Thread thread : consumers)
+        {
+            thread.join(10_000);
+        }
+
+        assertThat(processed.get(), equalTo((long) EVENTS));
+        assertThat(sum.get(), equalTo((long) EVENTS * (EVENTS + 1) / 2));
+    }
+
+    // ---------------------------------------
+    // INNER CLASS
+    // ---------------------------------------
+
+    private static class Slot
+    {
+        private long value;
+    }
+}
@@ -0,0 +1,117 @@
+package de.hdm.uls.threadbasedserver.server;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class defines test cases for a {@link de.hdm.uls.threadbasedserver.server.AdmissionControl} class.
+ */
+public class AdmissionControlTest
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private AdmissionControl admission = null;
+
+    // ---------------------------------------
+    // BEFORE
+    // ---------------------------------------
+
+    @Before
+    public void setUp()
+    {
+        this.admission = new AdmissionControl(2);
+    }
+
+    // ---------------------------------------
+    // TESTS
+    // ---------------------------------------
+
+    @Test
+    public void testLimit()
+    {
+        assertThat(this.admission.tryAcquire(), is(true));
+        assertThat(this.admission.tryAcquire(), is(true));
+        assertThat(this.admission.tryAcquire(), is(false));
+        assertThat(this.admission.hasCapacity(), is(false));
+
+        this.admission.release();
+        assertThat(this.admission.getActive(), equalTo(1));
+        assertThat(this.admission.tryAcquire(), is(true));
+    }
+
+    @Test
+    public void testUnlimited()
+    {
+        AdmissionControl unlimited = new AdmissionControl(0);
+        for (int i = 0; i < 1000; i++)
+        {
+            assertThat(unlimited.tryAcquire(), is(true));
+        }
+        assertThat(unlimited.hasCapacity(), is(true));
+    }
+
+    @Test
+    public void testReleaseNotifiesResumeListenerWhilePaused()
+    {
+        AtomicInteger resumed = new AtomicInteger();
+        this.admission.setResumeListener(resumed::incrementAndGet);
+        this.admission.tryAcquire();
+        this.admission.tryAcquire();
+
+        this.admission.release();
+        assertThat(resumed.get(), equalTo(0));
+
+        this.admission.tryAcquire();
+        assertThat(this.admission.pause(), is(true));
+        assertThat(this.admission.pause(), is(false));
+        this.admission.release();
+        assertThat(resumed.get(), equalTo(1));
+
+        assertThat(this.admission.resume(), is(true));
+        assertThat(this.admission.resume(), is(false));
+        assertThat(this.admission.isPaused(), is(false));
+        assertThat(this.admission.getPauses(), equalTo(1L));
+    }
+
+    @Test
+    public void testAcquireBlocksUntilRelease() throws InterruptedException
+    {
+        this.admission.tryAcquire();
+        this.admission.tryAcquire();
+
+        CountDownLatch acquired = new CountDownLatch(1);
+        Thread acceptor = new Thread(() -> {
+            try
+            {
+                this.admission.acquire();
+                acquired.countDown();
+            }
+            catch (InterruptedException ex)
+            {
+                Thread.currentThread().interrupt();
+            }
+        });
+        acceptor.start();
+
+        assertThat(acquired.await(100, TimeUnit.MILLISECONDS), is(false));
+        assertThat(this.admission.isPaused(), is(true));
+
+        this.admission.release();
+        assertThat(acquired.await(5, TimeUnit.SECONDS), is(true));
+        acceptor.join();
+
+        assertThat(this.admission.isPaused(), is(false));
+        assertThat(this.admission.getActive(), equalTo(2));
+        assertThat(this.admission.getPausedMillis() > 0L, is(true));
+    }
+}
@@ -0,0 +1,158 @@
+package de.hdm.uls.threadbasedserver.server;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+import de.hdm.uls.threadbasedserver.config.ServerConfig;
+import de.hdm.uls.threadbasedserver.payload.AssetStore;
+import de.hdm.uls.threadbasedserver.protocol.ResponseHeader;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * This class defines test cases for a {@link de.hdm.uls.threadbasedserver.server.AsyncJavaSocketServer} class. The
+ * server runs on a free loopback port without the metrics endpoint.
+ */
+public class AsyncJavaSocketServerTest
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private static final String   EMPTY_KEY    = "async-server-test-empty.bin";
+
+    private AsyncJavaSocketServer server       = null;
+    private Thread                serverThread = null;
+    private Path                  emptyAsset   = null;
+    private int                   port         = 0;
+
+    // ---------------------------------------
+    // BEFORE
+    // ---------------------------------------
+
+    @Before
+    public void setUp() throws Exception
+    {
+        try (ServerSocket probe = new ServerSocket(0, 1, InetAddress.getLoopbackAddress()))
+        {
+            this.port = probe.getLocalPort();
+        }
+
+        Properties properties = new Properties();
+        properties.setProperty("server.host", InetAddress.getLoopbackAddress().getHostAddress());
+        properties.setProperty("server.port", String.valueOf(this.port));
+        properties.setProperty("metrics.port", "0");
+        ServerConfig.configure(properties);
+
+        this.emptyAsset = Files.createTempFile("async-server", ".bin");
+        AssetStore.getShared().register(EMPTY_KEY, this.emptyAsset);
+
+        this.server = new AsyncJavaSocketServer(1);
+        this.serverThread = new Thread(this.server::start, "test-async-server");
+        this.serverThread.start();
+
+        // wait for the bound channel, so the server is running when a test stops it
+        this.connect().close();
+    }
+
+    // ---------------------------------------
+    // AFTER
+    // ---------------------------------------
+
+    @After
+    public void tearDown() throws Exception
+    {
+        this.server.stop();
+        this.serverThread.join(5000);
+        Files.deleteIfExists(this.emptyAsset);
+        ServerConfig.reset();
+    }
+
+    // ---------------------------------------
+    // TESTS
+    // ---------------------------------------
+
+    @Test
+    public void testEmptyAssetResponse() throws Exception
+    {
+        try (Socket socket = this.connect())
+        {
+            OutputStream out = socket.getOutputStream();
+            out.write(("data" + ServerConfig.DELIMITER + EMPTY_KEY + "\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+
+            // the whole header is written before the connection is closed
+            byte[] response = this.readAll(socket.getInputStream());
+            assertThat(new String(response, StandardCharsets.US_ASCII), equalTo("Content-Length: 0\r\n\r\n"));
+        }
+    }
+
+    @Test
+    public void testPartialHeaderOfEmptyAssetIsPending()
+    {
+        ByteBuffer header = ResponseHeader.of(false, 0, 0);
+        ByteBuffer[] buffers = new ByteBuffer[] { header, ByteBuffer.allocate(0) };
+
+        header.position(1);
+        assertThat(AsyncJavaSocketServer.hasRemaining(buffers), is(true));
+
+        header.position(header.limit());
+        assertThat(AsyncJavaSocketServer.hasRemaining(buffers), is(false));
+    }
+
+    /**
+     * This method connects to the server as soon as its channel is bound.
+     */
+    private Socket connect() throws Exception
+    {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (true)
+        {
+            try
+            {
+                Socket socket = new Socket(InetAddress.getLoopbackAddress(), this.port);
+                socket.setSoTimeout(10000);
+                return socket;
+            }
+            catch (IOException ex)
+            {
+                if (System.currentTimeMillis() > deadline)
+                {
+                    throw ex;
+                }
+                Thread.sleep(20);
+            }
+        }
+    }
+
+    /**
+     * @return all bytes of the stream up to the close of the connection.
+     */
+    private byte[] readAll(InputStream in) throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8192];
+        int read;
+        while ((read = in.read(chunk)) != -1)
+        {
+            bytes.write(chunk, 0, read);
+        }
+
+        return bytes.toByteArray();
+    }
+}
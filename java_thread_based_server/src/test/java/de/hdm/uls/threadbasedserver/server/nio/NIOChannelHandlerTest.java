@@ -0,0 +1,163 @@
+package de.hdm.uls.threadbasedserver.server.nio;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import de.hdm.uls.threadbasedserver.config.ServerConfig;
+import de.hdm.uls.threadbasedserver.metrics.ServerMetrics;
+import de.hdm.uls.threadbasedserver.payload.FileTransfer;
+import de.hdm.uls.threadbasedserver.server.AdmissionControl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Properties;
+
+/**
+ * This class defines test cases for a {@link de.hdm.uls.threadbasedserver.server.nio.NIOChannelHandler} class. Every
+ * test serves loopback connections with an event loop.
+ */
+public class NIOChannelHandlerTest
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private static final int    UPLOAD_SIZE = 4096;
+
+    private ServerSocketChannel serverChannel = null;
+    private EventLoop           eventLoop     = null;
+    private Thread              loopThread    = null;
+
+    // ---------------------------------------
+    // BEFORE
+    // ---------------------------------------
+
+    @Before
+    public void setUp() throws IOException
+    {
+        Properties properties = new Properties();
+        properties.setProperty("processing.mode", "parallel");
+        ServerConfig.configure(properties);
+
+        this.serverChannel = ServerSocketChannel.open();
+        this.serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        this.serverChannel.configureBlocking(false);
+
+        this.eventLoop = new EventLoop(new AdmissionControl(0));
+        this.eventLoop.listen(this.serverChannel);
+        this.loopThread = new Thread(this.eventLoop, "test-event-loop");
+        this.loopThread.start();
+    }
+
+    // ---------------------------------------
+    // AFTER
+    // ---------------------------------------
+
+    @After
+    public void tearDown() throws Exception
+    {
+        this.eventLoop.shutdown();
+        this.loopThread.join(5000);
+        this.serverChannel.close();
+        ServerConfig.reset();
+    }
+
+    // ---------------------------------------
+    // TESTS
+    // ---------------------------------------
+
+    @Test
+    public void testFullDuplexResponseBeforeDelimiter() throws Exception
+    {
+        long receivedBefore = ServerMetrics.BYTES_RECEIVED.get();
+
+        try (Socket socket = this.connect())
+        {
+            OutputStream out = socket.getOutputStream();
+            InputStream in = socket.getInputStream();
+
+            // the upload is still in flight, the delimiter follows after the whole response was read
+            out.write(new byte[UPLOAD_SIZE]);
+            out.flush();
+            assertThat(readContent(in), equalTo(defaultFileSize()));
+
+            byte[] rest = ("more" + ServerConfig.DELIMITER + "\n").getBytes(StandardCharsets.US_ASCII);
+            out.write(rest);
+            out.flush();
+            assertThat(in.read(), equalTo(-1));
+
+            assertThat(ServerMetrics.BYTES_RECEIVED.get() - receivedBefore, equalTo((long) UPLOAD_SIZE + rest.length));
+        }
+    }
+
+    @Test
+    public void testFullDuplexRequestInSingleRead() throws Exception
+    {
+        try (Socket socket = this.connect())
+        {
+            OutputStream out = socket.getOutputStream();
+            InputStream in = socket.getInputStream();
+
+            out.write(("data" + ServerConfig.DELIMITER + "\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+
+            // the connection stops reading and is closed as soon as the response is written
+            assertThat(readContent(in), equalTo(defaultFileSize()));
+            assertThat(in.read(), equalTo(-1));
+        }
+    }
+
+    /**
+     * This method reads a response of the delimiter protocol: the Content-Length header, the empty line and exactly
+     * the announced number of bytes.
+     *
+     * @param in The stream of the client connection.
+     * @return the number of bytes of the response body.
+     */
+    private static long readContent(InputStream in) throws IOException
+    {
+        StringBuilder header = new StringBuilder();
+        while (!header.toString().endsWith("\r\n\r\n"))
+        {
+            int value = in.read();
+            if (value == -1)
+            {
+                throw new EOFException("The connection was closed in the header!");
+            }
+            header.append((char) value);
+        }
+
+        long length = Long.parseLong(header.substring("Content-Length: ".length(), header.indexOf("\r\n")));
+        new DataInputStream(in).readFully(new byte[(int) length]);
+
+        return length;
+    }
+
+    /**
+     * @return the size of the default file of the servers.
+     */
+    private static long defaultFileSize() throws IOException
+    {
+        return Files.size(FileTransfer.resolve(ServerConfig.FILE_PATH));
+    }
+
+    private Socket connect() throws IOException
+    {
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(), this.serverChannel.socket().getLocalPort());
+        socket.setSoTimeout(10000);
+
+        return socket;
+    }
+}
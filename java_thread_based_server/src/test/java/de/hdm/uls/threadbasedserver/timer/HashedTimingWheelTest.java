@@ -0,0 +1,108 @@
+package de.hdm.uls.threadbasedserver.timer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class defines test cases for a {@link de.hdm.uls.threadbasedserver.timer.HashedTimingWheel} class.
+ */
+public class HashedTimingWheelTest
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private final long          start   = 1000000L;
+
+    private HashedTimingWheel   wheel   = null;
+    private AtomicInteger       fired   = null;
+    private Timeout             timeout = null;
+
+    // ---------------------------------------
+    // BEFORE
+    // ---------------------------------------
+
+    @Before
+    public void setUp()
+    {
+        this.wheel = new HashedTimingWheel(100L, 8, this.start);
+        this.fired = new AtomicInteger();
+        this.timeout = new Timeout(this.fired::incrementAndGet);
+    }
+
+    // ---------------------------------------
+    // TESTS
+    // ---------------------------------------
+
+    @Test
+    public void testTimeoutExpiresNotEarly()
+    {
+        this.wheel.schedule(this.timeout, 250L, this.start);
+
+        assertThat(this.wheel.advance(this.start + 299L), equalTo(0));
+        assertThat(this.fired.get(), equalTo(0));
+        assertThat(this.wheel.advance(this.start + 300L), equalTo(1));
+        assertThat(this.fired.get(), equalTo(1));
+        assertThat(this.timeout.isScheduled(), is(false));
+        assertThat(this.wheel.getPendingCount(), equalTo(0));
+    }
+
+    @Test
+    public void testCancelAndReschedule()
+    {
+        this.wheel.schedule(this.timeout, 100L, this.start);
+        this.wheel.cancel(this.timeout);
+        this.wheel.advance(this.start + 500L);
+        assertThat(this.fired.get(), equalTo(0));
+
+        // moving a scheduled timeout replaces its old deadline
+        this.wheel.schedule(this.timeout, 100L, this.start + 500L);
+        this.wheel.schedule(this.timeout, 400L, this.start + 500L);
+        this.wheel.advance(this.start + 700L);
+        assertThat(this.fired.get(), equalTo(0));
+        this.wheel.advance(this.start + 900L);
+        assertThat(this.fired.get(), equalTo(1));
+    }
+
+    @Test
+    public void testDeadlineBeyondOneRotation()
+    {
+        // one rotation of the wheel lasts 800 ms, the timeout shares its bucket with the tick 2
+        this.wheel.schedule(this.timeout, 1000L, this.start);
+
+        this.wheel.advance(this.start + 900L);
+        assertThat(this.fired.get(), equalTo(0));
+        this.wheel.advance(this.start + 1000L);
+        assertThat(this.fired.get(), equalTo(1));
+    }
+
+    @Test
+    public void testLongGapVisitsEveryBucketOnce()
+    {
+        Timeout[] timeouts = new Timeout[20];
+        for (int i = 0; i < timeouts.length; i++)
+        {
+            timeouts[i] = new Timeout(this.fired::incrementAndGet);
+            this.wheel.schedule(timeouts[i], 100L * (i + 1), this.start);
+        }
+
+        assertThat(this.wheel.advance(this.start + 10000L), equalTo(20));
+        assertThat(this.wheel.getExpiredCount(), equalTo(20L));
+    }
+
+    @Test
+    public void testNextTimeout()
+    {
+        assertThat(this.wheel.nextTimeoutMillis(this.start), equalTo(0L));
+
+        this.wheel.schedule(this.timeout, 1000L, this.start + 30L);
+        assertThat(this.wheel.nextTimeoutMillis(this.start + 30L), equalTo(70L));
+        assertThat(this.wheel.getWheelSize(), equalTo(8));
+    }
+}
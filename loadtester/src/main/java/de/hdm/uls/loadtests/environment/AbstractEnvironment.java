@@ -1,6 +1,5 @@
 package de.hdm.uls.loadtests.environment;
 
-import com.sun.corba.se.spi.activation.Server;
 import de.hdm.uls.loadtests.LoadTester;
 import de.hdm.uls.loadtests.environment.exceptions.EnvironmentException;
 import de.hdm.uls.loadtests.environment.model.TestCase;
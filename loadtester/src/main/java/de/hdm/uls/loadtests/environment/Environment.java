@@ -45,10 +45,46 @@ public class Environment extends AbstractEnvironment
          * An improved thread based java server to test
          */
         JAVA_IMPROVED,
+        /**
+         * A java server serving each connection on a virtual thread to test (requires Java 21+)
+         */
+        JAVA_VIRTUAL,
+        /**
+         * A java server serving the connections on a bounded worker thread pool to test
+         */
+        JAVA_POOLED,
+        /**
+         * A java server with one acceptor and multiple selector event loops to test
+         */
+        JAVA_MULTI_REACTOR,
+        /**
+         * A half-sync/half-async java server with selector event loops for the I/O and a handler thread pool to test
+         */
+        JAVA_HALF_SYNC_HALF_ASYNC,
+        /**
+         * A half-sync/half-async java server handing the requests to its handler threads through ring buffers to test
+         */
+        JAVA_RING_BUFFER,
+        /**
+         * A java proactor server based on asynchronous channels and completion handlers to test
+         */
+        JAVA_ASYNC,
+        /**
+         * A shared-nothing java server with one event loop per core, each bound to the port with SO_REUSEPORT, to test
+         */
+        JAVA_REUSE_PORT,
         /**
          * A node.js server to test
          */
-        NODEJS
+        NODEJS;
+
+        /**
+         * @return TRUE if the server type describes a java server implementation, otherwise FALSE
+         */
+        public boolean isJavaServer()
+        {
+            return !NODEJS.equals(this);
+        }
     }
 
     // ---------------------------------------
@@ -143,12 +179,21 @@ public class Environment extends AbstractEnvironment
         String projectDir = System.getProperty("user.dir");
 
         // compile the resources is only necessary for java servers
-        if (ServerType.JAVA_CLASSIC.equals(type) || ServerType.JAVA_IMPROVED.equals(type))
+        if (type.isJavaServer())
         {
             String compileParameters = "-d " + projectDir + "\\java_thread_based_server\\bin " +
+                    projectDir + "\\java_thread_based_server\\src\\main\\java\\de\\hdm\\uls\\threadbasedserver\\buffer\\*.java " +
                     projectDir + "\\java_thread_based_server\\src\\main\\java\\de\\hdm\\uls\\threadbasedserver\\config\\*.java " +
                     projectDir + "\\java_thread_based_server\\src\\main\\java\\de\\hdm\\uls\\threadbasedserver\\client\\*.java " +
-                    projectDir + "\\java_thread_based_server\\src\\main\\java\\de\\hdm\\uls\\threadbasedserver\\server\\*.java";
+                    projectDir + "\\java_thread_based_server\\src\\main\\java\\de\\hdm\\uls\\threadbasedserver\\launcher\\*.java " +
+                    projectDir + "\\java_thread_based_server\\src\\main\\java\\de\\hdm\\uls\\threadbasedserver\\management\\*.java " +
+                    projectDir + "\\java_thread_based_server\\src\\main\\java\\de\\hdm\\uls\\threadbasedserver\\metrics\\*.java " +
+                    projectDir + "\\java_thread_based_server\\src\\main\\java\\de\\hdm\\uls\\threadbasedserver\\payload\\*.java " +
+                    projectDir + "\\java_thread_based_server\\src\\main\\java\\de\\hdm\\uls\\threadbasedserver\\protocol\\*.java " +
+                    projectDir + "\\java_thread_based_server\\src\\main\\java\\de\\hdm\\uls\\threadbasedserver\\ring\\*.java " +
+                    projectDir + "\\java_thread_based_server\\src\\main\\java\\de\\hdm\\uls\\threadbasedserver\\server\\*.java " +
+                    projectDir + "\\java_thread_based_server\\src\\main\\java\\de\\hdm\\uls\\threadbasedserver\\server\\nio\\*.java " +
+                    projectDir + "\\java_thread_based_server\\src\\main\\java\\de\\hdm\\uls\\threadbasedserver\\timer\\*.java";
             compileProcess = new ProcessBuilder("javac", compileParameters);
         }
 
@@ -178,6 +223,34 @@ public class Environment extends AbstractEnvironment
         {
             // please start the server process manually -> NIOJavaSocketServer.class
         }
+        else if (ServerType.JAVA_VIRTUAL.equals(type))
+        {
+            // please start the server process manually -> VirtualThreadSocketServer.class
+        }
+        else if (ServerType.JAVA_POOLED.equals(type))
+        {
+            // please start the server process manually -> PooledJavaSocketServer.class
+        }
+        else if (ServerType.JAVA_MULTI_REACTOR.equals(type))
+        {
+            // please start the server process manually -> MultiReactorNIOJavaSocketServer.class
+        }
+        else if (ServerType.JAVA_HALF_SYNC_HALF_ASYNC.equals(type))
+        {
+            // please start the server process manually -> HalfSyncHalfAsyncJavaSocketServer.class
+        }
+        else if (ServerType.JAVA_RING_BUFFER.equals(type))
+        {
+            // please start the server process manually -> RingBufferJavaSocketServer.class
+        }
+        else if (ServerType.JAVA_ASYNC.equals(type))
+        {
+            // please start the server process manually -> AsyncJavaSocketServer.class
+        }
+        else if (ServerType.JAVA_REUSE_PORT.equals(type))
+        {
+            // please start the server process manually -> ReusePortNIOJavaSocketServer.class
+        }
         else if (ServerType.NODEJS.equals(type))
         {
             String processStatement = projectDir + "\\loadtester\\tools\\node.exe";
@@ -199,7 +272,7 @@ public class Environment extends AbstractEnvironment
     {
         try
         {
-            if(ServerType.JAVA_CLASSIC.equals(this.serverType) || ServerType.JAVA_IMPROVED.equals(this.serverType))
+            if(this.serverType.isJavaServer())
             {
                 Process javaProcess = Runtime.getRuntime().exec("taskkill /F /IM java.exe /T");
                 javaProcess.waitFor();
@@ -33,6 +33,13 @@ public class MeasurementClient extends SingleClient
     private MeasuringThread     measuringThread = new MeasuringThread();
     private InjectorResults     results         = null;
 
+    /**
+     * The state of the current connection in the KEEP_ALIVE scenario
+     */
+    private long                connectTimeNs   = -1;
+    private long                lastResponseNs  = -1;
+    private int                 requests        = 0;
+
     // ---------------------------------------
     // CONSTRUCTOR
     // ---------------------------------------
@@ -64,7 +71,14 @@ public class MeasurementClient extends SingleClient
     @Override
     public void connect(InetSocketAddress serverAddress) throws IOException
     {
-        if (this.socket == null)
+        if (this.socket == null && this.isKeepAlive())
+        {
+            // every request of the connection is timed by receiveData, the measuring thread sends no request
+            this.connectTimeNs = System.nanoTime();
+            this.requests = 0;
+            super.connect(serverAddress);
+        }
+        else if (this.socket == null)
         {
             long startTimeNs = System.nanoTime();
             this.socket = new Socket(Config.SERVER_HOST, Config.SERVER_PORT);
@@ -83,9 +97,27 @@ public class MeasurementClient extends SingleClient
         return successfulSend;
     }
 
+    /**
+     * In the KEEP_ALIVE scenario this method times every request of the connection, otherwise the measuring thread
+     * times the response to the connect.
+     */
     @Override
     public boolean receiveData()
     {
+        if (this.isKeepAlive())
+        {
+            long startTimeNs = System.nanoTime();
+            boolean successfulReceive = super.receiveData();
+            if (successfulReceive)
+            {
+                this.lastResponseNs = System.nanoTime();
+                this.requests++;
+                this.results.addResponseTime(startTimeNs, this.lastResponseNs);
+            }
+
+            return successfulReceive;
+        }
+
         long startTime = System.nanoTime();
         boolean successfulReceive = super.receiveData();
         this.measuringThread.measureResponseTime(startTime);
@@ -93,6 +125,27 @@ public class MeasurementClient extends SingleClient
         return successfulReceive;
     }
 
+    /**
+     * In the KEEP_ALIVE scenario this method reports the throughput of the closed connection: the completed requests
+     * from the connect to the last response.
+     */
+    @Override
+    public void disconnect() throws IOException
+    {
+        if (this.isKeepAlive() && this.requests > 0)
+        {
+            this.results.addConnectionThroughput(this.requests, this.connectTimeNs, this.lastResponseNs);
+            this.requests = 0;
+        }
+
+        super.disconnect();
+    }
+
+    private boolean isKeepAlive()
+    {
+        return Config.MeasuringScenarios.KEEP_ALIVE.equals(Config.MEASURING_TYPE);
+    }
+
 
     // ---------------------------------------
     // INNER CLASS
@@ -154,7 +207,8 @@ public class MeasurementClient extends SingleClient
         private void waitForResponse()
         {
             if (Config.MeasuringScenarios.SEND_RECEIVE.equals(Config.MEASURING_TYPE)
-                    || Config.MeasuringScenarios.RECEIVE.equals(Config.MEASURING_TYPE))
+                    || Config.MeasuringScenarios.RECEIVE.equals(Config.MEASURING_TYPE)
+                    || Config.MeasuringScenarios.COMPUTE.equals(Config.MEASURING_TYPE))
             {
                 MeasurementClient.this.receiveData();
             }
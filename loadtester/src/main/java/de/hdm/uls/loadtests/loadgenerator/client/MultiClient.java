@@ -118,6 +118,42 @@ public class MultiClient
         }
     }
 
+    /**
+     * Every client opens one connection and requests the asset Config.REQUESTS_PER_CONNECTION times over it. Both
+     * protocols announce the length of a response, so the client reads the next response over the same connection.
+     *
+     * @param injectionDurationMillis The time to wait before a client closes its connection.
+     */
+    public void simulateKeepAliveServerCommunication(long injectionDurationMillis)
+    {
+        for (SingleClient client : this.clients)
+        {
+            try
+            {
+                client.connect(this.serverAddress);
+                for (int i = 0; i < Config.REQUESTS_PER_CONNECTION; i++)
+                {
+                    if (!client.receiveData())
+                    {
+                        break;
+                    }
+                }
+                Thread.sleep(injectionDurationMillis);
+                client.disconnect();
+            }
+            catch (InterruptedException ex)
+            {
+                log.error("Error to wait injection duration millis after connecting a single client to the server!", ex);
+            }
+            catch (IOException ex)
+            {
+                // comment this line out if to much console messages slow down the server --> If this exceptions was thrown, the client couldn´t
+                // connected to the busy server
+                log.error("Error to connect a client to the server!", ex);
+            }
+        }
+    }
+
     public void simulateSendServerCommunication(long injectionDurationMillis) throws ConnectionPendingException
     {
         ByteBuffer buffer = this.collectSendingBytes();
@@ -0,0 +1,147 @@
+package de.hdm.uls.loadtests.loadgenerator.client;
+
+import de.hdm.uls.loadtests.loadgenerator.config.Config;
+import de.hdm.uls.loadtests.loadgenerator.load.model.ServerMetricsSample;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class scrapes the plain text metrics endpoint of the java servers (ServerConfig.METRICS_PORT). Every scrape
+ * opens its own connection and reads the response until the server closes the connection. If the endpoint is not
+ * reachable, e.g. because the server under test does not provide one, the client logs a warning once and returns no
+ * samples afterwards.
+ */
+public class ServerMetricsClient
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private static final Logger  log             = LoggerFactory.getLogger(ServerMetricsClient.class);
+
+    private static final int     CONNECT_TIMEOUT = 1000;
+
+    private final        String  host;
+    private final        int     port;
+    private              boolean available;
+
+    // ---------------------------------------
+    // CONSTRUCTOR
+    // ---------------------------------------
+
+    public ServerMetricsClient()
+    {
+        this(Config.SERVER_HOST, Config.SERVER_METRICS_PORT);
+    }
+
+    /**
+     * @param host The host of the server.
+     * @param port The port of the metrics endpoint, 0 to disable the client.
+     */
+    public ServerMetricsClient(String host, int port)
+    {
+        this.host = host;
+        this.port = port;
+        this.available = port > 0;
+    }
+
+    // ---------------------------------------
+    // METHODS
+    // ---------------------------------------
+
+    /**
+     * @return a sample of the metrics of the server, or NULL if the endpoint is not available.
+     */
+    public ServerMetricsSample scrape()
+    {
+        if (!this.available)
+        {
+            return null;
+        }
+
+        try (Socket socket = new Socket())
+        {
+            socket.connect(new InetSocketAddress(this.host, this.port), CONNECT_TIMEOUT);
+            socket.setSoTimeout(Config.SOCKET_TIME_OUT);
+            long timeInNanos = System.nanoTime();
+
+            OutputStream out = socket.getOutputStream();
+            out.write(("GET /metrics HTTP/1.1\r\nHost: " + this.host + "\r\nConnection: close\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+
+            BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            String statusLine = reader.readLine();
+            if (statusLine == null || !statusLine.contains(" 200 "))
+            {
+                throw new IOException("Unexpected response of the metrics endpoint: " + statusLine);
+            }
+
+            // skip the headers, the body ends with the end of the stream
+            String line = reader.readLine();
+            while (line != null && !line.isEmpty())
+            {
+                line = reader.readLine();
+            }
+
+            StringBuilder body = new StringBuilder();
+            while ((line = reader.readLine()) != null)
+            {
+                body.append(line).append('\n');
+            }
+
+            return new ServerMetricsSample(timeInNanos, ServerMetricsClient.parse(body.toString()));
+        }
+        catch (IOException ex)
+        {
+            log.warn("The metrics endpoint of the server is not available on " + this.host + ":" + this.port
+                    + "! The test runs without server metrics. Reason: " + ex.getMessage());
+            this.available = false;
+        }
+
+        return null;
+    }
+
+    /**
+     * This method parses the samples of the plain text exposition format. Comments are skipped, the labels of a sample
+     * stay part of its name, e.g. uls_response_service_time_micros{quantile="0.99"}.
+     *
+     * @param text The text of a scrape.
+     * @return the values of the samples by their names in the order of the text.
+     */
+    static Map<String, Double> parse(String text)
+    {
+        Map<String, Double> values = new LinkedHashMap<>();
+
+        for (String line : text.split("\n"))
+        {
+            String sample = line.trim();
+            int separator = sample.lastIndexOf(' ');
+            if (sample.isEmpty() || sample.startsWith("#") || separator <= 0)
+            {
+                continue;
+            }
+
+            try
+            {
+                values.put(sample.substring(0, separator), Double.parseDouble(sample.substring(separator + 1)));
+            }
+            catch (NumberFormatException ex)
+            {
+                log.debug("Skip the invalid metrics sample: " + sample);
+            }
+        }
+
+        return values;
+    }
+}
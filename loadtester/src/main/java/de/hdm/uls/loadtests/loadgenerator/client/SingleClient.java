@@ -5,10 +5,12 @@ import java.net.*;
 import java.nio.ByteBuffer;
 import java.nio.channels.AsynchronousSocketChannel;
 import java.nio.channels.CompletionHandler;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 
 import de.hdm.uls.loadtests.LoadTester;
 import de.hdm.uls.loadtests.environment.Environment;
@@ -30,10 +32,25 @@ public class SingleClient implements Client
     // PROPERTIES
     // ---------------------------------------
 
-    private static final Logger log         = LoggerFactory.getLogger(SingleClient.class);
+    private static final Logger log            = LoggerFactory.getLogger(SingleClient.class);
 
-    protected            Socket socket      = null;
-    private              long   clientID;
+    /**
+     * The header and the frame types of the framed protocol, see Config.Protocol.FRAMED
+     */
+    private static final int    HEADER_SIZE    = 1 + 4 + 8;
+    private static final byte   TYPE_DATA      = 1;
+    private static final byte   TYPE_GET       = 2;
+    private static final byte   TYPE_RESPONSE  = 3;
+
+    /**
+     * The header announcing the size of a response of the delimiter protocol, followed by an empty line
+     */
+    private static final String CONTENT_LENGTH = "Content-Length:";
+
+    protected            Socket      socket         = null;
+    private              InputStream contentStream  = null;
+    private              long        clientID;
+    private              long        requestId      = 0;
 
     // ---------------------------------------
     // CONSTRUCTOR
@@ -65,6 +82,7 @@ public class SingleClient implements Client
         {
             this.socket.close();
             this.socket = null;
+            this.contentStream = null;
         }
     }
 
@@ -88,6 +106,10 @@ public class SingleClient implements Client
         {
             try
             {
+                if (Config.Protocol.FRAMED.equals(Config.PROTOCOL))
+                {
+                    this.socket.getOutputStream().write(this.header(TYPE_DATA, buffer.array().length).array());
+                }
                 this.socket.getOutputStream().write(buffer.array());
                 successfulWrite = true;
             }
@@ -104,16 +126,18 @@ public class SingleClient implements Client
     public boolean receiveData()
     {
         boolean successfulRead = false;
-        if(this.isConnected())
+        if (this.isConnected() && Config.Protocol.FRAMED.equals(Config.PROTOCOL))
+        {
+            successfulRead = this.receiveFrame();
+        }
+        else if(this.isConnected())
         {
             try
             {
-                // append \n to the delimiter to perform readline method on server side
-                String delimiterStatement = Config.DELIMITER + "\n";
+                // append the asset key and \n to the delimiter to perform readline method on server side
+                String delimiterStatement = Config.DELIMITER + this.requestKey() + "\n";
                 this.socket.getOutputStream().write(delimiterStatement.getBytes());
-                this.socket.getInputStream().read();
-                DataInputStream inputStream = new DataInputStream(this.socket.getInputStream());
-                this.parseInput(new BufferedReader(new InputStreamReader(inputStream)));
+                successfulRead = this.receiveContent();
             }
             catch (IOException e)
             {
@@ -129,7 +153,12 @@ public class SingleClient implements Client
     {
         boolean successful = false;
 
-        if (this.isConnected())
+        if (this.isConnected() && Config.Protocol.FRAMED.equals(Config.PROTOCOL))
+        {
+            // the frame header announces the end of the data, so there is no delimiter to send
+            successful = true;
+        }
+        else if (this.isConnected())
         {
             try
             {
@@ -203,25 +232,165 @@ public class SingleClient implements Client
         }
     }
 
-    protected void parseInput(BufferedReader reader)
+    /**
+     * This method requests the key of the scenario, see requestKey(), with a GET frame and reads exactly the number of bytes announced
+     * by the header of the response frame. The client does not wait for the server to close the connection.
+     *
+     * @return TRUE if the whole response was read, otherwise FALSE.
+     */
+    protected boolean receiveFrame()
     {
-        String line = null;
-        int i = 0;
+        boolean successfulRead = false;
+
         try
         {
-            // skips the half of all reader buffers for faster processing
-            reader.skip((reader.lines().toArray().length / 2));
-            while ((line = reader.readLine()) != null)
+            // write header and key with a single write, so the request is sent in one segment
+            byte[] key = this.requestKey().getBytes(StandardCharsets.US_ASCII);
+            byte[] request = Arrays.copyOf(this.header(TYPE_GET, key.length).array(), HEADER_SIZE + key.length);
+            System.arraycopy(key, 0, request, HEADER_SIZE, key.length);
+            long requestId = this.requestId;
+
+            this.socket.getOutputStream().write(request);
+
+            DataInputStream inputStream = new DataInputStream(this.socket.getInputStream());
+            byte[] headerBytes = new byte[HEADER_SIZE];
+            inputStream.readFully(headerBytes);
+            ByteBuffer header = ByteBuffer.wrap(headerBytes);
+
+            byte type = header.get();
+            int length = header.getInt();
+            long responseId = header.getLong();
+
+            if (type != TYPE_RESPONSE || responseId != requestId)
             {
-                // Do nothing because the data is not important just read the lines of the buffer
-                // after that skip the method. In this case it is important to measure the I/O time of the server
-                // not the time the load testing framework need to parse the input send by a server. so keep the connection
-                // alive until the server sends all bytes
+                log.error("Unexpected response frame of type " + type + " for request " + responseId + "!");
+            }
+            else
+            {
+                this.readBody(inputStream, length);
+                successfulRead = true;
             }
         }
         catch (IOException e)
         {
-            e.printStackTrace();
+            log.error("Error to read a response frame from server!", e);
+        }
+
+        return successfulRead;
+    }
+
+    /**
+     * @return Config.COMPUTE_KEY in the COMPUTE scenario, otherwise the asset key Config.ASSET_KEY.
+     */
+    private String requestKey()
+    {
+        return Config.MeasuringScenarios.COMPUTE.equals(Config.MEASURING_TYPE) ? Config.COMPUTE_KEY : Config.ASSET_KEY;
+    }
+
+    /**
+     * This method creates the header of a frame with a new request id.
+     *
+     * @param type The type of the frame.
+     * @param length The length of the frame body.
+     * @return The header, backed by an array of the header size.
+     */
+    private ByteBuffer header(byte type, int length)
+    {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.put(type).putInt(length).putLong(++this.requestId);
+
+        return header;
+    }
+
+    /**
+     * This method reads a response of the delimiter protocol: the header lines up to the empty line, then exactly the
+     * number of bytes announced by the Content-Length header. So the response time ends at the last byte of the
+     * response instead of at the close of the connection. The buffered stream is kept for all responses of a
+     * keep-alive connection, so bytes it read ahead are not lost for the next response.
+     *
+     * @return TRUE if the whole response was read, FALSE if the response has no Content-Length header.
+     * @throws IOException if reading from the server failed or the server closed the connection too early.
+     */
+    protected boolean receiveContent() throws IOException
+    {
+        if (this.contentStream == null)
+        {
+            this.contentStream = new BufferedInputStream(this.socket.getInputStream());
+        }
+        InputStream inputStream = this.contentStream;
+        long length = -1;
+
+        String line;
+        while (!(line = this.readLine(inputStream)).isEmpty())
+        {
+            if (line.regionMatches(true, 0, CONTENT_LENGTH, 0, CONTENT_LENGTH.length()))
+            {
+                try
+                {
+                    length = Long.parseLong(line.substring(CONTENT_LENGTH.length()).trim());
+                }
+                catch (NumberFormatException ex)
+                {
+                    throw new ProtocolException("Invalid header of the response: " + line);
+                }
+            }
+        }
+
+        if (length < 0)
+        {
+            log.error("The response of the server has no Content-Length header!");
+            return false;
+        }
+
+        this.readBody(inputStream, length);
+        return true;
+    }
+
+    /**
+     * @param inputStream The stream of the response.
+     * @return the next header line without the line break.
+     * @throws IOException if the server closed the connection within the header.
+     */
+    private String readLine(InputStream inputStream) throws IOException
+    {
+        StringBuilder line = new StringBuilder();
+
+        int next;
+        while ((next = inputStream.read()) != '\n')
+        {
+            if (next < 0)
+            {
+                throw new EOFException("The server closed the connection within the header of the response!");
+            }
+            if (next != '\r')
+            {
+                line.append((char) next);
+            }
+        }
+
+        return line.toString();
+    }
+
+    /**
+     * This method reads exactly the announced body of a response. The data is not important, just the I/O time of
+     * the server.
+     *
+     * @param inputStream The stream of the response.
+     * @param length The announced number of bytes.
+     * @throws IOException if the server closed the connection before the end of the response.
+     */
+    private void readBody(InputStream inputStream, long length) throws IOException
+    {
+        byte[] chunk = new byte[(int) Math.max(1, Math.min(length, 1 << 16))];
+        long remaining = length;
+        while (remaining > 0)
+        {
+            int readBytes = inputStream.read(chunk, 0, (int) Math.min(chunk.length, remaining));
+            if (readBytes < 0)
+            {
+                throw new EOFException("The server closed the connection " + remaining + " bytes before the end of the response!");
+            }
+            remaining -= readBytes;
         }
     }
 
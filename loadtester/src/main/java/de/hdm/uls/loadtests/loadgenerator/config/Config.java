@@ -17,6 +17,37 @@ public final class Config
 
     public static String                    DELIMITER       = "$::_$";
 
+    /**
+     * The local port of the metrics endpoint of the java servers (ServerConfig.METRICS_PORT) and the interval to
+     * scrape it during a test. A port of 0 disables the scrapes.
+     */
+    public static int                       SERVER_METRICS_PORT = 5556;
+    public static int                       SERVER_METRICS_INTERVAL_MILLIS = 1000;
+
+    /**
+     * The key of the asset the clients request after the delimiter. An empty key requests the default file of the
+     * server. The java servers register every file of their asset directory under its file name.
+     */
+    public static String                    ASSET_KEY       = "";
+
+    /**
+     * The key the clients request in the COMPUTE scenario instead of Config.ASSET_KEY. The java servers answer it with
+     * a checksum over slices of their default file (payload.ComputeRequest.KEY), so every request burns CPU time on
+     * the server. The work per request is set by the server settings compute.rounds and compute.slice.bytes.
+     */
+    public static final String              COMPUTE_KEY     = "compute";
+
+    /**
+     * Defines how the clients mark the end of a request. Has to match the protocol of the server.
+     */
+    public static Protocol                  PROTOCOL        = Protocol.DELIMITER;
+
+    /**
+     * The number of request/response cycles of a client over one connection in the KEEP_ALIVE scenario. Requires a
+     * server with ServerConfig.KEEP_ALIVE enabled in the SEQUENTIAL processing mode.
+     */
+    public static int                       REQUESTS_PER_CONNECTION = 10;
+
     /**
      * This file was downloaded from:
      * @see "http://file.ithome.com.tw/20130806/KA-0945%20-%201045.pdf"
@@ -56,7 +87,36 @@ public final class Config
         /**
          * Measure connection, sending and receiving time
          */
-        SEND_RECEIVE
+        SEND_RECEIVE,
+        /**
+         * Measure connection and Config.REQUESTS_PER_CONNECTION request/response cycles over one socket
+         */
+        KEEP_ALIVE,
+        /**
+         * Measure connection and receiving time of a CPU-bound request, see Config.COMPUTE_KEY
+         */
+        COMPUTE
+    }
+
+    // ---------------------------------------
+    // PROTOCOL TYPES
+    // ---------------------------------------
+
+    /**
+     * This enumeration contains the request protocols of the servers.
+     */
+    public static enum Protocol
+    {
+        /**
+         * The request ends with the delimiter signs, the response starts with a Content-Length header, so the client
+         * reads exactly the announced response size
+         */
+        DELIMITER,
+        /**
+         * Requests and responses are binary frames with a header of type (1 byte), length (4 bytes) and request id
+         * (8 bytes), so the client reads exactly the announced response size
+         */
+        FRAMED
     }
 
     // ---------------------------------------
@@ -1,11 +1,17 @@
 package de.hdm.uls.loadtests.loadgenerator.load;
 
+import de.hdm.uls.loadtests.loadgenerator.client.ServerMetricsClient;
+import de.hdm.uls.loadtests.loadgenerator.config.Config;
 import de.hdm.uls.loadtests.loadgenerator.load.injectionprofiles.InjectionProfile;
 import de.hdm.uls.loadtests.loadgenerator.load.model.GeneratorResults;
 import de.hdm.uls.loadtests.loadgenerator.load.model.InjectorResults;
+import de.hdm.uls.loadtests.loadgenerator.load.model.ServerMetricsSample;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * This class describes a load generator. The load generator generates the overall load. Each method represents a
  * different load testing strategy. This class uses a set of load injectors to simulate different situations.
@@ -30,6 +36,9 @@ public abstract class LoadGenerator
     private int                 durationInMillis            = 0;
     private InjectionProfile    injectionProfile            = null;
 
+    private ServerMetricsClient metricsClient               = new ServerMetricsClient();
+    private long                lastScrapeMs                = 0;
+
     // ---------------------------------------
     // CONSTRUCTOR
     // ---------------------------------------
@@ -50,9 +59,12 @@ public abstract class LoadGenerator
         log.info("-- LoadGenerator#run");
         isRunning = true;
         testResults.measureStartTime();
+        scrapeServerMetrics();
         generateLoad();
         finishInjection();
         testResults.measureStopTime();
+        scrapeServerMetrics();
+        logServerMetrics();
         isRunning = false;
     }
 
@@ -79,10 +91,50 @@ public abstract class LoadGenerator
             int targetLoad = (int) (targetLoadInPercent * totalClients);
             long timeLeftMs = durationInMillis - timePastMs;
             injectLoad(targetLoad, timeLeftMs, testResults);
+            if (currentTimeMs - this.lastScrapeMs >= Config.SERVER_METRICS_INTERVAL_MILLIS)
+            {
+                scrapeServerMetrics();
+            }
             sleep((long) (1.0 / LoadGenerator.INJECTION_FREQUENCY_IN_K) * 1000);
         }
     }
 
+    /**
+     * This method takes a sample of the metrics endpoint of the server, so the numbers of the server can be correlated
+     * with the timeline of the test.
+     */
+    private void scrapeServerMetrics()
+    {
+        this.lastScrapeMs = System.currentTimeMillis();
+        ServerMetricsSample sample = this.metricsClient.scrape();
+
+        if (sample != null)
+        {
+            testResults.addServerMetrics(sample);
+        }
+    }
+
+    /**
+     * This method logs the change of every server metric between the first and the last sample of the test.
+     */
+    private void logServerMetrics()
+    {
+        List<ServerMetricsSample> samples = testResults.getServerMetrics();
+        if (samples.size() < 2)
+        {
+            return;
+        }
+
+        ServerMetricsSample first = samples.get(0);
+        ServerMetricsSample last = samples.get(samples.size() - 1);
+        log.info("-- server metrics of " + samples.size() + " samples over "
+                + (last.getTimeInNanos() - first.getTimeInNanos()) / 1000000 + " ms (first -> last):");
+        for (Map.Entry<String, Double> entry : last.getValues().entrySet())
+        {
+            log.info("   " + entry.getKey() + ": " + first.getValue(entry.getKey()) + " -> " + entry.getValue());
+        }
+    }
+
     private void sleep(long durationMs)
     {
         try
@@ -56,6 +56,15 @@ public class MultiplexLoadInjector extends LoadInjector
         {
             multiplexClients.simulateSendReceiveServerCommunication(this.getInjectionDurationMillis());
         }
+        else if (Config.MeasuringScenarios.KEEP_ALIVE.equals(Config.MEASURING_TYPE))
+        {
+            multiplexClients.simulateKeepAliveServerCommunication(this.getInjectionDurationMillis());
+        }
+        else if (Config.MeasuringScenarios.COMPUTE.equals(Config.MEASURING_TYPE))
+        {
+            // the clients request Config.COMPUTE_KEY instead of the asset, see SingleClient
+            multiplexClients.simulateReceiveServerCommunication(this.getInjectionDurationMillis());
+        }
         else
         {
             // shut down process
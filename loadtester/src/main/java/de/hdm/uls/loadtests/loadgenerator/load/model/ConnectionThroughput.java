@@ -0,0 +1,38 @@
+package de.hdm.uls.loadtests.loadgenerator.load.model;
+
+/**
+ * This class represents the requests a client sent over a single keep-alive connection, from the connect to the last
+ * response of the connection.
+ */
+public class ConnectionThroughput extends ResponseTime
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    public int requests;
+
+    // ---------------------------------------
+    // CONSTRUCTOR
+    // ---------------------------------------
+
+    public ConnectionThroughput(int requests, long startTimeNs, long stopTimeNs)
+    {
+        super(startTimeNs, stopTimeNs);
+        this.requests = requests;
+    }
+
+    // ---------------------------------------
+    // METHODS
+    // ---------------------------------------
+
+    /**
+     * @return the completed requests per second of the connection, 0 if no time elapsed.
+     */
+    public double getRequestsPerSec()
+    {
+        double durationInSec = this.getResponseTimeInSec();
+
+        return (durationInSec > 0) ? this.requests / durationInSec : 0;
+    }
+}
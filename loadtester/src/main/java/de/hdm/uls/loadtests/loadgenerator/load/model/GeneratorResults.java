@@ -22,6 +22,7 @@ public class GeneratorResults
     private long startTimeInNanos;
     private long stopTimeInNanos;
     private List<InjectorResults> injectorResults = new ArrayList<>();
+    private List<ServerMetricsSample> serverMetrics = new ArrayList<>();
 
     // ---------------------------------------
     // METHODS
@@ -54,6 +55,22 @@ public class GeneratorResults
         return this.injectorResults;
     }
 
+    /**
+     * @param sample A scrape of the metrics endpoint of the server taken during the test.
+     */
+    public void addServerMetrics(ServerMetricsSample sample)
+    {
+        this.serverMetrics.add(sample);
+    }
+
+    /**
+     * @return the scrapes of the metrics endpoint of the server in the order they were taken.
+     */
+    public List<ServerMetricsSample> getServerMetrics()
+    {
+        return this.serverMetrics;
+    }
+
     public int getTotalClients()
     {
         int totalClients = 0;
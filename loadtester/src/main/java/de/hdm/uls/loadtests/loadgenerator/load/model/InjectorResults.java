@@ -22,6 +22,7 @@ public class InjectorResults
     private long stopTimeInNanos = -1;
     private int totalClients = 0;
     private List<ResponseTime> responseTimes = new ArrayList<>();
+    private List<ConnectionThroughput> connectionThroughputs = new ArrayList<>();
 
     // ---------------------------------------
     // METHODS
@@ -78,6 +79,36 @@ public class InjectorResults
         return average;
     }
 
+    /**
+     * @param requests The number of requests completed over a keep-alive connection.
+     * @param startInNs The time the connection was opened.
+     * @param stopInNs The time the last response of the connection was read.
+     */
+    public void addConnectionThroughput(int requests, long startInNs, long stopInNs)
+    {
+        this.connectionThroughputs.add(new ConnectionThroughput(requests, startInNs, stopInNs));
+    }
+
+    /**
+     * @return the mean completed requests per second of the keep-alive connections, 0 without such connections.
+     */
+    public double getAverageRequestsPerConnectionSec()
+    {
+        double average = 0;
+
+        for (ConnectionThroughput throughput : this.connectionThroughputs)
+        {
+            average += throughput.getRequestsPerSec();
+        }
+
+        if (average != 0)
+        {
+            average /= this.connectionThroughputs.size();
+        }
+
+        return average;
+    }
+
     // ---------------------------------------
     // GETTERS / SETTERS
     // ---------------------------------------
@@ -98,4 +129,6 @@ public class InjectorResults
     public long getStopTimeInNanos() { return this.stopTimeInNanos; }
 
     public List<ResponseTime> getResponseTimes() { return this.responseTimes; }
+
+    public List<ConnectionThroughput> getConnectionThroughputs() { return this.connectionThroughputs; }
 }
\ No newline at end of file
@@ -0,0 +1,57 @@
+package de.hdm.uls.loadtests.loadgenerator.load.model;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * This class defines a model of a scrape of the metrics endpoint of the server. The sample keeps the time of the load
+ * tester when it was taken, so the numbers of the server can be put next to the throughput history of the test.
+ */
+public class ServerMetricsSample
+{
+    // ---------------------------------------
+    // PROPERTIES
+    // ---------------------------------------
+
+    private final long                timeInNanos;
+    private final Map<String, Double> values;
+
+    // ---------------------------------------
+    // CONSTRUCTOR
+    // ---------------------------------------
+
+    /**
+     * @param timeInNanos The System.nanoTime() of the load tester when the sample was taken.
+     * @param values The values of the scrape by their names.
+     */
+    public ServerMetricsSample(long timeInNanos, Map<String, Double> values)
+    {
+        this.timeInNanos = timeInNanos;
+        this.values = Collections.unmodifiableMap(values);
+    }
+
+    // ---------------------------------------
+    // METHODS
+    // ---------------------------------------
+
+    public long getTimeInNanos()
+    {
+        return this.timeInNanos;
+    }
+
+    /**
+     * @param name The name of a metric, e.g. uls_connections_active.
+     * @return the value of the metric, or NaN if the server did not report it.
+     */
+    public double getValue(String name)
+    {
+        Double value = this.values.get(name);
+
+        return (value != null) ? value : Double.NaN;
+    }
+
+    public Map<String, Double> getValues()
+    {
+        return this.values;
+    }
+}
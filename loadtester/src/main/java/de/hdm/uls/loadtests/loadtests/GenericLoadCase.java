@@ -91,6 +91,12 @@ public class GenericLoadCase extends TestCase
                         + " - average response time: " + this.decimalFormat.format(avgResponseTimeInMs) + " ms"
                         + " ->  (duration " + this.decimalFormat.format(injectorDurationInSecs) + " sec - "
                         + totalClients + " clients)");
+                if (!injectorResults.getConnectionThroughputs().isEmpty())
+                {
+                    log.info(injectionMethod + " " + i + " - average throughput per connection: "
+                            + this.decimalFormat.format(injectorResults.getAverageRequestsPerConnectionSec())
+                            + " requests/sec (" + injectorResults.getConnectionThroughputs().size() + " connections)");
+                }
             }
             catch (MeasurementException ex)
             {
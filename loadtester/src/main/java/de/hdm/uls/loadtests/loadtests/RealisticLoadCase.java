@@ -123,6 +123,12 @@ public class RealisticLoadCase extends TestCase
                 + df.format(avgResponseTimeInMillis) + " ms (duration "
                 + df.format(injectorDurationInSec) + " sec - "
                 + totalClients + " clients)");
+        if (!result.getConnectionThroughputs().isEmpty())
+        {
+            log.info(injectionMethod + " - average throughput per connection: "
+                    + df.format(result.getAverageRequestsPerConnectionSec()) + " requests/sec ("
+                    + result.getConnectionThroughputs().size() + " connections)");
+        }
     }
 
     private void showThroughputHistory()
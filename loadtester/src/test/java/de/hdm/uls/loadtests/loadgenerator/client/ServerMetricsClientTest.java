@@ -0,0 +1,41 @@
+package de.hdm.uls.loadtests.loadgenerator.client;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * This class is for testing the {@link ServerMetricsClient} implementation.
+ */
+public class ServerMetricsClientTest
+{
+    // ---------------------------------------
+    // TESTS
+    // ---------------------------------------
+
+    @Test
+    public void testParse()
+    {
+        Map<String, Double> values = ServerMetricsClient.parse(
+                "# HELP uls_connections_active Connections accepted and not closed yet.\n"
+                + "# TYPE uls_connections_active gauge\n"
+                + "uls_connections_active 12\n"
+                + "uls_response_service_time_micros{quantile=\"0.99\"} 1535\n"
+                + "invalid sample\n"
+                + "\n");
+
+        assertThat(values.size(), equalTo(2));
+        assertThat(values.get("uls_connections_active"), equalTo(12.0));
+        assertThat(values.get("uls_response_service_time_micros{quantile=\"0.99\"}"), equalTo(1535.0));
+    }
+
+    @Test
+    public void testDisabledClient()
+    {
+        assertThat(new ServerMetricsClient("127.0.0.1", 0).scrape(), nullValue());
+    }
+}
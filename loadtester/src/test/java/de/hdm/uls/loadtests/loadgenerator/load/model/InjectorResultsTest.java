@@ -66,6 +66,17 @@ public class InjectorResultsTest
         assertThat(this.injectorResult.getAverageResponseTimeInMs(), equalTo(1d / 1000000));
     }
 
+    @Test
+    public void testGetAverageRequestsPerConnectionSec()
+    {
+        assertThat(this.injectorResult.getAverageRequestsPerConnectionSec(), equalTo(0.0d));
+
+        // 10 requests in 0.5 sec and 10 requests in 1 sec
+        this.injectorResult.addConnectionThroughput(10, 0, 500000000L);
+        this.injectorResult.addConnectionThroughput(10, 0, 1000000000L);
+        assertThat(this.injectorResult.getAverageRequestsPerConnectionSec(), equalTo(15.0d));
+    }
+
     // ---------------------------------------
     // AFTER
     // ---------------------------------------